@@ -0,0 +1,160 @@
+package com.pps.profilesystem.Controller;
+
+import com.pps.profilesystem.DTO.ConnectivityHistoryDTO;
+import com.pps.profilesystem.Service.ConnectivityHistoryService;
+import com.pps.profilesystem.Service.ConnectivityProbeService;
+import com.pps.profilesystem.Service.ConnectivityRollupService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/connectivity")
+public class ConnectivityController {
+
+    @Autowired
+    private ConnectivityRollupService connectivityRollup;
+
+    @Autowired
+    private ConnectivityProbeService probeService;
+
+    @Autowired
+    private ConnectivityHistoryService historyService;
+
+    // Longest window a history query may cover
+    private static final Duration MAX_HISTORY_WINDOW = Duration.ofDays(400);
+    private static final Duration MAX_SAMPLES_WINDOW = Duration.ofDays(31);
+
+    /**
+     * Active/inactive counts and percentages per area, region and province
+     */
+    @GetMapping("/rollup")
+    public Map<String, Object> getRollup() {
+        return connectivityRollup.getSummary();
+    }
+
+    /**
+     * Recount the rollup from postal_offices (repair after manual database edits).
+     * The summary's generation goes up by one per recount; writes racing this one trigger another.
+     */
+    @PostMapping("/rollup/rebuild")
+    public Map<String, Object> rebuildRollup() {
+        connectivityRollup.rebuild();
+        return connectivityRollup.getSummary();
+    }
+
+    /**
+     * Probe settings, the last sweep's results and when the next sweep is due
+     */
+    @GetMapping("/probe")
+    public Map<String, Object> getProbeStatus() {
+        return probeService.getStatus();
+    }
+
+    /**
+     * Start a probe sweep now instead of waiting for the schedule
+     */
+    @PostMapping("/probe/run")
+    public ResponseEntity<?> runProbe() {
+        if (!probeService.requestSweep()) {
+            return errorResponse("A probe sweep is already running");
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Probe sweep started");
+        return ResponseEntity.accepted().body(response);
+    }
+
+    /**
+     * Uptime of one office per hour or day over [from, to)
+     * @param from ISO-8601 date-time; defaults to 7 days before to
+     * @param to ISO-8601 date-time; defaults to now
+     * @param resolution "hour" or "day"; periods older than the raw/hourly retention come back coarser
+     */
+    @GetMapping("/history/offices/{officeId}")
+    public ResponseEntity<?> getOfficeHistory(@PathVariable int officeId,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+                                              @RequestParam(defaultValue = "hour") String resolution) throws IOException {
+        return history(from, to, resolution, (start, end, bucket) -> historyService.getOfficeHistory(officeId, start, end, bucket));
+    }
+
+    /**
+     * Uptime and offline office-hours of all offices in an area
+     */
+    @GetMapping("/history/areas/{areaId}")
+    public ResponseEntity<?> getAreaHistory(@PathVariable int areaId,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+                                            @RequestParam(defaultValue = "day") String resolution) throws IOException {
+        return history(from, to, resolution, (start, end, bucket) -> historyService.getAreaHistory(areaId, start, end, bucket));
+    }
+
+    /**
+     * Uptime and offline office-hours of all offices in a region
+     */
+    @GetMapping("/history/regions/{regionId}")
+    public ResponseEntity<?> getRegionHistory(@PathVariable int regionId,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+                                              @RequestParam(defaultValue = "day") String resolution) throws IOException {
+        return history(from, to, resolution, (start, end, bucket) -> historyService.getRegionHistory(regionId, start, end, bucket));
+    }
+
+    /**
+     * Individual probe results of one office (recent days only; older ones are downsampled)
+     */
+    @GetMapping("/history/offices/{officeId}/samples")
+    public ResponseEntity<?> getOfficeSamples(@PathVariable int officeId,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to) throws IOException {
+        Instant end = to != null ? to.toInstant() : Instant.now();
+        Instant start = from != null ? from.toInstant() : end.minus(Duration.ofDays(1));
+        if (!start.isBefore(end) || Duration.between(start, end).compareTo(MAX_SAMPLES_WINDOW) > 0) {
+            return errorResponse("from must be before to and at most " + MAX_SAMPLES_WINDOW.toDays() + " days earlier");
+        }
+        return ResponseEntity.ok(historyService.getOfficeSamples(officeId, start, end));
+    }
+
+    private ResponseEntity<?> history(OffsetDateTime from, OffsetDateTime to, String resolution,
+                                      HistoryQuery query) throws IOException {
+        int bucketSeconds;
+        if (resolution.equals("hour")) {
+            bucketSeconds = ConnectivityHistoryService.HOUR;
+        } else if (resolution.equals("day")) {
+            bucketSeconds = ConnectivityHistoryService.DAY;
+        } else {
+            return errorResponse("resolution must be 'hour' or 'day'");
+        }
+        Instant end = to != null ? to.toInstant() : Instant.now();
+        Instant start = from != null ? from.toInstant() : end.minus(Duration.ofDays(7));
+        if (!start.isBefore(end) || Duration.between(start, end).compareTo(MAX_HISTORY_WINDOW) > 0) {
+            return errorResponse("from must be before to and at most " + MAX_HISTORY_WINDOW.toDays() + " days earlier");
+        }
+        return ResponseEntity.ok(query.run(start, end, bucketSeconds));
+    }
+
+    private interface HistoryQuery {
+        ConnectivityHistoryDTO run(Instant from, Instant to, int bucketSeconds) throws IOException;
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+}
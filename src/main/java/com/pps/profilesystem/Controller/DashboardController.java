@@ -1,16 +1,22 @@
 package com.pps.profilesystem.Controller;
 
+import com.pps.profilesystem.DTO.StatusBreakdownDTO;
 import com.pps.profilesystem.Entity.Area;
 import com.pps.profilesystem.Entity.Regions;
 import com.pps.profilesystem.Repository.AreaRepository;
-import com.pps.profilesystem.Repository.PostalOfficeRepository;
 import com.pps.profilesystem.Repository.RegionsRepository;
+import com.pps.profilesystem.Service.ConnectivityRollupService;
+import com.pps.profilesystem.Service.OfficeStatistics;
+import com.pps.profilesystem.Service.OfficeStatisticsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ResponseBody;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Dashboard Controller
@@ -20,7 +26,10 @@ import java.util.List;
 public class DashboardController {
 
     @Autowired
-    private PostalOfficeRepository postalOfficeRepository;
+    private OfficeStatisticsService statisticsService;
+
+    @Autowired
+    private ConnectivityRollupService connectivityRollup;
 
     @Autowired
     private AreaRepository areaRepository;
@@ -36,22 +45,36 @@ public class DashboardController {
     @GetMapping("/dashboard")
     public String showDashboard(Model model) {
 
-        // Get statistics
-        long totalOffices = postalOfficeRepository.count();
-        long activeOffices = postalOfficeRepository.countByConnectionStatus(true);
-        long inactiveOffices = postalOfficeRepository.countByConnectionStatus(false);
+        // Get statistics (cached snapshot, no query on most hits)
+        OfficeStatistics statistics = statisticsService.getStatistics();
+
+        // Connectivity per area and region from the in-memory rollup
+        Map<String, List<StatusBreakdownDTO>> connectivity = new LinkedHashMap<>();
+        connectivity.put("Area", connectivityRollup.getAreaBreakdowns());
+        connectivity.put("Region", connectivityRollup.getRegionBreakdowns());
+        model.addAttribute("connectivity", connectivity);
 
         // Get filter data
         List<Area> areas = areaRepository.findAll();
         List<Regions> regions = regionRepository.findAll();
 
         // Add to model
-        model.addAttribute("totalOffices", totalOffices);
-        model.addAttribute("activeOffices", activeOffices);
-        model.addAttribute("inactiveOffices", inactiveOffices);
+        model.addAttribute("totalOffices", statistics.getTotal());
+        model.addAttribute("activeOffices", statistics.getActive());
+        model.addAttribute("inactiveOffices", statistics.getInactive());
+        model.addAttribute("coverageAreas", statistics.getCoverageAreas());
         model.addAttribute("areas", areas);
         model.addAttribute("regions", regions); // For modal dropdown
         model.addAttribute("activePage", "dashboard");
         return "dashboard";
     }
-}
\ No newline at end of file
+
+    /**
+     * The statistics snapshot, including per-area and per-region active/inactive breakdowns
+     */
+    @GetMapping("/api/statistics")
+    @ResponseBody
+    public OfficeStatistics getStatistics() {
+        return statisticsService.getStatistics();
+    }
+}
@@ -1,26 +1,43 @@
 package com.pps.profilesystem.Controller;
 
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 
+import com.pps.profilesystem.DTO.PostalOfficeTableQuery;
 import com.pps.profilesystem.Entity.Area;
-import com.pps.profilesystem.Entity.PostalOffice;
 import com.pps.profilesystem.Entity.Regions;
 import com.pps.profilesystem.Repository.AreaRepository;
 import com.pps.profilesystem.Repository.RegionsRepository;
-import com.pps.profilesystem.Service.LocationService;
+import com.pps.profilesystem.Service.OfficeStatistics;
+import com.pps.profilesystem.Service.OfficeStatisticsService;
+import com.pps.profilesystem.Service.PostalOfficeExportService;
+import com.pps.profilesystem.Service.PostalOfficeTableService;
 
+import java.io.IOException;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Controller
 @RequestMapping("/table")
 public class DataTableController {
 
     @Autowired
-    private LocationService locationService;
+    private OfficeStatisticsService statisticsService;
+
+    @Autowired
+    private PostalOfficeTableService tableService;
+
+    @Autowired
+    private PostalOfficeExportService exportService;
 
     @Autowired
     private AreaRepository areaRepository;
@@ -28,21 +45,110 @@ public class DataTableController {
     @Autowired
     private RegionsRepository regionRepository;
 
+    /**
+     * Page shell only - rows are loaded page by page from /table/data
+     */
     @GetMapping
     public String viewPostOffices(Model model) {
 
-        List<PostalOffice> offices = locationService.getAllOffices();
         List<Area> areas = areaRepository.findAll();
         List<Regions> regions = regionRepository.findAll();
 
-        model.addAttribute("offices", offices);
-        model.addAttribute("totalCount", locationService.countAll());
-        model.addAttribute("activeCount", locationService.countActive());
-        model.addAttribute("inactiveCount", locationService.countInactive());
-        model.addAttribute("areaCount", locationService.countAreas());
-        model.addAttribute("areas", areas); // For modal dropdown
-        model.addAttribute("regions", regions); // For modal dropdown
+        OfficeStatistics statistics = statisticsService.getStatistics();
+        model.addAttribute("totalCount", statistics.getTotal());
+        model.addAttribute("activeCount", statistics.getActive());
+        model.addAttribute("inactiveCount", statistics.getInactive());
+        model.addAttribute("areaCount", statistics.getCoverageAreas());
+        model.addAttribute("areas", areas); // For filters and modal dropdown
+        model.addAttribute("regions", regions); // For filters and modal dropdown
         model.addAttribute("activePage", "table");
         return "table"; // <-- table.html
     }
-}
\ No newline at end of file
+
+    /**
+     * One page of offices, filtered and sorted on the server.
+     * @param sort "id" or "name"
+     * @param dir "asc" or "desc"
+     * @param q name prefix
+     * @param cursor nextCursor from the previous page; omit for the first page
+     */
+    @GetMapping("/data")
+    @ResponseBody
+    public ResponseEntity<?> getPage(@RequestParam(required = false) Integer areaId,
+                                     @RequestParam(required = false) Integer regionId,
+                                     @RequestParam(required = false) Integer provinceId,
+                                     @RequestParam(required = false) Boolean status,
+                                     @RequestParam(required = false) String q,
+                                     @RequestParam(defaultValue = "id") String sort,
+                                     @RequestParam(defaultValue = "asc") String dir,
+                                     @RequestParam(defaultValue = "" + PostalOfficeTableService.DEFAULT_PAGE_SIZE) int size,
+                                     @RequestParam(required = false) String cursor) {
+        if (!sort.equals("id") && !sort.equals("name")) {
+            return errorResponse("sort must be 'id' or 'name'");
+        }
+        if (!dir.equals("asc") && !dir.equals("desc")) {
+            return errorResponse("dir must be 'asc' or 'desc'");
+        }
+        if (size < 1 || size > PostalOfficeTableService.MAX_PAGE_SIZE) {
+            return errorResponse("size must be between 1 and " + PostalOfficeTableService.MAX_PAGE_SIZE);
+        }
+
+        PostalOfficeTableQuery query = new PostalOfficeTableQuery();
+        query.setAreaId(areaId);
+        query.setRegionId(regionId);
+        query.setProvinceId(provinceId);
+        query.setStatus(status);
+        query.setNamePrefix(q != null ? q.trim() : null);
+        query.setSortByName(sort.equals("name"));
+        query.setDescending(dir.equals("desc"));
+        query.setLimit(size);
+
+        try {
+            return ResponseEntity.ok(tableService.getPage(query, cursor));
+        } catch (IllegalArgumentException e) {
+            return errorResponse(e.getMessage());
+        }
+    }
+
+    /**
+     * Download every office matching the filters in the import sheet layout, streamed as it is read
+     * @param format "xlsx" or "csv"
+     */
+    @GetMapping("/export")
+    public ResponseEntity<?> export(@RequestParam(required = false) Integer areaId,
+                                    @RequestParam(required = false) Integer regionId,
+                                    @RequestParam(required = false) Integer provinceId,
+                                    @RequestParam(required = false) Boolean status,
+                                    @RequestParam(required = false) String q,
+                                    @RequestParam(defaultValue = "xlsx") String format,
+                                    HttpServletResponse response) throws IOException {
+        if (!format.equals("xlsx") && !format.equals("csv")) {
+            return errorResponse("format must be 'xlsx' or 'csv'");
+        }
+
+        PostalOfficeTableQuery query = new PostalOfficeTableQuery();
+        query.setAreaId(areaId);
+        query.setRegionId(regionId);
+        query.setProvinceId(provinceId);
+        query.setStatus(status);
+        query.setNamePrefix(q != null ? q.trim() : null);
+
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"postal-offices." + format + "\"");
+        if (format.equals("csv")) {
+            response.setContentType("text/csv; charset=UTF-8");
+            exportService.writeCsv(query, response.getOutputStream());
+        } else {
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            exportService.writeXlsx(query, response.getOutputStream());
+        }
+        // The body has already been written
+        return null;
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+}
@@ -0,0 +1,171 @@
+package com.pps.profilesystem.Controller;
+
+import com.pps.profilesystem.DTO.IspSummaryDTO;
+import com.pps.profilesystem.DTO.IspUptimeDTO;
+import com.pps.profilesystem.Entity.InternetServiceProvider;
+import com.pps.profilesystem.Repository.ISPRepository;
+import com.pps.profilesystem.Repository.PostalOfficeRepository;
+import com.pps.profilesystem.Service.IspAnalyticsService;
+import com.pps.profilesystem.Service.PostalOfficesChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/isps")
+public class IspController {
+
+    // Offices assigned per UPDATE, keeps the IN list a reasonable size
+    private static final int ASSIGN_BATCH_SIZE = 1000;
+    private static final Duration MAX_WINDOW = Duration.ofDays(400);
+
+    @Autowired
+    private ISPRepository ispRepository;
+
+    @Autowired
+    private PostalOfficeRepository postalOfficeRepository;
+
+    @Autowired
+    private IspAnalyticsService ispAnalyticsService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * All ISPs with the number of offices each connects
+     */
+    @GetMapping
+    public List<IspSummaryDTO> getIsps() {
+        return ispRepository.findAllWithOfficeCounts();
+    }
+
+    /**
+     * Add an ISP
+     */
+    @PostMapping
+    public ResponseEntity<?> createIsp(@RequestBody IspDTO dto) {
+        if (dto.getName() == null || dto.getName().isBlank()) {
+            return errorResponse("ISP name is required");
+        }
+        InternetServiceProvider isp = new InternetServiceProvider();
+        isp.setName(dto.getName().trim());
+        isp = ispRepository.save(isp);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "ISP added successfully");
+        response.put("id", isp.getId());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Set the ISP of the given offices (replacing any previous one)
+     */
+    @PutMapping("/{ispId}/offices")
+    public ResponseEntity<?> assignOffices(@PathVariable int ispId, @RequestBody List<Integer> officeIds) {
+        Optional<InternetServiceProvider> isp = ispRepository.findById(ispId);
+        if (isp.isEmpty()) {
+            return errorResponse("ISP not found: " + ispId);
+        }
+        return assign(isp.get(), officeIds);
+    }
+
+    /**
+     * Clear the ISP of the given offices
+     */
+    @DeleteMapping("/offices")
+    public ResponseEntity<?> unassignOffices(@RequestBody List<Integer> officeIds) {
+        return assign(null, officeIds);
+    }
+
+    /**
+     * Uptime %, outages and mean time to recovery per ISP over [from, to)
+     * @param from ISO-8601 date-time; defaults to 30 days before to
+     * @param to ISO-8601 date-time; defaults to now
+     * @param groupBy "area" or "region" to break each ISP down further; omit for totals only
+     */
+    @GetMapping("/uptime")
+    public ResponseEntity<?> getUptime(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime from,
+                                       @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) OffsetDateTime to,
+                                       @RequestParam(required = false) Integer areaId,
+                                       @RequestParam(required = false) Integer regionId,
+                                       @RequestParam(defaultValue = "none") String groupBy) throws IOException {
+        IspAnalyticsService.GroupBy grouping;
+        try {
+            grouping = IspAnalyticsService.GroupBy.valueOf(groupBy.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return errorResponse("groupBy must be 'none', 'area' or 'region'");
+        }
+        Instant end = to != null ? to.toInstant() : Instant.now();
+        Instant start = from != null ? from.toInstant() : end.minus(Duration.ofDays(30));
+        if (!start.isBefore(end) || Duration.between(start, end).compareTo(MAX_WINDOW) > 0) {
+            return errorResponse("from must be before to and at most " + MAX_WINDOW.toDays() + " days earlier");
+        }
+
+        long startedAt = System.nanoTime();
+        List<IspUptimeDTO> isps = ispAnalyticsService.getUptime(start, end, areaId, regionId, grouping);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("from", start);
+        response.put("to", end);
+        response.put("groupBy", grouping.name().toLowerCase(Locale.ROOT));
+        response.put("isps", isps);
+        response.put("computeMillis", (System.nanoTime() - startedAt) / 1_000_000);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<?> assign(InternetServiceProvider isp, List<Integer> officeIds) {
+        if (officeIds == null || officeIds.isEmpty()) {
+            return errorResponse("No office ids given");
+        }
+        int updated = 0;
+        for (int from = 0; from < officeIds.size(); from += ASSIGN_BATCH_SIZE) {
+            updated += postalOfficeRepository.assignIsp(isp,
+                    officeIds.subList(from, Math.min(from + ASSIGN_BATCH_SIZE, officeIds.size())));
+        }
+        eventPublisher.publishEvent(PostalOfficesChangedEvent.of(officeIds));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", updated + " offices updated");
+        response.put("updated", updated);
+        return ResponseEntity.ok(response);
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+
+    /**
+     * DTO for ISP creation
+     */
+    public static class IspDTO {
+        private String name;
+
+        public String getName() { return name; }
+        public void setName(String name) { this.name = name; }
+    }
+}
@@ -1,9 +1,16 @@
 package com.pps.profilesystem.Controller;
 
-import com.pps.profilesystem.Repository.PostalOfficeRepository;
+import com.pps.profilesystem.DTO.MapViewportDTO;
+import com.pps.profilesystem.DTO.NearbyPostalOfficeDTO;
+import com.pps.profilesystem.Service.LocationService;
+import com.pps.profilesystem.Service.OfficeSpatialIndexService;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -12,25 +19,93 @@ import java.util.Map;
 @RequestMapping("/api")
 public class MapController {
 
+    private static final int MAX_NEAREST = 100;
+    private static final int MAX_RADIUS_KM = 500;
+    private static final int MAX_ZOOM = 22;
+
+    @Autowired
+    private LocationService locationService;
+
     @Autowired
-    private PostalOfficeRepository postalOfficeRepository;
-
-    @GetMapping("/post-offices")
-    public List<Map<String, Object>> getPostOffices() {
-        return postalOfficeRepository.findAll()
-            .stream()
-            .filter(po -> po.getLatitude() != null && po.getLongitude() != null)
-            .map(po -> {
-                Map<String, Object> m = new HashMap<>();
-                m.put("id", po.getId());
-                m.put("name", po.getName());
-                m.put("lat", po.getLatitude());
-                m.put("lng", po.getLongitude());
-                m.put("status", po.getConnectionStatus());
-                m.put("areaId", po.getArea().getId());
-                return m;
-            })
-            .toList();
+    private OfficeSpatialIndexService spatialIndexService;
+
+    /**
+     * All offices with coordinates as {id, name, lat, lng, status, areaId}, written from the in-memory read model
+     */
+    @GetMapping(value = "/post-offices", produces = MediaType.APPLICATION_JSON_VALUE)
+    public void getPostOffices(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        locationService.writeMapPoints(response.getOutputStream());
+    }
+
+    /**
+     * Offices inside the map viewport: raw points when zoomed in, clusters with
+     * active/inactive counts when zoomed out
+     */
+    @GetMapping("/post-offices/viewport")
+    public ResponseEntity<?> getViewport(@RequestParam double south,
+                                         @RequestParam double west,
+                                         @RequestParam double north,
+                                         @RequestParam double east,
+                                         @RequestParam int zoom,
+                                         @RequestParam(required = false) Integer areaId,
+                                         @RequestParam(required = false) Boolean status) {
+        if (!validCoordinates(south, west) || !validCoordinates(north, east)) {
+            return errorResponse("south and north must be between -90 and 90, west and east between -180 and 180");
+        }
+        if (south > north || west > east) {
+            return errorResponse("south must not exceed north and west must not exceed east");
+        }
+        if (zoom < 0 || zoom > MAX_ZOOM) {
+            return errorResponse("zoom must be between 0 and " + MAX_ZOOM);
+        }
+        MapViewportDTO viewport = spatialIndexService.getViewport(south, west, north, east, zoom, areaId, status);
+        return ResponseEntity.ok(viewport);
+    }
+
+    /**
+     * The k offices closest to a point, nearest first, each with its distance in km
+     */
+    @GetMapping("/post-offices/nearest")
+    public ResponseEntity<?> getNearest(@RequestParam double lat,
+                                        @RequestParam double lng,
+                                        @RequestParam(defaultValue = "10") int k) {
+        if (!validCoordinates(lat, lng)) {
+            return errorResponse("lat must be between -90 and 90 and lng between -180 and 180");
+        }
+        if (k < 1 || k > MAX_NEAREST) {
+            return errorResponse("k must be between 1 and " + MAX_NEAREST);
+        }
+        List<NearbyPostalOfficeDTO> offices = spatialIndexService.findNearest(lat, lng, k);
+        return ResponseEntity.ok(offices);
+    }
+
+    /**
+     * Offices within radius km of a point, nearest first
+     */
+    @GetMapping("/post-offices/within")
+    public ResponseEntity<?> getWithin(@RequestParam double lat,
+                                       @RequestParam double lng,
+                                       @RequestParam double radius) {
+        if (!validCoordinates(lat, lng)) {
+            return errorResponse("lat must be between -90 and 90 and lng between -180 and 180");
+        }
+        if (!(radius > 0 && radius <= MAX_RADIUS_KM)) {
+            return errorResponse("radius must be greater than 0 and at most " + MAX_RADIUS_KM + " km");
+        }
+        List<NearbyPostalOfficeDTO> offices = spatialIndexService.findWithin(lat, lng, radius);
+        return ResponseEntity.ok(offices);
+    }
+
+    private static boolean validCoordinates(double lat, double lng) {
+        return lat >= -90 && lat <= 90 && lng >= -180 && lng <= 180;
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        return ResponseEntity.badRequest().body(errorResponse);
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,63 @@
+package com.pps.profilesystem.Controller;
+
+import com.pps.profilesystem.Service.OfficeBitmapIndex;
+import com.pps.profilesystem.Service.OfficeFilterService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/post-offices")
+public class OfficeFilterController {
+
+    private static final int MAX_LIMIT = 10_000;
+    private static final int MAX_QUERY_LENGTH = 1000;
+
+    @Autowired
+    private OfficeFilterService officeFilterService;
+
+    /**
+     * Offices matching a filter expression and how many there are, e.g.
+     * /api/post-offices/filter?q=status:inactive AND region:7 AND NOT coords:yes&countBy=area
+     * @param countBy area, region, province, city, isp, status or coords; omit for no breakdown
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<?> filter(@RequestParam String q,
+                                    @RequestParam(defaultValue = "100") int limit,
+                                    @RequestParam(required = false) String countBy) {
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            return errorResponse("q must be 1 to " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (limit < 0 || limit > MAX_LIMIT) {
+            return errorResponse("limit must be between 0 and " + MAX_LIMIT);
+        }
+        OfficeBitmapIndex.Dimension dimension = null;
+        if (countBy != null) {
+            String name = countBy.toUpperCase(Locale.ROOT);
+            try {
+                dimension = OfficeBitmapIndex.Dimension.valueOf(name.equals("COORDS") ? "COORDINATES" : name);
+            } catch (IllegalArgumentException e) {
+                return errorResponse("Unknown countBy '" + countBy + "'");
+            }
+        }
+        try {
+            return ResponseEntity.ok(officeFilterService.filter(q, limit, dimension));
+        } catch (IllegalArgumentException e) {
+            return errorResponse(e.getMessage());
+        }
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+}
@@ -0,0 +1,52 @@
+package com.pps.profilesystem.Controller;
+
+import com.pps.profilesystem.DTO.OfficeSearchPageDTO;
+import com.pps.profilesystem.Service.OfficeSearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/post-offices")
+public class OfficeSearchController {
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_QUERY_LENGTH = 200;
+
+    @Autowired
+    private OfficeSearchService officeSearchService;
+
+    /**
+     * Typeahead search over office name, postmaster, address and ZIP,
+     * e.g. /api/post-offices/search?q=sta cruz&page=0&size=10
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> search(@RequestParam String q,
+                                    @RequestParam(defaultValue = "0") int page,
+                                    @RequestParam(defaultValue = "20") int size) {
+        if (q.isBlank() || q.length() > MAX_QUERY_LENGTH) {
+            return errorResponse("q must be 1 to " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (page < 0) {
+            return errorResponse("page must not be negative");
+        }
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            return errorResponse("size must be between 1 and " + MAX_PAGE_SIZE);
+        }
+        OfficeSearchPageDTO results = officeSearchService.search(q, page, size);
+        return ResponseEntity.ok(results);
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+}
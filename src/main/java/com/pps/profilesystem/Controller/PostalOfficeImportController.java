@@ -1,56 +1,162 @@
 package com.pps.profilesystem.Controller;
 
-import com.pps.profilesystem.Service.PostalOfficeImportService;
+import com.pps.profilesystem.Service.ImportJob;
+import com.pps.profilesystem.Service.ImportJobService;
+import com.pps.profilesystem.Service.ImportReport;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
-import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.web.servlet.mvc.support.RedirectAttributes;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
 
 @Controller
 @RequestMapping("/postal-offices")
 public class PostalOfficeImportController {
-    
+
     @Autowired
-    private PostalOfficeImportService importService;
-    
+    private ImportJobService importJobService;
+
     @GetMapping("/import")
     public String showImportPage() {
         return "postal-office-import";
     }
-    
+
+    /**
+     * Start a background import and return its job id right away
+     * @param mode "insert" (every row is a new office) or "upsert" (update matching offices, skip unchanged ones)
+     */
     @PostMapping("/import")
-    public String importPostalOffices(
-            @RequestParam("file") MultipartFile file,
-            RedirectAttributes redirectAttributes) {
-        
+    @ResponseBody
+    public ResponseEntity<?> importPostalOffices(@RequestParam("file") MultipartFile file,
+                                                 @RequestParam(value = "mode", defaultValue = "insert") String mode) {
+
+        // Validate file
+        if (file.isEmpty()) {
+            return errorResponse("Please select a file to upload");
+        }
+
+        // Validate file type
+        String filename = file.getOriginalFilename();
+        if (filename == null || !filename.endsWith(".xlsx")) {
+            return errorResponse("Please upload a valid Excel file (.xlsx)");
+        }
+
+        ImportJob.Mode importMode;
+        if ("insert".equalsIgnoreCase(mode)) {
+            importMode = ImportJob.Mode.INSERT;
+        } else if ("upsert".equalsIgnoreCase(mode)) {
+            importMode = ImportJob.Mode.UPSERT;
+        } else {
+            return errorResponse("mode must be insert or upsert");
+        }
+
         try {
-            // Validate file
-            if (file.isEmpty()) {
-                redirectAttributes.addFlashAttribute("error", "Please select a file to upload");
-                return "redirect:/postal-offices/import";
-            }
-            
-            // Validate file type
-            String filename = file.getOriginalFilename();
-            if (filename == null || (!filename.endsWith(".xlsx") && !filename.endsWith(".xls"))) {
-                redirectAttributes.addFlashAttribute("error", "Please upload a valid Excel file (.xlsx or .xls)");
-                return "redirect:/postal-offices/import";
-            }
-            
-            // Import
-            importService.importPostalOffices(file);
-            
-            redirectAttributes.addFlashAttribute("success", "Postal offices imported successfully!");
-            return "redirect:/postal-offices/import";
-            
+            ImportJob job = importJobService.submit(file, importMode);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", true);
+            response.put("jobId", job.getId());
+            return ResponseEntity.accepted().body(response);
+
         } catch (Exception e) {
-            redirectAttributes.addFlashAttribute("error", "Import failed: " + e.getMessage());
-            return "redirect:/postal-offices/import";
+            return errorResponse("Import failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Progress of an import job (polled by the import page)
+     */
+    @GetMapping("/import/{jobId}")
+    @ResponseBody
+    public ResponseEntity<ImportJob> getImportStatus(@PathVariable String jobId) {
+        return importJobService.getJob(jobId)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Cancel a running import job
+     */
+    @PostMapping("/import/{jobId}/cancel")
+    @ResponseBody
+    public ResponseEntity<?> cancelImport(@PathVariable String jobId) {
+        if (!importJobService.cancel(jobId)) {
+            return errorResponse("Import job not found or already finished");
+        }
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("message", "Cancel requested");
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Issue counts per category plus the first rows of each category
+     */
+    @GetMapping("/import/{jobId}/report")
+    @ResponseBody
+    public ResponseEntity<?> getImportReport(@PathVariable String jobId) {
+        Optional<ImportJob> job = importJobService.getJob(jobId);
+        if (job.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
+        ImportReport report = job.get().report();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("warningCount", report.getWarningCount());
+        response.put("errorCount", report.getErrorCount());
+        response.put("counts", report.getCounts());
+        response.put("samples", report.getSamples());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Every warning and error of a finished run, one annotated row each
+     */
+    @GetMapping("/import/{jobId}/report.csv")
+    public ResponseEntity<Resource> downloadImportReportCsv(@PathVariable String jobId) {
+        return importJobService.getReportFile(jobId)
+            .map(file -> ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-report-" + jobId + ".csv\"")
+                .contentType(MediaType.parseMediaType("text/csv; charset=UTF-8"))
+                .<Resource>body(new FileSystemResource(file)))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * The same report as a workbook, converted from the CSV while it is sent
+     */
+    @GetMapping("/import/{jobId}/report.xlsx")
+    public void downloadImportReportXlsx(@PathVariable String jobId, HttpServletResponse response) throws IOException {
+        Optional<Path> file = importJobService.getReportFile(jobId);
+        if (file.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"import-report-" + jobId + ".xlsx\"");
+        ImportReport.toXlsx(file.get(), response.getOutputStream());
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        return ResponseEntity.badRequest().body(errorResponse);
     }
-}
\ No newline at end of file
+}
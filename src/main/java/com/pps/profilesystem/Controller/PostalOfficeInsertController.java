@@ -1,8 +1,17 @@
 package com.pps.profilesystem.Controller;
 
+import com.pps.profilesystem.DTO.LocationOptionDTO;
 import com.pps.profilesystem.Entity.*;
 import com.pps.profilesystem.Repository.*;
+import com.pps.profilesystem.Service.ConnectivityRollupService;
+import com.pps.profilesystem.Service.LocationHierarchy;
+import com.pps.profilesystem.Service.LocationHierarchyService;
+import com.pps.profilesystem.Service.LocationLookupCache;
+import com.pps.profilesystem.Service.PostalOfficesChangedEvent;
+import com.pps.profilesystem.Service.ZipIndex;
+import com.pps.profilesystem.Service.ZipResolutionService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,39 +30,62 @@ public class PostalOfficeInsertController {
     private AreaRepository areaRepository;
 
     @Autowired
-    private RegionsRepository regionRepository;
+    private ISPRepository ispRepository;
 
     @Autowired
-    private ProvinceRepository provinceRepository;
+    private LocationHierarchyService locationHierarchyService;
 
     @Autowired
-    private CityMunicipalityRepository cityMunicipalityRepository;
+    private LocationLookupCache locationLookupCache;
 
     @Autowired
-    private BarangayRepository barangayRepository;
+    private ZipResolutionService zipResolutionService;
+
+    @Autowired
+    private ConnectivityRollupService connectivityRollup;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
 
     /**
      * Get provinces by region ID (cascading dropdown)
      */
     @GetMapping("/provinces/by-region/{regionId}")
-    public List<Province> getProvincesByRegion(@PathVariable Integer regionId) {
-        return provinceRepository.findByRegionId(regionId);
+    public List<LocationOptionDTO> getProvincesByRegion(@PathVariable int regionId) {
+        return locationLookupCache.getProvincesByRegion(regionId);
     }
 
     /**
      * Get cities/municipalities by province ID (cascading dropdown)
      */
     @GetMapping("/cities/by-province/{provinceId}")
-    public List<CityMunicipality> getCitiesByProvince(@PathVariable Integer provinceId) {
-        return cityMunicipalityRepository.findByProvinceId(provinceId);
+    public List<LocationOptionDTO> getCitiesByProvince(@PathVariable int provinceId) {
+        return locationLookupCache.getCitiesByProvince(provinceId);
     }
 
     /**
      * Get barangays by city/municipality ID (cascading dropdown)
      */
     @GetMapping("/barangays/by-city/{cityId}")
-    public List<Barangay> getBarangaysByCity(@PathVariable Integer cityId) {
-        return barangayRepository.findByCityMunicipalityId(cityId);
+    public List<LocationOptionDTO> getBarangaysByCity(@PathVariable int cityId) {
+        return locationLookupCache.getBarangaysByCity(cityId);
+    }
+
+    /**
+     * Dropdown cache hit/miss counters
+     */
+    @GetMapping("/locations/cache")
+    public Map<String, Object> getLocationCacheStats() {
+        return locationLookupCache.getStats();
+    }
+
+    /**
+     * Reload the dropdown cache after reference geography was edited
+     */
+    @PostMapping("/locations/cache/refresh")
+    public Map<String, Object> refreshLocationCache() {
+        locationLookupCache.refresh();
+        return locationLookupCache.getStats();
     }
 
     /**
@@ -76,24 +108,26 @@ public class PostalOfficeInsertController {
                     .ifPresent(office::setArea);
             }
             
-            if (dto.getRegionId() != null) {
-                regionRepository.findById(dto.getRegionId())
-                    .ifPresent(office::setRegion);
-            }
-            
-            if (dto.getProvinceId() != null) {
-                provinceRepository.findById(dto.getProvinceId())
-                    .ifPresent(office::setProvince);
-            }
+            // Region down to barangay come from the in-memory hierarchy snapshot (null if unknown)
+            LocationHierarchy hierarchy = locationHierarchyService.getHierarchy();
+            office.setRegion(hierarchy.getRegion(dto.getRegionId()));
+            office.setProvince(hierarchy.getProvince(dto.getProvinceId()));
+            office.setCityMunicipality(hierarchy.getCity(dto.getCityMunId()));
+            office.setBarangay(hierarchy.getBarangay(dto.getBarangayId()));
             
-            if (dto.getCityMunId() != null) {
-                cityMunicipalityRepository.findById(dto.getCityMunId())
-                    .ifPresent(office::setCityMunicipality);
-            }
-            
-            if (dto.getBarangayId() != null) {
-                barangayRepository.findById(dto.getBarangayId())
-                    .ifPresent(office::setBarangay);
+            // Levels left blank in the form are filled in from the ZIP code when it identifies them
+            ZipIndex.ZipLocation zipLocation = zipResolutionService.resolve(dto.getZipCode());
+            if (zipLocation != null && office.getBarangay() == null) {
+                if (office.getRegion() == null) office.setRegion(zipLocation.getRegion());
+                if (office.getProvince() == null) office.setProvince(zipLocation.getProvince());
+                if (office.getCityMunicipality() == null) office.setCityMunicipality(zipLocation.getCity());
+                // Only take the barangay if it belongs to the city that ended up on the office
+                Barangay zipBarangay = zipLocation.getBarangay();
+                if (zipBarangay != null && office.getCityMunicipality() != null
+                        && zipBarangay.getCityMunicipality() != null
+                        && office.getCityMunicipality().getId().equals(zipBarangay.getCityMunicipality().getId())) {
+                    office.setBarangay(hierarchy.getBarangay(zipBarangay.getId()));
+                }
             }
             
             // Coordinates
@@ -102,9 +136,16 @@ public class PostalOfficeInsertController {
             
             // Connection status
             office.setConnectionStatus(dto.getConnectionStatus() != null ? dto.getConnectionStatus() : false);
+            if (dto.getIspId() != null) {
+                ispRepository.findById(dto.getIspId())
+                    .ifPresent(office::setIsp);
+            }
             
             // Save to database
+            long rollupGeneration = connectivityRollup.generation();
             PostalOffice savedOffice = postalOfficeRepository.save(office);
+            connectivityRollup.officesAdded(List.of(savedOffice), rollupGeneration);
+            eventPublisher.publishEvent(PostalOfficesChangedEvent.of(savedOffice.getId()));
             
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
@@ -137,6 +178,7 @@ public class PostalOfficeInsertController {
         private Double latitude;
         private Double longitude;
         private Boolean connectionStatus;
+        private Integer ispId;
 
         // Getters and Setters
         public String getName() { return name; }
@@ -174,5 +216,8 @@ public class PostalOfficeInsertController {
 
         public Boolean getConnectionStatus() { return connectionStatus; }
         public void setConnectionStatus(Boolean connectionStatus) { this.connectionStatus = connectionStatus; }
+
+        public Integer getIspId() { return ispId; }
+        public void setIspId(Integer ispId) { this.ispId = ispId; }
     }
 }
\ No newline at end of file
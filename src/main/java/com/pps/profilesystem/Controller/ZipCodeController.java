@@ -0,0 +1,96 @@
+package com.pps.profilesystem.Controller;
+
+import com.pps.profilesystem.DTO.ZipCandidateDTO;
+import com.pps.profilesystem.DTO.ZipCodeLookupDTO;
+import com.pps.profilesystem.DTO.ZipLookupResultDTO;
+import com.pps.profilesystem.Service.ZipIndex;
+import com.pps.profilesystem.Service.ZipResolutionService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/zip")
+public class ZipCodeController {
+
+    private static final int MAX_BATCH_SIZE = 10000;
+
+    @Autowired
+    private ZipResolutionService zipResolutionService;
+
+    /**
+     * ZIP code(s) of one address, e.g. /api/zip/lookup?province=Metro Manila&city=Manila&barangay=Ermita
+     */
+    @GetMapping("/lookup")
+    public ZipLookupResultDTO lookup(@RequestParam(required = false) String province,
+                                     @RequestParam(required = false) String city,
+                                     @RequestParam(required = false) String barangay) {
+        ZipCodeLookupDTO address = new ZipCodeLookupDTO();
+        address.setProvince(province);
+        address.setCity(city);
+        address.setBarangay(barangay);
+        return zipResolutionService.lookup(address);
+    }
+
+    @PostMapping("/lookup")
+    public ZipLookupResultDTO lookup(@RequestBody ZipCodeLookupDTO address) {
+        return zipResolutionService.lookup(address);
+    }
+
+    /**
+     * ZIP codes for many addresses at once; one result per address, in request order
+     */
+    @PostMapping("/lookup/batch")
+    public ResponseEntity<?> lookupBatch(@RequestBody List<ZipCodeLookupDTO> addresses) {
+        if (addresses.size() > MAX_BATCH_SIZE) {
+            return errorResponse("At most " + MAX_BATCH_SIZE + " addresses per request");
+        }
+        return ResponseEntity.ok(zipResolutionService.lookupAll(addresses));
+    }
+
+    /**
+     * Every barangay/city/province the ZIP is assigned to, with hierarchy ids where matched
+     */
+    @GetMapping("/{zip}")
+    public ResponseEntity<?> getZip(@PathVariable String zip) {
+        if (ZipIndex.parseZip(zip) < 0) {
+            return errorResponse("ZIP code must be a 4-digit number");
+        }
+        List<ZipCandidateDTO> candidates = zipResolutionService.getCandidates(zip);
+        if (candidates.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(candidates);
+    }
+
+    /**
+     * Reload the ZIP index after the zipcode table changed. Edits to the reference geography go
+     * through /api/locations/cache/refresh instead, which the ZIP index follows on its own.
+     */
+    @PostMapping("/refresh")
+    public Map<String, Object> refresh() {
+        ZipIndex index = zipResolutionService.refresh();
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("entries", index.getEntryCount());
+        response.put("zipCodes", index.getZipCount());
+        return response;
+    }
+
+    private ResponseEntity<Map<String, Object>> errorResponse(String message) {
+        Map<String, Object> errorResponse = new HashMap<>();
+        errorResponse.put("success", false);
+        errorResponse.put("message", message);
+        return ResponseEntity.badRequest().body(errorResponse);
+    }
+}
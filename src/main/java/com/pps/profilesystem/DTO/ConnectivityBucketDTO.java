@@ -0,0 +1,19 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Connectivity samples of one time bucket, summed over the offices in scope
+ */
+@Data
+@AllArgsConstructor
+public class ConnectivityBucketDTO {
+    private Instant start;
+    private int seconds;
+    private long samples;
+    private long upSamples;
+    private double uptimePercent;
+}
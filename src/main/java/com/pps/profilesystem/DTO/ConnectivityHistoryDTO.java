@@ -0,0 +1,24 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Connectivity history of an office, area or region over [from, to).
+ * offlineHours is office-hours: two offices down for one hour count as two.
+ */
+@Data
+@AllArgsConstructor
+public class ConnectivityHistoryDTO {
+    private String scope;
+    private Integer id;
+    private Instant from;
+    private Instant to;
+    private int offices;
+    private double uptimePercent;
+    private double offlineHours;
+    private List<ConnectivityBucketDTO> buckets;
+}
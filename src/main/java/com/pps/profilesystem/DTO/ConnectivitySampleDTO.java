@@ -0,0 +1,16 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * One stored probe result of an office
+ */
+@Data
+@AllArgsConstructor
+public class ConnectivitySampleDTO {
+    private Instant time;
+    private boolean up;
+}
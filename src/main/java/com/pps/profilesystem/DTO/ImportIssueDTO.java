@@ -0,0 +1,17 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One warning or error raised while importing a spreadsheet row, with the row as it was read
+ */
+@Data
+@AllArgsConstructor
+public class ImportIssueDTO {
+    private int rowNumber;
+    private String severity;
+    private String category;
+    private String message;
+    private PostalOfficeImportDTO row;
+}
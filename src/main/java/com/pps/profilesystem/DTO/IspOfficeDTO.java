@@ -0,0 +1,16 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One office of PostalOfficeRepository.findIspOffices()
+ */
+@Data
+@AllArgsConstructor
+public class IspOfficeDTO {
+    private Integer officeId;
+    private Integer ispId;
+    private Integer areaId;
+    private Integer regionId;
+}
@@ -0,0 +1,15 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * An ISP and how many offices it connects
+ */
+@Data
+@AllArgsConstructor
+public class IspSummaryDTO {
+    private Integer id;
+    private String name;
+    private long offices;
+}
@@ -0,0 +1,23 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Uptime, outages and mean time to recovery of one ISP's offices over a window
+ */
+@Data
+@AllArgsConstructor
+public class IspUptimeDTO {
+    private Integer ispId;
+    private String ispName;
+    private int offices;
+    private long samples;
+    private double uptimePercent;
+    private double downtimeHours;      // summed over offices
+    private long outages;
+    private Double mttrMinutes;        // mean outage length; null without outages
+    private List<IspUptimeGroupDTO> groups;   // per area or region, null if not grouped
+}
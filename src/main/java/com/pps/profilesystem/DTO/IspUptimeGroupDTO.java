@@ -0,0 +1,20 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Uptime of one ISP's offices within one area or region
+ */
+@Data
+@AllArgsConstructor
+public class IspUptimeGroupDTO {
+    private Integer id;                // null for offices without an area / region
+    private String name;
+    private int offices;
+    private long samples;
+    private double uptimePercent;
+    private double downtimeHours;      // summed over offices
+    private long outages;
+    private Double mttrMinutes;        // mean outage length; null without outages
+}
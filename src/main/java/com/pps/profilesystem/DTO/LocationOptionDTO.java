@@ -0,0 +1,22 @@
+package com.pps.profilesystem.DTO;
+
+/**
+ * Slim {id, name} pair for cascading location dropdowns
+ */
+public class LocationOptionDTO {
+    private final int id;
+    private final String name;
+
+    public LocationOptionDTO(int id, String name) {
+        this.id = id;
+        this.name = name;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+}
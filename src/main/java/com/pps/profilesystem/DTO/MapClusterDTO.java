@@ -0,0 +1,17 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Group of nearby offices shown as one marker when the map is zoomed out
+ */
+@Data
+@AllArgsConstructor
+public class MapClusterDTO {
+    private double lat;       // centroid of the offices in the cluster
+    private double lng;
+    private int count;
+    private int active;
+    private int inactive;
+}
@@ -0,0 +1,16 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Response of the viewport map API: either raw points or server-side clusters
+ */
+@Data
+public class MapViewportDTO {
+    private String mode;                          // "points" or "clusters"
+    private int total;                            // offices inside the viewport
+    private List<PostalOfficeMapPointDTO> points;  // set when mode = points
+    private List<MapClusterDTO> clusters;         // set when mode = clusters
+}
@@ -0,0 +1,19 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Office returned by the nearest / within-radius searches, with its distance from the query point
+ */
+@Data
+@AllArgsConstructor
+public class NearbyPostalOfficeDTO {
+    private Integer id;
+    private String name;
+    private Double lat;
+    private Double lng;
+    private Boolean status;
+    private Integer areaId;
+    private double distanceKm;
+}
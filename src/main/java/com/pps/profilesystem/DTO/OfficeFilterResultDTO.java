@@ -0,0 +1,19 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * Offices matching a filter expression: how many, the first ids, and optionally counts per value
+ */
+@Data
+@AllArgsConstructor
+public class OfficeFilterResultDTO {
+    private String query;
+    private int count;
+    private int[] ids;                     // ascending, at most the requested limit
+    private Map<String, Integer> counts;   // per value of countBy ("none" for no value), null if not asked
+    private long micros;
+}
@@ -0,0 +1,20 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The filterable attributes of one office, as indexed by OfficeBitmapIndex
+ */
+@Data
+@AllArgsConstructor
+public class OfficeFilterRowDTO {
+    private Integer id;
+    private Integer areaId;
+    private Integer regionId;
+    private Integer provinceId;
+    private Integer cityId;
+    private Integer ispId;
+    private Boolean connectionStatus;
+    private Boolean hasCoordinates;
+}
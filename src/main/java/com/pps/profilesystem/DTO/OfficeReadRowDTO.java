@@ -0,0 +1,31 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One office with its location ids and names, as loaded into the OfficeReadModel
+ * by PostalOfficeTableRepository.forEachReadRow()
+ */
+@Data
+@AllArgsConstructor
+public class OfficeReadRowDTO {
+    private Integer id;
+    private String name;
+    private String postmaster;
+    private String address;
+    private Double lat;
+    private Double lng;
+    private Boolean status;
+    private String zipCode;
+    private Integer areaId;
+    private String areaName;
+    private Integer regionId;
+    private String regionName;
+    private Integer provinceId;
+    private String provinceName;
+    private Integer cityId;
+    private String cityName;
+    private Integer ispId;
+    private String ispName;
+}
@@ -0,0 +1,17 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One group of PostalOfficeRepository.countByAreaRegionProvinceAndStatus()
+ */
+@Data
+@AllArgsConstructor
+public class OfficeRollupCountDTO {
+    private Integer areaId;
+    private Integer regionId;
+    private Integer provinceId;
+    private Boolean status;
+    private long count;
+}
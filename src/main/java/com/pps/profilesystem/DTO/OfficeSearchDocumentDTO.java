@@ -0,0 +1,18 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * The searchable fields of one office, taken from the office read model to build the search index
+ */
+@Data
+@AllArgsConstructor
+public class OfficeSearchDocumentDTO {
+    private Integer id;
+    private String name;
+    private String postmaster;
+    private String address;
+    private String zipCode;
+    private Boolean status;
+}
@@ -0,0 +1,19 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * One page of ranked search results; total counts every match of the query
+ */
+@Data
+@AllArgsConstructor
+public class OfficeSearchPageDTO {
+    private String query;
+    private List<OfficeSearchResultDTO> results;
+    private int page;
+    private int size;
+    private int total;
+}
@@ -0,0 +1,19 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One search hit; higher score ranks first (name matches outweigh address matches)
+ */
+@Data
+@AllArgsConstructor
+public class OfficeSearchResultDTO {
+    private Integer id;
+    private String name;
+    private String postmaster;
+    private String address;
+    private String zipCode;
+    private Boolean status;
+    private int score;
+}
@@ -0,0 +1,18 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Number of offices in one (area, region, status) group, as counted by OfficeReadModel
+ */
+@Data
+@AllArgsConstructor
+public class OfficeStatusCountDTO {
+    private Integer areaId;
+    private String areaName;
+    private Integer regionId;
+    private String regionName;
+    private Boolean status;
+    private long count;
+}
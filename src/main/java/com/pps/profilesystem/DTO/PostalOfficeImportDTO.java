@@ -1,6 +1,7 @@
 package com.pps.profilesystem.DTO;
 
 public class PostalOfficeImportDTO {
+    private int rowNumber;            // Excel row number (1-based, header is row 1)
     private String area;              // AREA (REQUIRED)
     private String postOfficeName;    // POSTAL OFFICE NAME (REQUIRED)
     private Double longitude;         // LONGITUDE (optional)
@@ -10,6 +11,14 @@ public class PostalOfficeImportDTO {
     private String connectivityStatus; // CONNECTIVITY STATUS (optional)
     
     // getters and setters
+    public int getRowNumber() {
+        return rowNumber;
+    }
+    
+    public void setRowNumber(int rowNumber) {
+        this.rowNumber = rowNumber;
+    }
+    
     public String getArea() {
         return area;
     }
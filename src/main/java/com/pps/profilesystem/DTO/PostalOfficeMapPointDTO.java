@@ -0,0 +1,18 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One map marker, taken from the spatial index for viewport queries
+ */
+@Data
+@AllArgsConstructor
+public class PostalOfficeMapPointDTO {
+    private Integer id;
+    private String name;
+    private Double lat;
+    private Double lng;
+    private Boolean status;
+    private Integer areaId;
+}
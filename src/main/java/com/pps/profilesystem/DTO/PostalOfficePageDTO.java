@@ -0,0 +1,17 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * A page of the /table view. Pass nextCursor back to get the following page.
+ * total is only counted for the first page of a query (null afterwards).
+ */
+@Data
+public class PostalOfficePageDTO {
+    private List<PostalOfficeTableRowDTO> rows;
+    private String nextCursor;
+    private boolean hasMore;
+    private Long total;
+}
@@ -0,0 +1,24 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.Data;
+
+/**
+ * Filters, sort order and keyset position for one page of the /table view.
+ * Null filters are ignored. afterId/afterName identify the last row of the previous page.
+ */
+@Data
+public class PostalOfficeTableQuery {
+    private Integer areaId;
+    private Integer regionId;
+    private Integer provinceId;
+    private Boolean status;
+    private String namePrefix;
+
+    private boolean sortByName;
+    private boolean descending;
+
+    private Integer afterId;
+    private String afterName;
+
+    private int limit;
+}
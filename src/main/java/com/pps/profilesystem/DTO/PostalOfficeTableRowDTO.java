@@ -0,0 +1,20 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One row of the /table view, selected with its location names in a single query
+ */
+@Data
+@AllArgsConstructor
+public class PostalOfficeTableRowDTO {
+    private Integer id;
+    private String name;
+    private String areaName;
+    private String regionName;
+    private String provinceName;
+    private String cityName;
+    private String zipCode;
+    private Boolean status;
+}
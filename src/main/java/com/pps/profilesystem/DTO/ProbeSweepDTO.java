@@ -0,0 +1,20 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Outcome of one connectivity probe sweep
+ */
+@Data
+@AllArgsConstructor
+public class ProbeSweepDTO {
+    private Instant startedAt;
+    private Instant finishedAt;
+    private int endpoints;
+    private int reachable;
+    private int changed;
+    private long durationMillis;
+}
@@ -0,0 +1,19 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One office to probe, selected by OfficeEndpointRepository.findProbeTargets()
+ */
+@Data
+@AllArgsConstructor
+public class ProbeTargetDTO {
+    private Integer officeId;
+    private String host;
+    private Integer port;
+    private Boolean status;
+    private Integer areaId;
+    private Integer regionId;
+    private Integer provinceId;
+}
@@ -0,0 +1,28 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Active/inactive office counts for one area or region
+ */
+@Data
+@AllArgsConstructor
+public class StatusBreakdownDTO {
+    private Integer id;
+    private String name;
+    private long active;
+    private long inactive;
+
+    public long getTotal() {
+        return active + inactive;
+    }
+
+    /**
+     * Share of active offices, 0-100 with one decimal
+     */
+    public double getActivePercent() {
+        long total = getTotal();
+        return total > 0 ? Math.round(active * 1000.0 / total) / 10.0 : 0.0;
+    }
+}
@@ -0,0 +1,21 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One zipcode table entry for a ZIP, with the matching location hierarchy ids (null when unmatched)
+ */
+@Data
+@AllArgsConstructor
+public class ZipCandidateDTO {
+    private String zipCode;
+    private String barangay;
+    private String city;
+    private String province;
+    private String psgc;
+    private Integer barangayId;
+    private Integer cityId;
+    private Integer provinceId;
+    private Integer regionId;
+}
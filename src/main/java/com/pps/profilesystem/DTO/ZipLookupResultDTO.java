@@ -0,0 +1,22 @@
+package com.pps.profilesystem.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Answer to one reverse ZIP lookup, echoing the requested address.
+ * matchLevel is "barangay", "city" (barangay missing or unknown) or "none".
+ * zipCode is set only when the address maps to exactly one ZIP.
+ */
+@Data
+@AllArgsConstructor
+public class ZipLookupResultDTO {
+    private String province;
+    private String city;
+    private String barangay;
+    private String zipCode;
+    private List<String> zipCodes;
+    private String matchLevel;
+}
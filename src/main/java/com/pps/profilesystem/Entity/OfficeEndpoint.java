@@ -0,0 +1,26 @@
+package com.pps.profilesystem.Entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+/**
+ * Network endpoint probed to decide whether an office is connected (one per office).
+ * See db/office_endpoints.sql.
+ */
+@Entity
+@Table(name = "office_endpoints")
+@Data
+public class OfficeEndpoint {
+    @Id
+    @Column(name = "office_id")
+    private Integer officeId;
+
+    @Column(nullable = false)
+    private String host;
+
+    @Column(nullable = false)
+    private Integer port;
+}
@@ -5,13 +5,18 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.Table;
 import lombok.Data;
 
 @Entity
-@Table(name = "postal_offices")
+@Table(name = "postal_offices", indexes = {
+    // Export filtered by connectivity status, streamed in id order
+    @Index(name = "idx_po_status_id", columnList = "connection_status, id"),
+    @Index(name = "idx_po_isp", columnList = "isp_id")
+})
 @Data
 public class PostalOffice {
     @Id
@@ -53,6 +58,11 @@ public class PostalOffice {
     @Column(name = "connection_status")
     private Boolean connectionStatus = false;
 
+    // Provider of the office's connection (db/postal_offices_isp.sql)
+    @ManyToOne
+    @JoinColumn(name = "isp_id", nullable = true)
+    private InternetServiceProvider isp;
+
     public Integer getId() {
         return id;
     }
@@ -156,4 +166,12 @@ public class PostalOffice {
     public void setConnectionStatus(Boolean connectionStatus) {
         this.connectionStatus = connectionStatus;
     }
+
+    public InternetServiceProvider getIsp() {
+        return isp;
+    }
+
+    public void setIsp(InternetServiceProvider isp) {
+        this.isp = isp;
+    }
 }
\ No newline at end of file
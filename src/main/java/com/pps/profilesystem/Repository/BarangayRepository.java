@@ -2,10 +2,15 @@ package com.pps.profilesystem.Repository;
 
 import com.pps.profilesystem.Entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface BarangayRepository extends JpaRepository<Barangay, Integer> {
     List<Barangay> findByCityMunicipalityId(Integer cityMunId);
+
+    // Barangays with the full city -> province -> region chain in a single query (used by the hierarchy snapshot)
+    @Query("SELECT b FROM Barangay b LEFT JOIN FETCH b.cityMunicipality c LEFT JOIN FETCH c.province p LEFT JOIN FETCH p.regions")
+    List<Barangay> findAllWithHierarchy();
 }
\ No newline at end of file
@@ -2,10 +2,15 @@ package com.pps.profilesystem.Repository;
 
 import com.pps.profilesystem.Entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface CityMunicipalityRepository extends JpaRepository<CityMunicipality, Integer> {
     List<CityMunicipality> findByProvinceId(Integer provinceId);
+
+    // Cities with their province and region in a single query (used by the hierarchy snapshot)
+    @Query("SELECT c FROM CityMunicipality c LEFT JOIN FETCH c.province p LEFT JOIN FETCH p.regions")
+    List<CityMunicipality> findAllWithHierarchy();
 }
\ No newline at end of file
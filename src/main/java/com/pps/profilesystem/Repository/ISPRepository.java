@@ -1,9 +1,18 @@
 package com.pps.profilesystem.Repository;
 
+import com.pps.profilesystem.DTO.IspSummaryDTO;
 import com.pps.profilesystem.Entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
-public interface ISPRepository extends JpaRepository<InternetServiceProvider, Integer> {}
\ No newline at end of file
+public interface ISPRepository extends JpaRepository<InternetServiceProvider, Integer> {
+
+    // Every ISP with the number of offices it connects
+    @Query("SELECT new com.pps.profilesystem.DTO.IspSummaryDTO(i.id, i.name, COUNT(po)) " +
+           "FROM InternetServiceProvider i LEFT JOIN PostalOffice po ON po.isp = i " +
+           "GROUP BY i.id, i.name ORDER BY i.name")
+    List<IspSummaryDTO> findAllWithOfficeCounts();
+}
\ No newline at end of file
@@ -0,0 +1,19 @@
+package com.pps.profilesystem.Repository;
+
+import com.pps.profilesystem.DTO.ProbeTargetDTO;
+import com.pps.profilesystem.Entity.OfficeEndpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OfficeEndpointRepository extends JpaRepository<OfficeEndpoint, Integer> {
+
+    // Everything a probe sweep needs per office: the endpoint, the stored status and the rollup keys
+    @Query("SELECT new com.pps.profilesystem.DTO.ProbeTargetDTO(" +
+           "po.id, e.host, e.port, po.connectionStatus, po.area.id, po.region.id, po.province.id) " +
+           "FROM OfficeEndpoint e, PostalOffice po WHERE po.id = e.officeId")
+    List<ProbeTargetDTO> findProbeTargets();
+}
@@ -0,0 +1,194 @@
+package com.pps.profilesystem.Repository;
+
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Entity.PostalOffice;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Plain JDBC writer for bulk inserts and updates of postal offices.
+ * Hibernate cannot batch inserts for IDENTITY ids, so imports go through here instead of saveAll.
+ * With rewriteBatchedStatements=true the MySQL driver sends each batch as multi-row INSERTs.
+ */
+@Repository
+public class PostalOfficeBatchRepository {
+
+    private static final String INSERT_SQL =
+        "INSERT INTO postal_offices (name, postmaster, address, area_id, region_id, province_id, " +
+        "city_mun_id, barangay_id, zip_code, longitude, latitude, connection_status) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+        "UPDATE postal_offices SET name = ?, address = ?, area_id = ?, region_id = ?, province_id = ?, " +
+        "city_mun_id = ?, barangay_id = ?, zip_code = ?, longitude = ?, latitude = ?, connection_status = ? " +
+        "WHERE id = ?";
+
+    // Compare-and-set: skips offices whose status was changed by someone else since it was read
+    private static final String UPDATE_STATUS_SQL =
+        "UPDATE postal_offices SET connection_status = ? WHERE id = ? AND COALESCE(connection_status, FALSE) = ?";
+
+    // Only the columns an import writes; location references come back as id-only stubs
+    private static final String SELECT_IMPORTED_COLUMNS_SQL =
+        "SELECT id, name, address, area_id, region_id, province_id, city_mun_id, barangay_id, " +
+        "zip_code, longitude, latitude, connection_status FROM postal_offices ORDER BY id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Insert all offices in a single JDBC batch
+     * @return the generated ids, in the order of the offices
+     */
+    public List<Integer> insertAll(List<PostalOffice> offices) {
+        GeneratedKeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SQL, Statement.RETURN_GENERATED_KEYS),
+                new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PostalOffice office = offices.get(i);
+                ps.setString(1, office.getName());
+                ps.setString(2, office.getPostmaster());
+                ps.setString(3, office.getAddress());
+                ps.setObject(4, office.getArea() != null ? office.getArea().getId() : null, Types.INTEGER);
+                ps.setObject(5, office.getRegion() != null ? office.getRegion().getId() : null, Types.INTEGER);
+                ps.setObject(6, office.getProvince() != null ? office.getProvince().getId() : null, Types.INTEGER);
+                ps.setObject(7, office.getCityMunicipality() != null ? office.getCityMunicipality().getId() : null, Types.INTEGER);
+                ps.setObject(8, office.getBarangay() != null ? office.getBarangay().getId() : null, Types.INTEGER);
+                ps.setString(9, office.getZipCode());
+                ps.setObject(10, office.getLongitude(), Types.DOUBLE);
+                ps.setObject(11, office.getLatitude(), Types.DOUBLE);
+                ps.setBoolean(12, Boolean.TRUE.equals(office.getConnectionStatus()));
+            }
+
+            @Override
+            public int getBatchSize() {
+                return offices.size();
+            }
+        }, keys);
+        // One key per row, also for batches the MySQL driver rewrote into multi-row INSERTs
+        List<Integer> ids = new ArrayList<>(offices.size());
+        for (Map<String, Object> key : keys.getKeyList()) {
+            ids.add(((Number) key.values().iterator().next()).intValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Update the imported columns of existing offices (matched by id) in a single JDBC batch.
+     * postmaster is not part of the import and is left as it is.
+     * @return number of rows sent to the database
+     */
+    public int updateAll(List<PostalOffice> offices) {
+        jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PostalOffice office = offices.get(i);
+                ps.setString(1, office.getName());
+                ps.setString(2, office.getAddress());
+                ps.setObject(3, office.getArea() != null ? office.getArea().getId() : null, Types.INTEGER);
+                ps.setObject(4, office.getRegion() != null ? office.getRegion().getId() : null, Types.INTEGER);
+                ps.setObject(5, office.getProvince() != null ? office.getProvince().getId() : null, Types.INTEGER);
+                ps.setObject(6, office.getCityMunicipality() != null ? office.getCityMunicipality().getId() : null, Types.INTEGER);
+                ps.setObject(7, office.getBarangay() != null ? office.getBarangay().getId() : null, Types.INTEGER);
+                ps.setString(8, office.getZipCode());
+                ps.setObject(9, office.getLongitude(), Types.DOUBLE);
+                ps.setObject(10, office.getLatitude(), Types.DOUBLE);
+                ps.setBoolean(11, Boolean.TRUE.equals(office.getConnectionStatus()));
+                ps.setInt(12, office.getId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return offices.size();
+            }
+        });
+        return offices.size();
+    }
+
+    /**
+     * Set connection_status of existing offices (matched by id) in a single JDBC batch, each only
+     * if its stored status still equals expected[i] (a NULL status counts as false)
+     * @return update count per office: 1 if written, 0 if the office changed or is gone
+     */
+    public int[] updateConnectionStatuses(List<PostalOffice> offices, boolean[] expected) {
+        return jdbcTemplate.batchUpdate(UPDATE_STATUS_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                PostalOffice office = offices.get(i);
+                ps.setBoolean(1, Boolean.TRUE.equals(office.getConnectionStatus()));
+                ps.setInt(2, office.getId());
+                ps.setBoolean(3, expected[i]);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return offices.size();
+            }
+        });
+    }
+
+    /**
+     * Every office with just the columns an import writes, in id order, one row at a time.
+     * Area and location fields are stubs holding only the id.
+     */
+    public void forEachImportedColumns(Consumer<PostalOffice> action) {
+        jdbcTemplate.query(SELECT_IMPORTED_COLUMNS_SQL, (RowCallbackHandler) rs -> {
+            PostalOffice office = new PostalOffice();
+            office.setId(rs.getInt("id"));
+            office.setName(rs.getString("name"));
+            office.setAddress(rs.getString("address"));
+            Integer areaId = rs.getObject("area_id", Integer.class);
+            if (areaId != null) {
+                Area area = new Area();
+                area.setId(areaId);
+                office.setArea(area);
+            }
+            Integer regionId = rs.getObject("region_id", Integer.class);
+            if (regionId != null) {
+                Regions region = new Regions();
+                region.setId(regionId);
+                office.setRegion(region);
+            }
+            Integer provinceId = rs.getObject("province_id", Integer.class);
+            if (provinceId != null) {
+                Province province = new Province();
+                province.setId(provinceId);
+                office.setProvince(province);
+            }
+            Integer cityId = rs.getObject("city_mun_id", Integer.class);
+            if (cityId != null) {
+                CityMunicipality city = new CityMunicipality();
+                city.setId(cityId);
+                office.setCityMunicipality(city);
+            }
+            Integer barangayId = rs.getObject("barangay_id", Integer.class);
+            if (barangayId != null) {
+                Barangay barangay = new Barangay();
+                barangay.setId(barangayId);
+                office.setBarangay(barangay);
+            }
+            office.setZipCode(rs.getString("zip_code"));
+            office.setLongitude(rs.getObject("longitude", Double.class));
+            office.setLatitude(rs.getObject("latitude", Double.class));
+            office.setConnectionStatus(rs.getBoolean("connection_status"));
+            action.accept(office);
+        });
+    }
+}
@@ -1,9 +1,15 @@
 package com.pps.profilesystem.Repository;
 
+import com.pps.profilesystem.DTO.IspOfficeDTO;
+import com.pps.profilesystem.DTO.OfficeRollupCountDTO;
 import com.pps.profilesystem.Entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -12,9 +18,6 @@ public interface PostalOfficeRepository extends JpaRepository<PostalOffice, Inte
     // Find offices by their connection status (True/False)
     List<PostalOffice> findByConnectionStatus(Boolean status);
     
-    // Search for an office by name (case-insensitive)
-    List<PostalOffice> findByNameContainingIgnoreCase(String name);
-    
     // Find all offices within a specific City/Municipality
     List<PostalOffice> findByCityMunicipalityId(Integer cityMunId);
 
@@ -22,4 +25,30 @@ public interface PostalOfficeRepository extends JpaRepository<PostalOffice, Inte
 
     @Query("SELECT COUNT(DISTINCT po.area.id) FROM PostalOffice po WHERE po.area IS NOT NULL")
     long countDistinctAreas();
+
+    // Full rebuild of ConnectivityRollupService: counts by area, region, province and status, ids only
+    @Query("SELECT new com.pps.profilesystem.DTO.OfficeRollupCountDTO(" +
+           "po.area.id, po.region.id, po.province.id, po.connectionStatus, COUNT(po)) " +
+           "FROM PostalOffice po " +
+           "GROUP BY po.area.id, po.region.id, po.province.id, po.connectionStatus")
+    List<OfficeRollupCountDTO> countByAreaRegionProvinceAndStatus();
+
+    // Offices in scope of an area/region connectivity history query
+    @Query("SELECT po.id FROM PostalOffice po WHERE po.area.id = :areaId")
+    List<Integer> findIdsByAreaId(@Param("areaId") Integer areaId);
+
+    @Query("SELECT po.id FROM PostalOffice po WHERE po.region.id = :regionId")
+    List<Integer> findIdsByRegionId(@Param("regionId") Integer regionId);
+
+    // Offices with an ISP and their grouping keys for IspAnalyticsService; null filters match all
+    @Query("SELECT new com.pps.profilesystem.DTO.IspOfficeDTO(po.id, po.isp.id, po.area.id, po.region.id) " +
+           "FROM PostalOffice po WHERE po.isp IS NOT NULL " +
+           "AND (:areaId IS NULL OR po.area.id = :areaId) AND (:regionId IS NULL OR po.region.id = :regionId)")
+    List<IspOfficeDTO> findIspOffices(@Param("areaId") Integer areaId, @Param("regionId") Integer regionId);
+
+    // Point offices at an ISP, or at none when isp is null
+    @Modifying
+    @Transactional
+    @Query("UPDATE PostalOffice po SET po.isp = :isp WHERE po.id IN :ids")
+    int assignIsp(@Param("isp") InternetServiceProvider isp, @Param("ids") Collection<Integer> ids);
 }
\ No newline at end of file
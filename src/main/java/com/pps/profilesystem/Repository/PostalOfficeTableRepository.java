@@ -0,0 +1,167 @@
+package com.pps.profilesystem.Repository;
+
+import com.pps.profilesystem.DTO.OfficeReadRowDTO;
+import com.pps.profilesystem.DTO.PostalOfficeImportDTO;
+import com.pps.profilesystem.DTO.PostalOfficeTableQuery;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Bulk reads of postal offices with their location names: the rows the OfficeReadModel is
+ * built from, and the /table export. Large results are streamed from the result set one row
+ * at a time instead of being collected.
+ */
+@Repository
+public class PostalOfficeTableRepository {
+
+    private static final String READ_SQL =
+        "SELECT po.id, po.name, po.postmaster, po.address, po.latitude, po.longitude, po.connection_status, po.zip_code, " +
+        "po.area_id, a.area_name, po.region_id, r.name AS region_name, po.province_id, p.name AS province_name, " +
+        "po.city_mun_id, c.name AS city_name, po.isp_id, i.name AS isp_name " +
+        "FROM postal_offices po " +
+        "LEFT JOIN area a ON a.id = po.area_id " +
+        "LEFT JOIN regions r ON r.id = po.region_id " +
+        "LEFT JOIN provinces p ON p.id = po.province_id " +
+        "LEFT JOIN cities_municipalities c ON c.id = po.city_mun_id " +
+        "LEFT JOIN internet_service_providers i ON i.id = po.isp_id";
+
+    // The import sheet's columns, in import column order
+    private static final String EXPORT_SQL =
+        "SELECT a.area_name, po.name, po.longitude, po.latitude, po.zip_code, po.address, po.connection_status " +
+        "FROM postal_offices po " +
+        "LEFT JOIN area a ON a.id = po.area_id";
+
+    // Ids per IN (...) list when re-reading changed offices
+    private static final int MAX_IDS_PER_QUERY = 1000;
+
+    // Rows fetched per round trip by drivers that support cursor fetching
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final RowMapper<OfficeReadRowDTO> READ_ROW_MAPPER = (rs, rowNum) -> new OfficeReadRowDTO(
+        rs.getInt("id"),
+        rs.getString("name"),
+        rs.getString("postmaster"),
+        rs.getString("address"),
+        rs.getObject("latitude", Double.class),
+        rs.getObject("longitude", Double.class),
+        rs.getBoolean("connection_status"),
+        rs.getString("zip_code"),
+        rs.getObject("area_id", Integer.class),
+        rs.getString("area_name"),
+        rs.getObject("region_id", Integer.class),
+        rs.getString("region_name"),
+        rs.getObject("province_id", Integer.class),
+        rs.getString("province_name"),
+        rs.getObject("city_mun_id", Integer.class),
+        rs.getString("city_name"),
+        rs.getObject("isp_id", Integer.class),
+        rs.getString("isp_name"));
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * Every office, streamed from the result set one row at a time
+     */
+    public void forEachReadRow(Consumer<OfficeReadRowDTO> action) {
+        jdbcTemplate.query(connection -> streamingStatement(connection, READ_SQL, List.of()),
+                (RowCallbackHandler) rs -> action.accept(READ_ROW_MAPPER.mapRow(rs, 0)));
+    }
+
+    /**
+     * The given offices (ids that no longer exist are left out), read MAX_IDS_PER_QUERY at a time
+     */
+    public List<OfficeReadRowDTO> findReadRowsByIds(Collection<Integer> ids) {
+        List<Integer> all = new ArrayList<>(ids);
+        List<OfficeReadRowDTO> rows = new ArrayList<>(all.size());
+        for (int from = 0; from < all.size(); from += MAX_IDS_PER_QUERY) {
+            List<Integer> chunk = all.subList(from, Math.min(from + MAX_IDS_PER_QUERY, all.size()));
+            String placeholders = String.join(", ", Collections.nCopies(chunk.size(), "?"));
+            rows.addAll(jdbcTemplate.query(READ_SQL + " WHERE po.id IN (" + placeholders + ")", READ_ROW_MAPPER, chunk.toArray()));
+        }
+        return rows;
+    }
+
+    /**
+     * Every office matching the filters (sort, keyset position and limit are ignored), in id order,
+     * as import rows. Rows are streamed from the result set one at a time and never collected.
+     */
+    public void forEachExportRow(PostalOfficeTableQuery query, Consumer<PostalOfficeImportDTO> action) {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(EXPORT_SQL);
+        appendWhere(sql, filterConditions(query, params));
+        sql.append(" ORDER BY po.id");
+
+        jdbcTemplate.query(connection -> streamingStatement(connection, sql.toString(), params), (RowCallbackHandler) rs -> {
+            PostalOfficeImportDTO row = new PostalOfficeImportDTO();
+            row.setArea(rs.getString("area_name"));
+            row.setPostOfficeName(rs.getString("name"));
+            row.setLongitude(rs.getObject("longitude", Double.class));
+            row.setLatitude(rs.getObject("latitude", Double.class));
+            row.setZipCode(rs.getString("zip_code"));
+            row.setAddress(rs.getString("address"));
+            row.setConnectivityStatus(rs.getBoolean("connection_status") ? "Connected" : "Not Connected");
+            action.accept(row);
+        });
+    }
+
+    private static List<String> filterConditions(PostalOfficeTableQuery query, List<Object> params) {
+        List<String> conditions = new ArrayList<>();
+        if (query.getAreaId() != null) {
+            conditions.add("po.area_id = ?");
+            params.add(query.getAreaId());
+        }
+        if (query.getRegionId() != null) {
+            conditions.add("po.region_id = ?");
+            params.add(query.getRegionId());
+        }
+        if (query.getProvinceId() != null) {
+            conditions.add("po.province_id = ?");
+            params.add(query.getProvinceId());
+        }
+        if (query.getStatus() != null) {
+            conditions.add("po.connection_status = ?");
+            params.add(query.getStatus());
+        }
+        if (query.getNamePrefix() != null && !query.getNamePrefix().isEmpty()) {
+            // A prefix LIKE can use the (name, id) index; a leading wildcard could not
+            conditions.add("po.name LIKE ?");
+            params.add(escapeLike(query.getNamePrefix()) + "%");
+        }
+        return conditions;
+    }
+
+    private static PreparedStatement streamingStatement(Connection connection, String sql, List<Object> params) throws SQLException {
+        PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        // MySQL Connector/J buffers the whole result unless the fetch size is Integer.MIN_VALUE
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        ps.setFetchSize(mysql ? Integer.MIN_VALUE : STREAM_FETCH_SIZE);
+        for (int i = 0; i < params.size(); i++) {
+            ps.setObject(i + 1, params.get(i));
+        }
+        return ps;
+    }
+
+    private static void appendWhere(StringBuilder sql, List<String> conditions) {
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
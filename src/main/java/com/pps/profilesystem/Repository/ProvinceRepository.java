@@ -2,10 +2,15 @@ package com.pps.profilesystem.Repository;
 
 import com.pps.profilesystem.Entity.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface ProvinceRepository extends JpaRepository<Province, Integer> {
     List<Province> findByRegionId(Integer regionId);
+
+    // Provinces with their region in a single query (used by the hierarchy snapshot)
+    @Query("SELECT p FROM Province p LEFT JOIN FETCH p.regions")
+    List<Province> findAllWithRegion();
 }
\ No newline at end of file
@@ -0,0 +1,291 @@
+package com.pps.profilesystem.Service;
+
+import java.util.Arrays;
+
+/**
+ * Bit-level encodings for connectivity history blocks (one office, one day).
+ * Raw samples: timestamps as delta-of-delta (Gorilla style - a regular probe cadence costs one
+ * bit per sample) and up/down status as run lengths (a status that rarely changes costs a few
+ * bits per day). Rollups: per bucket the sample count, the number of down samples and the
+ * number of outages starting in it, Elias-gamma coded, so a fully-up hour costs about 8 bits.
+ * An outage starts at a down sample that is the day's first sample or follows an up sample.
+ */
+final class ConnectivityCodec {
+
+    private static final int SECONDS_OF_DAY_BITS = 17;   // 86400 < 2^17
+
+    // Rollup block header: whether the day's first / last sample was down
+    static final int STARTS_DOWN = 1;
+    static final int ENDS_DOWN = 2;
+
+    private ConnectivityCodec() {
+    }
+
+    interface SampleConsumer {
+        void accept(long epochSecond, boolean up);
+    }
+
+    interface CountConsumer {
+        void accept(int bucket, int samples, int up, int outages);
+    }
+
+    /**
+     * Appends samples of one office for one day and encodes them on demand.
+     * Timestamps must not go backwards; older samples are dropped.
+     */
+    static final class RawEncoder {
+        private final long dayStart;
+        private final BitWriter times = new BitWriter();
+        private int[] runs = new int[2];   // completed status runs, alternating from firstUp
+        private int runCount;
+        private int count;
+        private boolean firstUp;
+        private boolean currentUp;
+        private int currentRun;
+        private long lastTime;
+        private long lastDelta;
+
+        RawEncoder(long dayStart) {
+            this.dayStart = dayStart;
+        }
+
+        /**
+         * @return false if the sample was older than the previous one and was dropped
+         */
+        boolean append(long epochSecond, boolean up) {
+            if (count == 0) {
+                times.writeBits(epochSecond - dayStart, SECONDS_OF_DAY_BITS);
+                firstUp = up;
+                currentUp = up;
+            } else if (epochSecond < lastTime) {
+                return false;
+            } else if (count == 1) {
+                lastDelta = epochSecond - lastTime;
+                times.writeGamma(lastDelta + 1);
+            } else {
+                long delta = epochSecond - lastTime;
+                writeDeltaOfDelta(times, delta - lastDelta);
+                lastDelta = delta;
+            }
+            if (count > 0 && up != currentUp) {
+                if (runCount == runs.length) {
+                    runs = Arrays.copyOf(runs, runCount * 2);
+                }
+                runs[runCount++] = currentRun;
+                currentUp = up;
+                currentRun = 0;
+            }
+            currentRun++;
+            lastTime = epochSecond;
+            count++;
+            return true;
+        }
+
+        int size() {
+            return count;
+        }
+
+        /**
+         * count | first status | run lengths (last one included) | timestamps
+         */
+        byte[] toBytes() {
+            BitWriter out = new BitWriter();
+            out.writeGamma(count + 1L);
+            if (count > 0) {
+                out.writeBit(firstUp);
+                for (int i = 0; i < runCount; i++) {
+                    out.writeGamma(runs[i]);
+                }
+                out.writeGamma(currentRun);
+                out.append(times);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    static void decodeRaw(byte[] data, int offset, int length, long dayStart, SampleConsumer consumer) {
+        BitReader in = new BitReader(data, offset, length);
+        int count = (int) in.readGamma() - 1;
+        if (count == 0) {
+            return;
+        }
+        boolean up = in.readBit();
+        int[] runs = new int[4];
+        int runCount = 0;
+        for (int covered = 0; covered < count; ) {
+            int run = (int) in.readGamma();
+            if (runCount == runs.length) {
+                runs = Arrays.copyOf(runs, runCount * 2);
+            }
+            runs[runCount++] = run;
+            covered += run;
+        }
+
+        long time = dayStart + in.readBits(SECONDS_OF_DAY_BITS);
+        long delta = 0;
+        int run = 0;
+        int leftInRun = runs[0];
+        for (int i = 0; i < count; i++) {
+            if (i == 1) {
+                delta = in.readGamma() - 1;
+                time += delta;
+            } else if (i > 1) {
+                delta += readDeltaOfDelta(in);
+                time += delta;
+            }
+            if (leftInRun == 0) {
+                up = !up;
+                leftInRun = runs[++run];
+            }
+            leftInRun--;
+            consumer.accept(time, up);
+        }
+    }
+
+    /**
+     * One rollup block: STARTS_DOWN / ENDS_DOWN flags, then for each bucket the number of samples,
+     * how many of them were up and how many outages started in it
+     */
+    static byte[] encodeCounts(int flags, int[] samples, int[] up, int[] outages) {
+        BitWriter out = new BitWriter();
+        out.writeBits(flags, 2);
+        for (int i = 0; i < samples.length; i++) {
+            out.writeGamma(samples[i] + 1L);
+            if (samples[i] > 0) {
+                out.writeGamma(samples[i] - up[i] + 1L);
+                if (samples[i] > up[i]) {
+                    out.writeGamma(outages[i] + 1L);
+                }
+            }
+        }
+        return out.toByteArray();
+    }
+
+    static int decodeCountFlags(byte[] data, int offset, int length) {
+        return (int) new BitReader(data, offset, length).readBits(2);
+    }
+
+    static void decodeCounts(byte[] data, int offset, int length, int buckets, CountConsumer consumer) {
+        BitReader in = new BitReader(data, offset, length);
+        in.readBits(2);
+        for (int bucket = 0; bucket < buckets; bucket++) {
+            int samples = (int) in.readGamma() - 1;
+            int down = samples > 0 ? (int) in.readGamma() - 1 : 0;
+            int outages = down > 0 ? (int) in.readGamma() - 1 : 0;
+            consumer.accept(bucket, samples, samples - down, outages);
+        }
+    }
+
+    // '0' for an unchanged interval, then wider buckets with a longer prefix
+    private static void writeDeltaOfDelta(BitWriter out, long dod) {
+        if (dod == 0) {
+            out.writeBit(false);
+        } else if (dod >= -63 && dod <= 64) {
+            out.writeBits(0b10, 2);
+            out.writeBits(dod + 63, 7);
+        } else if (dod >= -255 && dod <= 256) {
+            out.writeBits(0b110, 3);
+            out.writeBits(dod + 255, 9);
+        } else if (dod >= -2047 && dod <= 2048) {
+            out.writeBits(0b1110, 4);
+            out.writeBits(dod + 2047, 12);
+        } else {
+            out.writeBits(0b1111, 4);
+            out.writeBits(dod & 0xFFFFFFFFL, 32);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitReader in) {
+        if (!in.readBit()) {
+            return 0;
+        }
+        if (!in.readBit()) {
+            return in.readBits(7) - 63;
+        }
+        if (!in.readBit()) {
+            return in.readBits(9) - 255;
+        }
+        if (!in.readBit()) {
+            return in.readBits(12) - 2047;
+        }
+        return (int) in.readBits(32);
+    }
+
+    static final class BitWriter {
+        private byte[] bytes = new byte[8];
+        private long bits;
+
+        void writeBit(boolean bit) {
+            int index = (int) (bits >>> 3);
+            if (index == bytes.length) {
+                bytes = Arrays.copyOf(bytes, bytes.length * 2);
+            }
+            if (bit) {
+                bytes[index] |= (byte) (0x80 >>> (bits & 7));
+            }
+            bits++;
+        }
+
+        void writeBits(long value, int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                writeBit(((value >>> i) & 1) != 0);
+            }
+        }
+
+        // Elias gamma code of value >= 1: (length - 1) zeros, then value in binary
+        void writeGamma(long value) {
+            int length = 64 - Long.numberOfLeadingZeros(value);
+            for (int i = 1; i < length; i++) {
+                writeBit(false);
+            }
+            writeBits(value, length);
+        }
+
+        void append(BitWriter other) {
+            for (long i = 0; i < other.bits; i++) {
+                writeBit((other.bytes[(int) (i >>> 3)] & (0x80 >>> (i & 7))) != 0);
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(bytes, (int) ((bits + 7) >>> 3));
+        }
+    }
+
+    static final class BitReader {
+        private final byte[] data;
+        private final long end;
+        private long position;
+
+        BitReader(byte[] data, int offset, int length) {
+            this.data = data;
+            this.position = (long) offset << 3;
+            this.end = (long) (offset + length) << 3;
+        }
+
+        boolean readBit() {
+            if (position >= end) {
+                throw new IllegalStateException("Connectivity history block is truncated");
+            }
+            boolean bit = (data[(int) (position >>> 3)] & (0x80 >>> (position & 7))) != 0;
+            position++;
+            return bit;
+        }
+
+        long readBits(int count) {
+            long value = 0;
+            for (int i = 0; i < count; i++) {
+                value = (value << 1) | (readBit() ? 1 : 0);
+            }
+            return value;
+        }
+
+        long readGamma() {
+            int zeros = 0;
+            while (!readBit()) {
+                zeros++;
+            }
+            return (1L << zeros) | readBits(zeros);
+        }
+    }
+}
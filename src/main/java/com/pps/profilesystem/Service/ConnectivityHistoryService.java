@@ -0,0 +1,157 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.ConnectivityBucketDTO;
+import com.pps.profilesystem.DTO.ConnectivityHistoryDTO;
+import com.pps.profilesystem.DTO.ConnectivitySampleDTO;
+import com.pps.profilesystem.DTO.ProbeTargetDTO;
+import com.pps.profilesystem.Repository.PostalOfficeRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Keeps every probe result (ConnectivityProbeService) in a ConnectivityHistoryStore and answers
+ * "how long was this office / area / region offline" over any window. Area and region queries
+ * use the offices' current area and region.
+ */
+@Service
+public class ConnectivityHistoryService {
+
+    public static final int HOUR = 3600;
+    public static final int DAY = 86400;
+
+    @Autowired
+    private PostalOfficeRepository postalOfficeRepository;
+
+    @Value("${history.dir:data/connectivity-history}")
+    private String directory;
+
+    @Value("${history.raw-days:7}")
+    private int rawDays;
+
+    @Value("${history.hourly-days:90}")
+    private int hourlyDays;
+
+    @Value("${history.retention-days:400}")
+    private int retentionDays;
+
+    @Value("${probe.interval-seconds:300}")
+    private int sampleSeconds;
+
+    private volatile ConnectivityHistoryStore store;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            getStore();
+        } catch (Exception e) {
+            System.err.println("Connectivity history preload failed, will open on first use: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Store the results of one probe sweep
+     */
+    public void record(Instant time, List<ProbeTargetDTO> targets, boolean[] reachable) throws IOException {
+        int[] officeIds = new int[targets.size()];
+        for (int i = 0; i < officeIds.length; i++) {
+            officeIds[i] = targets.get(i).getOfficeId();
+        }
+        getStore().record(time.getEpochSecond(), officeIds, reachable);
+    }
+
+    public ConnectivityHistoryDTO getOfficeHistory(int officeId, Instant from, Instant to, int bucketSeconds) throws IOException {
+        return history("office", officeId, id -> id == officeId, 1, from, to, bucketSeconds);
+    }
+
+    public ConnectivityHistoryDTO getAreaHistory(int areaId, Instant from, Instant to, int bucketSeconds) throws IOException {
+        List<Integer> ids = postalOfficeRepository.findIdsByAreaId(areaId);
+        return history("area", areaId, toFilter(ids), ids.size(), from, to, bucketSeconds);
+    }
+
+    public ConnectivityHistoryDTO getRegionHistory(int regionId, Instant from, Instant to, int bucketSeconds) throws IOException {
+        List<Integer> ids = postalOfficeRepository.findIdsByRegionId(regionId);
+        return history("region", regionId, toFilter(ids), ids.size(), from, to, bucketSeconds);
+    }
+
+    /**
+     * Individual probe results of one office; only periods not yet downsampled have them
+     */
+    public List<ConnectivitySampleDTO> getOfficeSamples(int officeId, Instant from, Instant to) throws IOException {
+        List<ConnectivitySampleDTO> samples = new ArrayList<>();
+        getStore().forEachSample(officeId, from.getEpochSecond(), to.getEpochSecond(),
+                (time, up) -> samples.add(new ConnectivitySampleDTO(Instant.ofEpochSecond(time), up)));
+        return samples;
+    }
+
+    private ConnectivityHistoryDTO history(String scope, int id, IntPredicate offices, int officeCount,
+                                           Instant from, Instant to, int bucketSeconds) throws IOException {
+        ConnectivityHistoryStore.Aggregate aggregate =
+                getStore().aggregate(offices, from.getEpochSecond(), to.getEpochSecond(), bucketSeconds);
+        List<ConnectivityBucketDTO> buckets = new ArrayList<>(aggregate.getBuckets().size());
+        long samples = 0;
+        long up = 0;
+        for (Map.Entry<Long, long[]> entry : aggregate.getBuckets().entrySet()) {
+            long[] bucket = entry.getValue();
+            buckets.add(new ConnectivityBucketDTO(Instant.ofEpochSecond(entry.getKey()), (int) bucket[0],
+                    bucket[1], bucket[2], percent(bucket[2], bucket[1])));
+            samples += bucket[1];
+            up += bucket[2];
+        }
+        return new ConnectivityHistoryDTO(scope, id, from, to, officeCount, percent(up, samples),
+                Math.round(aggregate.getDownSeconds() / 36.0) / 100.0, buckets);
+    }
+
+    private static IntPredicate toFilter(List<Integer> ids) {
+        BitSet set = new BitSet();
+        for (Integer id : ids) {
+            set.set(id);
+        }
+        return set::get;
+    }
+
+    private static double percent(long part, long whole) {
+        return whole > 0 ? Math.round(part * 10000.0 / whole) / 100.0 : 0;
+    }
+
+    ConnectivityHistoryStore getStore() throws IOException {
+        ConnectivityHistoryStore current = store;
+        if (current == null) {
+            synchronized (this) {
+                current = store;
+                if (current == null) {
+                    current = new ConnectivityHistoryStore(Path.of(directory), sampleSeconds,
+                            rawDays, hourlyDays, retentionDays);
+                    // Catch up on downsampling missed while the application was stopped
+                    current.compact(Math.floorDiv(Instant.now().getEpochSecond(), DAY));
+                    store = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        ConnectivityHistoryStore current = store;
+        if (current != null) {
+            try {
+                current.close();
+            } catch (IOException e) {
+                System.err.println("Could not flush connectivity history: " + e.getMessage());
+            }
+        }
+    }
+}
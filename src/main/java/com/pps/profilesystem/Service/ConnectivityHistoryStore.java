@@ -0,0 +1,284 @@
+package com.pps.profilesystem.Service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * File-backed time series of per-office connectivity samples, partitioned by UTC day.
+ * Today's samples are appended to in-memory encoders (ConnectivityCodec.RawEncoder) and written
+ * as <date>.raw.seg every flush interval and at the day change; earlier days are immutable
+ * segment files. As days age they are downsampled in place: raw -> hourly rollup after rawDays,
+ * hourly -> daily after hourlyDays, deleted after retentionDays. Each day has one file at one
+ * resolution, so a query reads at most one file per day in range.
+ */
+public class ConnectivityHistoryStore implements Closeable {
+
+    private static final long FLUSH_INTERVAL_SECONDS = 15 * 60;
+
+    private final Path directory;
+    private final int sampleSeconds;
+    private final int rawDays;
+    private final int hourlyDays;
+    private final int retentionDays;
+
+    private long openDay = Long.MIN_VALUE;
+    private final Map<Integer, ConnectivityCodec.RawEncoder> open = new HashMap<>();
+    private long lastFlush;
+
+    /**
+     * @param sampleSeconds interval between samples of one office; each down sample counts as this much downtime
+     */
+    public ConnectivityHistoryStore(Path directory, int sampleSeconds, int rawDays, int hourlyDays,
+                                    int retentionDays) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.sampleSeconds = sampleSeconds;
+        this.rawDays = rawDays;
+        this.hourlyDays = hourlyDays;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * One sample per office taken at epochSecond (e.g. one probe sweep).
+     * Samples for a day before the open day are dropped.
+     */
+    public synchronized void record(long epochSecond, int[] officeIds, boolean[] up) throws IOException {
+        long day = Math.floorDiv(epochSecond, 86400);
+        if (day != openDay) {
+            if (day < openDay) {
+                return;
+            }
+            openDay(day);
+        }
+        for (int i = 0; i < officeIds.length; i++) {
+            open.computeIfAbsent(officeIds[i], id -> new ConnectivityCodec.RawEncoder(day * 86400))
+                .append(epochSecond, up[i]);
+        }
+        if (epochSecond - lastFlush >= FLUSH_INTERVAL_SECONDS) {
+            flush();
+            lastFlush = epochSecond;
+        }
+    }
+
+    /**
+     * Write the open day to disk (it stays open)
+     */
+    public synchronized void flush() throws IOException {
+        if (!open.isEmpty()) {
+            snapshotOpenDay().write(file(openDay, ConnectivitySegment.Resolution.RAW));
+        }
+    }
+
+    /**
+     * Downsample and expire segments relative to today. Called at every day change.
+     * @return number of segments rewritten or deleted
+     */
+    public synchronized int compact(long today) throws IOException {
+        int changed = 0;
+        for (Map.Entry<Long, Path> entry : segmentFiles().entrySet()) {
+            long day = entry.getKey();
+            Path path = entry.getValue();
+            long age = today - day;
+            if (day == openDay) {
+                continue;
+            }
+            if (age > retentionDays) {
+                Files.delete(path);
+                changed++;
+                continue;
+            }
+            ConnectivitySegment.Resolution stored = resolutionOf(path);
+            ConnectivitySegment.Resolution wanted = age > hourlyDays ? ConnectivitySegment.Resolution.DAY
+                    : age > rawDays ? ConnectivitySegment.Resolution.HOUR
+                    : ConnectivitySegment.Resolution.RAW;
+            if (wanted.getSeconds() > stored.getSeconds()) {
+                // Coarser file first, so a crash in between leaves both rather than neither
+                ConnectivitySegment.read(path).downsample(wanted).write(file(day, wanted));
+                Files.delete(path);
+                changed++;
+            }
+        }
+        return changed;
+    }
+
+    /**
+     * Raw samples of one office in [from, to); periods already downsampled are skipped
+     */
+    public void forEachSample(int officeId, long from, long to, ConnectivityCodec.SampleConsumer consumer) throws IOException {
+        for (long day = Math.floorDiv(from, 86400); day <= Math.floorDiv(to - 1, 86400); day++) {
+            ConnectivitySegment segment = segment(day);
+            if (segment != null) {
+                segment.forEachSample(officeId, from, to, consumer);
+            }
+        }
+    }
+
+    /**
+     * Sample counts of the matching offices, summed per bucket of at least bucketSeconds
+     * (older data comes back at its stored resolution), for buckets starting in [from, to)
+     */
+    public Aggregate aggregate(IntPredicate offices, long from, long to, int bucketSeconds) throws IOException {
+        Aggregate aggregate = new Aggregate();
+        for (long day = Math.floorDiv(from, 86400); day <= Math.floorDiv(to - 1, 86400); day++) {
+            ConnectivitySegment segment = segment(day);
+            if (segment == null) {
+                continue;
+            }
+            int downSeconds = segment.getSampleSeconds();
+            segment.forEachBucket(offices, from, to, bucketSeconds, (officeId, start, width, samples, up) -> {
+                long[] bucket = aggregate.buckets.computeIfAbsent(start, s -> new long[3]);
+                bucket[0] = width;
+                bucket[1] += samples;
+                bucket[2] += up;
+                aggregate.downSeconds += (long) (samples - up) * downSeconds;
+            });
+        }
+        return aggregate;
+    }
+
+    /**
+     * Every day's segment in [from, to), oldest first. The next day is read from disk in the
+     * background while the consumer works on the current one.
+     */
+    public void forEachSegment(long from, long to, Consumer<ConnectivitySegment> consumer) throws IOException {
+        long lastDay = Math.floorDiv(to - 1, 86400);
+        CompletableFuture<ConnectivitySegment> next = readAsync(Math.floorDiv(from, 86400));
+        for (long day = Math.floorDiv(from, 86400); day <= lastDay; day++) {
+            ConnectivitySegment segment;
+            try {
+                segment = next.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof UncheckedIOException io) {
+                    throw io.getCause();
+                }
+                throw e;
+            }
+            next = day < lastDay ? readAsync(day + 1) : null;
+            if (segment != null) {
+                consumer.accept(segment);
+            }
+        }
+    }
+
+    private CompletableFuture<ConnectivitySegment> readAsync(long day) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return segment(day);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Bytes used by segment files on disk
+     */
+    public long diskBytes() throws IOException {
+        long total = 0;
+        for (Path path : segmentFiles().values()) {
+            total += Files.size(path);
+        }
+        return total;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        flush();
+    }
+
+    private void openDay(long day) throws IOException {
+        if (!open.isEmpty()) {
+            flush();
+            open.clear();
+        }
+        openDay = day;
+        // Continue a day written before a restart
+        Path existing = file(day, ConnectivitySegment.Resolution.RAW);
+        if (Files.exists(existing)) {
+            ConnectivitySegment segment = ConnectivitySegment.read(existing);
+            segment.forEachBucket(id -> true, Long.MIN_VALUE, Long.MAX_VALUE, 1, (officeId, time, width, samples, up) ->
+                open.computeIfAbsent(officeId, id -> new ConnectivityCodec.RawEncoder(day * 86400))
+                    .append(time, up == 1));
+        }
+        compact(day);
+    }
+
+    // The open day from memory, any other day from its file
+    private ConnectivitySegment segment(long day) throws IOException {
+        synchronized (this) {
+            if (day == openDay) {
+                return snapshotOpenDay();
+            }
+        }
+        for (ConnectivitySegment.Resolution resolution : ConnectivitySegment.Resolution.values()) {
+            Path path = file(day, resolution);
+            if (Files.exists(path)) {
+                try {
+                    return ConnectivitySegment.read(path);
+                } catch (IOException e) {
+                    // Compacted away between the check and the read; try the next resolution
+                    if (Files.exists(path)) {
+                        throw e;
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    private synchronized ConnectivitySegment snapshotOpenDay() {
+        Map<Integer, byte[]> blocks = new HashMap<>(open.size() * 4 / 3 + 1);
+        open.forEach((officeId, encoder) -> blocks.put(officeId, encoder.toBytes()));
+        return ConnectivitySegment.of(openDay, ConnectivitySegment.Resolution.RAW, sampleSeconds, blocks);
+    }
+
+    private Map<Long, Path> segmentFiles() throws IOException {
+        Map<Long, Path> files = new TreeMap<>();
+        try (Stream<Path> paths = Files.list(directory)) {
+            paths.filter(path -> path.getFileName().toString().endsWith(".seg")).forEach(path -> {
+                String name = path.getFileName().toString();
+                long day = LocalDate.parse(name.substring(0, name.indexOf('.'))).toEpochDay();
+                // Finest resolution wins if a compaction was interrupted
+                files.merge(day, path, (a, b) -> resolutionOf(a).getSeconds() <= resolutionOf(b).getSeconds() ? a : b);
+            });
+        }
+        return files;
+    }
+
+    private Path file(long day, ConnectivitySegment.Resolution resolution) {
+        return directory.resolve(LocalDate.ofEpochDay(day) + "." + resolution.name().toLowerCase() + ".seg");
+    }
+
+    private static ConnectivitySegment.Resolution resolutionOf(Path path) {
+        String name = path.getFileName().toString();
+        String resolution = name.substring(name.indexOf('.') + 1, name.lastIndexOf('.'));
+        return ConnectivitySegment.Resolution.valueOf(resolution.toUpperCase());
+    }
+
+    /**
+     * Per bucket start: {bucket seconds, samples, up samples}, in time order, plus the total downtime
+     */
+    public static class Aggregate {
+        private final TreeMap<Long, long[]> buckets = new TreeMap<>();
+        private long downSeconds;
+
+        public TreeMap<Long, long[]> getBuckets() {
+            return buckets;
+        }
+
+        public long getDownSeconds() {
+            return downSeconds;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.ProbeSweepDTO;
+import com.pps.profilesystem.DTO.ProbeTargetDTO;
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.PostalOffice;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+import com.pps.profilesystem.Repository.OfficeEndpointRepository;
+import com.pps.profilesystem.Repository.PostalOfficeBatchRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Sets postal_offices.connection_status from reachability of each office's endpoint
+ * (office_endpoints). A sweep probes every endpoint concurrently (ConnectivityProber) and writes
+ * back only offices whose status changed, in JDBC batches. Each write only applies if the status is
+ * still the one read when the sweep started, so an edit or import during the sweep is not overwritten.
+ * The connectivity rollup is adjusted per batch for the rows actually written, and one
+ * PostalOfficesChangedEvent published per sweep. Every result, changed or not, is kept
+ * as a sample in the connectivity history. Sweeps repeat every probe.interval-seconds,
+ * each start moved by up to +/-10% so several instances or restarts do not probe in lockstep.
+ */
+@Service
+public class ConnectivityProbeService {
+
+    private static final double JITTER_FRACTION = 0.1;
+    private static final int WRITE_BATCH_SIZE = 1000;
+    // Above this many changed offices a single bulk event (one rebuild per listener) is cheaper than patching each id
+    private static final int MAX_EVENT_IDS = 1000;
+
+    @Autowired
+    private OfficeEndpointRepository endpointRepository;
+
+    @Autowired
+    private PostalOfficeBatchRepository batchRepository;
+
+    @Autowired
+    private ConnectivityRollupService connectivityRollup;
+
+    @Autowired
+    private ConnectivityHistoryService historyService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${probe.enabled:true}")
+    private boolean enabled;
+
+    @Value("${probe.interval-seconds:300}")
+    private long intervalSeconds;
+
+    @Value("${probe.timeout-ms:2000}")
+    private int timeoutMillis;
+
+    @Value("${probe.max-concurrency:10000}")
+    private int maxConcurrency;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "connectivity-probe");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile ProbeSweepDTO lastSweep;
+    private volatile Instant nextSweepAt;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (enabled) {
+            scheduleNext(false);
+        }
+    }
+
+    /**
+     * Start a sweep in the background unless one is already running
+     * @return false if a sweep is running
+     */
+    public boolean requestSweep() {
+        if (running.get()) {
+            return false;
+        }
+        scheduler.submit(this::runSweepSafely);
+        return true;
+    }
+
+    /**
+     * Probe every endpoint and write back the offices whose status changed.
+     * Runs on the calling thread; returns null if another sweep is running.
+     */
+    public ProbeSweepDTO sweep() throws InterruptedException {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            Instant startedAt = Instant.now();
+            List<ProbeTargetDTO> targets = new ArrayList<>(endpointRepository.findProbeTargets());
+            // Random order, so endpoints behind the same provider are not all hit at once
+            Collections.shuffle(targets);
+            boolean[] reachable = new ConnectivityProber(maxConcurrency, timeoutMillis).probeAll(targets);
+            try {
+                historyService.record(startedAt, targets, reachable);
+            } catch (Exception e) {
+                // History is best effort; the status write-back must still happen
+                System.err.println("Could not record connectivity history: " + e.getMessage());
+            }
+
+            int reachableCount = 0;
+            List<PostalOffice> changed = new ArrayList<>();
+            for (int i = 0; i < targets.size(); i++) {
+                if (reachable[i]) {
+                    reachableCount++;
+                }
+                if (reachable[i] != Boolean.TRUE.equals(targets.get(i).getStatus())) {
+                    changed.add(toOffice(targets.get(i), reachable[i]));
+                }
+            }
+            List<Integer> written = new ArrayList<>(changed.size());
+            for (int from = 0; from < changed.size(); from += WRITE_BATCH_SIZE) {
+                written.addAll(writeChanges(changed.subList(from, Math.min(from + WRITE_BATCH_SIZE, changed.size()))));
+            }
+            publishChanges(written);
+
+            Instant finishedAt = Instant.now();
+            ProbeSweepDTO result = new ProbeSweepDTO(startedAt, finishedAt, targets.size(), reachableCount,
+                    written.size(), Duration.between(startedAt, finishedAt).toMillis());
+            lastSweep = result;
+            System.out.println("Connectivity probe: " + result.getEndpoints() + " endpoints, " + reachableCount
+                    + " reachable, " + written.size() + " changed (" + (changed.size() - written.size())
+                    + " skipped as edited during the sweep) in " + result.getDurationMillis() + " ms");
+            return result;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Settings, the last sweep and when the next one is due
+     */
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("running", running.get());
+        status.put("intervalSeconds", intervalSeconds);
+        status.put("timeoutMs", timeoutMillis);
+        status.put("maxConcurrency", maxConcurrency);
+        status.put("nextSweepAt", nextSweepAt);
+        status.put("lastSweep", lastSweep);
+        return status;
+    }
+
+    // Every office in the batch flips, so the status read at sweep start is the opposite of the new one.
+    // Returns the ids written; offices edited since the sweep started are left alone.
+    private List<Integer> writeChanges(List<PostalOffice> batch) {
+        boolean[] expected = new boolean[batch.size()];
+        for (int i = 0; i < batch.size(); i++) {
+            expected[i] = !batch.get(i).getConnectionStatus();
+        }
+        long rollupGeneration = connectivityRollup.generation();
+        int[] counts = batchRepository.updateConnectionStatuses(batch, expected);
+        List<Integer> ids = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (counts[i] == 1) {
+                connectivityRollup.statusChanged(batch.get(i), expected[i], rollupGeneration);
+                ids.add(batch.get(i).getId());
+            }
+        }
+        return ids;
+    }
+
+    // Once per sweep, after every batch is written, so each listener updates its snapshot once
+    private void publishChanges(List<Integer> officeIds) {
+        if (officeIds.isEmpty()) {
+            return;
+        }
+        eventPublisher.publishEvent(officeIds.size() > MAX_EVENT_IDS
+                ? PostalOfficesChangedEvent.bulk()
+                : PostalOfficesChangedEvent.of(officeIds));
+    }
+
+    // Id-only references are all the rollup needs
+    private static PostalOffice toOffice(ProbeTargetDTO target, boolean connected) {
+        PostalOffice office = new PostalOffice();
+        office.setId(target.getOfficeId());
+        office.setConnectionStatus(connected);
+        if (target.getAreaId() != null) {
+            Area area = new Area();
+            area.setId(target.getAreaId());
+            office.setArea(area);
+        }
+        if (target.getRegionId() != null) {
+            Regions region = new Regions();
+            region.setId(target.getRegionId());
+            office.setRegion(region);
+        }
+        if (target.getProvinceId() != null) {
+            Province province = new Province();
+            province.setId(target.getProvinceId());
+            office.setProvince(province);
+        }
+        return office;
+    }
+
+    private void scheduleNext(boolean afterSweep) {
+        long intervalMillis = TimeUnit.SECONDS.toMillis(intervalSeconds);
+        long jitter = (long) (intervalMillis * JITTER_FRACTION);
+        // The first sweep only waits for the jitter, later ones for a full interval +/- jitter
+        long delay = afterSweep
+                ? intervalMillis + ThreadLocalRandom.current().nextLong(-jitter, jitter + 1)
+                : ThreadLocalRandom.current().nextLong(jitter + 1);
+        nextSweepAt = Instant.now().plusMillis(delay);
+        scheduler.schedule(() -> {
+            runSweepSafely();
+            scheduleNext(true);
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void runSweepSafely() {
+        try {
+            sweep();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            System.err.println("Connectivity probe failed: " + e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,69 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.ProbeTargetDTO;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Checks TCP reachability of many endpoints at once. Every probe is a plain connect with a
+ * timeout on its own virtual thread, so a sweep costs about (endpoints / maxConcurrent) x the
+ * slowest connect rather than the sum of all of them. A semaphore caps the connects in flight,
+ * which bounds open sockets and threads however many endpoints there are.
+ */
+public class ConnectivityProber {
+
+    private final int maxConcurrent;
+    private final int timeoutMillis;
+
+    public ConnectivityProber(int maxConcurrent, int timeoutMillis) {
+        this.maxConcurrent = maxConcurrent;
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Probe every target; returns once all have connected, failed or timed out
+     * @return reachable[i] for targets.get(i)
+     */
+    public boolean[] probeAll(List<ProbeTargetDTO> targets) throws InterruptedException {
+        boolean[] reachable = new boolean[targets.size()];
+        Semaphore permits = new Semaphore(maxConcurrent);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < targets.size(); i++) {
+                // Acquired before the thread is started, so at most maxConcurrent threads exist at a time
+                permits.acquire();
+                int index = i;
+                ProbeTargetDTO target = targets.get(i);
+                executor.submit(() -> {
+                    try {
+                        reachable[index] = probe(target.getHost(), target.getPort());
+                    } finally {
+                        permits.release();
+                    }
+                });
+            }
+        }
+        // Closing the executor waited for every probe, so all results are visible here
+        return reachable;
+    }
+
+    /**
+     * true if a TCP connection to host:port opens within the timeout
+     */
+    public boolean probe(String host, Integer port) {
+        if (host == null || port == null || port < 1 || port > 65535) {
+            return false;
+        }
+        try (Socket socket = new Socket()) {
+            socket.connect(new InetSocketAddress(host, port), timeoutMillis);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,297 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeRollupCountDTO;
+import com.pps.profilesystem.DTO.StatusBreakdownDTO;
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.PostalOffice;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+import com.pps.profilesystem.Repository.AreaRepository;
+import com.pps.profilesystem.Repository.PostalOfficeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntFunction;
+
+/**
+ * Active/inactive office counters per area, region and province, kept in memory.
+ * Counters are adjusted as offices are written (officesAdded, statusChanged), so reading
+ * the rollup costs O(areas + regions + provinces) however many offices there are.
+ * rebuild() recounts everything with one grouped query, for startup and repair.
+ * Each recount starts a new generation. Writers read generation() before their transaction and
+ * pass it along with the change: if a recount ran in between, its query may or may not have seen
+ * the change, so instead of guessing (and double counting or losing it) the rollup is recounted.
+ */
+@Service
+public class ConnectivityRollupService {
+
+    private static final Comparator<StatusBreakdownDTO> BY_NAME =
+        Comparator.comparing(StatusBreakdownDTO::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+    @Autowired
+    private PostalOfficeRepository postalOfficeRepository;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private LocationHierarchyService locationHierarchyService;
+
+    private volatile Rollup rollup;
+    private final AtomicLong generations = new AtomicLong();
+    private volatile Map<Integer, String> areaNames = Map.of();
+
+    // Increments share the read lock; a rebuild takes the write lock so no increment lands on a rollup being replaced
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            getRollup();
+        } catch (Exception e) {
+            System.err.println("Connectivity rollup preload failed, will load on first use: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Current generation, to read before a transaction that saves offices (0 before the first load)
+     */
+    public long generation() {
+        Rollup current = rollup;
+        return current != null ? current.generation : 0;
+    }
+
+    /**
+     * Count newly saved offices. Call after the transaction that saved them has committed.
+     * @param generation generation() read before that transaction started
+     */
+    public void officesAdded(Collection<PostalOffice> offices, long generation) {
+        long stale;
+        lock.readLock().lock();
+        try {
+            Rollup current = rollup;
+            if (current == null) {
+                // Not loaded yet - the first read will count these from the database
+                return;
+            }
+            if (current.generation != generation) {
+                stale = current.generation;
+            } else {
+                for (PostalOffice office : offices) {
+                    current.add(office, Boolean.TRUE.equals(office.getConnectionStatus()) ? 1 : 0, 1);
+                }
+                current.updates.addAndGet(offices.size());
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        recount(stale);
+    }
+
+    /**
+     * Move an office between the active and inactive counters after its connectionStatus was saved
+     * @param generation generation() read before the status was written
+     */
+    public void statusChanged(PostalOffice office, boolean wasActive, long generation) {
+        boolean isActive = Boolean.TRUE.equals(office.getConnectionStatus());
+        if (isActive == wasActive) {
+            return;
+        }
+        long stale;
+        lock.readLock().lock();
+        try {
+            Rollup current = rollup;
+            if (current == null) {
+                return;
+            }
+            if (current.generation != generation) {
+                stale = current.generation;
+            } else {
+                current.add(office, isActive ? 1 : -1, 0);
+                current.updates.incrementAndGet();
+                return;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        recount(stale);
+    }
+
+    /**
+     * Recount every counter from the database, discarding incremental drift
+     */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            rollup = load();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // A change raced a recount. A recount that started after the change committed has counted it,
+    // so only the generation the change was checked against needs replacing.
+    private void recount(long staleGeneration) {
+        lock.writeLock().lock();
+        try {
+            Rollup current = rollup;
+            if (current != null && current.generation == staleGeneration) {
+                System.out.println("Offices changed during a connectivity rollup recount, recounting again");
+                rollup = load();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Totals plus per-area, per-region and per-province breakdowns, each sorted by name
+     */
+    public Map<String, Object> getSummary() {
+        Rollup current = getRollup();
+        LocationHierarchy hierarchy = locationHierarchyService.getHierarchy();
+        Map<Integer, String> names = areaNames;
+
+        StatusBreakdownDTO overall = current.overall.toBreakdown(null, "All offices");
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total", overall.getTotal());
+        summary.put("active", overall.getActive());
+        summary.put("inactive", overall.getInactive());
+        summary.put("activePercent", overall.getActivePercent());
+        summary.put("areas", breakdowns(current.byArea, names::get));
+        summary.put("regions", breakdowns(current.byRegion, id -> {
+            Regions region = hierarchy.getRegion(id);
+            return region != null ? region.getName() : null;
+        }));
+        summary.put("provinces", breakdowns(current.byProvince, id -> {
+            Province province = hierarchy.getProvince(id);
+            return province != null ? province.getName() : null;
+        }));
+        summary.put("rebuiltAt", current.rebuiltAt);
+        summary.put("generation", current.generation);
+        summary.put("updatesSinceRebuild", current.updates.get());
+        return summary;
+    }
+
+    public List<StatusBreakdownDTO> getAreaBreakdowns() {
+        return breakdowns(getRollup().byArea, areaNames::get);
+    }
+
+    public List<StatusBreakdownDTO> getRegionBreakdowns() {
+        LocationHierarchy hierarchy = locationHierarchyService.getHierarchy();
+        return breakdowns(getRollup().byRegion, id -> {
+            Regions region = hierarchy.getRegion(id);
+            return region != null ? region.getName() : null;
+        });
+    }
+
+    private static List<StatusBreakdownDTO> breakdowns(Map<Integer, Counter> counters, IntFunction<String> nameOf) {
+        List<StatusBreakdownDTO> list = new ArrayList<>(counters.size());
+        counters.forEach((id, counter) -> {
+            if (counter.total.get() > 0) {
+                list.add(counter.toBreakdown(id, nameOf.apply(id)));
+            }
+        });
+        list.sort(BY_NAME);
+        return list;
+    }
+
+    private Rollup getRollup() {
+        Rollup current = rollup;
+        if (current == null) {
+            lock.writeLock().lock();
+            try {
+                current = rollup;
+                if (current == null) {
+                    current = load();
+                    rollup = current;
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return current;
+    }
+
+    private Rollup load() {
+        Map<Integer, String> names = new HashMap<>();
+        for (Area area : areaRepository.findAll()) {
+            names.put(area.getId(), area.getAreaName());
+        }
+        areaNames = names;
+
+        Rollup loaded = new Rollup(generations.incrementAndGet());
+        for (OfficeRollupCountDTO group : postalOfficeRepository.countByAreaRegionProvinceAndStatus()) {
+            long activeCount = Boolean.TRUE.equals(group.getStatus()) ? group.getCount() : 0;
+            loaded.add(group.getAreaId(), group.getRegionId(), group.getProvinceId(), activeCount, group.getCount());
+        }
+        System.out.println("Rebuilt connectivity rollup: " + loaded.overall.total.get() + " offices, "
+                + loaded.byArea.size() + " areas, " + loaded.byRegion.size() + " regions, "
+                + loaded.byProvince.size() + " provinces");
+        return loaded;
+    }
+
+    private static class Rollup {
+        private final Counter overall = new Counter();
+        private final Map<Integer, Counter> byArea = new ConcurrentHashMap<>();
+        private final Map<Integer, Counter> byRegion = new ConcurrentHashMap<>();
+        private final Map<Integer, Counter> byProvince = new ConcurrentHashMap<>();
+        private final Instant rebuiltAt = Instant.now();
+        private final AtomicLong updates = new AtomicLong();
+        private final long generation;
+
+        Rollup(long generation) {
+            this.generation = generation;
+        }
+
+        void add(PostalOffice office, long activeDelta, long totalDelta) {
+            add(office.getArea() != null ? office.getArea().getId() : null,
+                office.getRegion() != null ? office.getRegion().getId() : null,
+                office.getProvince() != null ? office.getProvince().getId() : null,
+                activeDelta, totalDelta);
+        }
+
+        void add(Integer areaId, Integer regionId, Integer provinceId, long activeDelta, long totalDelta) {
+            overall.add(activeDelta, totalDelta);
+            addTo(byArea, areaId, activeDelta, totalDelta);
+            addTo(byRegion, regionId, activeDelta, totalDelta);
+            addTo(byProvince, provinceId, activeDelta, totalDelta);
+        }
+
+        private static void addTo(Map<Integer, Counter> counters, Integer id, long activeDelta, long totalDelta) {
+            if (id != null) {
+                counters.computeIfAbsent(id, k -> new Counter()).add(activeDelta, totalDelta);
+            }
+        }
+    }
+
+    private static class Counter {
+        private final AtomicLong active = new AtomicLong();
+        private final AtomicLong total = new AtomicLong();
+
+        void add(long activeDelta, long totalDelta) {
+            active.addAndGet(activeDelta);
+            total.addAndGet(totalDelta);
+        }
+
+        StatusBreakdownDTO toBreakdown(Integer id, String name) {
+            long activeCount = active.get();
+            return new StatusBreakdownDTO(id, name, activeCount, total.get() - activeCount);
+        }
+    }
+}
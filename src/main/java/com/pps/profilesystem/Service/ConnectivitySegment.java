@@ -0,0 +1,327 @@
+package com.pps.profilesystem.Service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * Connectivity history of every office for one UTC day, at one resolution, as stored on disk.
+ * Blocks are kept in a single byte array indexed by office id (sorted), so reading a segment
+ * is one file read and looking up an office is a binary search. Immutable.
+ */
+public class ConnectivitySegment {
+
+    public enum Resolution {
+        RAW(0), HOUR(3600), DAY(86400);
+
+        private final int seconds;
+
+        Resolution(int seconds) {
+            this.seconds = seconds;
+        }
+
+        public int getSeconds() {
+            return seconds;
+        }
+
+        int bucketsPerDay() {
+            return seconds == 0 ? 0 : 86400 / seconds;
+        }
+    }
+
+    private static final int MAGIC = 0x50434832;   // "PCH2": rollups carry outage counts
+
+    private final long epochDay;
+    private final Resolution resolution;
+    private final int sampleSeconds;
+    private final int[] officeIds;       // ascending
+    private final int[] offsets;         // officeIds.length + 1 entries into data
+    private final byte[] data;
+
+    private ConnectivitySegment(long epochDay, Resolution resolution, int sampleSeconds,
+                                int[] officeIds, int[] offsets, byte[] data) {
+        this.epochDay = epochDay;
+        this.resolution = resolution;
+        this.sampleSeconds = sampleSeconds;
+        this.officeIds = officeIds;
+        this.offsets = offsets;
+        this.data = data;
+    }
+
+    /**
+     * @param blocks encoded block per office id
+     * @param sampleSeconds probe interval the samples were taken at; one down sample counts as this much downtime
+     */
+    static ConnectivitySegment of(long epochDay, Resolution resolution, int sampleSeconds, Map<Integer, byte[]> blocks) {
+        int[] ids = blocks.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] offsets = new int[ids.length + 1];
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (int i = 0; i < ids.length; i++) {
+            byte[] block = blocks.get(ids[i]);
+            out.writeBytes(block);
+            offsets[i + 1] = offsets[i] + block.length;
+        }
+        return new ConnectivitySegment(epochDay, resolution, sampleSeconds, ids, offsets, out.toByteArray());
+    }
+
+    static ConnectivitySegment read(Path file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a connectivity history segment: " + file);
+            }
+            long epochDay = in.readLong();
+            Resolution resolution = Resolution.values()[in.readByte()];
+            int sampleSeconds = in.readInt();
+            int count = in.readInt();
+            int[] ids = new int[count];
+            int[] offsets = new int[count + 1];
+            for (int i = 0; i < count; i++) {
+                ids[i] = in.readInt();
+                offsets[i + 1] = offsets[i] + in.readInt();
+            }
+            byte[] data = in.readNBytes(offsets[count]);
+            if (data.length != offsets[count]) {
+                throw new IOException("Truncated connectivity history segment: " + file);
+            }
+            return new ConnectivitySegment(epochDay, resolution, sampleSeconds, ids, offsets, data);
+        }
+    }
+
+    /**
+     * Write to a temp file next to the target and move it into place, so readers never see half a segment
+     */
+    void write(Path file) throws IOException {
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (OutputStream stream = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            out.writeInt(MAGIC);
+            out.writeLong(epochDay);
+            out.writeByte(resolution.ordinal());
+            out.writeInt(sampleSeconds);
+            out.writeInt(officeIds.length);
+            for (int i = 0; i < officeIds.length; i++) {
+                out.writeInt(officeIds[i]);
+                out.writeInt(offsets[i + 1] - offsets[i]);
+            }
+            out.write(data);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Raw samples of one office with epochSecond in [from, to). Nothing for rollup segments.
+     */
+    void forEachSample(int officeId, long from, long to, ConnectivityCodec.SampleConsumer consumer) {
+        int i = Arrays.binarySearch(officeIds, officeId);
+        if (i < 0 || resolution != Resolution.RAW) {
+            return;
+        }
+        ConnectivityCodec.decodeRaw(data, offsets[i], offsets[i + 1] - offsets[i], dayStart(), (time, up) -> {
+            if (time >= from && time < to) {
+                consumer.accept(time, up);
+            }
+        });
+    }
+
+    /**
+     * Sample counts per bucket for the matching offices. Buckets are bucketSeconds wide, or this
+     * segment's resolution if that is coarser; a bucket is included if it starts in [from, to).
+     */
+    void forEachBucket(IntPredicate offices, long from, long to, int bucketSeconds, BucketConsumer consumer) {
+        int width = Math.max(bucketSeconds, resolution.getSeconds());
+        for (int i = 0; i < officeIds.length; i++) {
+            if (offices.test(officeIds[i])) {
+                forEachBucketOf(i, from, to, width, consumer);
+            }
+        }
+    }
+
+    private void forEachBucketOf(int index, long from, long to, int width, BucketConsumer consumer) {
+        int officeId = officeIds[index];
+        int offset = offsets[index];
+        int length = offsets[index + 1] - offset;
+        long dayStart = dayStart();
+        if (resolution == Resolution.RAW) {
+            ConnectivityCodec.decodeRaw(data, offset, length, dayStart, (time, up) -> {
+                long bucket = time - Math.floorMod(time, width);
+                if (bucket >= from && bucket < to) {
+                    consumer.accept(officeId, bucket, width, 1, up ? 1 : 0);
+                }
+            });
+        } else {
+            int bucketSize = resolution.getSeconds();
+            ConnectivityCodec.decodeCounts(data, offset, length, resolution.bucketsPerDay(), (bucket, samples, up, outages) -> {
+                long start = dayStart + (long) bucket * bucketSize;
+                start -= Math.floorMod(start, width);
+                if (samples > 0 && start >= from && start < to) {
+                    consumer.accept(officeId, start, width, samples, up);
+                }
+            });
+        }
+    }
+
+    /**
+     * The same history at a coarser resolution (HOUR or DAY)
+     */
+    ConnectivitySegment downsample(Resolution target) {
+        if (target.getSeconds() <= resolution.getSeconds()) {
+            throw new IllegalArgumentException("Cannot downsample " + resolution + " to " + target);
+        }
+        int width = target.getSeconds();
+        long dayStart = dayStart();
+        Map<Integer, byte[]> blocks = new HashMap<>(officeIds.length * 4 / 3 + 1);
+        int[] samples = new int[target.bucketsPerDay()];
+        int[] up = new int[samples.length];
+        int[] outages = new int[samples.length];
+        for (int i = 0; i < officeIds.length; i++) {
+            Arrays.fill(samples, 0);
+            Arrays.fill(up, 0);
+            Arrays.fill(outages, 0);
+            int offset = offsets[i];
+            int length = offsets[i + 1] - offset;
+            int flags;
+            if (resolution == Resolution.RAW) {
+                // {first sample seen, first sample down, previous sample down}
+                boolean[] state = new boolean[3];
+                ConnectivityCodec.decodeRaw(data, offset, length, dayStart, (time, sampleUp) -> {
+                    int bucket = (int) ((time - dayStart) / width);
+                    samples[bucket]++;
+                    if (sampleUp) {
+                        up[bucket]++;
+                    } else if (!state[0] || !state[2]) {
+                        outages[bucket]++;
+                    }
+                    if (!state[0]) {
+                        state[0] = true;
+                        state[1] = !sampleUp;
+                    }
+                    state[2] = !sampleUp;
+                });
+                flags = (state[1] ? ConnectivityCodec.STARTS_DOWN : 0) | (state[2] ? ConnectivityCodec.ENDS_DOWN : 0);
+            } else {
+                int bucketSize = resolution.getSeconds();
+                ConnectivityCodec.decodeCounts(data, offset, length, resolution.bucketsPerDay(), (bucket, count, upCount, outageCount) -> {
+                    int coarse = bucket * bucketSize / width;
+                    samples[coarse] += count;
+                    up[coarse] += upCount;
+                    outages[coarse] += outageCount;
+                });
+                flags = ConnectivityCodec.decodeCountFlags(data, offset, length);
+            }
+            blocks.put(officeIds[i], ConnectivityCodec.encodeCounts(flags, samples, up, outages));
+        }
+        return of(epochDay, target, sampleSeconds, blocks);
+    }
+
+    /**
+     * Position of officeId at or after fromIndex, or a negative value if this segment has no block
+     * for it. Callers walking ascending ids pass the previous position to narrow the search.
+     */
+    int indexOf(int officeId, int fromIndex) {
+        return Arrays.binarySearch(officeIds, fromIndex, officeIds.length, officeId);
+    }
+
+    /**
+     * Totals of the block at index over [from, to) into summary (which is reset first). Raw
+     * samples are cut at the exact times; rollup buckets count if they start in the range, and the
+     * first/last-down flags then only apply if the range covers the start/end of the day.
+     */
+    void summarize(int index, long from, long to, Summary summary) {
+        summary.reset();
+        int offset = offsets[index];
+        int length = offsets[index + 1] - offset;
+        long dayStart = dayStart();
+        if (resolution == Resolution.RAW) {
+            ConnectivityCodec.decodeRaw(data, offset, length, dayStart, (time, up) -> {
+                if (time < from || time >= to) {
+                    return;
+                }
+                if (up) {
+                    summary.up++;
+                } else if (summary.samples == 0 || !summary.lastDown) {
+                    summary.outages++;
+                }
+                if (summary.samples == 0) {
+                    summary.firstDown = !up;
+                }
+                summary.samples++;
+                summary.lastDown = !up;
+            });
+            return;
+        }
+        int bucketSize = resolution.getSeconds();
+        int buckets = resolution.bucketsPerDay();
+        ConnectivityCodec.decodeCounts(data, offset, length, buckets, (bucket, samples, up, outages) -> {
+            long start = dayStart + (long) bucket * bucketSize;
+            if (start >= from && start < to) {
+                summary.samples += samples;
+                summary.up += up;
+                summary.outages += outages;
+            }
+        });
+        int flags = ConnectivityCodec.decodeCountFlags(data, offset, length);
+        summary.firstDown = (flags & ConnectivityCodec.STARTS_DOWN) != 0 && dayStart >= from;
+        summary.lastDown = (flags & ConnectivityCodec.ENDS_DOWN) != 0 && dayStart + 86400 <= to;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public Resolution getResolution() {
+        return resolution;
+    }
+
+    public int getSampleSeconds() {
+        return sampleSeconds;
+    }
+
+    public int getOfficeCount() {
+        return officeIds.length;
+    }
+
+    /**
+     * Bytes of encoded blocks (the file adds 8 bytes of index per office)
+     */
+    public int getDataBytes() {
+        return data.length;
+    }
+
+    private long dayStart() {
+        return epochDay * 86400;
+    }
+
+    interface BucketConsumer {
+        void accept(int officeId, long bucketStart, int bucketSeconds, int samples, int up);
+    }
+
+    /**
+     * One office's totals over part of a day; mutable so a scan can reuse one instance
+     */
+    static final class Summary {
+        int samples;
+        int up;
+        int outages;
+        boolean firstDown;   // the first sample in range was down
+        boolean lastDown;    // the last sample in range was down
+
+        void reset() {
+            samples = 0;
+            up = 0;
+            outages = 0;
+            firstDown = false;
+            lastDown = false;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.pps.profilesystem.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal RFC 4180 CSV writing and reading, one record at a time.
+ * Values containing a comma, quote or line break are quoted; records end with CRLF.
+ * Values a spreadsheet would evaluate as a formula (starting with =, +, -, @, tab or CR) are
+ * written with a leading apostrophe, as is any value already starting with one, so opening an
+ * export in Excel never runs office names or addresses typed by users. read() strips it again.
+ * Signed plain numbers such as a negative coordinate are left alone, so they stay numbers.
+ */
+final class Csv {
+
+    // What Double.toString and a typed number look like; nothing after the sign can be a formula
+    private static final Pattern SIGNED_NUMBER = Pattern.compile("[+-](\\d+\\.?\\d*|\\.\\d+)([eE][+-]?\\d+)?");
+
+    private Csv() {
+    }
+
+    static void writeRecord(Writer writer, String... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            String value = neutralize(values[i] != null ? values[i] : "");
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                writer.write('"');
+                writer.write(value.replace("\"", "\"\""));
+                writer.write('"');
+            } else {
+                writer.write(value);
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static String neutralize(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        return switch (value.charAt(0)) {
+            case '+', '-' -> SIGNED_NUMBER.matcher(value).matches() ? value : "'" + value;
+            case '=', '@', '\t', '\r', '\'' -> "'" + value;
+            default -> value;
+        };
+    }
+
+    private static String restore(StringBuilder field) {
+        return field.length() > 0 && field.charAt(0) == '\'' ? field.substring(1) : field.toString();
+    }
+
+    /**
+     * Parse a CSV file written by writeRecord, handing each record to the consumer as it is read
+     */
+    static void read(Path csvFile, Consumer<List<String>> recordConsumer) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(csvFile, StandardCharsets.UTF_8)) {
+            List<String> record = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean any = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                any = true;
+                if (quoted) {
+                    if (c == '"') {
+                        reader.mark(1);
+                        if (reader.read() == '"') {
+                            field.append('"');
+                        } else {
+                            reader.reset();
+                            quoted = false;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    record.add(restore(field));
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    record.add(restore(field));
+                    field.setLength(0);
+                    recordConsumer.accept(record);
+                    record = new ArrayList<>();
+                    any = false;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (any) {
+                record.add(restore(field));
+                recordConsumer.accept(record);
+            }
+        }
+    }
+}
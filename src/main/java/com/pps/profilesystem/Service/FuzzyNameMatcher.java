@@ -0,0 +1,328 @@
+package com.pps.profilesystem.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Immutable fuzzy matcher from free-text names to reference items (areas, cities, barangays).
+ * Names are reduced to a key (LocationNames.normalize, common abbreviations expanded, filler
+ * words such as "brgy" or "city of" dropped). A key equal to the query key is an exact match;
+ * otherwise candidates come from a trigram index and are ranked by bounded edit distance,
+ * so a lookup only touches items sharing trigrams with the query, never the whole table.
+ * Items can carry a parent id; scoped lookups use a separate small index per parent.
+ * Thread-safe once built.
+ */
+public class FuzzyNameMatcher<T> {
+
+    private static final Map<String, String> ABBREVIATIONS = Map.ofEntries(
+        Map.entry("sto", "santo"),
+        Map.entry("sta", "santa"),
+        Map.entry("sn", "san"),
+        Map.entry("pob", "poblacion"),
+        Map.entry("gen", "general"),
+        Map.entry("pres", "president"),
+        Map.entry("mt", "mount"),
+        Map.entry("ext", "extension"));
+
+    // Trigram overlap (Dice coefficient) a candidate needs before its edit distance is computed
+    private static final double MIN_DICE = 0.3;
+    private static final int MAX_RANKED = 16;
+
+    private final Set<String> ignoredWords;
+    private final List<T> items;
+    private final String[] keys;
+    private final Map<String, int[]> exact;
+    private final Index global;
+    private final Map<Integer, Index> byParent;
+    private final int[] parentIds;
+
+    /**
+     * @param parentOf parent id of an item (e.g. a barangay's city id), or null for unscoped matchers
+     * @param ignoredWords words dropped from keys, e.g. "barangay", "city", "of"
+     */
+    public FuzzyNameMatcher(Collection<T> items, Function<T, String> nameOf,
+                            Function<T, Integer> parentOf, Set<String> ignoredWords) {
+        this.ignoredWords = Set.copyOf(ignoredWords);
+        this.items = List.copyOf(items);
+        int size = this.items.size();
+        keys = new String[size];
+        parentIds = new int[size];
+
+        Map<String, List<Integer>> exactLists = new HashMap<>();
+        Map<Integer, List<Integer>> parentLists = new HashMap<>();
+        List<Integer> all = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            T item = this.items.get(i);
+            keys[i] = key(nameOf.apply(item));
+            Integer parentId = parentOf != null ? parentOf.apply(item) : null;
+            parentIds[i] = parentId != null ? parentId : -1;
+            if (keys[i].isEmpty()) {
+                continue;
+            }
+            all.add(i);
+            exactLists.computeIfAbsent(keys[i], k -> new ArrayList<>()).add(i);
+            if (parentId != null) {
+                parentLists.computeIfAbsent(parentId, k -> new ArrayList<>()).add(i);
+            }
+        }
+        exact = new HashMap<>();
+        exactLists.forEach((key, list) -> exact.put(key, list.stream().mapToInt(Integer::intValue).toArray()));
+        global = new Index(all);
+        byParent = new HashMap<>();
+        parentLists.forEach((parentId, list) -> byParent.put(parentId, new Index(list)));
+    }
+
+    /**
+     * Best match anywhere
+     * @param minScore 0-1; 1 means exact key match only
+     * @return null if nothing scores at least minScore
+     */
+    public Match<T> match(String name, double minScore) {
+        return match(name, null, minScore);
+    }
+
+    /**
+     * Best match among the children of parentId (all items when parentId is null)
+     */
+    public Match<T> match(String name, Integer parentId, double minScore) {
+        String queryKey = key(name);
+        if (queryKey.isEmpty()) {
+            return null;
+        }
+
+        int[] exactHits = exact.get(queryKey);
+        if (exactHits != null) {
+            int found = -1, count = 0;
+            for (int i : exactHits) {
+                if (parentId == null || parentIds[i] == parentId) {
+                    found = i;
+                    count++;
+                }
+            }
+            if (count > 0) {
+                return new Match<>(items.get(found), 1.0, count > 1);
+            }
+        }
+        if (minScore >= 1.0) {
+            return null;
+        }
+
+        Index index = parentId == null ? global : byParent.get(parentId);
+        return index != null ? index.search(queryKey, minScore) : null;
+    }
+
+    /**
+     * Best match among the given items only (e.g. the barangays sharing one ZIP), scored
+     * directly without the index. Ties between different items are flagged ambiguous.
+     */
+    public Match<T> matchAmong(String name, Collection<T> candidates, Function<T, String> nameOf, double minScore) {
+        String queryKey = key(name);
+        if (queryKey.isEmpty()) {
+            return null;
+        }
+        T best = null;
+        double bestScore = -1;
+        boolean ambiguous = false;
+        for (T candidate : candidates) {
+            String candidateKey = key(nameOf.apply(candidate));
+            int maxLength = Math.max(queryKey.length(), candidateKey.length());
+            int bound = (int) Math.floor((1 - minScore) * maxLength);
+            int distance = editDistance(queryKey, candidateKey, bound);
+            if (candidateKey.isEmpty() || distance > bound) {
+                continue;
+            }
+            double score = 1.0 - (double) distance / maxLength;
+            if (score > bestScore) {
+                best = candidate;
+                bestScore = score;
+                ambiguous = false;
+            } else if (score == bestScore && candidate != best) {
+                ambiguous = true;
+            }
+        }
+        if (best == null || bestScore < minScore) {
+            return null;
+        }
+        return new Match<>(best, bestScore, ambiguous);
+    }
+
+    public int size() {
+        return items.size();
+    }
+
+    /**
+     * The normalized key a name is compared by
+     */
+    public String key(String name) {
+        String normalized = LocationNames.normalize(name);
+        if (normalized.isEmpty()) {
+            return normalized;
+        }
+        StringBuilder key = new StringBuilder(normalized.length());
+        for (String word : normalized.split(" ")) {
+            String expanded = ABBREVIATIONS.getOrDefault(word, word);
+            if (ignoredWords.contains(expanded)) {
+                continue;
+            }
+            if (key.length() > 0) {
+                key.append(' ');
+            }
+            key.append(expanded);
+        }
+        return key.toString();
+    }
+
+    private static Set<String> trigrams(String key) {
+        String padded = "  " + key + " ";
+        Set<String> grams = new LinkedHashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    /**
+     * Levenshtein distance, or bound + 1 as soon as it is known to exceed bound
+     */
+    static int editDistance(String a, String b, int bound) {
+        if (Math.abs(a.length() - b.length()) > bound) {
+            return bound + 1;
+        }
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            char ca = a.charAt(i - 1);
+            for (int j = 1; j <= b.length(); j++) {
+                int substitute = previous[j - 1] + (ca == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitute, Math.min(previous[j], current[j - 1]) + 1);
+                rowMin = Math.min(rowMin, current[j]);
+            }
+            if (rowMin > bound) {
+                return bound + 1;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[b.length()];
+    }
+
+    /**
+     * Trigram postings over a subset of the items (positions are local to the subset)
+     */
+    private class Index {
+        private final int[] members;
+        private final int[] gramCounts;
+        private final Map<String, int[]> postings;
+
+        Index(List<Integer> memberList) {
+            members = memberList.stream().mapToInt(Integer::intValue).toArray();
+            gramCounts = new int[members.length];
+            Map<String, List<Integer>> lists = new HashMap<>();
+            for (int local = 0; local < members.length; local++) {
+                Set<String> grams = trigrams(keys[members[local]]);
+                gramCounts[local] = grams.size();
+                for (String gram : grams) {
+                    lists.computeIfAbsent(gram, g -> new ArrayList<>()).add(local);
+                }
+            }
+            postings = new HashMap<>(lists.size() * 4 / 3 + 1);
+            lists.forEach((gram, list) -> postings.put(gram, list.stream().mapToInt(Integer::intValue).toArray()));
+        }
+
+        Match<T> search(String queryKey, double minScore) {
+            Set<String> queryGrams = trigrams(queryKey);
+            int[] shared = new int[members.length];
+            List<Integer> touched = new ArrayList<>();
+            for (String gram : queryGrams) {
+                int[] posting = postings.get(gram);
+                if (posting == null) {
+                    continue;
+                }
+                for (int local : posting) {
+                    if (shared[local]++ == 0) {
+                        touched.add(local);
+                    }
+                }
+            }
+
+            // Rank by trigram overlap, then confirm the best few with edit distance
+            List<int[]> candidates = new ArrayList<>();
+            for (int local : touched) {
+                double dice = 2.0 * shared[local] / (queryGrams.size() + gramCounts[local]);
+                if (dice >= MIN_DICE) {
+                    candidates.add(new int[] {local, (int) (dice * 1_000_000)});
+                }
+            }
+            candidates.sort((x, y) -> Integer.compare(y[1], x[1]));
+
+            int best = -1;
+            double bestScore = -1;
+            boolean ambiguous = false;
+            for (int c = 0; c < candidates.size() && c < MAX_RANKED; c++) {
+                String candidateKey = keys[members[candidates.get(c)[0]]];
+                int maxLength = Math.max(queryKey.length(), candidateKey.length());
+                int bound = (int) Math.floor((1 - minScore) * maxLength);
+                int distance = editDistance(queryKey, candidateKey, bound);
+                if (distance > bound) {
+                    continue;
+                }
+                double score = 1.0 - (double) distance / maxLength;
+                if (score > bestScore) {
+                    ambiguous = false;
+                    best = members[candidates.get(c)[0]];
+                    bestScore = score;
+                } else if (score == bestScore) {
+                    ambiguous = true;
+                }
+            }
+            if (best < 0 || bestScore < minScore) {
+                return null;
+            }
+            return new Match<>(items.get(best), bestScore, ambiguous);
+        }
+    }
+
+    /**
+     * A matched item with its similarity score (1.0 = same key).
+     * ambiguous means another item scored exactly as well, so the choice is arbitrary.
+     */
+    public static class Match<T> {
+        private final T item;
+        private final double score;
+        private final boolean ambiguous;
+
+        Match(T item, double score, boolean ambiguous) {
+            this.item = item;
+            this.score = score;
+            this.ambiguous = ambiguous;
+        }
+
+        public T getItem() {
+            return item;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public boolean isAmbiguous() {
+            return ambiguous;
+        }
+
+        public boolean isExact() {
+            return score == 1.0;
+        }
+    }
+}
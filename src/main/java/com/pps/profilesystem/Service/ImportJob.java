@@ -0,0 +1,141 @@
+package com.pps.profilesystem.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress of one background postal office import.
+ * Counters are updated by the import thread and read by the status endpoint.
+ */
+public class ImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    /**
+     * INSERT adds every row as a new office; UPSERT matches rows to existing offices by
+     * name + area + ZIP and only writes rows that are new or changed
+     */
+    public enum Mode { INSERT, UPSERT }
+
+    private final String id;
+    private final String fileName;
+    private final Mode mode;
+    private final Instant submittedAt = Instant.now();
+    private final ImportReport report;
+
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong rowsValidated = new AtomicLong();
+    private final AtomicLong rowsPersisted = new AtomicLong();
+    private final AtomicLong rowsInserted = new AtomicLong();
+    private final AtomicLong rowsUpdated = new AtomicLong();
+    private final AtomicLong rowsUnchanged = new AtomicLong();
+    private final AtomicLong warningCount = new AtomicLong();
+    private final AtomicLong errorCount = new AtomicLong();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+    private volatile boolean cancelRequested;
+
+    public ImportJob(String id, String fileName, Mode mode) {
+        this(id, fileName, mode, null);
+    }
+
+    /**
+     * @param reportFile where the row-level report CSV is written, or null to keep only its summary
+     */
+    public ImportJob(String id, String fileName, Mode mode, Path reportFile) {
+        this.id = id;
+        this.fileName = fileName;
+        this.mode = mode;
+        this.report = new ImportReport(reportFile);
+    }
+
+    /**
+     * Warnings and errors of this run. Not a getter, so the status JSON stays small.
+     */
+    public ImportReport report() {
+        return report;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        status = Status.RUNNING;
+    }
+
+    void finish(Status finalStatus, String finalMessage) {
+        message = finalMessage;
+        finishedAt = Instant.now();
+        status = finalStatus;
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void rowValidated() {
+        rowsValidated.incrementAndGet();
+    }
+
+    void rowsPersisted(int inserted, int updated) {
+        rowsInserted.addAndGet(inserted);
+        rowsUpdated.addAndGet(updated);
+        rowsPersisted.addAndGet(inserted + updated);
+    }
+
+    void rowUnchanged() {
+        rowsUnchanged.incrementAndGet();
+    }
+
+    void warningsAdded(int count) {
+        warningCount.addAndGet(count);
+    }
+
+    void errorAdded() {
+        errorCount.incrementAndGet();
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+
+    /**
+     * Rows read per second since the job started (up to now, or until it finished)
+     */
+    public double getRowsPerSecond() {
+        Instant start = startedAt;
+        if (start == null) {
+            return 0;
+        }
+        Instant end = finishedAt != null ? finishedAt : Instant.now();
+        double seconds = Duration.between(start, end).toNanos() / 1_000_000_000.0;
+        return seconds > 0 ? rowsRead.get() / seconds : 0;
+    }
+
+    public String getId() { return id; }
+    public String getFileName() { return fileName; }
+    public Mode getMode() { return mode; }
+    public Status getStatus() { return status; }
+    public String getMessage() { return message; }
+    public boolean isCancelRequested() { return cancelRequested; }
+    public Instant getSubmittedAt() { return submittedAt; }
+    public Instant getStartedAt() { return startedAt; }
+    public Instant getFinishedAt() { return finishedAt; }
+    public long getRowsRead() { return rowsRead.get(); }
+    public long getRowsValidated() { return rowsValidated.get(); }
+    public long getRowsPersisted() { return rowsPersisted.get(); }
+    public long getRowsInserted() { return rowsInserted.get(); }
+    public long getRowsUpdated() { return rowsUpdated.get(); }
+    public long getRowsUnchanged() { return rowsUnchanged.get(); }
+    public long getWarningCount() { return warningCount.get(); }
+    public long getErrorCount() { return errorCount.get(); }
+    public Map<String, Long> getIssueCounts() { return report.getCounts(); }
+}
@@ -0,0 +1,196 @@
+package com.pps.profilesystem.Service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Stream;
+
+/**
+ * Runs postal office imports as background jobs on virtual threads.
+ * The upload is copied to a temp file before the request ends, so the job
+ * outlives the HTTP request and the page can poll its progress.
+ * Each run writes its row-level report to <report dir>/<job id>.csv, which outlives the
+ * in-memory job and is deleted after import.report-retention-days.
+ */
+@Service
+public class ImportJobService {
+
+    // Finished jobs are kept this long so the page can still read the final status
+    private static final Duration FINISHED_JOB_RETENTION = Duration.ofHours(1);
+
+    @Autowired
+    private PostalOfficeImportService importService;
+
+    // Empty means <java.io.tmpdir>/postal-office-import-reports
+    @Value("${import.report-dir:}")
+    private String reportDir;
+
+    @Value("${import.report-retention-days:30}")
+    private int reportRetentionDays;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+
+    /**
+     * Queue an import of the uploaded workbook
+     * @return the job, already registered and visible to getJob
+     */
+    public ImportJob submit(MultipartFile file, ImportJob.Mode mode) throws IOException {
+        purgeFinishedJobs();
+
+        Path tempFile = Files.createTempFile("postal-office-import-", ".xlsx");
+        try {
+            file.transferTo(tempFile);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+
+        String jobId = UUID.randomUUID().toString();
+        Path reportFile;
+        try {
+            reportFile = reportDirectory().resolve(jobId + ".csv");
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tempFile);
+            throw e;
+        }
+        ImportJob job = new ImportJob(jobId, file.getOriginalFilename(), mode, reportFile);
+        jobs.put(job.getId(), job);
+        executor.submit(() -> run(job, tempFile));
+        return job;
+    }
+
+    public Optional<ImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    /**
+     * The report CSV of a finished run, including runs no longer held in memory
+     * @return empty for unknown ids, running jobs and purged reports
+     */
+    public Optional<Path> getReportFile(String jobId) {
+        try {
+            UUID.fromString(jobId);
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        ImportJob job = jobs.get(jobId);
+        if (job != null && !job.isFinished()) {
+            return Optional.empty();
+        }
+        try {
+            Path file = reportDirectory().resolve(jobId + ".csv");
+            return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+        } catch (IOException e) {
+            System.err.println("Import report directory unavailable: " + e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Ask a running job to stop. Chunks that were already committed stay in the database.
+     * @return false if the job does not exist or has already finished
+     */
+    public boolean cancel(String jobId) {
+        ImportJob job = jobs.get(jobId);
+        if (job == null || job.isFinished()) {
+            return false;
+        }
+        job.requestCancel();
+        return true;
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.start();
+        ImportJob.Status status;
+        String message;
+        try {
+            if (job.isCancelRequested()) {
+                throw new CancellationException();
+            }
+            importService.importPostalOffices(file, job);
+            status = ImportJob.Status.COMPLETED;
+            message = job.getMode() == ImportJob.Mode.UPSERT
+                    ? job.getRowsInserted() + " records inserted, " + job.getRowsUpdated() + " updated, "
+                      + job.getRowsUnchanged() + " unchanged"
+                    : job.getRowsPersisted() + " records imported successfully";
+        } catch (CancellationException e) {
+            status = ImportJob.Status.CANCELLED;
+            message = "Import cancelled. " + job.getRowsPersisted() + " records were saved before cancelling.";
+        } catch (Exception e) {
+            e.printStackTrace();
+            status = ImportJob.Status.FAILED;
+            message = "Import failed: " + e.getMessage();
+        } finally {
+            try {
+                job.report().close();
+            } catch (IOException e) {
+                System.err.println("Could not write import report for job " + job.getId() + ": " + e.getMessage());
+            }
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                System.err.println("Could not delete import temp file " + file + ": " + e.getMessage());
+            }
+        }
+        // Only now: a finished job's report can be downloaded straight away
+        job.finish(status, message);
+    }
+
+    private void purgeFinishedJobs() {
+        Instant cutoff = Instant.now().minus(FINISHED_JOB_RETENTION);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+
+        Instant reportCutoff = Instant.now().minus(reportRetentionDays, ChronoUnit.DAYS);
+        try (Stream<Path> reports = Files.list(reportDirectory())) {
+            reports.filter(report -> report.getFileName().toString().endsWith(".csv"))
+                   .filter(report -> isOlderThan(report, reportCutoff))
+                   .forEach(report -> {
+                       try {
+                           Files.deleteIfExists(report);
+                       } catch (IOException e) {
+                           System.err.println("Could not delete import report " + report + ": " + e.getMessage());
+                       }
+                   });
+        } catch (IOException e) {
+            System.err.println("Could not purge import reports: " + e.getMessage());
+        }
+    }
+
+    private static boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Path reportDirectory() throws IOException {
+        Path dir = reportDir == null || reportDir.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "postal-office-import-reports")
+                : Path.of(reportDir);
+        return Files.createDirectories(dir);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobs.values().forEach(ImportJob::requestCancel);
+        executor.shutdown();
+    }
+}
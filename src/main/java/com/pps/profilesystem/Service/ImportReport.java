@@ -0,0 +1,205 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.ImportIssueDTO;
+import com.pps.profilesystem.DTO.PostalOfficeImportDTO;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Row-level warnings and errors of one import run.
+ * Memory stays bounded however many issues there are: only counts per category and the first
+ * SAMPLES_PER_CATEGORY issues of each category are kept. Every issue, annotated with the
+ * offending row, is streamed to a CSV file as it arrives; toXlsx converts that file row by row.
+ * Rows come from user-supplied sheets, so both outputs keep formula-looking values as text.
+ * add() is called by the import thread while the status endpoint reads the summary.
+ */
+public class ImportReport implements Closeable {
+
+    public enum Severity { WARNING, ERROR }
+
+    public enum Category {
+        MISSING_AREA(Severity.WARNING),
+        AREA_NOT_FOUND(Severity.WARNING),
+        MISSING_NAME(Severity.WARNING),
+        INVALID_COORDINATE(Severity.WARNING),
+        AMBIGUOUS_ZIP(Severity.WARNING),
+        FUZZY_MATCH(Severity.WARNING),
+        DUPLICATE_ROW(Severity.WARNING),
+        ROW_FAILED(Severity.ERROR);
+
+        private final Severity severity;
+
+        Category(Severity severity) {
+            this.severity = severity;
+        }
+
+        public Severity getSeverity() {
+            return severity;
+        }
+    }
+
+    public static final int SAMPLES_PER_CATEGORY = 20;
+
+    // Issue columns followed by the row as it appeared in the import sheet
+    private static final String[] CSV_HEADER = Stream.concat(
+        Stream.of("ROW", "SEVERITY", "CATEGORY", "MESSAGE"),
+        Arrays.stream(PostalOfficeExcelReader.COLUMN_NAMES)).toArray(String[]::new);
+
+    private final Path csvFile;   // null keeps the summary only
+    private final Map<Category, Long> counts = new EnumMap<>(Category.class);
+    private final Map<Category, List<ImportIssueDTO>> samples = new EnumMap<>(Category.class);
+    private long warningCount;
+    private long errorCount;
+    private Writer writer;
+
+    /**
+     * @param csvFile where every issue is written, or null to keep counts and samples only
+     */
+    public ImportReport(Path csvFile) {
+        this.csvFile = csvFile;
+    }
+
+    public static ImportIssueDTO issue(PostalOfficeImportDTO row, Category category, String message) {
+        return new ImportIssueDTO(row.getRowNumber(), category.getSeverity().name(), category.name(), message, row);
+    }
+
+    public synchronized void add(ImportIssueDTO issue) {
+        Category category = Category.valueOf(issue.getCategory());
+        counts.merge(category, 1L, Long::sum);
+        if (category.getSeverity() == Severity.ERROR) {
+            errorCount++;
+        } else {
+            warningCount++;
+        }
+        List<ImportIssueDTO> categorySamples = samples.computeIfAbsent(category, c -> new ArrayList<>());
+        if (categorySamples.size() < SAMPLES_PER_CATEGORY) {
+            categorySamples.add(issue);
+        }
+        if (csvFile != null) {
+            try {
+                if (writer == null) {
+                    writer = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8);
+                    Csv.writeRecord(writer, CSV_HEADER);
+                }
+                PostalOfficeImportDTO row = issue.getRow();
+                Csv.writeRecord(writer, new String[] {
+                    Integer.toString(issue.getRowNumber()), issue.getSeverity(), issue.getCategory(), issue.getMessage(),
+                    row.getArea(), row.getPostOfficeName(),
+                    row.getLongitude() != null ? row.getLongitude().toString() : null,
+                    row.getLatitude() != null ? row.getLatitude().toString() : null,
+                    row.getZipCode(), row.getAddress(), row.getConnectivityStatus()
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not write import report " + csvFile, e);
+            }
+        }
+    }
+
+    public synchronized long getWarningCount() {
+        return warningCount;
+    }
+
+    public synchronized long getErrorCount() {
+        return errorCount;
+    }
+
+    /**
+     * Issue count per category, in category order
+     */
+    public synchronized Map<String, Long> getCounts() {
+        Map<String, Long> copy = new LinkedHashMap<>();
+        counts.forEach((category, count) -> copy.put(category.name(), count));
+        return copy;
+    }
+
+    /**
+     * The first issues of each category
+     */
+    public synchronized Map<String, List<ImportIssueDTO>> getSamples() {
+        Map<String, List<ImportIssueDTO>> copy = new LinkedHashMap<>();
+        samples.forEach((category, issues) -> copy.put(category.name(), List.copyOf(issues)));
+        return copy;
+    }
+
+    /**
+     * Flush the CSV file. Called once the import has finished.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writer != null) {
+            writer.close();
+            writer = null;
+        } else if (csvFile != null) {
+            // No issues: still leave a (header-only) report behind
+            try (Writer empty = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+                Csv.writeRecord(empty, CSV_HEADER);
+            }
+        }
+    }
+
+    /**
+     * Convert a report CSV to a workbook, streaming: only a window of rows is held in memory
+     */
+    public static void toXlsx(Path csvFile, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(100);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("Import report");
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle.setFont(bold);
+            CellStyle errorStyle = workbook.createCellStyle();
+            errorStyle.setFillForegroundColor(IndexedColors.ROSE.getIndex());
+            errorStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+
+            int[] rowIndex = {0};
+            Csv.read(csvFile, record -> {
+                Row row = sheet.createRow(rowIndex[0]);
+                boolean header = rowIndex[0] == 0;
+                boolean error = !header && record.size() > 1 && Severity.ERROR.name().equals(record.get(1));
+                for (int c = 0; c < record.size(); c++) {
+                    Cell cell = row.createCell(c);
+                    String value = record.get(c);
+                    if (!header && c == 0 && !value.isEmpty()) {
+                        cell.setCellValue(Integer.parseInt(value));
+                    } else {
+                        cell.setCellValue(value);
+                    }
+                    if (header) {
+                        cell.setCellStyle(headerStyle);
+                    } else if (error) {
+                        cell.setCellStyle(errorStyle);
+                    }
+                }
+                rowIndex[0]++;
+            });
+            sheet.createFreezePane(0, 1);
+            workbook.write(out);
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+}
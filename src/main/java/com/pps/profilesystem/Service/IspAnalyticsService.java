@@ -0,0 +1,151 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.IspOfficeDTO;
+import com.pps.profilesystem.DTO.IspUptimeDTO;
+import com.pps.profilesystem.DTO.IspUptimeGroupDTO;
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.InternetServiceProvider;
+import com.pps.profilesystem.Entity.Regions;
+import com.pps.profilesystem.Repository.AreaRepository;
+import com.pps.profilesystem.Repository.ISPRepository;
+import com.pps.profilesystem.Repository.PostalOfficeRepository;
+import com.pps.profilesystem.Repository.RegionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares ISPs by the connectivity history of the offices they connect: uptime, outage count
+ * and mean time to recovery over a window, optionally per area or region. The history is read
+ * once, day by day; each day's segment is handed to one IspUptimeScan per ISP in parallel.
+ * Offices are grouped by their current ISP, area and region.
+ */
+@Service
+public class IspAnalyticsService {
+
+    public enum GroupBy { NONE, AREA, REGION }
+
+    @Autowired
+    private PostalOfficeRepository postalOfficeRepository;
+
+    @Autowired
+    private ISPRepository ispRepository;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    @Autowired
+    private RegionsRepository regionsRepository;
+
+    @Autowired
+    private ConnectivityHistoryService historyService;
+
+    /**
+     * Uptime per ISP over [from, to), for offices in the given area / region (null for all)
+     */
+    public List<IspUptimeDTO> getUptime(Instant from, Instant to, Integer areaId, Integer regionId,
+                                        GroupBy groupBy) throws IOException {
+        Map<Integer, List<IspOfficeDTO>> officesByIsp = new TreeMap<>();
+        for (IspOfficeDTO office : postalOfficeRepository.findIspOffices(areaId, regionId)) {
+            officesByIsp.computeIfAbsent(office.getIspId(), id -> new ArrayList<>()).add(office);
+        }
+
+        List<Integer> ispIds = new ArrayList<>(officesByIsp.keySet());
+        List<List<Integer>> groupKeys = new ArrayList<>();
+        List<IspUptimeScan> scans = new ArrayList<>();
+        for (List<IspOfficeDTO> offices : officesByIsp.values()) {
+            List<Integer> keys = new ArrayList<>();
+            Map<Integer, Integer> groupIndex = new HashMap<>();
+            int[] officeIds = new int[offices.size()];
+            int[] groups = new int[offices.size()];
+            for (int i = 0; i < officeIds.length; i++) {
+                IspOfficeDTO office = offices.get(i);
+                Integer key = groupBy == GroupBy.AREA ? office.getAreaId()
+                        : groupBy == GroupBy.REGION ? office.getRegionId() : null;
+                officeIds[i] = office.getOfficeId();
+                groups[i] = groupIndex.computeIfAbsent(key, k -> {
+                    keys.add(k);
+                    return keys.size() - 1;
+                });
+            }
+            scans.add(new IspUptimeScan(officeIds, groups, keys.size()));
+            groupKeys.add(keys);
+        }
+
+        long start = from.getEpochSecond();
+        long end = to.getEpochSecond();
+        if (!scans.isEmpty()) {
+            historyService.getStore().forEachSegment(start, end,
+                    segment -> scans.parallelStream().forEach(scan -> scan.add(segment, start, end)));
+        }
+
+        Map<Integer, String> ispNames = new HashMap<>();
+        for (InternetServiceProvider isp : ispRepository.findAll()) {
+            ispNames.put(isp.getId(), isp.getName());
+        }
+        Map<Integer, String> groupNames = groupNames(groupBy);
+        List<IspUptimeDTO> result = new ArrayList<>(scans.size());
+        for (int i = 0; i < scans.size(); i++) {
+            IspUptimeScan scan = scans.get(i);
+            int offices = 0;
+            long samples = 0;
+            long up = 0;
+            long outages = 0;
+            long downSeconds = 0;
+            List<IspUptimeGroupDTO> groups = new ArrayList<>();
+            for (int g = 0; g < scan.groupCount(); g++) {
+                offices += scan.getOffices(g);
+                samples += scan.getSamples(g);
+                up += scan.getUp(g);
+                outages += scan.getOutages(g);
+                downSeconds += scan.getDownSeconds(g);
+                Integer key = groupKeys.get(i).get(g);
+                groups.add(new IspUptimeGroupDTO(key, groupNames.get(key), scan.getOffices(g), scan.getSamples(g),
+                        percent(scan.getUp(g), scan.getSamples(g)), hours(scan.getDownSeconds(g)),
+                        scan.getOutages(g), mttrMinutes(scan.getDownSeconds(g), scan.getOutages(g))));
+            }
+            // Worst first
+            groups.sort(Comparator.comparingDouble(IspUptimeGroupDTO::getUptimePercent));
+            Integer ispId = ispIds.get(i);
+            result.add(new IspUptimeDTO(ispId, ispNames.get(ispId), offices, samples, percent(up, samples),
+                    hours(downSeconds), outages, mttrMinutes(downSeconds, outages),
+                    groupBy == GroupBy.NONE ? null : groups));
+        }
+        result.sort(Comparator.comparing(IspUptimeDTO::getIspName, Comparator.nullsLast(Comparator.naturalOrder())));
+        return result;
+    }
+
+    private Map<Integer, String> groupNames(GroupBy groupBy) {
+        Map<Integer, String> names = new HashMap<>();
+        if (groupBy == GroupBy.AREA) {
+            for (Area area : areaRepository.findAll()) {
+                names.put(area.getId(), area.getAreaName());
+            }
+        } else if (groupBy == GroupBy.REGION) {
+            for (Regions region : regionsRepository.findAll()) {
+                names.put(region.getId(), region.getName());
+            }
+        }
+        return names;
+    }
+
+    private static double percent(long part, long whole) {
+        return whole > 0 ? Math.round(part * 10000.0 / whole) / 100.0 : 0;
+    }
+
+    private static double hours(long seconds) {
+        return Math.round(seconds / 36.0) / 100.0;
+    }
+
+    private static Double mttrMinutes(long downSeconds, long outages) {
+        return outages > 0 ? Math.round(downSeconds * 10.0 / 60 / outages) / 10.0 : null;
+    }
+}
@@ -0,0 +1,108 @@
+package com.pps.profilesystem.Service;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Uptime, downtime and outage counts of one ISP's offices, summed per group (area, region or
+ * everything), built up one day segment at a time in a single pass over the history.
+ * An outage that runs past midnight is counted once: a day starting down continues the previous
+ * day's outage if that day ended down. Not thread safe; IspAnalyticsService runs one scan per ISP.
+ */
+final class IspUptimeScan {
+
+    private final int[] officeIds;      // ascending
+    private final int[] groupOf;        // group index of each office
+    private final long[] lastDay;       // last day each office had samples
+    private final boolean[] lastDown;   // whether that day ended down
+    private final int[] offices;
+    private final long[] samples;
+    private final long[] up;
+    private final long[] outages;
+    private final long[] downSeconds;
+    private final ConnectivitySegment.Summary summary = new ConnectivitySegment.Summary();
+
+    /**
+     * @param officeIds offices of the ISP, any order
+     * @param groupOf group index (0 to groupCount - 1) of each office, same order
+     */
+    IspUptimeScan(int[] officeIds, int[] groupOf, int groupCount) {
+        int[] order = IntStream.range(0, officeIds.length).boxed()
+                .sorted(Comparator.comparingInt(i -> officeIds[i]))
+                .mapToInt(Integer::intValue).toArray();
+        this.officeIds = new int[order.length];
+        this.groupOf = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            this.officeIds[i] = officeIds[order[i]];
+            this.groupOf[i] = groupOf[order[i]];
+        }
+        this.lastDay = new long[order.length];
+        Arrays.fill(lastDay, Long.MIN_VALUE);
+        this.lastDown = new boolean[order.length];
+        this.offices = new int[groupCount];
+        for (int group : groupOf) {
+            offices[group]++;
+        }
+        this.samples = new long[groupCount];
+        this.up = new long[groupCount];
+        this.outages = new long[groupCount];
+        this.downSeconds = new long[groupCount];
+    }
+
+    /**
+     * Add the samples in [from, to) of one day; days must come in ascending order
+     */
+    void add(ConnectivitySegment segment, long from, long to) {
+        long day = segment.getEpochDay();
+        int searchFrom = 0;
+        for (int i = 0; i < officeIds.length; i++) {
+            int index = segment.indexOf(officeIds[i], searchFrom);
+            if (index < 0) {
+                searchFrom = -index - 1;
+                continue;
+            }
+            searchFrom = index + 1;
+            segment.summarize(index, from, to, summary);
+            if (summary.samples == 0) {
+                continue;
+            }
+            int count = summary.outages;
+            if (summary.firstDown && lastDown[i] && lastDay[i] == day - 1) {
+                count--;
+            }
+            lastDay[i] = day;
+            lastDown[i] = summary.lastDown;
+
+            int group = groupOf[i];
+            samples[group] += summary.samples;
+            up[group] += summary.up;
+            outages[group] += count;
+            downSeconds[group] += (long) (summary.samples - summary.up) * segment.getSampleSeconds();
+        }
+    }
+
+    int groupCount() {
+        return offices.length;
+    }
+
+    int getOffices(int group) {
+        return offices[group];
+    }
+
+    long getSamples(int group) {
+        return samples[group];
+    }
+
+    long getUp(int group) {
+        return up[group];
+    }
+
+    long getOutages(int group) {
+        return outages[group];
+    }
+
+    long getDownSeconds(int group) {
+        return downSeconds[group];
+    }
+}
@@ -0,0 +1,139 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of the Region -> Province -> City/Municipality -> Barangay tree.
+ * The entities inside are detached and shared between threads, so treat them as read-only.
+ */
+public class LocationHierarchy {
+
+    private final List<Regions> regions;
+    private final Map<Integer, Regions> regionsById;
+    private final Map<Integer, Province> provincesById;
+    private final Map<Integer, CityMunicipality> citiesById;
+    private final Map<Integer, Barangay> barangaysById;
+
+    private final Map<Integer, List<Province>> provincesByRegion;
+    private final Map<Integer, List<CityMunicipality>> citiesByProvince;
+    private final Map<Integer, List<Barangay>> barangaysByCity;
+
+    public LocationHierarchy(List<Regions> regions,
+                             List<Province> provinces,
+                             List<CityMunicipality> cities,
+                             List<Barangay> barangays) {
+        this.regions = List.copyOf(regions);
+
+        Map<Integer, Regions> regionMap = new HashMap<>();
+        for (Regions region : regions) {
+            regionMap.put(region.getId(), region);
+        }
+
+        Map<Integer, Province> provinceMap = new HashMap<>();
+        Map<Integer, List<Province>> provinceChildren = new HashMap<>();
+        for (Province province : provinces) {
+            provinceMap.put(province.getId(), province);
+            if (province.getRegion() != null) {
+                provinceChildren.computeIfAbsent(province.getRegion().getId(), k -> new ArrayList<>()).add(province);
+            }
+        }
+
+        Map<Integer, CityMunicipality> cityMap = new HashMap<>();
+        Map<Integer, List<CityMunicipality>> cityChildren = new HashMap<>();
+        for (CityMunicipality city : cities) {
+            cityMap.put(city.getId(), city);
+            if (city.getProvince() != null) {
+                cityChildren.computeIfAbsent(city.getProvince().getId(), k -> new ArrayList<>()).add(city);
+            }
+        }
+
+        Map<Integer, Barangay> barangayMap = new HashMap<>();
+        Map<Integer, List<Barangay>> barangayChildren = new HashMap<>();
+        for (Barangay barangay : barangays) {
+            barangayMap.put(barangay.getId(), barangay);
+            if (barangay.getCityMunicipality() != null) {
+                barangayChildren.computeIfAbsent(barangay.getCityMunicipality().getId(), k -> new ArrayList<>()).add(barangay);
+            }
+        }
+
+        this.regionsById = Collections.unmodifiableMap(regionMap);
+        this.provincesById = Collections.unmodifiableMap(provinceMap);
+        this.citiesById = Collections.unmodifiableMap(cityMap);
+        this.barangaysById = Collections.unmodifiableMap(barangayMap);
+        this.provincesByRegion = freeze(provinceChildren);
+        this.citiesByProvince = freeze(cityChildren);
+        this.barangaysByCity = freeze(barangayChildren);
+    }
+
+    private static <T> Map<Integer, List<T>> freeze(Map<Integer, List<T>> children) {
+        Map<Integer, List<T>> frozen = new HashMap<>();
+        children.forEach((parentId, list) -> frozen.put(parentId, List.copyOf(list)));
+        return Collections.unmodifiableMap(frozen);
+    }
+
+    public List<Regions> getRegions() {
+        return regions;
+    }
+
+    public Collection<Province> getProvinces() {
+        return provincesById.values();
+    }
+
+    public Collection<CityMunicipality> getCities() {
+        return citiesById.values();
+    }
+
+    public Collection<Barangay> getBarangays() {
+        return barangaysById.values();
+    }
+
+    public Regions getRegion(Integer id) {
+        return id != null ? regionsById.get(id) : null;
+    }
+
+    public Province getProvince(Integer id) {
+        return id != null ? provincesById.get(id) : null;
+    }
+
+    public CityMunicipality getCity(Integer id) {
+        return id != null ? citiesById.get(id) : null;
+    }
+
+    public Barangay getBarangay(Integer id) {
+        return id != null ? barangaysById.get(id) : null;
+    }
+
+    public List<Province> getProvincesByRegion(Integer regionId) {
+        return provincesByRegion.getOrDefault(regionId, List.of());
+    }
+
+    public List<CityMunicipality> getCitiesByProvince(Integer provinceId) {
+        return citiesByProvince.getOrDefault(provinceId, List.of());
+    }
+
+    public List<Barangay> getBarangaysByCity(Integer cityId) {
+        return barangaysByCity.getOrDefault(cityId, List.of());
+    }
+
+    public int getProvinceCount() {
+        return provincesById.size();
+    }
+
+    public int getCityCount() {
+        return citiesById.size();
+    }
+
+    public int getBarangayCount() {
+        return barangaysById.size();
+    }
+}
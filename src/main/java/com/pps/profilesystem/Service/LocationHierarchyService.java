@@ -0,0 +1,85 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+import com.pps.profilesystem.Repository.BarangayRepository;
+import com.pps.profilesystem.Repository.CityMunicipalityRepository;
+import com.pps.profilesystem.Repository.ProvinceRepository;
+import com.pps.profilesystem.Repository.RegionsRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Loads and holds the geographic hierarchy snapshot.
+ * The whole tree is read with four fetch-join queries (one per level) instead of
+ * the cascade of eager secondary selects that barangayRepository.findAll() triggers.
+ */
+@Service
+public class LocationHierarchyService {
+
+    @Autowired
+    private RegionsRepository regionsRepository;
+
+    @Autowired
+    private ProvinceRepository provinceRepository;
+
+    @Autowired
+    private CityMunicipalityRepository cityMunicipalityRepository;
+
+    @Autowired
+    private BarangayRepository barangayRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private volatile LocationHierarchy hierarchy;
+
+    /**
+     * Current snapshot, loaded on first use
+     */
+    public LocationHierarchy getHierarchy() {
+        LocationHierarchy current = hierarchy;
+        if (current == null) {
+            synchronized (this) {
+                current = hierarchy;
+                if (current == null) {
+                    current = load();
+                    hierarchy = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Reload the snapshot from the database (e.g. after reference data was edited)
+     */
+    public LocationHierarchy refresh() {
+        LocationHierarchy current = load();
+        hierarchy = current;
+        return current;
+    }
+
+    private LocationHierarchy load() {
+        // One read-only persistence context, so every level reuses the parents fetched by the levels above
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        LocationHierarchy loaded = readOnly.execute(status -> {
+            List<Regions> regions = regionsRepository.findAll();
+            List<Province> provinces = provinceRepository.findAllWithRegion();
+            List<CityMunicipality> cities = cityMunicipalityRepository.findAllWithHierarchy();
+            List<Barangay> barangays = barangayRepository.findAllWithHierarchy();
+            return new LocationHierarchy(regions, provinces, cities, barangays);
+        });
+        System.out.println("Loaded location hierarchy: " + loaded.getRegions().size() + " regions, "
+                + loaded.getProvinceCount() + " provinces, " + loaded.getCityCount() + " cities, "
+                + loaded.getBarangayCount() + " barangays");
+        return loaded;
+    }
+}
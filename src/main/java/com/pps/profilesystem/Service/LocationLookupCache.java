@@ -0,0 +1,188 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.LocationOptionDTO;
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Serves the cascading dropdowns (region -> provinces -> cities -> barangays) from memory.
+ * Children are stored as ready-made {id, name} lists in arrays indexed by the parent id,
+ * so a lookup is one array read with no boxing, hashing or database round trip.
+ * Reference geography rarely changes; call refresh() after editing it. Refreshing reloads the
+ * shared LocationHierarchy, and the ZIP index and name matchers rebuild against it on next use.
+ */
+@Service
+public class LocationLookupCache {
+
+    private static final Comparator<LocationOptionDTO> BY_NAME =
+        Comparator.comparing(LocationOptionDTO::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+    @Autowired
+    private LocationHierarchyService locationHierarchyService;
+
+    private volatile Index index;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder loads = new LongAdder();
+
+    /**
+     * Preload at startup so the first dropdown change is already served from memory.
+     * A database outage here is not fatal - the cache loads on first use instead.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            getIndex();
+        } catch (Exception e) {
+            System.err.println("Location cache preload failed, will load on first use: " + e.getMessage());
+        }
+    }
+
+    public List<LocationOptionDTO> getProvincesByRegion(int regionId) {
+        return lookup(getIndex().provincesByRegion, regionId);
+    }
+
+    public List<LocationOptionDTO> getCitiesByProvince(int provinceId) {
+        return lookup(getIndex().citiesByProvince, provinceId);
+    }
+
+    public List<LocationOptionDTO> getBarangaysByCity(int cityId) {
+        return lookup(getIndex().barangaysByCity, cityId);
+    }
+
+    /**
+     * Drop the cached lists and reload the hierarchy from the database. This is the one refresh
+     * hook for reference geography: everything built from the hierarchy follows the new snapshot.
+     */
+    public void refresh() {
+        index = build(locationHierarchyService.refresh());
+        loads.increment();
+    }
+
+    /**
+     * Hit/miss counters and sizes for monitoring
+     */
+    public Map<String, Object> getStats() {
+        Index current = index;
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long total = hitCount + missCount;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", total > 0 ? (double) hitCount / total : 0.0);
+        stats.put("loads", loads.sum());
+        stats.put("loaded", current != null);
+        if (current != null) {
+            stats.put("loadedAt", current.loadedAt);
+            stats.put("provinces", current.provinceCount);
+            stats.put("cities", current.cityCount);
+            stats.put("barangays", current.barangayCount);
+        }
+        return stats;
+    }
+
+    // A miss is a parent id the cache knows nothing about (an empty parent still counts as a hit)
+    private List<LocationOptionDTO> lookup(List<LocationOptionDTO>[] byParent, int parentId) {
+        if (parentId >= 0 && parentId < byParent.length && byParent[parentId] != null) {
+            hits.increment();
+            return byParent[parentId];
+        }
+        misses.increment();
+        return List.of();
+    }
+
+    private Index getIndex() {
+        Index current = index;
+        if (current == null) {
+            synchronized (this) {
+                current = index;
+                if (current == null) {
+                    current = build(locationHierarchyService.getHierarchy());
+                    index = current;
+                    loads.increment();
+                }
+            }
+        }
+        return current;
+    }
+
+    private static Index build(LocationHierarchy hierarchy) {
+        Index built = new Index();
+        built.provincesByRegion = group(hierarchy.getRegions().stream().map(Regions::getId).toList(),
+                hierarchy.getProvinces(), Province::getId, Province::getName,
+                p -> p.getRegion() != null ? p.getRegion().getId() : null);
+        built.citiesByProvince = group(hierarchy.getProvinces().stream().map(Province::getId).toList(),
+                hierarchy.getCities(), CityMunicipality::getId, CityMunicipality::getName,
+                c -> c.getProvince() != null ? c.getProvince().getId() : null);
+        built.barangaysByCity = group(hierarchy.getCities().stream().map(CityMunicipality::getId).toList(),
+                hierarchy.getBarangays(), Barangay::getId, Barangay::getName,
+                b -> b.getCityMunicipality() != null ? b.getCityMunicipality().getId() : null);
+        built.provinceCount = hierarchy.getProvinceCount();
+        built.cityCount = hierarchy.getCityCount();
+        built.barangayCount = hierarchy.getBarangayCount();
+        built.loadedAt = Instant.now();
+        return built;
+    }
+
+    /**
+     * Build an array indexed by parent id holding each parent's children sorted by name.
+     * Every known parent gets a list (possibly empty) so that it counts as a hit.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> List<LocationOptionDTO>[] group(List<Integer> parentIds,
+                                                       Collection<T> children,
+                                                       Function<T, Integer> idOf,
+                                                       Function<T, String> nameOf,
+                                                       Function<T, Integer> parentOf) {
+        int maxId = -1;
+        for (Integer parentId : parentIds) {
+            maxId = Math.max(maxId, parentId);
+        }
+        List<LocationOptionDTO>[] byParent = new List[maxId + 1];
+        for (Integer parentId : parentIds) {
+            byParent[parentId] = new ArrayList<>();
+        }
+        for (T child : children) {
+            Integer parentId = parentOf.apply(child);
+            if (parentId != null && parentId <= maxId && byParent[parentId] != null) {
+                byParent[parentId].add(new LocationOptionDTO(idOf.apply(child), nameOf.apply(child)));
+            }
+        }
+        for (int i = 0; i < byParent.length; i++) {
+            if (byParent[i] != null) {
+                byParent[i].sort(BY_NAME);
+                byParent[i] = List.copyOf(byParent[i]);
+            }
+        }
+        return byParent;
+    }
+
+    private static class Index {
+        private List<LocationOptionDTO>[] provincesByRegion;
+        private List<LocationOptionDTO>[] citiesByProvince;
+        private List<LocationOptionDTO>[] barangaysByCity;
+        private int provinceCount;
+        private int cityCount;
+        private int barangayCount;
+        private Instant loadedAt;
+    }
+}
@@ -0,0 +1,109 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Repository.AreaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Fuzzy resolution of free-text area, city and barangay names against the reference tables.
+ * Matchers are built from the current LocationHierarchy snapshot and rebuilt when it is refreshed.
+ */
+@Service
+public class LocationNameResolver {
+
+    // Minimum similarity accepted during imports; below this a name is reported as unresolved
+    public static final double DEFAULT_MIN_SCORE = 0.8;
+
+    private static final Set<String> AREA_FILLER = Set.of();
+    private static final Set<String> CITY_FILLER = Set.of("city", "of", "municipality", "mun");
+    private static final Set<String> BARANGAY_FILLER = Set.of("barangay", "brgy", "bgy");
+
+    @Autowired
+    private LocationHierarchyService locationHierarchyService;
+
+    @Autowired
+    private AreaRepository areaRepository;
+
+    private volatile Matchers matchers;
+
+    public FuzzyNameMatcher.Match<Area> matchArea(String name, double minScore) {
+        return getMatchers().areas.match(name, minScore);
+    }
+
+    /**
+     * @param provinceId restrict to cities of this province, or null for all
+     */
+    public FuzzyNameMatcher.Match<CityMunicipality> matchCity(String name, Integer provinceId, double minScore) {
+        return getMatchers().cities.match(name, provinceId, minScore);
+    }
+
+    /**
+     * @param cityId restrict to barangays of this city, or null for all
+     */
+    public FuzzyNameMatcher.Match<Barangay> matchBarangay(String name, Integer cityId, double minScore) {
+        return getMatchers().barangays.match(name, cityId, minScore);
+    }
+
+    /**
+     * Best barangay among the candidates only, e.g. every barangay sharing the row's ZIP
+     */
+    public FuzzyNameMatcher.Match<Barangay> matchBarangayAmong(String name, Collection<Barangay> candidates, double minScore) {
+        return getMatchers().barangays.matchAmong(name, candidates, Barangay::getName, minScore);
+    }
+
+    /**
+     * Rebuild the matchers, e.g. after areas were edited
+     */
+    public void refresh() {
+        matchers = build(locationHierarchyService.getHierarchy());
+    }
+
+    private Matchers getMatchers() {
+        LocationHierarchy hierarchy = locationHierarchyService.getHierarchy();
+        Matchers current = matchers;
+        if (current == null || current.hierarchy != hierarchy) {
+            synchronized (this) {
+                current = matchers;
+                if (current == null || current.hierarchy != hierarchy) {
+                    current = build(hierarchy);
+                    matchers = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Matchers build(LocationHierarchy hierarchy) {
+        long start = System.nanoTime();
+        Matchers built = new Matchers(hierarchy,
+            new FuzzyNameMatcher<>(areaRepository.findAll(), Area::getAreaName, null, AREA_FILLER),
+            new FuzzyNameMatcher<>(hierarchy.getCities(), CityMunicipality::getName,
+                c -> c.getProvince() != null ? c.getProvince().getId() : null, CITY_FILLER),
+            new FuzzyNameMatcher<>(hierarchy.getBarangays(), Barangay::getName,
+                b -> b.getCityMunicipality() != null ? b.getCityMunicipality().getId() : null, BARANGAY_FILLER));
+        System.out.printf("Built name matchers for %d areas, %d cities, %d barangays in %d ms%n",
+                built.areas.size(), built.cities.size(), built.barangays.size(), (System.nanoTime() - start) / 1_000_000);
+        return built;
+    }
+
+    private static class Matchers {
+        private final LocationHierarchy hierarchy;
+        private final FuzzyNameMatcher<Area> areas;
+        private final FuzzyNameMatcher<CityMunicipality> cities;
+        private final FuzzyNameMatcher<Barangay> barangays;
+
+        Matchers(LocationHierarchy hierarchy, FuzzyNameMatcher<Area> areas,
+                 FuzzyNameMatcher<CityMunicipality> cities, FuzzyNameMatcher<Barangay> barangays) {
+            this.hierarchy = hierarchy;
+            this.areas = areas;
+            this.cities = cities;
+            this.barangays = barangays;
+        }
+    }
+}
@@ -1,35 +1,65 @@
 package com.pps.profilesystem.Service;
 
-import java.util.List;
+import java.io.OutputStream;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.pps.profilesystem.Entity.PostalOffice;
-import com.pps.profilesystem.Repository.PostalOfficeRepository;
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.databind.ObjectMapper;
 
 @Service
 public class LocationService {
 
     @Autowired
-    private PostalOfficeRepository poRepo;
+    private OfficeReadModelService readModelService;
 
-    public List<PostalOffice> getAllOffices() {
-        return poRepo.findAll();
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Write all map markers as a JSON array of {id, name, lat, lng, status, areaId}, straight from
+     * the read model columns, so no DTO per office and no database round trip.
+     */
+    public void writeMapPoints(OutputStream out) {
+        OfficeReadModel model = readModelService.getModel();
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            generator.writeStartArray();
+            for (int slot = 0; slot < model.size(); slot++) {
+                if (!model.hasCoordinates(slot)) {
+                    continue;
+                }
+                generator.writeStartObject();
+                generator.writeNumberProperty("id", model.getId(slot));
+                generator.writeStringProperty("name", model.getName(slot));
+                generator.writeNumberProperty("lat", model.getLat(slot));
+                generator.writeNumberProperty("lng", model.getLng(slot));
+                generator.writeBooleanProperty("status", model.isActive(slot));
+                Integer areaId = model.getAreaId(slot);
+                if (areaId != null) {
+                    generator.writeNumberProperty("areaId", areaId);
+                } else {
+                    generator.writeNullProperty("areaId");
+                }
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+        }
     }
 
     public long countAll() {
-        return poRepo.count();
+        return readModelService.getModel().getStatistics().getTotal();
     }
 
     public long countActive() {
-        return poRepo.countByConnectionStatus(true);
+        return readModelService.getModel().getStatistics().getActive();
     }
 
     public long countInactive() {
-        return poRepo.countByConnectionStatus(false);
+        return readModelService.getModel().getStatistics().getInactive();
     }
+
     public long countAreas() {
-        return poRepo.countDistinctAreas();
+        return readModelService.getModel().getStatistics().getCoverageAreas();
     }
-}
\ No newline at end of file
+}
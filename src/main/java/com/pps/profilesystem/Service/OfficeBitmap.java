@@ -0,0 +1,450 @@
+package com.pps.profilesystem.Service;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Immutable compressed set of office ids, laid out like a Roaring bitmap: ids are split by their
+ * high 16 bits into chunks of 65536, and each non-empty chunk keeps its low 16 bits either as a
+ * sorted char[] (up to 4096 ids, 2 bytes per id) or as a 65536-bit long[] (8 KB, any density).
+ * Set operations work chunk by chunk and pick the cheaper form for each result chunk, so they cost
+ * roughly the size of the smaller operand rather than the number of offices.
+ * Ids must not be negative.
+ */
+public final class OfficeBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;   // 65536 bits
+
+    public static final OfficeBitmap EMPTY = new OfficeBitmap(new char[0], new Object[0], new int[0]);
+
+    private final char[] keys;            // high 16 bits per chunk, ascending
+    private final Object[] containers;    // char[] or long[] per chunk, never empty
+    private final int[] cardinalities;    // ids per chunk
+    private final int cardinality;
+
+    private OfficeBitmap(char[] keys, Object[] containers, int[] cardinalities) {
+        this.keys = keys;
+        this.containers = containers;
+        this.cardinalities = cardinalities;
+        int total = 0;
+        for (int count : cardinalities) {
+            total += count;
+        }
+        this.cardinality = total;
+    }
+
+    /**
+     * Bitmap of the given ids (any order, duplicates allowed)
+     */
+    public static OfficeBitmap of(int... ids) {
+        int[] sorted = ids.clone();
+        Arrays.sort(sorted);
+        if (sorted.length > 0 && sorted[0] < 0) {
+            throw new IllegalArgumentException("Negative office id: " + sorted[0]);
+        }
+        Builder builder = new Builder(sorted.length / ARRAY_MAX + 1);
+        int start = 0;
+        while (start < sorted.length) {
+            int key = sorted[start] >>> 16;
+            int end = start;
+            while (end < sorted.length && sorted[end] >>> 16 == key) {
+                end++;
+            }
+            // Distinct low bits of this chunk
+            char[] low = new char[end - start];
+            int count = 0;
+            for (int i = start; i < end; i++) {
+                char value = (char) sorted[i];
+                if (count == 0 || low[count - 1] != value) {
+                    low[count++] = value;
+                }
+            }
+            builder.add((char) key, count > ARRAY_MAX ? toWords(low, count) : Arrays.copyOf(low, count), count);
+            start = end;
+        }
+        return builder.build();
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean contains(int id) {
+        if (id < 0) {
+            return false;
+        }
+        int i = Arrays.binarySearch(keys, (char) (id >>> 16));
+        if (i < 0) {
+            return false;
+        }
+        Object container = containers[i];
+        char low = (char) id;
+        return container instanceof char[] array
+                ? Arrays.binarySearch(array, low) >= 0
+                : (((long[]) container)[low >>> 6] & (1L << low)) != 0;
+    }
+
+    public OfficeBitmap and(OfficeBitmap other) {
+        Builder builder = new Builder(Math.min(keys.length, other.keys.length));
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                builder.addNormalized(keys[i], and(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return builder.build();
+    }
+
+    public OfficeBitmap or(OfficeBitmap other) {
+        Builder builder = new Builder(keys.length + other.keys.length);
+        int i = 0;
+        int j = 0;
+        while (i < keys.length || j < other.keys.length) {
+            if (j == other.keys.length || (i < keys.length && keys[i] < other.keys[j])) {
+                builder.add(keys[i], containers[i], cardinalities[i]);
+                i++;
+            } else if (i == keys.length || keys[i] > other.keys[j]) {
+                builder.add(other.keys[j], other.containers[j], other.cardinalities[j]);
+                j++;
+            } else {
+                builder.addNormalized(keys[i], or(containers[i], other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Ids in this bitmap but not in other
+     */
+    public OfficeBitmap andNot(OfficeBitmap other) {
+        Builder builder = new Builder(keys.length);
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            while (j < other.keys.length && other.keys[j] < keys[i]) {
+                j++;
+            }
+            if (j < other.keys.length && other.keys[j] == keys[i]) {
+                builder.addNormalized(keys[i], andNot(containers[i], other.containers[j]));
+            } else {
+                builder.add(keys[i], containers[i], cardinalities[i]);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Size of the intersection without building it
+     */
+    public int andCardinality(OfficeBitmap other) {
+        int total = 0;
+        int i = 0;
+        int j = 0;
+        while (i < keys.length && j < other.keys.length) {
+            if (keys[i] < other.keys[j]) {
+                i++;
+            } else if (keys[i] > other.keys[j]) {
+                j++;
+            } else {
+                total += andCardinality(containers[i], other.containers[j]);
+                i++;
+                j++;
+            }
+        }
+        return total;
+    }
+
+    public void forEach(IntConsumer consumer) {
+        for (int i = 0; i < keys.length; i++) {
+            int high = keys[i] << 16;
+            if (containers[i] instanceof char[] array) {
+                for (char low : array) {
+                    consumer.accept(high | low);
+                }
+            } else {
+                long[] words = (long[]) containers[i];
+                for (int w = 0; w < WORDS; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        consumer.accept(high | (w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The smallest ids, ascending, at most limit of them
+     */
+    public int[] toArray(int limit) {
+        int[] ids = new int[Math.min(limit, cardinality)];
+        int n = 0;
+        for (int i = 0; i < keys.length && n < ids.length; i++) {
+            int high = keys[i] << 16;
+            if (containers[i] instanceof char[] array) {
+                for (int k = 0; k < array.length && n < ids.length; k++) {
+                    ids[n++] = high | array[k];
+                }
+            } else {
+                long[] words = (long[]) containers[i];
+                for (int w = 0; w < WORDS && n < ids.length; w++) {
+                    long word = words[w];
+                    while (word != 0 && n < ids.length) {
+                        ids[n++] = high | (w << 6) | Long.numberOfTrailingZeros(word);
+                        word &= word - 1;
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    public int[] toArray() {
+        return toArray(cardinality);
+    }
+
+    /**
+     * Approximate heap size, for logging
+     */
+    public long sizeInBytes() {
+        long bytes = keys.length * 2L + cardinalities.length * 4L;
+        for (Object container : containers) {
+            bytes += container instanceof char[] array ? array.length * 2L : WORDS * 8L;
+        }
+        return bytes;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof OfficeBitmap other) || other.cardinality != cardinality) {
+            return false;
+        }
+        return Arrays.equals(toArray(), other.toArray());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(toArray());
+    }
+
+    @Override
+    public String toString() {
+        return "OfficeBitmap" + Arrays.toString(toArray(20)) + (cardinality > 20 ? " (" + cardinality + " ids)" : "");
+    }
+
+    // Chunk operations. Results may be empty or an over-full array; Builder.addNormalized fixes both.
+
+    private static Object and(Object a, Object b) {
+        if (a instanceof char[] x && b instanceof char[] y) {
+            char[] out = new char[Math.min(x.length, y.length)];
+            int n = 0;
+            for (int i = 0, j = 0; i < x.length && j < y.length; ) {
+                if (x[i] < y[j]) {
+                    i++;
+                } else if (x[i] > y[j]) {
+                    j++;
+                } else {
+                    out[n++] = x[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+        if (a instanceof char[] x) {
+            return filter(x, (long[]) b, true);
+        }
+        if (b instanceof char[] y) {
+            return filter(y, (long[]) a, true);
+        }
+        long[] x = (long[]) a;
+        long[] y = (long[]) b;
+        long[] out = new long[WORDS];
+        for (int w = 0; w < WORDS; w++) {
+            out[w] = x[w] & y[w];
+        }
+        return out;
+    }
+
+    private static Object or(Object a, Object b) {
+        if (a instanceof char[] x && b instanceof char[] y) {
+            char[] out = new char[x.length + y.length];
+            int n = 0;
+            int i = 0;
+            int j = 0;
+            while (i < x.length || j < y.length) {
+                if (j == y.length || (i < x.length && x[i] < y[j])) {
+                    out[n++] = x[i++];
+                } else if (i == x.length || x[i] > y[j]) {
+                    out[n++] = y[j++];
+                } else {
+                    out[n++] = x[i];
+                    i++;
+                    j++;
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+        if (a instanceof char[] x) {
+            return set(((long[]) b).clone(), x);
+        }
+        if (b instanceof char[] y) {
+            return set(((long[]) a).clone(), y);
+        }
+        long[] x = (long[]) a;
+        long[] y = (long[]) b;
+        long[] out = new long[WORDS];
+        for (int w = 0; w < WORDS; w++) {
+            out[w] = x[w] | y[w];
+        }
+        return out;
+    }
+
+    private static Object andNot(Object a, Object b) {
+        if (a instanceof char[] x && b instanceof char[] y) {
+            char[] out = new char[x.length];
+            int n = 0;
+            for (int i = 0, j = 0; i < x.length; i++) {
+                while (j < y.length && y[j] < x[i]) {
+                    j++;
+                }
+                if (j == y.length || y[j] != x[i]) {
+                    out[n++] = x[i];
+                }
+            }
+            return Arrays.copyOf(out, n);
+        }
+        if (a instanceof char[] x) {
+            return filter(x, (long[]) b, false);
+        }
+        long[] out = ((long[]) a).clone();
+        if (b instanceof char[] y) {
+            for (char low : y) {
+                out[low >>> 6] &= ~(1L << low);
+            }
+        } else {
+            long[] y = (long[]) b;
+            for (int w = 0; w < WORDS; w++) {
+                out[w] &= ~y[w];
+            }
+        }
+        return out;
+    }
+
+    private static int andCardinality(Object a, Object b) {
+        if (a instanceof long[] x && b instanceof long[] y) {
+            int count = 0;
+            for (int w = 0; w < WORDS; w++) {
+                count += Long.bitCount(x[w] & y[w]);
+            }
+            return count;
+        }
+        return cardinalityOf(and(a, b));
+    }
+
+    // Ids of array that are (keep = true) or are not (keep = false) set in words
+    private static char[] filter(char[] array, long[] words, boolean keep) {
+        char[] out = new char[array.length];
+        int n = 0;
+        for (char low : array) {
+            if (((words[low >>> 6] & (1L << low)) != 0) == keep) {
+                out[n++] = low;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    private static long[] set(long[] words, char[] array) {
+        for (char low : array) {
+            words[low >>> 6] |= 1L << low;
+        }
+        return words;
+    }
+
+    private static long[] toWords(char[] array, int count) {
+        long[] words = new long[WORDS];
+        for (int i = 0; i < count; i++) {
+            words[array[i] >>> 6] |= 1L << array[i];
+        }
+        return words;
+    }
+
+    private static int cardinalityOf(Object container) {
+        if (container instanceof char[] array) {
+            return array.length;
+        }
+        int count = 0;
+        for (long word : (long[]) container) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    private static final class Builder {
+        private char[] keys;
+        private Object[] containers;
+        private int[] cardinalities;
+        private int size;
+
+        Builder(int capacity) {
+            keys = new char[capacity];
+            containers = new Object[capacity];
+            cardinalities = new int[capacity];
+        }
+
+        void add(char key, Object container, int cardinality) {
+            if (size == keys.length) {
+                int capacity = Math.max(4, size * 2);
+                keys = Arrays.copyOf(keys, capacity);
+                containers = Arrays.copyOf(containers, capacity);
+                cardinalities = Arrays.copyOf(cardinalities, capacity);
+            }
+            keys[size] = key;
+            containers[size] = container;
+            cardinalities[size] = cardinality;
+            size++;
+        }
+
+        // Drops empty chunks and switches each chunk to its smaller form
+        void addNormalized(char key, Object container) {
+            int cardinality = cardinalityOf(container);
+            if (cardinality == 0) {
+                return;
+            }
+            if (container instanceof char[] array && cardinality > ARRAY_MAX) {
+                container = toWords(array, cardinality);
+            } else if (container instanceof long[] words && cardinality <= ARRAY_MAX) {
+                char[] array = new char[cardinality];
+                int n = 0;
+                for (int w = 0; w < WORDS; w++) {
+                    long word = words[w];
+                    while (word != 0) {
+                        array[n++] = (char) ((w << 6) | Long.numberOfTrailingZeros(word));
+                        word &= word - 1;
+                    }
+                }
+                container = array;
+            }
+            add(key, container, cardinality);
+        }
+
+        OfficeBitmap build() {
+            return size == 0 ? EMPTY : new OfficeBitmap(Arrays.copyOf(keys, size), Arrays.copyOf(containers, size),
+                    Arrays.copyOf(cardinalities, size));
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeFilterRowDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable bitmap index over office ids: one OfficeBitmap per value of each Dimension
+ * (null, i.e. "not set", is a value of its own). Any AND/OR/NOT combination of attribute values
+ * is a few bitmap operations (OfficeFilter), independent of how many offices there are.
+ * Status and coordinates are indexed as 1 (active / has both coordinates) and 0.
+ * Each office's own values are kept in one int array per dimension, parallel to the sorted ids,
+ * so an update finds the bitmaps an office leaves without a boxed map per office, and only the
+ * arrays of dimensions that actually changed are copied.
+ */
+public class OfficeBitmapIndex {
+
+    public enum Dimension { AREA, REGION, PROVINCE, CITY, ISP, STATUS, COORDINATES }
+
+    private static final Dimension[] DIMENSIONS = Dimension.values();
+    // Stored value of "not set"
+    private static final int NONE = Integer.MIN_VALUE;
+
+    private final OfficeBitmap all;
+    private final List<Map<Integer, OfficeBitmap>> bitmaps;   // by dimension ordinal
+    private final int[] ids;                                  // sorted
+    private final int[][] values;                             // [dimension][position of the id], NONE when not set
+
+    public OfficeBitmapIndex(Collection<OfficeFilterRowDTO> rows) {
+        List<Map<Integer, IdBuffer>> buffers = new ArrayList<>();
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            buffers.add(new HashMap<>());
+        }
+        List<OfficeFilterRowDTO> sorted = new ArrayList<>(rows);
+        sorted.sort(Comparator.comparing(OfficeFilterRowDTO::getId));
+        ids = new int[sorted.size()];
+        values = new int[DIMENSIONS.length][sorted.size()];
+        for (int i = 0; i < ids.length; i++) {
+            OfficeFilterRowDTO row = sorted.get(i);
+            ids[i] = row.getId();
+            Integer[] rowValues = valuesOf(row);
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                values[d][i] = store(rowValues[d]);
+                buffers.get(d).computeIfAbsent(rowValues[d], v -> new IdBuffer()).add(row.getId());
+            }
+        }
+        all = ids.length == 0 ? OfficeBitmap.EMPTY : OfficeBitmap.of(ids.clone());
+        bitmaps = new ArrayList<>();
+        for (Map<Integer, IdBuffer> byValue : buffers) {
+            Map<Integer, OfficeBitmap> dimension = new HashMap<>();
+            byValue.forEach((value, ids) -> dimension.put(value, ids.toBitmap()));
+            bitmaps.add(dimension);
+        }
+    }
+
+    private OfficeBitmapIndex(OfficeBitmap all, List<Map<Integer, OfficeBitmap>> bitmaps, int[] ids, int[][] values) {
+        this.all = all;
+        this.bitmaps = bitmaps;
+        this.ids = ids;
+        this.values = values;
+    }
+
+    /**
+     * A copy with the given offices re-indexed. Requested ids without a row are treated as deleted.
+     * Only the bitmaps of values that gained or lost an office are rebuilt.
+     */
+    public OfficeBitmapIndex withUpserts(Collection<Integer> requestedIds, List<OfficeFilterRowDTO> rows) {
+        // Per dimension and value: ids to add and to remove
+        List<Map<Integer, IdBuffer>> added = new ArrayList<>();
+        List<Map<Integer, IdBuffer>> removed = new ArrayList<>();
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            added.add(new HashMap<>());
+            removed.add(new HashMap<>());
+        }
+        IdBuffer addedIds = new IdBuffer();
+        IdBuffer removedIds = new IdBuffer();
+        int[][] newValues = values.clone();          // a dimension's array is copied once it changes
+        boolean[] copied = new boolean[DIMENSIONS.length];
+        List<OfficeFilterRowDTO> inserted = new ArrayList<>();
+
+        Set<Integer> deleted = new HashSet<>(requestedIds);
+        for (OfficeFilterRowDTO row : rows) {
+            deleted.remove(row.getId());
+            Integer[] rowValues = valuesOf(row);
+            int position = Arrays.binarySearch(ids, row.getId());
+            if (position < 0) {
+                inserted.add(row);
+                addedIds.add(row.getId());
+                for (int d = 0; d < DIMENSIONS.length; d++) {
+                    added.get(d).computeIfAbsent(rowValues[d], v -> new IdBuffer()).add(row.getId());
+                }
+                continue;
+            }
+            for (int d = 0; d < DIMENSIONS.length; d++) {
+                int value = store(rowValues[d]);
+                if (newValues[d][position] == value) {
+                    continue;
+                }
+                removed.get(d).computeIfAbsent(load(newValues[d][position]), v -> new IdBuffer()).add(row.getId());
+                added.get(d).computeIfAbsent(rowValues[d], v -> new IdBuffer()).add(row.getId());
+                if (!copied[d]) {
+                    newValues[d] = newValues[d].clone();
+                    copied[d] = true;
+                }
+                newValues[d][position] = value;
+            }
+        }
+        boolean[] gone = new boolean[ids.length];
+        for (Integer id : deleted) {
+            int position = Arrays.binarySearch(ids, id);
+            if (position >= 0) {
+                gone[position] = true;
+                removedIds.add(id);
+                for (int d = 0; d < DIMENSIONS.length; d++) {
+                    removed.get(d).computeIfAbsent(load(values[d][position]), v -> new IdBuffer()).add(id);
+                }
+            }
+        }
+
+        int[] newIds = ids;
+        if (!inserted.isEmpty() || removedIds.size > 0) {
+            // Positions move: merge the surviving offices with the new ones in id order
+            inserted.sort(Comparator.comparing(OfficeFilterRowDTO::getId));
+            int newSize = ids.length - removedIds.size + inserted.size();
+            newIds = new int[newSize];
+            int[][] merged = new int[DIMENSIONS.length][newSize];
+            int i = 0, j = 0;
+            for (int position = 0; position < newSize; ) {
+                if (i < ids.length && gone[i]) {
+                    i++;
+                } else if (j == inserted.size() || (i < ids.length && ids[i] < inserted.get(j).getId())) {
+                    newIds[position] = ids[i];
+                    for (int d = 0; d < DIMENSIONS.length; d++) {
+                        merged[d][position] = newValues[d][i];
+                    }
+                    i++;
+                    position++;
+                } else {
+                    OfficeFilterRowDTO row = inserted.get(j++);
+                    Integer[] rowValues = valuesOf(row);
+                    newIds[position] = row.getId();
+                    for (int d = 0; d < DIMENSIONS.length; d++) {
+                        merged[d][position] = store(rowValues[d]);
+                    }
+                    position++;
+                }
+            }
+            newValues = merged;
+        }
+
+        List<Map<Integer, OfficeBitmap>> newBitmaps = new ArrayList<>();
+        for (int d = 0; d < DIMENSIONS.length; d++) {
+            Map<Integer, OfficeBitmap> dimension = new HashMap<>(bitmaps.get(d));
+            Set<Integer> changed = new HashSet<>(added.get(d).keySet());
+            changed.addAll(removed.get(d).keySet());
+            for (Integer value : changed) {
+                OfficeBitmap bitmap = dimension.getOrDefault(value, OfficeBitmap.EMPTY);
+                IdBuffer minus = removed.get(d).get(value);
+                IdBuffer plus = added.get(d).get(value);
+                if (minus != null) {
+                    bitmap = bitmap.andNot(minus.toBitmap());
+                }
+                if (plus != null) {
+                    bitmap = bitmap.or(plus.toBitmap());
+                }
+                if (bitmap.isEmpty()) {
+                    dimension.remove(value);
+                } else {
+                    dimension.put(value, bitmap);
+                }
+            }
+            newBitmaps.add(dimension);
+        }
+        OfficeBitmap newAll = all.or(addedIds.toBitmap()).andNot(removedIds.toBitmap());
+        return new OfficeBitmapIndex(newAll, newBitmaps, newIds, newValues);
+    }
+
+    /**
+     * Every indexed office
+     */
+    public OfficeBitmap all() {
+        return all;
+    }
+
+    /**
+     * Offices whose attribute equals value (null for "not set")
+     */
+    public OfficeBitmap get(Dimension dimension, Integer value) {
+        return bitmaps.get(dimension.ordinal()).getOrDefault(value, OfficeBitmap.EMPTY);
+    }
+
+    /**
+     * Values of the dimension that at least one office has
+     */
+    public Set<Integer> getValues(Dimension dimension) {
+        return bitmaps.get(dimension.ordinal()).keySet();
+    }
+
+    public int size() {
+        return all.cardinality();
+    }
+
+    /**
+     * Approximate heap size of the bitmaps, for logging
+     */
+    public long sizeInBytes() {
+        long bytes = all.sizeInBytes();
+        for (Map<Integer, OfficeBitmap> dimension : bitmaps) {
+            for (OfficeBitmap bitmap : dimension.values()) {
+                bytes += bitmap.sizeInBytes();
+            }
+        }
+        return bytes;
+    }
+
+    private static int store(Integer value) {
+        return value == null ? NONE : value;
+    }
+
+    private static Integer load(int value) {
+        return value == NONE ? null : value;
+    }
+
+    private static Integer[] valuesOf(OfficeFilterRowDTO row) {
+        return new Integer[]{row.getAreaId(), row.getRegionId(), row.getProvinceId(), row.getCityId(), row.getIspId(),
+                Boolean.TRUE.equals(row.getConnectionStatus()) ? 1 : 0,
+                Boolean.TRUE.equals(row.getHasCoordinates()) ? 1 : 0};
+    }
+
+    private static class IdBuffer {
+        private int[] ids = new int[4];
+        private int size;
+
+        void add(int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            ids[size++] = id;
+        }
+
+        OfficeBitmap toBitmap() {
+            return size == 0 ? OfficeBitmap.EMPTY : OfficeBitmap.of(Arrays.copyOf(ids, size));
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.pps.profilesystem.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Parsed office filter expression, evaluated against an OfficeBitmapIndex. Grammar:
+ * <pre>
+ *   expr   := and ("OR" and)*
+ *   and    := factor ("AND" factor)*
+ *   factor := "NOT" factor | "(" expr ")" | dimension ":" value ("," value)*
+ * </pre>
+ * Dimensions are area, region, province, city and isp (value: id or "none"), status (active /
+ * inactive) and coords (yes / no). Keywords and values are case-insensitive, e.g.
+ * {@code status:inactive AND region:7 AND area:3 AND isp:2 AND coords:no}.
+ */
+public abstract class OfficeFilter {
+
+    public static final int MAX_TERMS = 64;
+
+    public abstract OfficeBitmap evaluate(OfficeBitmapIndex index);
+
+    /**
+     * @throws IllegalArgumentException with a message fit for the caller if the expression is invalid
+     */
+    public static OfficeFilter parse(String expression) {
+        Parser parser = new Parser(tokenize(expression));
+        OfficeFilter filter = parser.expression();
+        if (parser.position < parser.tokens.size()) {
+            throw new IllegalArgumentException("Unexpected '" + parser.tokens.get(parser.position) + "'");
+        }
+        return filter;
+    }
+
+    private static List<String> tokenize(String expression) {
+        List<String> tokens = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        for (char c : expression.toCharArray()) {
+            if (Character.isWhitespace(c) || c == '(' || c == ')') {
+                if (!current.isEmpty()) {
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                }
+                if (c == '(' || c == ')') {
+                    tokens.add(String.valueOf(c));
+                }
+            } else {
+                current.append(c);
+            }
+        }
+        if (!current.isEmpty()) {
+            tokens.add(current.toString());
+        }
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException("Filter is empty");
+        }
+        return tokens;
+    }
+
+    private static final class Parser {
+        private final List<String> tokens;
+        private int position;
+        private int terms;
+
+        Parser(List<String> tokens) {
+            this.tokens = tokens;
+        }
+
+        OfficeFilter expression() {
+            OfficeFilter left = and();
+            while (accept("OR")) {
+                OfficeFilter l = left;
+                OfficeFilter r = and();
+                left = new OfficeFilter() {
+                    @Override
+                    public OfficeBitmap evaluate(OfficeBitmapIndex index) {
+                        return l.evaluate(index).or(r.evaluate(index));
+                    }
+                };
+            }
+            return left;
+        }
+
+        OfficeFilter and() {
+            OfficeFilter left = factor();
+            while (accept("AND")) {
+                OfficeFilter l = left;
+                OfficeFilter r = factor();
+                left = new OfficeFilter() {
+                    @Override
+                    public OfficeBitmap evaluate(OfficeBitmapIndex index) {
+                        return l.evaluate(index).and(r.evaluate(index));
+                    }
+                };
+            }
+            return left;
+        }
+
+        OfficeFilter factor() {
+            if (accept("NOT")) {
+                OfficeFilter negated = factor();
+                return new OfficeFilter() {
+                    @Override
+                    public OfficeBitmap evaluate(OfficeBitmapIndex index) {
+                        return index.all().andNot(negated.evaluate(index));
+                    }
+                };
+            }
+            if (accept("(")) {
+                OfficeFilter inner = expression();
+                if (!accept(")")) {
+                    throw new IllegalArgumentException("Missing ')'");
+                }
+                return inner;
+            }
+            if (position == tokens.size()) {
+                throw new IllegalArgumentException("Filter ends unexpectedly");
+            }
+            return term(tokens.get(position++));
+        }
+
+        private OfficeFilter term(String token) {
+            if (++terms > MAX_TERMS) {
+                throw new IllegalArgumentException("Filter has more than " + MAX_TERMS + " terms");
+            }
+            int colon = token.indexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Expected dimension:value but got '" + token + "'");
+            }
+            String name = token.substring(0, colon).toLowerCase(Locale.ROOT);
+            OfficeBitmapIndex.Dimension dimension = switch (name) {
+                case "area" -> OfficeBitmapIndex.Dimension.AREA;
+                case "region" -> OfficeBitmapIndex.Dimension.REGION;
+                case "province" -> OfficeBitmapIndex.Dimension.PROVINCE;
+                case "city" -> OfficeBitmapIndex.Dimension.CITY;
+                case "isp" -> OfficeBitmapIndex.Dimension.ISP;
+                case "status" -> OfficeBitmapIndex.Dimension.STATUS;
+                case "coords" -> OfficeBitmapIndex.Dimension.COORDINATES;
+                default -> throw new IllegalArgumentException("Unknown filter dimension '" + name + "'");
+            };
+            List<Integer> values = new ArrayList<>();
+            for (String value : token.substring(colon + 1).split(",", -1)) {
+                values.add(parseValue(dimension, value.toLowerCase(Locale.ROOT)));
+            }
+            return new OfficeFilter() {
+                @Override
+                public OfficeBitmap evaluate(OfficeBitmapIndex index) {
+                    OfficeBitmap result = OfficeBitmap.EMPTY;
+                    for (Integer value : values) {
+                        result = result.or(index.get(dimension, value));
+                    }
+                    return result;
+                }
+            };
+        }
+
+        private static Integer parseValue(OfficeBitmapIndex.Dimension dimension, String value) {
+            if (dimension == OfficeBitmapIndex.Dimension.STATUS) {
+                return switch (value) {
+                    case "active" -> 1;
+                    case "inactive" -> 0;
+                    default -> throw new IllegalArgumentException("status must be active or inactive");
+                };
+            }
+            if (dimension == OfficeBitmapIndex.Dimension.COORDINATES) {
+                return switch (value) {
+                    case "yes" -> 1;
+                    case "no" -> 0;
+                    default -> throw new IllegalArgumentException("coords must be yes or no");
+                };
+            }
+            if (value.equals("none")) {
+                return null;
+            }
+            try {
+                return Integer.valueOf(value);
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Expected an id or 'none' but got '" + value + "'");
+            }
+        }
+
+        private boolean accept(String token) {
+            if (position < tokens.size() && tokens.get(position).equalsIgnoreCase(token)) {
+                position++;
+                return true;
+            }
+            return false;
+        }
+    }
+}
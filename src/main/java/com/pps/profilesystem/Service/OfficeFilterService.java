@@ -0,0 +1,120 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeFilterResultDTO;
+import com.pps.profilesystem.DTO.OfficeFilterRowDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ad-hoc office filters ("inactive, region 7, area 3, ISP 2, no coordinates") and their counts,
+ * answered from an in-memory OfficeBitmapIndex instead of one repository query per combination.
+ * Built from the office read model and kept in sync with it like the search index.
+ */
+@Service
+public class OfficeFilterService {
+
+    @Autowired
+    private OfficeReadModelService readModelService;
+
+    private final SnapshotHolder<OfficeBitmapIndex> holder =
+            new SnapshotHolder<>("Filter index", this::load, this::applyUpserts);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        holder.preload();
+    }
+
+    @EventListener
+    public void onReadModelUpdated(OfficeReadModelUpdatedEvent event) {
+        holder.follow(event);
+    }
+
+    /**
+     * Offices matching the expression (see OfficeFilter for the syntax)
+     * @param limit how many ids to return; the count is always exact
+     * @param countBy also count the matches per value of this dimension, or null
+     * @throws IllegalArgumentException if the expression is invalid
+     */
+    public OfficeFilterResultDTO filter(String expression, int limit, OfficeBitmapIndex.Dimension countBy) {
+        OfficeFilter filter = OfficeFilter.parse(expression);
+        long start = System.nanoTime();
+        OfficeBitmapIndex current = getIndex();
+        OfficeBitmap matches = filter.evaluate(current);
+        Map<String, Integer> counts = null;
+        if (countBy != null) {
+            counts = new LinkedHashMap<>();
+            for (Integer value : current.getValues(countBy)) {
+                int count = matches.andCardinality(current.get(countBy, value));
+                if (count > 0) {
+                    counts.put(label(countBy, value), count);
+                }
+            }
+        }
+        int[] ids = matches.toArray(limit);
+        return new OfficeFilterResultDTO(expression, matches.cardinality(), ids, counts,
+                (System.nanoTime() - start) / 1000);
+    }
+
+    public OfficeBitmapIndex getIndex() {
+        return holder.get();
+    }
+
+    public void rebuild() {
+        holder.reload();
+    }
+
+    private OfficeBitmapIndex applyUpserts(OfficeBitmapIndex current, List<Integer> officeIds) {
+        OfficeReadModel model = readModelService.getModel();
+        List<OfficeFilterRowDTO> rows = new ArrayList<>();
+        for (Integer id : officeIds) {
+            int slot = model.slotOf(id);
+            if (slot >= 0) {
+                rows.add(toRow(model, slot));
+            }
+        }
+        return current.withUpserts(officeIds, rows);
+    }
+
+    private OfficeBitmapIndex load() {
+        long start = System.nanoTime();
+        OfficeReadModel model = readModelService.getModel();
+        List<OfficeFilterRowDTO> rows = new ArrayList<>(model.size());
+        for (int slot = 0; slot < model.size(); slot++) {
+            rows.add(toRow(model, slot));
+        }
+        OfficeBitmapIndex loaded = new OfficeBitmapIndex(rows);
+        System.out.println("Built filter index with " + loaded.size() + " offices, " + loaded.sizeInBytes() / 1024
+                + " KB of bitmaps in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return loaded;
+    }
+
+    private static OfficeFilterRowDTO toRow(OfficeReadModel model, int slot) {
+        return new OfficeFilterRowDTO(model.getId(slot),
+                model.getLocationId(OfficeReadModel.AREA, slot), model.getLocationId(OfficeReadModel.REGION, slot),
+                model.getLocationId(OfficeReadModel.PROVINCE, slot), model.getLocationId(OfficeReadModel.CITY, slot),
+                model.getLocationId(OfficeReadModel.ISP, slot), model.isActive(slot), model.hasCoordinates(slot));
+    }
+
+    private static String label(OfficeBitmapIndex.Dimension dimension, Integer value) {
+        if (dimension == OfficeBitmapIndex.Dimension.STATUS) {
+            return value == 1 ? "active" : "inactive";
+        }
+        if (dimension == OfficeBitmapIndex.Dimension.COORDINATES) {
+            return value == 1 ? "yes" : "no";
+        }
+        return value == null ? "none" : value.toString();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        holder.shutdown();
+    }
+}
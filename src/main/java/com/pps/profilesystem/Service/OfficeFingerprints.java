@@ -0,0 +1,119 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.Entity.PostalOffice;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Natural key -> (id, content hash) of the offices already in the database, for upsert imports.
+ * The natural key is the normalized office name plus area and ZIP; the content hash covers every
+ * column an import writes. Only the key, id and a 64-bit hash are kept per office, so an
+ * unchanged row is recognised without re-reading it. Not thread-safe; used by one import at a time.
+ */
+public class OfficeFingerprints {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private final Map<String, Fingerprint> byKey = new HashMap<>();
+    private int duplicateCount;
+
+    /**
+     * Register an existing office. When several share a key the first one added (lowest id) wins.
+     */
+    public void add(PostalOffice office) {
+        String key = naturalKey(office);
+        if (key == null) {
+            return;
+        }
+        if (byKey.putIfAbsent(key, new Fingerprint(office.getId(), contentHash(office))) != null) {
+            duplicateCount++;
+        }
+    }
+
+    /**
+     * @return null if no existing office has this key
+     */
+    public Fingerprint get(String key) {
+        return byKey.get(key);
+    }
+
+    public int size() {
+        return byKey.size();
+    }
+
+    /**
+     * Existing offices hidden behind another office with the same natural key
+     */
+    public int getDuplicateCount() {
+        return duplicateCount;
+    }
+
+    /**
+     * Name (case/accent-insensitive) + area id + ZIP (leading zeros ignored), or null for an unnamed office
+     */
+    public static String naturalKey(PostalOffice office) {
+        String name = LocationNames.normalize(office.getName());
+        if (name.isEmpty()) {
+            return null;
+        }
+        Integer areaId = office.getArea() != null ? office.getArea().getId() : null;
+        int zip = ZipIndex.parseZip(office.getZipCode());
+        String zipKey = zip >= 0 ? Integer.toString(zip)
+                      : office.getZipCode() != null ? office.getZipCode().trim() : "";
+        return name + "|" + areaId + "|" + zipKey;
+    }
+
+    /**
+     * FNV-1a hash of the columns an import writes (postmaster is not imported, so it is left out)
+     */
+    public static long contentHash(PostalOffice office) {
+        long hash = FNV_OFFSET;
+        hash = mix(hash, office.getName());
+        hash = mix(hash, office.getAddress());
+        hash = mix(hash, office.getArea() != null ? office.getArea().getId() : null);
+        hash = mix(hash, office.getRegion() != null ? office.getRegion().getId() : null);
+        hash = mix(hash, office.getProvince() != null ? office.getProvince().getId() : null);
+        hash = mix(hash, office.getCityMunicipality() != null ? office.getCityMunicipality().getId() : null);
+        hash = mix(hash, office.getBarangay() != null ? office.getBarangay().getId() : null);
+        hash = mix(hash, office.getZipCode());
+        hash = mix(hash, office.getLongitude());
+        hash = mix(hash, office.getLatitude());
+        hash = mix(hash, Boolean.TRUE.equals(office.getConnectionStatus()));
+        return hash;
+    }
+
+    private static long mix(long hash, Object value) {
+        if (value != null) {
+            String text = value.toString();
+            for (int i = 0; i < text.length(); i++) {
+                hash = (hash ^ text.charAt(i)) * FNV_PRIME;
+            }
+        }
+        // Field separator; null and "" differ through the marker below
+        hash = (hash ^ (value == null ? 0x1e : 0x1f)) * FNV_PRIME;
+        return hash;
+    }
+
+    /**
+     * Id and content hash of one existing office
+     */
+    public static class Fingerprint {
+        private final int id;
+        private final long hash;
+
+        Fingerprint(int id, long hash) {
+            this.id = id;
+            this.hash = hash;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public long getHash() {
+            return hash;
+        }
+    }
+}
@@ -0,0 +1,688 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeReadRowDTO;
+import com.pps.profilesystem.DTO.OfficeStatusCountDTO;
+import com.pps.profilesystem.DTO.PostalOfficeTableQuery;
+import com.pps.profilesystem.DTO.PostalOfficeTableRowDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable columnar snapshot of every office, read by the map, /table and dashboard endpoints and
+ * the source the spatial, search and filter indexes are built from.
+ * Each column is one primitive array indexed by slot, with slots in id order: coordinates as
+ * doubles (NaN when missing), connection status as packed bits, area / region / province / city / ISP
+ * as 16-bit codes into a dictionary per level, and names, postmasters, addresses and ZIP codes as
+ * references to deduplicated strings. byName holds the slots in the table's name order for keyset paging.
+ */
+public class OfficeReadModel {
+
+    static final int AREA = 0;
+    static final int REGION = 1;
+    static final int PROVINCE = 2;
+    static final int CITY = 3;
+    static final int ISP = 4;
+    private static final int LEVELS = 5;
+
+    // Location code of "not set"; dictionary entry i has code i + 1
+    private static final char NONE = 0;
+    private static final int MAX_CODES = Character.MAX_VALUE;
+
+    // Table name order: missing names first, then case-insensitive like the MySQL collation; ties by id
+    private static final Comparator<String> NAME_ORDER = Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER);
+
+    private final int size;
+    private final int[] ids;
+    private final String[] names;
+    private final String[] postmasters;
+    private final String[] addresses;
+    private final double[] lat;
+    private final double[] lng;
+    private final long[] active;          // one bit per slot
+    private final String[] zipCodes;
+    private final char[][] locations;     // [level][slot]
+    private final Dictionary[] dictionaries;
+    private final int[] byName;
+
+    private volatile OfficeStatistics statistics;
+
+    private OfficeReadModel(Builder b) {
+        size = b.size;
+        // Slots in id order: sort (id, builder position) pairs packed into longs
+        long[] order = new long[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = (long) b.ids[i] << 32 | i;
+        }
+        Arrays.sort(order);
+
+        dictionaries = new Dictionary[LEVELS];
+        for (int level = 0; level < LEVELS; level++) {
+            dictionaries[level] = new Dictionary(b.locationNames.get(level));
+        }
+        ids = new int[size];
+        names = new String[size];
+        postmasters = new String[size];
+        addresses = new String[size];
+        lat = new double[size];
+        lng = new double[size];
+        active = new long[(size + 63) >>> 6];
+        zipCodes = new String[size];
+        locations = new char[LEVELS][size];
+        for (int slot = 0; slot < size; slot++) {
+            int i = (int) order[slot];
+            ids[slot] = b.ids[i];
+            names[slot] = b.names[i];
+            postmasters[slot] = b.postmasters[i];
+            addresses[slot] = b.addresses[i];
+            lat[slot] = b.lat[i];
+            lng[slot] = b.lng[i];
+            if (b.active[i]) {
+                active[slot >>> 6] |= 1L << slot;
+            }
+            zipCodes[slot] = b.zipCodes[i];
+            for (int level = 0; level < LEVELS; level++) {
+                int id = b.locationIds[level][i];
+                locations[level][slot] = id == 0 ? NONE : (char) dictionaries[level].code(id);
+            }
+        }
+
+        Integer[] sorted = new Integer[size];
+        for (int slot = 0; slot < size; slot++) {
+            sorted[slot] = slot;
+        }
+        Arrays.sort(sorted, (x, y) -> compareByName(names, x, y));
+        byName = new int[size];
+        for (int i = 0; i < size; i++) {
+            byName[i] = sorted[i];
+        }
+    }
+
+    private OfficeReadModel(int size, int[] ids, String[] names, String[] postmasters, String[] addresses,
+                            double[] lat, double[] lng, long[] active, String[] zipCodes, char[][] locations,
+                            Dictionary[] dictionaries, int[] byName) {
+        this.size = size;
+        this.ids = ids;
+        this.names = names;
+        this.postmasters = postmasters;
+        this.addresses = addresses;
+        this.lat = lat;
+        this.lng = lng;
+        this.active = active;
+        this.zipCodes = zipCodes;
+        this.locations = locations;
+        this.dictionaries = dictionaries;
+        this.byName = byName;
+    }
+
+    /**
+     * A copy with the given offices re-read. Requested ids without a row are treated as deleted.
+     * Only the changed slots are rewritten: untouched offices are copied across slot for slot,
+     * new offices are merged in by id, and byName keeps its order for every office whose name
+     * did not change, so an update costs a linear copy rather than a sort of the whole model.
+     */
+    public OfficeReadModel withUpserts(Collection<Integer> requestedIds, List<OfficeReadRowDTO> rows) {
+        Map<Integer, OfficeReadRowDTO> rowsById = new HashMap<>();
+        for (OfficeReadRowDTO row : rows) {
+            rowsById.put(row.getId(), row);
+        }
+        Set<Integer> changedIds = new HashSet<>(requestedIds);
+        changedIds.addAll(rowsById.keySet());
+
+        boolean[] deleted = new boolean[size];
+        int deletes = 0;
+        Map<Integer, OfficeReadRowDTO> updates = new HashMap<>();   // old slot -> row
+        List<OfficeReadRowDTO> inserts = new ArrayList<>();
+        for (Integer id : changedIds) {
+            int slot = slotOf(id);
+            OfficeReadRowDTO row = rowsById.get(id);
+            if (slot >= 0 && row == null) {
+                deleted[slot] = true;
+                deletes++;
+            } else if (slot >= 0) {
+                updates.put(slot, row);
+            } else if (row != null) {
+                inserts.add(row);
+            }
+        }
+        inserts.sort(Comparator.comparing(OfficeReadRowDTO::getId));
+
+        Dictionary[] newDictionaries = new Dictionary[LEVELS];
+        for (int level = 0; level < LEVELS; level++) {
+            Map<Integer, String> entries = new TreeMap<>();
+            for (OfficeReadRowDTO row : rows) {
+                Integer id = locationId(row, level);
+                if (id != null) {
+                    entries.put(id, locationName(row, level));
+                }
+            }
+            newDictionaries[level] = dictionaries[level].with(entries);
+        }
+
+        // Merge the surviving slots (already in id order) with the new offices
+        int newSize = size - deletes + inserts.size();
+        int[] oldToNew = new int[size];     // -1 when deleted
+        int[] newToOld = new int[newSize];  // -1 - insert index for new offices
+        Arrays.fill(oldToNew, -1);
+        for (int slot = 0, i = 0, j = 0; slot < newSize; ) {
+            if (i < size && deleted[i]) {
+                i++;
+            } else if (j == inserts.size() || (i < size && ids[i] < inserts.get(j).getId())) {
+                oldToNew[i] = slot;
+                newToOld[slot++] = i++;
+            } else {
+                newToOld[slot++] = -1 - j++;
+            }
+        }
+
+        int[] newIds = new int[newSize];
+        String[] newNames = new String[newSize];
+        String[] newPostmasters = new String[newSize];
+        String[] newAddresses = new String[newSize];
+        double[] newLat = new double[newSize];
+        double[] newLng = new double[newSize];
+        long[] newActive = new long[(newSize + 63) >>> 6];
+        String[] newZipCodes = new String[newSize];
+        char[][] newLocations = new char[LEVELS][newSize];
+        boolean[] moved = new boolean[newSize];   // new or renamed: needs a new place in byName
+        int movedCount = 0;
+        for (int slot = 0; slot < newSize; slot++) {
+            int old = newToOld[slot];
+            OfficeReadRowDTO row = old >= 0 ? updates.get(old) : inserts.get(-1 - old);
+            if (row == null) {
+                newIds[slot] = ids[old];
+                newNames[slot] = names[old];
+                newPostmasters[slot] = postmasters[old];
+                newAddresses[slot] = addresses[old];
+                newLat[slot] = lat[old];
+                newLng[slot] = lng[old];
+                if (isActive(old)) {
+                    newActive[slot >>> 6] |= 1L << slot;
+                }
+                newZipCodes[slot] = zipCodes[old];
+                // Dictionary codes are stable across with(), so untouched offices keep theirs
+                for (int level = 0; level < LEVELS; level++) {
+                    newLocations[level][slot] = locations[level][old];
+                }
+                continue;
+            }
+            boolean located = row.getLat() != null && row.getLng() != null;
+            newIds[slot] = row.getId();
+            // Unchanged strings keep the shared instance
+            newNames[slot] = old >= 0 && Objects.equals(names[old], row.getName()) ? names[old] : row.getName();
+            newPostmasters[slot] = old >= 0 && Objects.equals(postmasters[old], row.getPostmaster()) ? postmasters[old] : row.getPostmaster();
+            newAddresses[slot] = old >= 0 && Objects.equals(addresses[old], row.getAddress()) ? addresses[old] : row.getAddress();
+            newLat[slot] = located ? row.getLat() : Double.NaN;
+            newLng[slot] = located ? row.getLng() : Double.NaN;
+            if (Boolean.TRUE.equals(row.getStatus())) {
+                newActive[slot >>> 6] |= 1L << slot;
+            }
+            newZipCodes[slot] = old >= 0 && Objects.equals(zipCodes[old], row.getZipCode()) ? zipCodes[old] : row.getZipCode();
+            for (int level = 0; level < LEVELS; level++) {
+                Integer id = locationId(row, level);
+                newLocations[level][slot] = id == null ? NONE : (char) newDictionaries[level].code(id);
+            }
+            if (old < 0 || NAME_ORDER.compare(names[old], row.getName()) != 0) {
+                moved[slot] = true;
+                movedCount++;
+            }
+        }
+
+        // byName: untouched offices keep their relative order; new and renamed ones are sorted and merged in
+        Integer[] movedSlots = new Integer[movedCount];
+        for (int slot = 0, m = 0; slot < newSize; slot++) {
+            if (moved[slot]) {
+                movedSlots[m++] = slot;
+            }
+        }
+        Arrays.sort(movedSlots, (x, y) -> compareByName(newNames, x, y));
+        int[] newByName = new int[newSize];
+        int n = 0, m = 0;
+        for (int i = 0; i < size; i++) {
+            int slot = oldToNew[byName[i]];
+            if (slot < 0 || moved[slot]) {
+                continue;
+            }
+            while (m < movedCount && compareByName(newNames, movedSlots[m], slot) < 0) {
+                newByName[n++] = movedSlots[m++];
+            }
+            newByName[n++] = slot;
+        }
+        while (m < movedCount) {
+            newByName[n++] = movedSlots[m++];
+        }
+
+        return new OfficeReadModel(newSize, newIds, newNames, newPostmasters, newAddresses, newLat, newLng, newActive,
+                newZipCodes, newLocations, newDictionaries, newByName);
+    }
+
+    // Slots are in id order, so comparing slots breaks name ties by id
+    private static int compareByName(String[] names, int x, int y) {
+        int c = NAME_ORDER.compare(names[x], names[y]);
+        return c != 0 ? c : Integer.compare(x, y);
+    }
+
+    private static Integer locationId(OfficeReadRowDTO row, int level) {
+        return switch (level) {
+            case AREA -> row.getAreaId();
+            case REGION -> row.getRegionId();
+            case PROVINCE -> row.getProvinceId();
+            case CITY -> row.getCityId();
+            default -> row.getIspId();
+        };
+    }
+
+    private static String locationName(OfficeReadRowDTO row, int level) {
+        return switch (level) {
+            case AREA -> row.getAreaName();
+            case REGION -> row.getRegionName();
+            case PROVINCE -> row.getProvinceName();
+            case CITY -> row.getCityName();
+            default -> row.getIspName();
+        };
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int getId(int slot) {
+        return ids[slot];
+    }
+
+    /**
+     * Slot of the office, or -1 if it is not in the snapshot
+     */
+    public int slotOf(int id) {
+        int slot = Arrays.binarySearch(ids, 0, size, id);
+        return slot >= 0 ? slot : -1;
+    }
+
+    public String getName(int slot) {
+        return names[slot];
+    }
+
+    public String getPostmaster(int slot) {
+        return postmasters[slot];
+    }
+
+    public String getAddress(int slot) {
+        return addresses[slot];
+    }
+
+    public String getZipCode(int slot) {
+        return zipCodes[slot];
+    }
+
+    public boolean hasCoordinates(int slot) {
+        return !Double.isNaN(lat[slot]);
+    }
+
+    public double getLat(int slot) {
+        return lat[slot];
+    }
+
+    public double getLng(int slot) {
+        return lng[slot];
+    }
+
+    public boolean isActive(int slot) {
+        return (active[slot >>> 6] & 1L << slot) != 0;
+    }
+
+    /**
+     * The office's area id, or null when it has none
+     */
+    public Integer getAreaId(int slot) {
+        return getLocationId(AREA, slot);
+    }
+
+    /**
+     * The office's area, region, province, city or ISP id (see the level constants), or null when it has none
+     */
+    Integer getLocationId(int level, int slot) {
+        return dictionaries[level].id(locations[level][slot]);
+    }
+
+    /**
+     * Up to query.limit rows after the keyset position (afterId / afterName), in the requested order
+     */
+    public List<PostalOfficeTableRowDTO> findPage(PostalOfficeTableQuery query) {
+        IntPredicate matches = matcher(query);
+        List<PostalOfficeTableRowDTO> rows = new ArrayList<>();
+        int step = query.isDescending() ? -1 : 1;
+        for (int i = start(query); i >= 0 && i < size && rows.size() < query.getLimit(); i += step) {
+            int slot = query.isSortByName() ? byName[i] : i;
+            if (matches.test(slot)) {
+                rows.add(toRow(slot));
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Number of offices matching the filters (ignores the keyset position)
+     */
+    public long count(PostalOfficeTableQuery query) {
+        IntPredicate matches = matcher(query);
+        long count = 0;
+        for (int slot = 0; slot < size; slot++) {
+            if (matches.test(slot)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Totals plus per-area and per-region counts, computed on first use and kept with the snapshot
+     */
+    public OfficeStatistics getStatistics() {
+        OfficeStatistics current = statistics;
+        if (current == null) {
+            current = new OfficeStatistics(countByAreaRegionAndStatus());
+            statistics = current;
+        }
+        return current;
+    }
+
+    /**
+     * Approximate heap size of the columns and dictionaries, not counting the strings they
+     * reference (16-byte array headers, 4-byte compressed references)
+     */
+    public long sizeInBytes() {
+        long bytes = array(size, 4) + 3 * array(size, 4) + 2 * array(size, 8) + array(active.length, 8)
+                + array(size, 4) + array(LEVELS, 4) + LEVELS * array(size, 2) + array(size, 4);
+        for (Dictionary dictionary : dictionaries) {
+            bytes += dictionary.sizeInBytes();
+        }
+        return bytes;
+    }
+
+    private static long array(int length, int elementBytes) {
+        return 16 + (long) length * elementBytes;
+    }
+
+    // Position in sort order of the first row after the keyset position
+    private int start(PostalOfficeTableQuery query) {
+        boolean desc = query.isDescending();
+        if (query.getAfterId() == null) {
+            return desc ? size - 1 : 0;
+        }
+        // Number of rows sorting at or before the keyset position
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (compareToKey(query.isSortByName() ? byName[mid] : mid, query) <= 0) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        if (!desc) {
+            return lo;
+        }
+        if (lo > 0 && compareToKey(query.isSortByName() ? byName[lo - 1] : lo - 1, query) == 0) {
+            lo--;
+        }
+        return lo - 1;
+    }
+
+    private int compareToKey(int slot, PostalOfficeTableQuery query) {
+        if (query.isSortByName()) {
+            int c = NAME_ORDER.compare(names[slot], query.getAfterName());
+            if (c != 0) {
+                return c;
+            }
+        }
+        return Integer.compare(ids[slot], query.getAfterId());
+    }
+
+    private IntPredicate matcher(PostalOfficeTableQuery query) {
+        IntPredicate matches = slot -> true;
+        matches = and(matches, AREA, query.getAreaId());
+        matches = and(matches, REGION, query.getRegionId());
+        matches = and(matches, PROVINCE, query.getProvinceId());
+        if (query.getStatus() != null) {
+            boolean status = query.getStatus();
+            matches = matches.and(slot -> isActive(slot) == status);
+        }
+        String prefix = query.getNamePrefix();
+        if (prefix != null && !prefix.isEmpty()) {
+            // Case-insensitive like the LIKE it replaces
+            matches = matches.and(slot -> names[slot] != null && names[slot].regionMatches(true, 0, prefix, 0, prefix.length()));
+        }
+        return matches;
+    }
+
+    private IntPredicate and(IntPredicate matches, int level, Integer id) {
+        if (id == null) {
+            return matches;
+        }
+        // -1 (unknown id) matches no office
+        int code = dictionaries[level].code(id);
+        char[] codes = locations[level];
+        return matches.and(slot -> codes[slot] == code);
+    }
+
+    private PostalOfficeTableRowDTO toRow(int slot) {
+        return new PostalOfficeTableRowDTO(ids[slot], names[slot],
+                dictionaries[AREA].name(locations[AREA][slot]),
+                dictionaries[REGION].name(locations[REGION][slot]),
+                dictionaries[PROVINCE].name(locations[PROVINCE][slot]),
+                dictionaries[CITY].name(locations[CITY][slot]),
+                zipCodes[slot], isActive(slot));
+    }
+
+    private List<OfficeStatusCountDTO> countByAreaRegionAndStatus() {
+        // (area code << 16 | region code) -> {inactive, active}
+        Map<Integer, long[]> counts = new HashMap<>();
+        for (int slot = 0; slot < size; slot++) {
+            int key = locations[AREA][slot] << 16 | locations[REGION][slot];
+            counts.computeIfAbsent(key, k -> new long[2])[isActive(slot) ? 1 : 0]++;
+        }
+        List<OfficeStatusCountDTO> groups = new ArrayList<>();
+        Dictionary areas = dictionaries[AREA];
+        Dictionary regions = dictionaries[REGION];
+        counts.forEach((key, byStatus) -> {
+            char area = (char) (key >>> 16);
+            char region = (char) (key & 0xFFFF);
+            for (int status = 0; status < 2; status++) {
+                if (byStatus[status] > 0) {
+                    groups.add(new OfficeStatusCountDTO(areas.id(area), areas.name(area),
+                            regions.id(region), regions.name(region), status == 1, byStatus[status]));
+                }
+            }
+        });
+        return groups;
+    }
+
+    /**
+     * Location ids and their names. Codes are handed out in id order when the model is built and
+     * appended for ids that first appear in an update, so existing codes never change.
+     */
+    private static final class Dictionary {
+        private final int[] ids;          // sorted
+        private final char[] codes;       // code of ids[i]
+        private final int[] idOfCode;     // by code - 1
+        private final String[] names;     // by code - 1
+
+        Dictionary(TreeMap<Integer, String> entries) {
+            if (entries.size() > MAX_CODES) {
+                throw new IllegalStateException("More than " + MAX_CODES + " distinct locations on one level");
+            }
+            ids = new int[entries.size()];
+            codes = new char[entries.size()];
+            names = new String[entries.size()];
+            int i = 0;
+            for (Map.Entry<Integer, String> entry : entries.entrySet()) {
+                ids[i] = entry.getKey();
+                codes[i] = (char) (i + 1);
+                names[i] = entry.getValue();
+                i++;
+            }
+            idOfCode = ids;
+        }
+
+        private Dictionary(int[] ids, char[] codes, int[] idOfCode, String[] names) {
+            this.ids = ids;
+            this.codes = codes;
+            this.idOfCode = idOfCode;
+            this.names = names;
+        }
+
+        /**
+         * This dictionary with the given ids added or renamed
+         */
+        Dictionary with(Map<Integer, String> entries) {
+            String[] newNames = null;
+            TreeMap<Integer, String> added = new TreeMap<>();
+            for (Map.Entry<Integer, String> entry : entries.entrySet()) {
+                int index = Arrays.binarySearch(ids, entry.getKey());
+                if (index < 0) {
+                    added.put(entry.getKey(), entry.getValue());
+                } else if (!Objects.equals(names[codes[index] - 1], entry.getValue())) {
+                    if (newNames == null) {
+                        newNames = names.clone();
+                    }
+                    newNames[codes[index] - 1] = entry.getValue();
+                }
+            }
+            if (added.isEmpty()) {
+                return newNames == null ? this : new Dictionary(ids, codes, idOfCode, newNames);
+            }
+            int count = idOfCode.length + added.size();
+            if (count > MAX_CODES) {
+                throw new IllegalStateException("More than " + MAX_CODES + " distinct locations on one level");
+            }
+            int[] newIdOfCode = Arrays.copyOf(idOfCode, count);
+            newNames = Arrays.copyOf(newNames != null ? newNames : names, count);
+            int[] newIds = new int[count];
+            char[] newCodes = new char[count];
+            int i = 0, n = 0, code = idOfCode.length;
+            for (Map.Entry<Integer, String> entry : added.entrySet()) {
+                while (i < ids.length && ids[i] < entry.getKey()) {
+                    newIds[n] = ids[i];
+                    newCodes[n++] = codes[i++];
+                }
+                newIdOfCode[code] = entry.getKey();
+                newNames[code] = entry.getValue();
+                newIds[n] = entry.getKey();
+                newCodes[n++] = (char) ++code;
+            }
+            while (i < ids.length) {
+                newIds[n] = ids[i];
+                newCodes[n++] = codes[i++];
+            }
+            return new Dictionary(newIds, newCodes, newIdOfCode, newNames);
+        }
+
+        // Code of the id, or -1 if no office has it
+        int code(int id) {
+            int index = Arrays.binarySearch(ids, id);
+            return index >= 0 ? codes[index] : -1;
+        }
+
+        Integer id(char code) {
+            return code == NONE ? null : idOfCode[code - 1];
+        }
+
+        String name(char code) {
+            return code == NONE ? null : names[code - 1];
+        }
+
+        long sizeInBytes() {
+            long bytes = array(ids.length, 4) + array(codes.length, 2) + array(names.length, 4);
+            return idOfCode == ids ? bytes : bytes + array(idOfCode.length, 4);
+        }
+    }
+
+    public static class Builder {
+        private int size;
+        private int[] ids = new int[1024];
+        private String[] names = new String[1024];
+        private String[] postmasters = new String[1024];
+        private String[] addresses = new String[1024];
+        private double[] lat = new double[1024];
+        private double[] lng = new double[1024];
+        private boolean[] active = new boolean[1024];
+        private String[] zipCodes = new String[1024];
+        private final int[][] locationIds = new int[LEVELS][1024];   // 0 when not set
+        private final List<TreeMap<Integer, String>> locationNames = new ArrayList<>();
+        // Equal strings share one instance
+        private final Map<String, String> strings = new HashMap<>();
+
+        public Builder() {
+            for (int level = 0; level < LEVELS; level++) {
+                locationNames.add(new TreeMap<>());
+            }
+        }
+
+        public Builder add(OfficeReadRowDTO row) {
+            boolean located = row.getLat() != null && row.getLng() != null;
+            int slot = append(row.getId(), row.getName(), row.getPostmaster(), row.getAddress(),
+                    located ? row.getLat() : Double.NaN, located ? row.getLng() : Double.NaN,
+                    Boolean.TRUE.equals(row.getStatus()), row.getZipCode());
+            for (int level = 0; level < LEVELS; level++) {
+                location(slot, level, locationId(row, level), locationName(row, level));
+            }
+            return this;
+        }
+
+        private int append(int id, String name, String postmaster, String address, double latitude, double longitude,
+                           boolean isActive, String zipCode) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                names = Arrays.copyOf(names, capacity);
+                postmasters = Arrays.copyOf(postmasters, capacity);
+                addresses = Arrays.copyOf(addresses, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                lng = Arrays.copyOf(lng, capacity);
+                active = Arrays.copyOf(active, capacity);
+                zipCodes = Arrays.copyOf(zipCodes, capacity);
+                for (int level = 0; level < LEVELS; level++) {
+                    locationIds[level] = Arrays.copyOf(locationIds[level], capacity);
+                }
+            }
+            ids[size] = id;
+            names[size] = intern(name);
+            postmasters[size] = intern(postmaster);
+            addresses[size] = intern(address);
+            lat[size] = latitude;
+            lng[size] = longitude;
+            active[size] = isActive;
+            zipCodes[size] = intern(zipCode);
+            return size++;
+        }
+
+        private void location(int slot, int level, Integer id, String name) {
+            if (id != null) {
+                locationIds[level][slot] = id;
+                locationNames.get(level).putIfAbsent(id, intern(name));
+            }
+        }
+
+        private String intern(String value) {
+            if (value == null) {
+                return null;
+            }
+            String existing = strings.putIfAbsent(value, value);
+            return existing != null ? existing : value;
+        }
+
+        public OfficeReadModel build() {
+            return new OfficeReadModel(this);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.Repository.PostalOfficeTableRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Holds the OfficeReadModel snapshot that the map, /table and dashboard read from, so those
+ * endpoints do not query the database. It is the only in-memory copy that reads offices from the
+ * database: after each update it publishes an OfficeReadModelUpdatedEvent, and the spatial, search
+ * and filter indexes update themselves from the new model.
+ */
+@Service
+public class OfficeReadModelService {
+
+    @Autowired
+    private PostalOfficeTableRepository tableRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final SnapshotHolder<OfficeReadModel> holder =
+            new SnapshotHolder<>("Office read model", this::load, this::applyUpserts, this::publishUpdate);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        holder.preload();
+    }
+
+    /**
+     * Offices changed. Known ids are patched into the current snapshot; bulk changes reload it.
+     */
+    @EventListener
+    public void onOfficesChanged(PostalOfficesChangedEvent event) {
+        if (event.isBulk()) {
+            holder.changedAll();
+        } else {
+            holder.changed(event.getOfficeIds());
+        }
+    }
+
+    public OfficeReadModel getModel() {
+        return holder.get();
+    }
+
+    public void rebuild() {
+        holder.reload();
+    }
+
+    private OfficeReadModel applyUpserts(OfficeReadModel current, List<Integer> officeIds) {
+        return current.withUpserts(officeIds, tableRepository.findReadRowsByIds(officeIds));
+    }
+
+    private void publishUpdate(List<Integer> officeIds) {
+        eventPublisher.publishEvent(officeIds.isEmpty()
+                ? OfficeReadModelUpdatedEvent.reloaded()
+                : OfficeReadModelUpdatedEvent.of(officeIds));
+    }
+
+    private OfficeReadModel load() {
+        OfficeReadModel.Builder builder = new OfficeReadModel.Builder();
+        tableRepository.forEachReadRow(builder::add);
+        OfficeReadModel loaded = builder.build();
+        System.out.println("Built office read model with " + loaded.size() + " offices, "
+                + (loaded.size() > 0 ? loaded.sizeInBytes() / loaded.size() : 0) + " bytes per office excluding strings");
+        return loaded;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        holder.shutdown();
+    }
+}
@@ -0,0 +1,38 @@
+package com.pps.profilesystem.Service;
+
+import java.util.List;
+
+/**
+ * Published by OfficeReadModelService after it swapped in a new OfficeReadModel, so the indexes
+ * built from the read model follow it without reading the database themselves.
+ */
+public class OfficeReadModelUpdatedEvent {
+
+    private final List<Integer> officeIds;
+
+    private OfficeReadModelUpdatedEvent(List<Integer> officeIds) {
+        this.officeIds = officeIds;
+    }
+
+    /**
+     * The whole model was reloaded
+     */
+    public static OfficeReadModelUpdatedEvent reloaded() {
+        return new OfficeReadModelUpdatedEvent(List.of());
+    }
+
+    /**
+     * The given offices were re-read (ids no longer in the model were deleted)
+     */
+    public static OfficeReadModelUpdatedEvent of(List<Integer> officeIds) {
+        return new OfficeReadModelUpdatedEvent(List.copyOf(officeIds));
+    }
+
+    public boolean isReload() {
+        return officeIds.isEmpty();
+    }
+
+    public List<Integer> getOfficeIds() {
+        return officeIds;
+    }
+}
@@ -0,0 +1,440 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeSearchDocumentDTO;
+import com.pps.profilesystem.DTO.OfficeSearchResultDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Immutable inverted index over office name, postmaster, address and ZIP for typeahead search.
+ * Text is tokenized with LocationNames.normalize (case- and accent-insensitive). Terms are kept
+ * in one sorted array, so the terms starting with a query prefix are a contiguous range found by
+ * binary search - the same answers as an edge n-gram index without storing every prefix.
+ * Each posting packs (document number << FIELD_BITS | fields the term occurs in).
+ * Document numbers are stable: an update appends the new and changed offices under new numbers,
+ * leaves the old numbers empty and rewrites only the postings of the terms those offices contain,
+ * so an edit does not re-tokenize every office. Once a quarter of the numbers are empty the index
+ * is rebuilt from the live documents. byName lists the live documents in name order, so equal
+ * scores rank alphabetically, and scores are small integers, so ranking is a counting sort.
+ */
+public class OfficeSearchIndex {
+
+    private static final int NAME = 1;
+    private static final int POSTMASTER = 2;
+    private static final int ADDRESS = 4;
+    private static final int ZIP = 8;
+    private static final int FIELD_BITS = 4;
+
+    // Per query token: best weight of the fields it matched, doubled for a whole-word match
+    private static final int[] FIELD_WEIGHT = new int[1 << FIELD_BITS];
+    static {
+        for (int fields = 1; fields < FIELD_WEIGHT.length; fields++) {
+            FIELD_WEIGHT[fields] = (fields & NAME) != 0 ? 8
+                                 : (fields & ZIP) != 0 ? 6
+                                 : (fields & POSTMASTER) != 0 ? 4
+                                 : 2;
+        }
+    }
+    // Extra points when the whole query is a prefix of the office name
+    private static final int NAME_PREFIX_BONUS = 4;
+    // Further query words are ignored
+    public static final int MAX_QUERY_TOKENS = 8;
+    private static final int MAX_SCORE = MAX_QUERY_TOKENS * 16 + NAME_PREFIX_BONUS;
+    // Share of empty document numbers at which an update rebuilds the index instead
+    private static final double MAX_EMPTY_FRACTION = 0.25;
+
+    private final OfficeSearchDocumentDTO[] documents;   // by document number, null once replaced or deleted
+    private final String[] nameKeys;                      // normalized names, for the prefix bonus and name order
+    private final int[] byName;                           // live document numbers in name order, ties by id
+    private final long[] docsById;                        // (office id << 32 | document number), sorted
+    private final String[] terms;                         // sorted
+    private final int[][] postings;                       // parallel to terms, ascending document number
+
+    public OfficeSearchIndex(Collection<OfficeSearchDocumentDTO> docs) {
+        documents = docs.toArray(new OfficeSearchDocumentDTO[0]);
+        nameKeys = new String[documents.length];
+        docsById = new long[documents.length];
+        for (int doc = 0; doc < documents.length; doc++) {
+            nameKeys[doc] = LocationNames.normalize(documents[doc].getName());
+            docsById[doc] = (long) documents[doc].getId() << 32 | doc;
+        }
+        Arrays.sort(docsById);
+        int[] all = new int[documents.length];
+        for (int doc = 0; doc < all.length; doc++) {
+            all[doc] = doc;
+        }
+        byName = sortByName(all, documents, nameKeys);
+
+        Map<String, IntBuffer> buffers = new HashMap<>();
+        Map<String, Integer> fieldsOf = new HashMap<>();
+        for (int doc = 0; doc < documents.length; doc++) {
+            int current = doc;
+            fieldsOf(documents[doc], nameKeys[doc], fieldsOf).forEach((term, fields) ->
+                    buffers.computeIfAbsent(term, t -> new IntBuffer()).add(current << FIELD_BITS | fields));
+        }
+
+        terms = buffers.keySet().toArray(new String[0]);
+        Arrays.sort(terms);
+        postings = new int[terms.length][];
+        for (int t = 0; t < terms.length; t++) {
+            postings[t] = buffers.get(terms[t]).toArray();
+        }
+    }
+
+    private OfficeSearchIndex(OfficeSearchDocumentDTO[] documents, String[] nameKeys, int[] byName, long[] docsById,
+                              String[] terms, int[][] postings) {
+        this.documents = documents;
+        this.nameKeys = nameKeys;
+        this.byName = byName;
+        this.docsById = docsById;
+        this.terms = terms;
+        this.postings = postings;
+    }
+
+    // Terms of the document and the fields each occurs in, into the (cleared) map
+    private static Map<String, Integer> fieldsOf(OfficeSearchDocumentDTO doc, String nameKey, Map<String, Integer> fieldsOf) {
+        fieldsOf.clear();
+        addTokens(fieldsOf, nameKey, NAME);
+        addTokens(fieldsOf, LocationNames.normalize(doc.getPostmaster()), POSTMASTER);
+        addTokens(fieldsOf, LocationNames.normalize(doc.getAddress()), ADDRESS);
+        addTokens(fieldsOf, LocationNames.normalize(doc.getZipCode()), ZIP);
+        return fieldsOf;
+    }
+
+    // The document numbers sorted by normalized name, then office id
+    private static int[] sortByName(int[] docs, OfficeSearchDocumentDTO[] documents, String[] nameKeys) {
+        Integer[] order = new Integer[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            order[i] = docs[i];
+        }
+        Arrays.sort(order, (a, b) -> compareByName(documents, nameKeys, a, b));
+        int[] sorted = new int[docs.length];
+        for (int i = 0; i < docs.length; i++) {
+            sorted[i] = order[i];
+        }
+        return sorted;
+    }
+
+    private static int compareByName(OfficeSearchDocumentDTO[] documents, String[] nameKeys, int a, int b) {
+        int c = nameKeys[a].compareTo(nameKeys[b]);
+        return c != 0 ? c : Integer.compare(documents[a].getId(), documents[b].getId());
+    }
+
+    private static void addTokens(Map<String, Integer> fieldsOf, String normalized, int field) {
+        if (normalized.isEmpty()) {
+            return;
+        }
+        for (String token : normalized.split(" ")) {
+            fieldsOf.merge(token, field, (a, b) -> a | b);
+        }
+    }
+
+    /**
+     * Offices containing a word starting with every query word (in any searched field),
+     * best first. Ties keep name order.
+     * @param offset number of ranked hits to skip
+     * @param limit maximum number of hits to return
+     */
+    public Hits search(String query, int offset, int limit) {
+        String normalized = LocationNames.normalize(query);
+        if (normalized.isEmpty() || byName.length == 0) {
+            return new Hits(List.of(), 0);
+        }
+        Set<String> tokens = new LinkedHashSet<>();
+        for (String token : normalized.split(" ")) {
+            if (tokens.size() == MAX_QUERY_TOKENS) {
+                break;
+            }
+            tokens.add(token);
+        }
+
+        int[] score = new int[documents.length];
+        int[] tokenScore = new int[documents.length];
+        byte[] matched = new byte[documents.length];   // number of query tokens matched so far
+        int round = 0;
+        for (String token : tokens) {
+            int from = lowerBound(token);
+            boolean any = false;
+            for (int t = from; t < terms.length && terms[t].startsWith(token); t++) {
+                int multiplier = terms[t].length() == token.length() ? 2 : 1;
+                for (int posting : postings[t]) {
+                    int doc = posting >>> FIELD_BITS;
+                    int points = FIELD_WEIGHT[posting & ((1 << FIELD_BITS) - 1)] * multiplier;
+                    if (matched[doc] == round) {
+                        // First term of this token for a document that matched every earlier token
+                        matched[doc] = (byte) (round + 1);
+                        tokenScore[doc] = points;
+                        score[doc] += points;
+                        any = true;
+                    } else if (matched[doc] == round + 1 && points > tokenScore[doc]) {
+                        score[doc] += points - tokenScore[doc];
+                        tokenScore[doc] = points;
+                    }
+                }
+            }
+            if (!any) {
+                return new Hits(List.of(), 0);
+            }
+            round++;
+        }
+
+        // Names starting with the query are one run of byName, so no name needs to be read per document
+        int prefixFrom = nameLowerBound(normalized);
+        int prefixTo = prefixFrom;
+        while (prefixTo < byName.length && nameKeys[byName[prefixTo]].startsWith(normalized)) {
+            prefixTo++;
+        }
+
+        // Counting sort by score, descending; documents are visited in name order so ties stay in name order
+        int[] start = new int[MAX_SCORE + 2];
+        int total = 0;
+        for (int i = 0; i < byName.length; i++) {
+            int doc = byName[i];
+            if (matched[doc] == round) {
+                if (i >= prefixFrom && i < prefixTo) {
+                    score[doc] += NAME_PREFIX_BONUS;
+                }
+                start[MAX_SCORE - score[doc] + 1]++;
+                total++;
+            }
+        }
+        for (int i = 1; i < start.length; i++) {
+            start[i] += start[i - 1];
+        }
+        int[] ranked = new int[total];
+        for (int doc : byName) {
+            if (matched[doc] == round) {
+                ranked[start[MAX_SCORE - score[doc]]++] = doc;
+            }
+        }
+
+        int from = Math.min(offset, total);
+        int to = (int) Math.min((long) from + limit, total);
+        List<OfficeSearchResultDTO> results = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            results.add(toResult(ranked[i], score[ranked[i]]));
+        }
+        return new Hits(results, total);
+    }
+
+    // First position in byName whose name is >= prefix
+    private int nameLowerBound(String prefix) {
+        int low = 0, high = byName.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (nameKeys[byName[mid]].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First term >= prefix
+    private int lowerBound(String prefix) {
+        int low = 0, high = terms.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (terms[mid].compareTo(prefix) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private OfficeSearchResultDTO toResult(int docNumber, int score) {
+        OfficeSearchDocumentDTO doc = documents[docNumber];
+        return new OfficeSearchResultDTO(doc.getId(), doc.getName(), doc.getPostmaster(), doc.getAddress(),
+                doc.getZipCode(), doc.getStatus(), score);
+    }
+
+    /**
+     * A new index with the given documents added or replaced (matched by id) and the deleted ids removed.
+     * Only the postings of terms in the old or new text of those offices are rewritten.
+     */
+    public OfficeSearchIndex withUpserts(List<OfficeSearchDocumentDTO> upserts, Collection<Integer> deletedIds) {
+        Set<Integer> changedIds = new HashSet<>(deletedIds);
+        for (OfficeSearchDocumentDTO doc : upserts) {
+            changedIds.add(doc.getId());
+        }
+        Set<Integer> removed = new HashSet<>();
+        for (Integer id : changedIds) {
+            int doc = docOf(id);
+            if (doc >= 0) {
+                removed.add(doc);
+            }
+        }
+        int total = documents.length + upserts.size();
+        int live = byName.length - removed.size() + upserts.size();
+        if (total - live > total * MAX_EMPTY_FRACTION) {
+            List<OfficeSearchDocumentDTO> docs = new ArrayList<>(live);
+            for (int doc : byName) {
+                if (!removed.contains(doc)) {
+                    docs.add(documents[doc]);
+                }
+            }
+            docs.addAll(upserts);
+            return new OfficeSearchIndex(docs);
+        }
+
+        OfficeSearchDocumentDTO[] newDocuments = Arrays.copyOf(documents, total);
+        String[] newNameKeys = Arrays.copyOf(nameKeys, total);
+        Set<String> touched = new HashSet<>();
+        Map<String, Integer> fieldsOf = new HashMap<>();
+        for (int doc : removed) {
+            touched.addAll(fieldsOf(documents[doc], nameKeys[doc], fieldsOf).keySet());
+            newDocuments[doc] = null;
+            newNameKeys[doc] = null;
+        }
+        // New and changed offices get the next document numbers, so their postings go at the end
+        Map<String, IntBuffer> added = new HashMap<>();
+        int[] addedDocs = new int[upserts.size()];
+        for (int i = 0; i < upserts.size(); i++) {
+            int doc = documents.length + i;
+            addedDocs[i] = doc;
+            newDocuments[doc] = upserts.get(i);
+            newNameKeys[doc] = LocationNames.normalize(upserts.get(i).getName());
+            fieldsOf(newDocuments[doc], newNameKeys[doc], fieldsOf).forEach((term, fields) ->
+                    added.computeIfAbsent(term, t -> new IntBuffer()).add(doc << FIELD_BITS | fields));
+            touched.addAll(fieldsOf.keySet());
+        }
+
+        // Walk the sorted terms, merging in new ones; untouched postings are shared with this index
+        String[] newTerms = touched.toArray(new String[0]);
+        Arrays.sort(newTerms);
+        List<String> mergedTerms = new ArrayList<>(terms.length + newTerms.length);
+        List<int[]> mergedPostings = new ArrayList<>(terms.length + newTerms.length);
+        int t = 0;
+        for (String term : newTerms) {
+            while (t < terms.length && terms[t].compareTo(term) < 0) {
+                mergedTerms.add(terms[t]);
+                mergedPostings.add(postings[t++]);
+            }
+            IntBuffer merged = new IntBuffer();
+            if (t < terms.length && terms[t].equals(term)) {
+                for (int posting : postings[t++]) {
+                    if (!removed.contains(posting >>> FIELD_BITS)) {
+                        merged.add(posting);
+                    }
+                }
+            }
+            IntBuffer plus = added.get(term);
+            if (plus != null) {
+                for (int i = 0; i < plus.size; i++) {
+                    merged.add(plus.data[i]);
+                }
+            }
+            if (merged.size > 0) {
+                mergedTerms.add(term);
+                mergedPostings.add(merged.toArray());
+            }
+        }
+        while (t < terms.length) {
+            mergedTerms.add(terms[t]);
+            mergedPostings.add(postings[t++]);
+        }
+
+        // Name order: drop the removed documents, merge in the new ones
+        int[] sortedAdded = sortByName(addedDocs, newDocuments, newNameKeys);
+        int[] newByName = new int[live];
+        int n = 0, a = 0;
+        for (int doc : byName) {
+            if (removed.contains(doc)) {
+                continue;
+            }
+            while (a < sortedAdded.length && compareByName(newDocuments, newNameKeys, sortedAdded[a], doc) < 0) {
+                newByName[n++] = sortedAdded[a++];
+            }
+            newByName[n++] = doc;
+        }
+        while (a < sortedAdded.length) {
+            newByName[n++] = sortedAdded[a++];
+        }
+
+        long[] newDocsById = new long[live];
+        n = 0;
+        for (long entry : docsById) {
+            if (!removed.contains((int) entry)) {
+                newDocsById[n++] = entry;
+            }
+        }
+        for (int doc : addedDocs) {
+            newDocsById[n++] = (long) newDocuments[doc].getId() << 32 | doc;
+        }
+        Arrays.sort(newDocsById);
+
+        return new OfficeSearchIndex(newDocuments, newNameKeys, newByName, newDocsById,
+                mergedTerms.toArray(new String[0]), mergedPostings.toArray(new int[0][]));
+    }
+
+    // Document number of the office, or -1
+    private int docOf(int id) {
+        long key = (long) id << 32;
+        int low = 0, high = docsById.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (docsById[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low < docsById.length && docsById[low] >>> 32 == id ? (int) docsById[low] : -1;
+    }
+
+    public int size() {
+        return byName.length;
+    }
+
+    public int getTermCount() {
+        return terms.length;
+    }
+
+    /**
+     * One page of ranked results plus the number of matching offices
+     */
+    public static class Hits {
+        private final List<OfficeSearchResultDTO> results;
+        private final int total;
+
+        Hits(List<OfficeSearchResultDTO> results, int total) {
+            this.results = results;
+            this.total = total;
+        }
+
+        public List<OfficeSearchResultDTO> getResults() {
+            return results;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+    }
+
+    private static class IntBuffer {
+        private int[] data = new int[2];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
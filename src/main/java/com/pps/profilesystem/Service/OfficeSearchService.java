@@ -0,0 +1,94 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeSearchDocumentDTO;
+import com.pps.profilesystem.DTO.OfficeSearchPageDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Office search by name, postmaster, address or ZIP, answered from an in-memory OfficeSearchIndex
+ * instead of LIKE '%...%' scans. The index is built from the office read model and follows its updates
+ * in the background.
+ */
+@Service
+public class OfficeSearchService {
+
+    @Autowired
+    private OfficeReadModelService readModelService;
+
+    private final SnapshotHolder<OfficeSearchIndex> holder =
+            new SnapshotHolder<>("Search index", this::load, this::applyUpserts);
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        holder.preload();
+    }
+
+    @EventListener
+    public void onReadModelUpdated(OfficeReadModelUpdatedEvent event) {
+        holder.follow(event);
+    }
+
+    /**
+     * One page of offices matching every word of the query as a word prefix, best matches first
+     * @param page zero-based page number
+     */
+    public OfficeSearchPageDTO search(String query, int page, int size) {
+        int offset = (int) Math.min((long) page * size, Integer.MAX_VALUE);
+        OfficeSearchIndex.Hits hits = getIndex().search(query, offset, size);
+        return new OfficeSearchPageDTO(query, hits.getResults(), page, size, hits.getTotal());
+    }
+
+    public OfficeSearchIndex getIndex() {
+        return holder.get();
+    }
+
+    public void rebuild() {
+        holder.reload();
+    }
+
+    private OfficeSearchIndex applyUpserts(OfficeSearchIndex current, List<Integer> officeIds) {
+        OfficeReadModel model = readModelService.getModel();
+        List<OfficeSearchDocumentDTO> docs = new ArrayList<>();
+        Set<Integer> deleted = new HashSet<>(officeIds);
+        for (Integer id : officeIds) {
+            int slot = model.slotOf(id);
+            if (slot >= 0) {
+                docs.add(toDocument(model, slot));
+                deleted.remove(id);
+            }
+        }
+        return current.withUpserts(docs, deleted);
+    }
+
+    private OfficeSearchIndex load() {
+        long start = System.nanoTime();
+        OfficeReadModel model = readModelService.getModel();
+        List<OfficeSearchDocumentDTO> docs = new ArrayList<>(model.size());
+        for (int slot = 0; slot < model.size(); slot++) {
+            docs.add(toDocument(model, slot));
+        }
+        OfficeSearchIndex loaded = new OfficeSearchIndex(docs);
+        System.out.println("Built search index with " + loaded.size() + " offices, " + loaded.getTermCount()
+                + " terms in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return loaded;
+    }
+
+    private static OfficeSearchDocumentDTO toDocument(OfficeReadModel model, int slot) {
+        return new OfficeSearchDocumentDTO(model.getId(slot), model.getName(slot), model.getPostmaster(slot),
+                model.getAddress(slot), model.getZipCode(slot), model.isActive(slot));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        holder.shutdown();
+    }
+}
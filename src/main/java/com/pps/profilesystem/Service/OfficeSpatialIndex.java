@@ -0,0 +1,487 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.MapClusterDTO;
+import com.pps.profilesystem.DTO.NearbyPostalOfficeDTO;
+import com.pps.profilesystem.DTO.PostalOfficeMapPointDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
+
+/**
+ * Immutable uniform-grid index over office coordinates.
+ * Points are stored in primitive arrays sorted by grid cell, with cellStart[c]..cellStart[c+1]
+ * marking the points of cell c, so a bounding-box query only touches the cells it overlaps.
+ * Per-cell counts and coordinate sums let zoomed-out clusters be built from cells instead of points.
+ * The same grid answers k-nearest and radius searches by scanning rings of cells around the query.
+ */
+public class OfficeSpatialIndex {
+
+    // Finest cell size in degrees (about 5.5 km)
+    private static final double MIN_CELL_DEG = 0.05;
+    // Upper bound on grid cells, so stray coordinates far from the Philippines can't blow up the grid
+    private static final int MAX_CELLS = 1 << 20;
+    private static final double EARTH_RADIUS_KM = 6371.0088;
+    private static final double KM_PER_DEGREE = Math.PI * EARTH_RADIUS_KM / 180;
+
+    private final int size;
+    private final int[] ids;
+    private final double[] lat;
+    private final double[] lng;
+    private final boolean[] active;
+    private final int[] areaIds;     // 0 when the office has no area
+    private final String[] names;
+
+    private final double minLat;
+    private final double minLng;
+    private final double cellDeg;
+    private final int rows;
+    private final int cols;
+    private final int[] cellStart;
+    private final int[] cellActive;
+    private final double[] cellSumLat;
+    private final double[] cellSumLng;
+    // Smallest cos(latitude) over the grid, to turn degrees of longitude into a safe km lower bound
+    private final double minCosLat;
+
+    private OfficeSpatialIndex(Builder b) {
+        size = b.size;
+        if (size == 0) {
+            minLat = minLng = 0;
+            cellDeg = MIN_CELL_DEG;
+            rows = cols = 1;
+        } else {
+            double loLat = Double.MAX_VALUE, hiLat = -Double.MAX_VALUE;
+            double loLng = Double.MAX_VALUE, hiLng = -Double.MAX_VALUE;
+            for (int i = 0; i < size; i++) {
+                loLat = Math.min(loLat, b.lat[i]);
+                hiLat = Math.max(hiLat, b.lat[i]);
+                loLng = Math.min(loLng, b.lng[i]);
+                hiLng = Math.max(hiLng, b.lng[i]);
+            }
+            double spanArea = (hiLat - loLat + MIN_CELL_DEG) * (hiLng - loLng + MIN_CELL_DEG);
+            minLat = loLat;
+            minLng = loLng;
+            cellDeg = Math.max(MIN_CELL_DEG, Math.sqrt(spanArea / MAX_CELLS));
+            rows = (int) ((hiLat - loLat) / cellDeg) + 1;
+            cols = (int) ((hiLng - loLng) / cellDeg) + 1;
+        }
+
+        minCosLat = Math.cos(Math.toRadians(Math.min(90, Math.max(Math.abs(minLat), Math.abs(minLat + rows * cellDeg)))));
+
+        int cellCount = rows * cols;
+        int[] cellOf = new int[size];
+        int[] counts = new int[cellCount + 1];
+        for (int i = 0; i < size; i++) {
+            cellOf[i] = cell(rowOf(b.lat[i]), colOf(b.lng[i]));
+            counts[cellOf[i] + 1]++;
+        }
+        for (int c = 0; c < cellCount; c++) {
+            counts[c + 1] += counts[c];
+        }
+        cellStart = Arrays.copyOf(counts, counts.length);
+
+        // Counting sort of the points into cell order
+        ids = new int[size];
+        lat = new double[size];
+        lng = new double[size];
+        active = new boolean[size];
+        areaIds = new int[size];
+        names = new String[size];
+        cellActive = new int[cellCount];
+        cellSumLat = new double[cellCount];
+        cellSumLng = new double[cellCount];
+        for (int i = 0; i < size; i++) {
+            int c = cellOf[i];
+            int slot = counts[c]++;
+            ids[slot] = b.ids[i];
+            lat[slot] = b.lat[i];
+            lng[slot] = b.lng[i];
+            active[slot] = b.active[i];
+            areaIds[slot] = b.areaIds[i];
+            names[slot] = b.names[i];
+            if (b.active[i]) {
+                cellActive[c]++;
+            }
+            cellSumLat[c] += b.lat[i];
+            cellSumLng[c] += b.lng[i];
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Visit the slot of every point inside the box (inclusive)
+     */
+    public void forEachInBox(double south, double west, double north, double east, IntConsumer visitor) {
+        if (size == 0 || north < south || east < west) {
+            return;
+        }
+        int r0 = rowOf(south), r1 = rowOf(north);
+        int c0 = colOf(west), c1 = colOf(east);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = cell(r, c);
+                for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                    if (lat[i] >= south && lat[i] <= north && lng[i] >= west && lng[i] <= east) {
+                        visitor.accept(i);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Number of points in the cells overlapping the box - an upper bound, computed without touching points
+     */
+    public int countUpperBound(double south, double west, double north, double east) {
+        if (size == 0 || north < south || east < west) {
+            return 0;
+        }
+        int r0 = rowOf(south), r1 = rowOf(north);
+        int c0 = colOf(west), c1 = colOf(east);
+        int total = 0;
+        for (int r = r0; r <= r1; r++) {
+            total += cellStart[cell(r, c1) + 1] - cellStart[cell(r, c0)];
+        }
+        return total;
+    }
+
+    /**
+     * Group the points inside the box into square buckets of bucketDeg degrees.
+     * Without a filter, cells lying completely inside the box contribute their precomputed
+     * summaries, so the cost depends on the number of cells, not on the number of offices.
+     * @param filter optional predicate on point slots (area/status filters); null for all points
+     */
+    public List<MapClusterDTO> clusters(double south, double west, double north, double east,
+                                        double bucketDeg, IntPredicate filter) {
+        Map<Long, double[]> buckets = new HashMap<>();
+        if (size == 0 || north < south || east < west) {
+            return List.of();
+        }
+        int r0 = rowOf(south), r1 = rowOf(north);
+        int c0 = colOf(west), c1 = colOf(east);
+        for (int r = r0; r <= r1; r++) {
+            for (int c = c0; c <= c1; c++) {
+                int cell = cell(r, c);
+                int from = cellStart[cell], to = cellStart[cell + 1];
+                if (from == to) {
+                    continue;
+                }
+                if (filter == null && bucketDeg >= cellDeg && cellInside(r, c, south, west, north, east)) {
+                    int count = to - from;
+                    double centerLat = cellSumLat[cell] / count;
+                    double centerLng = cellSumLng[cell] / count;
+                    addToBucket(buckets, bucketDeg, centerLat, centerLng,
+                            count, cellActive[cell], cellSumLat[cell], cellSumLng[cell]);
+                    continue;
+                }
+                for (int i = from; i < to; i++) {
+                    if (lat[i] >= south && lat[i] <= north && lng[i] >= west && lng[i] <= east
+                            && (filter == null || filter.test(i))) {
+                        addToBucket(buckets, bucketDeg, lat[i], lng[i], 1, active[i] ? 1 : 0, lat[i], lng[i]);
+                    }
+                }
+            }
+        }
+
+        List<MapClusterDTO> result = new ArrayList<>(buckets.size());
+        for (double[] bucket : buckets.values()) {
+            int count = (int) bucket[0];
+            int activeCount = (int) bucket[1];
+            result.add(new MapClusterDTO(bucket[2] / count, bucket[3] / count, count, activeCount, count - activeCount));
+        }
+        return result;
+    }
+
+    private static void addToBucket(Map<Long, double[]> buckets, double bucketDeg, double keyLat, double keyLng,
+                                    int count, int activeCount, double sumLat, double sumLng) {
+        long key = (long) Math.floor(keyLat / bucketDeg) << 32 | ((long) Math.floor(keyLng / bucketDeg) & 0xffffffffL);
+        double[] bucket = buckets.computeIfAbsent(key, k -> new double[4]);
+        bucket[0] += count;
+        bucket[1] += activeCount;
+        bucket[2] += sumLat;
+        bucket[3] += sumLng;
+    }
+
+    private boolean cellInside(int r, int c, double south, double west, double north, double east) {
+        double cellSouth = minLat + r * cellDeg;
+        double cellWest = minLng + c * cellDeg;
+        return cellSouth >= south && cellSouth + cellDeg <= north
+            && cellWest >= west && cellWest + cellDeg <= east;
+    }
+
+    /**
+     * The k offices closest to the point, nearest first.
+     * Searches rings of cells outward from the query cell and stops as soon as no
+     * unvisited ring can hold anything closer than the current k-th result.
+     * @return hits nearest first, use toNearby for the response
+     */
+    public List<Neighbour> nearest(double queryLat, double queryLng, int k) {
+        if (size == 0 || k <= 0) {
+            return List.of();
+        }
+        k = Math.min(k, size);
+        // Max-heap on distance holding the best k so far
+        double[] heapDist = new double[k];
+        int[] heapSlot = new int[k];
+        int heapSize = 0;
+
+        int qr = rowOf(queryLat), qc = colOf(queryLng);
+        double cosLat = Math.min(minCosLat, Math.cos(Math.toRadians(queryLat)));
+        int maxRing = Math.max(rows, cols);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (heapSize == k && ringLowerBoundKm(ring, cosLat) > heapDist[0]) {
+                break;
+            }
+            for (int r = qr - ring; r <= qr + ring; r++) {
+                if (r < 0 || r >= rows) continue;
+                boolean edgeRow = (r == qr - ring || r == qr + ring);
+                // Inner rows only contribute their two border cells
+                int step = edgeRow ? 1 : Math.max(1, 2 * ring);
+                for (int c = qc - ring; c <= qc + ring; c += step) {
+                    if (c < 0 || c >= cols) continue;
+                    int cell = cell(r, c);
+                    for (int i = cellStart[cell]; i < cellStart[cell + 1]; i++) {
+                        double d = distanceKm(queryLat, queryLng, lat[i], lng[i]);
+                        if (heapSize < k) {
+                            heapDist[heapSize] = d;
+                            heapSlot[heapSize] = i;
+                            siftUp(heapDist, heapSlot, heapSize++);
+                        } else if (d < heapDist[0]) {
+                            heapDist[0] = d;
+                            heapSlot[0] = i;
+                            siftDown(heapDist, heapSlot, heapSize);
+                        }
+                    }
+                }
+            }
+        }
+
+        List<Neighbour> result = new ArrayList<>(heapSize);
+        for (int i = 0; i < heapSize; i++) {
+            result.add(new Neighbour(heapSlot[i], heapDist[i]));
+        }
+        result.sort((a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        return result;
+    }
+
+    /**
+     * All offices within radiusKm of the point, nearest first
+     */
+    public List<Neighbour> within(double queryLat, double queryLng, double radiusKm) {
+        List<Neighbour> result = new ArrayList<>();
+        if (size == 0 || radiusKm <= 0) {
+            return result;
+        }
+        // Widest longitude span of the circle, reached north or south of the query latitude
+        double dLat = radiusKm / KM_PER_DEGREE;
+        double sinLng = Math.sin(radiusKm / EARTH_RADIUS_KM) / Math.cos(Math.toRadians(queryLat));
+        double dLng = sinLng >= 1 ? 180 : Math.toDegrees(Math.asin(sinLng));
+        forEachInBox(queryLat - dLat, queryLng - dLng, queryLat + dLat, queryLng + dLng, slot -> {
+            double d = distanceKm(queryLat, queryLng, lat[slot], lng[slot]);
+            if (d <= radiusKm) {
+                result.add(new Neighbour(slot, d));
+            }
+        });
+        result.sort((a, b) -> Double.compare(a.distanceKm, b.distanceKm));
+        return result;
+    }
+
+    /**
+     * Points in ring `ring` or beyond are at least (ring - 1) cells away from the query along
+     * latitude or longitude. The chord across a parallel is the shorter of the two, so it is a safe bound.
+     */
+    private double ringLowerBoundKm(int ring, double cosLat) {
+        if (ring <= 1) {
+            return 0;
+        }
+        double deltaRad = Math.toRadians(Math.min(180, (ring - 1) * cellDeg));
+        return 2 * EARTH_RADIUS_KM * cosLat * Math.sin(deltaRad / 2);
+    }
+
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double dLat = Math.toRadians(lat2 - lat1);
+        double dLng = Math.toRadians(lng2 - lng1);
+        double a = Math.sin(dLat / 2) * Math.sin(dLat / 2)
+                 + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2)) * Math.sin(dLng / 2) * Math.sin(dLng / 2);
+        return 2 * EARTH_RADIUS_KM * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    private static void siftUp(double[] dist, int[] slot, int i) {
+        while (i > 0) {
+            int parent = (i - 1) / 2;
+            if (dist[parent] >= dist[i]) break;
+            swap(dist, slot, parent, i);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(double[] dist, int[] slot, int size) {
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1, right = left + 1, largest = i;
+            if (left < size && dist[left] > dist[largest]) largest = left;
+            if (right < size && dist[right] > dist[largest]) largest = right;
+            if (largest == i) break;
+            swap(dist, slot, largest, i);
+            i = largest;
+        }
+    }
+
+    private static void swap(double[] dist, int[] slot, int a, int b) {
+        double d = dist[a]; dist[a] = dist[b]; dist[b] = d;
+        int s = slot[a]; slot[a] = slot[b]; slot[b] = s;
+    }
+
+    public NearbyPostalOfficeDTO toNearby(Neighbour neighbour) {
+        int slot = neighbour.slot;
+        return new NearbyPostalOfficeDTO(ids[slot], names[slot], lat[slot], lng[slot], active[slot],
+                areaIds[slot] != 0 ? areaIds[slot] : null, neighbour.distanceKm);
+    }
+
+    /**
+     * Index of every office in the read model that has coordinates
+     */
+    public static OfficeSpatialIndex of(OfficeReadModel model) {
+        Builder builder = new Builder();
+        for (int slot = 0; slot < model.size(); slot++) {
+            builder.add(model, slot);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Copy of this index with the given offices taken from the read model: added, replaced, or
+     * dropped when they are no longer in the model or no longer have coordinates
+     */
+    public OfficeSpatialIndex withUpserts(OfficeReadModel model, Collection<Integer> officeIds) {
+        Set<Integer> replaced = new HashSet<>(officeIds);
+        Builder builder = new Builder();
+        for (int i = 0; i < size; i++) {
+            if (!replaced.contains(ids[i])) {
+                builder.add(ids[i], names[i], lat[i], lng[i], active[i], areaIds[i]);
+            }
+        }
+        for (Integer id : replaced) {
+            int slot = model.slotOf(id);
+            if (slot >= 0) {
+                builder.add(model, slot);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Search hit: slot in the index arrays plus distance from the query point
+     */
+    public static class Neighbour {
+        private final int slot;
+        private final double distanceKm;
+
+        Neighbour(int slot, double distanceKm) {
+            this.slot = slot;
+            this.distanceKm = distanceKm;
+        }
+
+        public int getSlot() {
+            return slot;
+        }
+
+        public double getDistanceKm() {
+            return distanceKm;
+        }
+    }
+
+    public PostalOfficeMapPointDTO toPoint(int slot) {
+        return new PostalOfficeMapPointDTO(ids[slot], names[slot], lat[slot], lng[slot], active[slot],
+                areaIds[slot] != 0 ? areaIds[slot] : null);
+    }
+
+    public boolean isActive(int slot) {
+        return active[slot];
+    }
+
+    public int getAreaId(int slot) {
+        return areaIds[slot];
+    }
+
+    private int rowOf(double latitude) {
+        return clamp((int) Math.floor((latitude - minLat) / cellDeg), rows);
+    }
+
+    private int colOf(double longitude) {
+        return clamp((int) Math.floor((longitude - minLng) / cellDeg), cols);
+    }
+
+    private static int clamp(int value, int count) {
+        return Math.max(0, Math.min(count - 1, value));
+    }
+
+    private int cell(int row, int col) {
+        return row * cols + col;
+    }
+
+    /**
+     * Collects points into growable primitive arrays before the grid is built
+     */
+    public static class Builder {
+        private int size;
+        private int[] ids = new int[1024];
+        private double[] lat = new double[1024];
+        private double[] lng = new double[1024];
+        private boolean[] active = new boolean[1024];
+        private int[] areaIds = new int[1024];
+        private String[] names = new String[1024];
+
+        public Builder add(PostalOfficeMapPointDTO point) {
+            if (point.getLat() == null || point.getLng() == null) {
+                return this;
+            }
+            return add(point.getId(), point.getName(), point.getLat(), point.getLng(),
+                    Boolean.TRUE.equals(point.getStatus()), point.getAreaId() != null ? point.getAreaId() : 0);
+        }
+
+        public Builder add(OfficeReadModel model, int slot) {
+            if (!model.hasCoordinates(slot)) {
+                return this;
+            }
+            Integer areaId = model.getAreaId(slot);
+            return add(model.getId(slot), model.getName(slot), model.getLat(slot), model.getLng(slot),
+                    model.isActive(slot), areaId != null ? areaId : 0);
+        }
+
+        private Builder add(int id, String name, double latitude, double longitude, boolean isActive, int areaId) {
+            if (size == ids.length) {
+                int capacity = size * 2;
+                ids = Arrays.copyOf(ids, capacity);
+                lat = Arrays.copyOf(lat, capacity);
+                lng = Arrays.copyOf(lng, capacity);
+                active = Arrays.copyOf(active, capacity);
+                areaIds = Arrays.copyOf(areaIds, capacity);
+                names = Arrays.copyOf(names, capacity);
+            }
+            ids[size] = id;
+            lat[size] = latitude;
+            lng[size] = longitude;
+            active[size] = isActive;
+            areaIds[size] = areaId;
+            names[size] = name;
+            size++;
+            return this;
+        }
+
+        public OfficeSpatialIndex build() {
+            return new OfficeSpatialIndex(this);
+        }
+    }
+}
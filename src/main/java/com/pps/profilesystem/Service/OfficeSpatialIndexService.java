@@ -0,0 +1,130 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.MapClusterDTO;
+import com.pps.profilesystem.DTO.MapViewportDTO;
+import com.pps.profilesystem.DTO.NearbyPostalOfficeDTO;
+import com.pps.profilesystem.DTO.PostalOfficeMapPointDTO;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+/**
+ * Holds the spatial index of office coordinates and answers viewport and nearest-office queries from it.
+ * The index is built from the office read model and follows its updates in the background.
+ */
+@Service
+public class OfficeSpatialIndexService {
+
+    // Viewports with more offices than this are clustered, whatever the zoom
+    private static final int MAX_POINTS = 2000;
+    // Cluster bucket size in screen pixels (a 256px tile spans 360 / 2^zoom degrees)
+    private static final int CLUSTER_PIXELS = 64;
+
+    @Autowired
+    private OfficeReadModelService readModelService;
+
+    private final SnapshotHolder<OfficeSpatialIndex> holder = new SnapshotHolder<>("Spatial index", this::load,
+            (current, officeIds) -> current.withUpserts(readModelService.getModel(), officeIds));
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        holder.preload();
+    }
+
+    @EventListener
+    public void onReadModelUpdated(OfficeReadModelUpdatedEvent event) {
+        holder.follow(event);
+    }
+
+    /**
+     * The k offices nearest to the point, with great-circle distance in km
+     */
+    public List<NearbyPostalOfficeDTO> findNearest(double lat, double lng, int k) {
+        OfficeSpatialIndex current = getIndex();
+        return current.nearest(lat, lng, k).stream().map(current::toNearby).toList();
+    }
+
+    /**
+     * Offices within radiusKm of the point, nearest first
+     */
+    public List<NearbyPostalOfficeDTO> findWithin(double lat, double lng, double radiusKm) {
+        OfficeSpatialIndex current = getIndex();
+        return current.within(lat, lng, radiusKm).stream().map(current::toNearby).toList();
+    }
+
+    /**
+     * Offices inside the box, as raw points when there are at most MAX_POINTS of them,
+     * otherwise as clusters sized for the zoom level.
+     * @param areaId optional area filter
+     * @param status optional connection status filter
+     */
+    public MapViewportDTO getViewport(double south, double west, double north, double east, int zoom,
+                                      Integer areaId, Boolean status) {
+        OfficeSpatialIndex current = getIndex();
+        IntPredicate filter = null;
+        if (areaId != null || status != null) {
+            filter = slot -> (areaId == null || current.getAreaId(slot) == areaId)
+                          && (status == null || current.isActive(slot) == status);
+        }
+
+        MapViewportDTO viewport = new MapViewportDTO();
+        // The cell totals bound the count cheaply; only a crowded box has its matching points counted
+        boolean fewPoints = current.countUpperBound(south, west, north, east) <= MAX_POINTS
+                || countInBox(current, south, west, north, east, filter) <= MAX_POINTS;
+        if (fewPoints) {
+            List<PostalOfficeMapPointDTO> points = new ArrayList<>();
+            IntPredicate accept = filter;
+            current.forEachInBox(south, west, north, east, slot -> {
+                if (accept == null || accept.test(slot)) {
+                    points.add(current.toPoint(slot));
+                }
+            });
+            viewport.setMode("points");
+            viewport.setTotal(points.size());
+            viewport.setPoints(points);
+        } else {
+            double bucketDeg = 360.0 / Math.pow(2, zoom) * CLUSTER_PIXELS / 256.0;
+            List<MapClusterDTO> clusters = current.clusters(south, west, north, east, bucketDeg, filter);
+            viewport.setMode("clusters");
+            viewport.setTotal(clusters.stream().mapToInt(MapClusterDTO::getCount).sum());
+            viewport.setClusters(clusters);
+        }
+        return viewport;
+    }
+
+    private static int countInBox(OfficeSpatialIndex index, double south, double west, double north, double east,
+                                  IntPredicate filter) {
+        int[] count = new int[1];
+        index.forEachInBox(south, west, north, east, slot -> {
+            if (filter == null || filter.test(slot)) {
+                count[0]++;
+            }
+        });
+        return count[0];
+    }
+
+    public OfficeSpatialIndex getIndex() {
+        return holder.get();
+    }
+
+    public void rebuild() {
+        holder.reload();
+    }
+
+    private OfficeSpatialIndex load() {
+        OfficeSpatialIndex loaded = OfficeSpatialIndex.of(readModelService.getModel());
+        System.out.println("Built spatial index with " + loaded.size() + " offices");
+        return loaded;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        holder.shutdown();
+    }
+}
@@ -0,0 +1,103 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeStatusCountDTO;
+import com.pps.profilesystem.DTO.StatusBreakdownDTO;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable snapshot of office counts: totals plus active/inactive per area and per region.
+ * Built from office counts grouped by area, region and status (OfficeReadModel.getStatistics()).
+ */
+public class OfficeStatistics {
+
+    private static final Comparator<StatusBreakdownDTO> BY_NAME =
+        Comparator.comparing(StatusBreakdownDTO::getName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+
+    private final long total;
+    private final long active;
+    private final long inactive;
+    private final long coverageAreas;
+    private final List<StatusBreakdownDTO> byArea;
+    private final List<StatusBreakdownDTO> byRegion;
+    private final Instant computedAt;
+
+    public OfficeStatistics(List<OfficeStatusCountDTO> groups) {
+        long activeCount = 0, inactiveCount = 0;
+        Map<Integer, StatusBreakdownDTO> areas = new LinkedHashMap<>();
+        Map<Integer, StatusBreakdownDTO> regions = new LinkedHashMap<>();
+        for (OfficeStatusCountDTO group : groups) {
+            boolean isActive = Boolean.TRUE.equals(group.getStatus());
+            if (isActive) {
+                activeCount += group.getCount();
+            } else {
+                inactiveCount += group.getCount();
+            }
+            if (group.getAreaId() != null) {
+                add(areas.computeIfAbsent(group.getAreaId(), id -> new StatusBreakdownDTO(id, group.getAreaName(), 0, 0)),
+                        isActive, group.getCount());
+            }
+            if (group.getRegionId() != null) {
+                add(regions.computeIfAbsent(group.getRegionId(), id -> new StatusBreakdownDTO(id, group.getRegionName(), 0, 0)),
+                        isActive, group.getCount());
+            }
+        }
+        this.active = activeCount;
+        this.inactive = inactiveCount;
+        this.total = activeCount + inactiveCount;
+        this.coverageAreas = areas.size();
+        this.byArea = sorted(areas);
+        this.byRegion = sorted(regions);
+        this.computedAt = Instant.now();
+    }
+
+    private static void add(StatusBreakdownDTO breakdown, boolean isActive, long count) {
+        if (isActive) {
+            breakdown.setActive(breakdown.getActive() + count);
+        } else {
+            breakdown.setInactive(breakdown.getInactive() + count);
+        }
+    }
+
+    private static List<StatusBreakdownDTO> sorted(Map<Integer, StatusBreakdownDTO> breakdowns) {
+        List<StatusBreakdownDTO> list = new ArrayList<>(breakdowns.values());
+        list.sort(BY_NAME);
+        return List.copyOf(list);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public long getActive() {
+        return active;
+    }
+
+    public long getInactive() {
+        return inactive;
+    }
+
+    /**
+     * Number of distinct areas with at least one office
+     */
+    public long getCoverageAreas() {
+        return coverageAreas;
+    }
+
+    public List<StatusBreakdownDTO> getByArea() {
+        return byArea;
+    }
+
+    public List<StatusBreakdownDTO> getByRegion() {
+        return byRegion;
+    }
+
+    public Instant getComputedAt() {
+        return computedAt;
+    }
+}
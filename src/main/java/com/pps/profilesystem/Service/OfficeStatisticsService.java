@@ -0,0 +1,20 @@
+package com.pps.profilesystem.Service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Serves dashboard and table header statistics from the OfficeReadModel.
+ * Each snapshot computes its statistics once, on first use, so they change as soon as
+ * the read model picks up inserted, imported or updated offices.
+ */
+@Service
+public class OfficeStatisticsService {
+
+    @Autowired
+    private OfficeReadModelService readModelService;
+
+    public OfficeStatistics getStatistics() {
+        return readModelService.getModel().getStatistics();
+    }
+}
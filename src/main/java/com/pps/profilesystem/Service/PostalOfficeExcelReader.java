@@ -0,0 +1,200 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficeImportDTO;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.springframework.stereotype.Component;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.function.Consumer;
+
+/**
+ * Streaming reader for the postal office import workbook.
+ * Parses the first sheet with POI's SAX event API so only the current row
+ * (plus the shared strings table) is held in memory, regardless of sheet size.
+ */
+@Component
+public class PostalOfficeExcelReader {
+
+    // Column layout of the import sheet
+    public static final int COL_AREA = 0;
+    public static final int COL_POST_OFFICE_NAME = 1;
+    public static final int COL_LONGITUDE = 2;
+    public static final int COL_LATITUDE = 3;
+    public static final int COL_ZIP_CODE = 4;
+    public static final int COL_ADDRESS = 5;
+    public static final int COL_CONNECTIVITY_STATUS = 6;
+    public static final int COLUMN_COUNT = 7;
+    // Header row, in column order
+    public static final String[] COLUMN_NAMES = {
+        "AREA", "POST OFFICE NAME", "LONGITUDE", "LATITUDE", "ZIP CODE", "ADDRESS", "CONNECTIVITY STATUS"
+    };
+
+    /**
+     * Read every data row of the first sheet and hand it to the consumer as soon as it is parsed.
+     * @param file xlsx file on disk
+     * @param rowConsumer receives one DTO per data row (header row is skipped)
+     * @return number of data rows read
+     */
+    public int read(Path file, Consumer<PostalOfficeImportDTO> rowConsumer) throws IOException {
+        try (OPCPackage pkg = OPCPackage.open(file.toFile(), PackageAccess.READ)) {
+            ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+            XSSFReader reader = new XSSFReader(pkg);
+
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                return 0;
+            }
+
+            SheetHandler handler = new SheetHandler(sharedStrings, rowConsumer);
+            try (InputStream sheet = sheets.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(handler);
+                parser.parse(new InputSource(sheet));
+            }
+            return handler.rowsRead;
+
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Unable to read Excel file: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * SAX handler for a worksheet part. Keeps the raw values of the current row only.
+     */
+    private static class SheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable sharedStrings;
+        private final Consumer<PostalOfficeImportDTO> rowConsumer;
+
+        private final String[] values = new String[COLUMN_COUNT];
+        private final boolean[] numeric = new boolean[COLUMN_COUNT];
+        private final StringBuilder text = new StringBuilder();
+
+        private int rowNumber;
+        private int column;
+        private String cellType;
+        private boolean capturing;
+        private int rowsRead;
+
+        SheetHandler(ReadOnlySharedStringsTable sharedStrings, Consumer<PostalOfficeImportDTO> rowConsumer) {
+            this.sharedStrings = sharedStrings;
+            this.rowConsumer = rowConsumer;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            switch (localName) {
+                case "row":
+                    String r = attributes.getValue("r");
+                    rowNumber = (r != null) ? Integer.parseInt(r) : rowNumber + 1;
+                    column = -1;
+                    Arrays.fill(values, null);
+                    Arrays.fill(numeric, false);
+                    break;
+                case "c":
+                    String ref = attributes.getValue("r");
+                    column = (ref != null) ? new CellReference(ref).getCol() : column + 1;
+                    cellType = attributes.getValue("t");
+                    text.setLength(0);
+                    break;
+                case "v":
+                case "t":
+                    capturing = true;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if (capturing) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            switch (localName) {
+                case "v":
+                case "t":
+                    capturing = false;
+                    break;
+                case "c":
+                    storeCell();
+                    break;
+                case "row":
+                    // Row 1 is the header
+                    if (rowNumber > 1) {
+                        rowConsumer.accept(toDto());
+                        rowsRead++;
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void storeCell() {
+            if (column < 0 || column >= COLUMN_COUNT || text.length() == 0) {
+                return;
+            }
+            if (cellType == null || "n".equals(cellType)) {
+                values[column] = text.toString();
+                numeric[column] = true;
+            } else if ("s".equals(cellType)) {
+                int index = Integer.parseInt(text.toString().trim());
+                values[column] = sharedStrings.getItemAt(index).getString();
+            } else if ("inlineStr".equals(cellType) || "str".equals(cellType)) {
+                values[column] = text.toString();
+            }
+            // Boolean and error cells are ignored, same as the old DOM reader
+        }
+
+        private PostalOfficeImportDTO toDto() {
+            PostalOfficeImportDTO dto = new PostalOfficeImportDTO();
+            dto.setRowNumber(rowNumber);
+            dto.setArea(getCellValue(COL_AREA));
+            dto.setPostOfficeName(getCellValue(COL_POST_OFFICE_NAME));
+            dto.setLongitude(getNumericValue(COL_LONGITUDE));
+            dto.setLatitude(getNumericValue(COL_LATITUDE));
+            dto.setZipCode(getCellValue(COL_ZIP_CODE));
+            dto.setAddress(getCellValue(COL_ADDRESS));
+            dto.setConnectivityStatus(getCellValue(COL_CONNECTIVITY_STATUS));
+            return dto;
+        }
+
+        private String getCellValue(int col) {
+            String value = values[col];
+            if (value == null) return null;
+            if (numeric[col]) {
+                // Numeric cells (e.g. ZIP codes typed as numbers) are truncated to whole numbers
+                return String.valueOf((int) Double.parseDouble(value));
+            }
+            // Return null if empty string
+            return !value.trim().isEmpty() ? value : null;
+        }
+
+        private Double getNumericValue(int col) {
+            if (values[col] == null || !numeric[col]) return null;
+            return Double.parseDouble(values[col]);
+        }
+    }
+}
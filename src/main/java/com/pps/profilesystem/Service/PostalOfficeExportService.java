@@ -0,0 +1,128 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficeImportDTO;
+import com.pps.profilesystem.DTO.PostalOfficeTableQuery;
+import com.pps.profilesystem.Repository.PostalOfficeTableRepository;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Writes postal offices back out in the import sheet's column layout, so an export can be
+ * edited and re-imported (upsert). Rows are streamed from a JDBC cursor straight into the
+ * output: CSV is written as it is read, XLSX goes through SXSSF, which keeps only a small
+ * window of rows in memory and flushes the rest to a temp file. Heap use does not grow with
+ * the number of offices.
+ */
+@Service
+public class PostalOfficeExportService {
+
+    // Rows SXSSF keeps in memory before flushing to its temp file
+    private static final int ROW_WINDOW = 100;
+    private static final int MAX_XLSX_ROWS = SpreadsheetVersion.EXCEL2007.getLastRowIndex();
+
+    @Autowired
+    private PostalOfficeTableRepository tableRepository;
+
+    /**
+     * @return number of offices written
+     */
+    public long writeCsv(PostalOfficeTableQuery query, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        // Byte order mark, so Excel opens names like "Sto. Niño" as UTF-8
+        writer.write('\uFEFF');
+        Csv.writeRecord(writer, PostalOfficeExcelReader.COLUMN_NAMES);
+        long[] count = {0};
+        try {
+            tableRepository.forEachExportRow(query, row -> {
+                try {
+                    Csv.writeRecord(writer,
+                        row.getArea(), row.getPostOfficeName(),
+                        row.getLongitude() != null ? row.getLongitude().toString() : null,
+                        row.getLatitude() != null ? row.getLatitude().toString() : null,
+                        row.getZipCode(), row.getAddress(), row.getConnectivityStatus());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return count[0];
+    }
+
+    /**
+     * @return number of offices written
+     * @throws IllegalStateException if the offices do not fit on one sheet
+     */
+    public long writeXlsx(PostalOfficeTableQuery query, OutputStream out) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(ROW_WINDOW);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("Postal Offices");
+            CellStyle headerStyle = workbook.createCellStyle();
+            Font bold = workbook.createFont();
+            bold.setBold(true);
+            headerStyle.setFont(bold);
+
+            Row header = sheet.createRow(0);
+            for (int c = 0; c < PostalOfficeExcelReader.COLUMN_COUNT; c++) {
+                Cell cell = header.createCell(c);
+                cell.setCellValue(PostalOfficeExcelReader.COLUMN_NAMES[c]);
+                cell.setCellStyle(headerStyle);
+            }
+            sheet.createFreezePane(0, 1);
+
+            int[] rowIndex = {0};
+            tableRepository.forEachExportRow(query, office -> {
+                if (rowIndex[0] == MAX_XLSX_ROWS) {
+                    throw new IllegalStateException("More than " + MAX_XLSX_ROWS
+                            + " offices match; narrow the filters or export as CSV");
+                }
+                writeRow(sheet.createRow(++rowIndex[0]), office);
+            });
+            workbook.write(out);
+            return rowIndex[0];
+        } finally {
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    // Coordinates stay numeric, since the import reads them from numeric cells only
+    private static void writeRow(Row row, PostalOfficeImportDTO office) {
+        setText(row, PostalOfficeExcelReader.COL_AREA, office.getArea());
+        setText(row, PostalOfficeExcelReader.COL_POST_OFFICE_NAME, office.getPostOfficeName());
+        if (office.getLongitude() != null) {
+            row.createCell(PostalOfficeExcelReader.COL_LONGITUDE).setCellValue(office.getLongitude());
+        }
+        if (office.getLatitude() != null) {
+            row.createCell(PostalOfficeExcelReader.COL_LATITUDE).setCellValue(office.getLatitude());
+        }
+        setText(row, PostalOfficeExcelReader.COL_ZIP_CODE, office.getZipCode());
+        setText(row, PostalOfficeExcelReader.COL_ADDRESS, office.getAddress());
+        setText(row, PostalOfficeExcelReader.COL_CONNECTIVITY_STATUS, office.getConnectivityStatus());
+    }
+
+    private static void setText(Row row, int column, String value) {
+        if (value != null) {
+            row.createCell(column).setCellValue(value);
+        }
+    }
+}
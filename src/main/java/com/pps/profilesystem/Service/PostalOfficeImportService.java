@@ -1,5 +1,6 @@
 package com.pps.profilesystem.Service;
 
+import com.pps.profilesystem.DTO.ImportIssueDTO;
 import com.pps.profilesystem.DTO.PostalOfficeImportDTO;
 import com.pps.profilesystem.Entity.Area;
 import com.pps.profilesystem.Entity.Barangay;
@@ -7,193 +8,498 @@ import com.pps.profilesystem.Entity.CityMunicipality;
 import com.pps.profilesystem.Entity.PostalOffice;
 import com.pps.profilesystem.Entity.Province;
 import com.pps.profilesystem.Entity.Regions;
-import com.pps.profilesystem.Entity.ZipCode;
-import com.pps.profilesystem.Repository.AreaRepository;
-import com.pps.profilesystem.Repository.BarangayRepository;
-import com.pps.profilesystem.Repository.PostalOfficeRepository;
-import com.pps.profilesystem.Repository.ZipCodeRepository;
+import com.pps.profilesystem.Repository.PostalOfficeBatchRepository;
 
-import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
 
 @Service
-@Transactional
 public class PostalOfficeImportService {
     
     @Autowired
-    private PostalOfficeRepository postalOfficeRepository;
+    private ZipResolutionService zipResolutionService;
     
     @Autowired
-    private ZipCodeRepository zipCodeRepository;
+    private LocationNameResolver locationNameResolver;
     
     @Autowired
-    private AreaRepository areaRepository;
+    private PostalOfficeExcelReader excelReader;
     
     @Autowired
-    private BarangayRepository barangayRepository;
+    private PostalOfficeBatchRepository batchRepository;
+
+    @Autowired
+    private ConnectivityRollupService connectivityRollup;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    // Rows written per JDBC batch / transaction
+    @Value("${import.batch-size:1000}")
+    private int batchSize;
+    
+    // Worker threads for the validate/resolve stage (0 = one per core)
+    @Value("${import.validation-threads:0}")
+    private int validationThreads;
+    
+    // Rows handed to a validation worker at a time
+    private static final int VALIDATION_BATCH_SIZE = 500;
     
-    public void importPostalOffices(MultipartFile file) throws IOException {
+    // Similarity needed to take a city from the address when the province is unknown too
+    private static final double CITY_FROM_ADDRESS_MIN_SCORE = 0.9;
+    
+    private ExecutorService validationPool;
+    
+    @PostConstruct
+    void startValidationPool() {
+        if (validationThreads <= 0) {
+            validationThreads = Runtime.getRuntime().availableProcessors();
+        }
+        validationPool = Executors.newFixedThreadPool(validationThreads);
+    }
+    
+    @PreDestroy
+    void stopValidationPool() {
+        validationPool.shutdownNow();
+    }
+    
+    /**
+     * Import every row of the workbook, reporting progress on the job as rows are read, validated and saved
+     * @param file xlsx file on disk
+     * @param job progress tracker; a cancel request stops the import at the next row
+     */
+    public void importPostalOffices(Path file, ImportJob job) throws IOException {
         System.out.println("===== STARTING IMPORT =====");
         
-        List<PostalOfficeImportDTO> excelData = readExcelFile(file);
-        System.out.println("Read " + excelData.size() + " rows from Excel");
+        // Shared in-memory ZIP index, already matched to the location hierarchy
+        ZipIndex zipIndex = zipResolutionService.getIndex();
+        System.out.println("Using ZIP index with " + zipIndex.getZipCount() + " zip codes");
+        
+        // Upsert: key and content hash of every existing office, so unchanged rows are never written
+        OfficeFingerprints fingerprints = null;
+        if (job.getMode() == ImportJob.Mode.UPSERT) {
+            long start = System.nanoTime();
+            fingerprints = new OfficeFingerprints();
+            batchRepository.forEachImportedColumns(fingerprints::add);
+            System.out.println("Loaded " + fingerprints.size() + " existing office keys in "
+                    + (System.nanoTime() - start) / 1_000_000 + " ms (" + fingerprints.getDuplicateCount()
+                    + " offices share a key with an older one and will not be matched)");
+        }
+        
+        // Every warning/error goes to the job's report (counts, samples, and a CSV of the affected rows)
+        ImportReport report = job.report();
+        ChunkWriter chunkWriter = new ChunkWriter(job, fingerprints, report);
+        ImportPipeline pipeline = new ImportPipeline(job, zipIndex, chunkWriter, report);
+        
+        // Parse (this thread) -> validate/resolve (worker pool) -> persist (this thread, in row order).
+        // Rows stream straight from the sheet - the workbook is never fully loaded.
+        try {
+            int rowsRead = excelReader.read(file, dto -> {
+                if (job.isCancelRequested()) {
+                    throw new CancellationException("Import cancelled at row " + dto.getRowNumber());
+                }
+                job.rowRead();
+                pipeline.accept(dto);
+            });
+            pipeline.finish();
+            System.out.println("Read " + rowsRead + " rows from Excel");
+        } finally {
+            pipeline.cancelOutstanding();
+            // Updates can move offices between areas/regions, which the incremental counters cannot follow
+            if (chunkWriter.updatedCount > 0) {
+                connectivityRollup.rebuild();
+            }
+        }
+        
+        int savedCount = chunkWriter.savedCount;
+        System.out.println("Saved " + savedCount + " records in " + chunkWriter.chunkCount + " chunks");
+        if (fingerprints != null) {
+            System.out.println("Upsert: " + (savedCount - chunkWriter.updatedCount) + " inserted, "
+                    + chunkWriter.updatedCount + " updated, " + chunkWriter.unchangedCount + " unchanged");
+        }
+        System.out.println("Errors: " + report.getErrorCount());
+        System.out.println("Warnings: " + report.getWarningCount() + " " + report.getCounts());
+        
+        if (savedCount == 0 && chunkWriter.unchangedCount == 0) {
+            System.out.println("WARNING: No records to save!");
+        }
+        
+        // ONLY throw exception if there are actual ERRORS (not warnings)
+        if (report.getErrorCount() > 0) {
+            throw new RuntimeException("Import failed with " + report.getErrorCount() + " errors. " + savedCount
+                    + " records were imported successfully. Download the import report for the affected rows.");
+        }
+        
+        // If only warnings (no errors), just log them
+        if (report.getWarningCount() > 0) {
+            System.out.println("===== IMPORT COMPLETED WITH WARNINGS =====");
+            System.out.println(savedCount + " records imported successfully");
+            System.out.println(report.getWarningCount() + " warnings (see the import report)");
+            System.out.println("==========================================");
+        } else {
+            System.out.println("===== IMPORT COMPLETED SUCCESSFULLY =====");
+            System.out.println(savedCount + " records imported with no warnings");
+            System.out.println("=========================================");
+        }
+    }
+    
+    /**
+     * Hands parsed rows to the validation pool in batches and persists the results in row order.
+     * At most two batches per worker are in flight, which bounds memory and throttles the reader.
+     */
+    private class ImportPipeline {
+        private final ImportJob job;
+        private final ZipIndex zipIndex;
+        private final ChunkWriter chunkWriter;
+        private final ImportReport report;
+        private final Deque<Future<ValidatedBatch>> inFlight = new ArrayDeque<>();
+        private final int maxInFlight = validationThreads * 2;
+        private List<PostalOfficeImportDTO> pending = new ArrayList<>(VALIDATION_BATCH_SIZE);
+        
+        ImportPipeline(ImportJob job,
+                       ZipIndex zipIndex,
+                       ChunkWriter chunkWriter,
+                       ImportReport report) {
+            this.job = job;
+            this.zipIndex = zipIndex;
+            this.chunkWriter = chunkWriter;
+            this.report = report;
+        }
         
-        // Pre-load lookup data into maps
-        Map<String, Area> areaMap = loadAreaMap();
-        System.out.println("Loaded " + areaMap.size() + " areas");
+        void accept(PostalOfficeImportDTO dto) {
+            pending.add(dto);
+            if (pending.size() >= VALIDATION_BATCH_SIZE) {
+                submitPending();
+            }
+        }
+        
+        /**
+         * Validate the remaining rows and persist everything still in flight
+         */
+        void finish() {
+            submitPending();
+            while (!inFlight.isEmpty()) {
+                persistOldest();
+            }
+            // Save whatever is left in the last partial chunk
+            chunkWriter.flush();
+        }
         
-        Map<String, Barangay> barangayMap = loadBarangayMap();
-        System.out.println("Loaded " + barangayMap.size() + " barangays");
+        void cancelOutstanding() {
+            inFlight.forEach(future -> future.cancel(true));
+            inFlight.clear();
+        }
         
-        Map<String, String> zipToBarangayMap = loadZipToBarangayMap();
-        System.out.println("Loaded " + zipToBarangayMap.size() + " zip codes");
+        private void submitPending() {
+            if (pending.isEmpty()) {
+                return;
+            }
+            List<PostalOfficeImportDTO> rows = pending;
+            pending = new ArrayList<>(VALIDATION_BATCH_SIZE);
+            inFlight.add(validationPool.submit(() -> validateBatch(rows)));
+            
+            // Persist finished batches eagerly, and block on the oldest one when the window is full
+            while (!inFlight.isEmpty() && (inFlight.size() >= maxInFlight || inFlight.peekFirst().isDone())) {
+                persistOldest();
+            }
+        }
         
-        List<PostalOffice> postalOfficesToSave = new ArrayList<>();
-        List<String> errors = new ArrayList<>();
-        List<String> warnings = new ArrayList<>();
-        int rowNumber = 1; // Start from 1 (header is row 0)
+        private ValidatedBatch validateBatch(List<PostalOfficeImportDTO> rows) {
+            ValidatedBatch batch = new ValidatedBatch(rows.size());
+            for (PostalOfficeImportDTO dto : rows) {
+                int issuesBefore = batch.issues.size();
+                try {
+                    batch.offices.add(toPostalOffice(dto, zipIndex, batch.issues));
+                    batch.rows.add(dto);
+                    job.rowValidated();
+                    job.warningsAdded(batch.issues.size() - issuesBefore);
+                } catch (Exception e) {
+                    batch.issues.subList(issuesBefore, batch.issues.size()).clear();
+                    batch.issues.add(ImportReport.issue(dto, ImportReport.Category.ROW_FAILED, "Unexpected error - " + e.getMessage()));
+                    job.errorAdded();
+                    e.printStackTrace();
+                }
+            }
+            return batch;
+        }
         
-        for (PostalOfficeImportDTO dto : excelData) {
-            rowNumber++;
+        private void persistOldest() {
+            ValidatedBatch batch;
             try {
-                // 1. Handle AREA (now optional)
-                Area area = null;
-                if (!isNullOrEmpty(dto.getArea())) {
-                    try {
-                        area = getArea(dto.getArea(), areaMap);
-                    } catch (RuntimeException e) {
-                        warnings.add("Row " + rowNumber + ": " + e.getMessage());
+                batch = inFlight.pollFirst().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new CancellationException("Import interrupted");
+            } catch (ExecutionException e) {
+                throw new RuntimeException("Row validation failed: " + e.getCause().getMessage(), e.getCause());
+            }
+            batch.issues.forEach(report::add);
+            for (int i = 0; i < batch.offices.size(); i++) {
+                chunkWriter.add(batch.offices.get(i), batch.rows.get(i));
+            }
+        }
+    }
+    
+    /**
+     * Output of validating one batch of rows on a worker thread
+     */
+    private static class ValidatedBatch {
+        private final List<PostalOffice> offices;
+        private final List<PostalOfficeImportDTO> rows;
+        private final List<ImportIssueDTO> issues = new ArrayList<>();
+        
+        ValidatedBatch(int size) {
+            offices = new ArrayList<>(size);
+            rows = new ArrayList<>(size);
+        }
+    }
+    
+    /**
+     * Buffers prepared offices and writes them in fixed-size chunks.
+     * Every chunk is a JDBC batch in its own transaction, so a failing chunk
+     * does not roll back the chunks that were already committed.
+     * In upsert mode rows matching an existing office become UPDATEs, or are skipped when unchanged.
+     */
+    private class ChunkWriter {
+        private final TransactionTemplate chunkTransaction = newChunkTransaction();
+        private final List<PostalOffice> buffer = new ArrayList<>(batchSize);
+        private final List<PostalOffice> updates = new ArrayList<>();
+        private final ImportJob job;
+        private final OfficeFingerprints fingerprints;   // null unless upserting
+        private final Map<String, Integer> rowByKey = new HashMap<>();
+        private final ImportReport report;
+        private int firstRow;
+        private int lastRow;
+        private int savedCount;
+        private int updatedCount;
+        private int unchangedCount;
+        private int chunkCount;
+        
+        ChunkWriter(ImportJob job, OfficeFingerprints fingerprints, ImportReport report) {
+            this.job = job;
+            this.fingerprints = fingerprints;
+            this.report = report;
+        }
+        
+        void add(PostalOffice postalOffice, PostalOfficeImportDTO row) {
+            int rowNumber = row.getRowNumber();
+            boolean update = false;
+            if (fingerprints != null) {
+                String key = OfficeFingerprints.naturalKey(postalOffice);
+                if (key != null) {
+                    Integer earlierRow = rowByKey.putIfAbsent(key, rowNumber);
+                    if (earlierRow != null) {
+                        report.add(ImportReport.issue(row, ImportReport.Category.DUPLICATE_ROW,
+                                "Same name, area and ZIP as row " + earlierRow + " - skipped"));
+                        job.warningsAdded(1);
+                        return;
                     }
-                } else {
-                    warnings.add("Row " + rowNumber + ": Missing AREA");
-                }
-                
-                // 2. Handle POST OFFICE NAME (now optional)
-                String postOfficeName = dto.getPostOfficeName();
-                if (isNullOrEmpty(postOfficeName)) {
-                    warnings.add("Row " + rowNumber + ": Missing POST OFFICE NAME");
-                }
-                
-                // 3. Handle LONGITUDE (optional but validated if present)
-                Double longitude = null;
-                if (dto.getLongitude() != null) {
-                    longitude = validateLongitude(dto.getLongitude(), rowNumber, warnings);
-                }
-                
-                // 4. Handle LATITUDE (optional but validated if present)
-                Double latitude = null;
-                if (dto.getLatitude() != null) {
-                    latitude = validateLatitude(dto.getLatitude(), rowNumber, warnings);
-                }
-                
-                // 5. Handle ZIP CODE (optional)
-                String zipCode = dto.getZipCode();
-                Barangay barangay = null;
-                CityMunicipality cityMun = null;
-                Province province = null;
-                Regions region = null;
-                
-                if (!isNullOrEmpty(zipCode)) {
-                    // Has zipcode - do the lookup
-                    String barangayName = zipToBarangayMap.get(zipCode);
-                    if (barangayName != null) {
-                        barangay = barangayMap.get(barangayName);
-                        
-                        if (barangay != null) {
-                            // Get the cascade of relationships
-                            cityMun = barangay.getCityMunicipality();
-                            if (cityMun != null) {
-                                province = cityMun.getProvince();
-                                if (province != null) {
-                                    region = province.getRegion();
-                                }
-                            }
+                    OfficeFingerprints.Fingerprint existing = fingerprints.get(key);
+                    if (existing != null) {
+                        if (existing.getHash() == OfficeFingerprints.contentHash(postalOffice)) {
+                            unchangedCount++;
+                            job.rowUnchanged();
+                            return;
                         }
+                        postalOffice.setId(existing.getId());
+                        update = true;
                     }
                 }
-                
-                // 6. Handle ADDRESS (optional)
-                String address = dto.getAddress();
-                
-                // 7. Handle CONNECTIVITY STATUS (optional, defaults to false)
-                Boolean connectionStatus = convertConnectionStatus(dto.getConnectivityStatus());
-                
-                // 8. Create PostalOffice entity - ALWAYS CREATE, even if all fields are null
-                PostalOffice postalOffice = new PostalOffice();
-                postalOffice.setName(postOfficeName);  // Can be null
-                postalOffice.setArea(area);  // Can be null
-                postalOffice.setAddress(address);  // Can be null
-                postalOffice.setRegion(region);  // Can be null
-                postalOffice.setProvince(province);  // Can be null
-                postalOffice.setCityMunicipality(cityMun);  // Can be null
-                postalOffice.setBarangay(barangay);  // Can be null
-                postalOffice.setZipCode(zipCode);  // Can be null
-                postalOffice.setLongitude(longitude);  // Can be null
-                postalOffice.setLatitude(latitude);  // Can be null
-                postalOffice.setConnectionStatus(connectionStatus);
-                
-                postalOfficesToSave.add(postalOffice);
-                
-            } catch (Exception e) {
-                errors.add("Row " + rowNumber + ": Unexpected error - " + e.getMessage());
-                e.printStackTrace();
+            }
+            if (buffer.isEmpty() && updates.isEmpty()) {
+                firstRow = rowNumber;
+            }
+            lastRow = rowNumber;
+            (update ? updates : buffer).add(postalOffice);
+            if (buffer.size() + updates.size() >= batchSize) {
+                flush();
             }
         }
         
-        System.out.println("Prepared " + postalOfficesToSave.size() + " records to save");
-        System.out.println("Errors: " + errors.size());
-        System.out.println("Warnings: " + warnings.size());
-        
-        // Save all valid records
-        if (!postalOfficesToSave.isEmpty()) {
+        void flush() {
+            if (buffer.isEmpty() && updates.isEmpty()) {
+                return;
+            }
+            long start = System.nanoTime();
+            int chunkSize = buffer.size() + updates.size();
             try {
-                System.out.println("Attempting to save " + postalOfficesToSave.size() + " records...");
-                List<PostalOffice> saved = postalOfficeRepository.saveAll(postalOfficesToSave);
-                System.out.println("Successfully saved " + saved.size() + " records!");
+                List<Integer> changedIds = new ArrayList<>(chunkSize);
+                long rollupGeneration = connectivityRollup.generation();
+                chunkTransaction.executeWithoutResult(status -> {
+                    if (!buffer.isEmpty()) {
+                        changedIds.addAll(batchRepository.insertAll(buffer));
+                    }
+                    if (!updates.isEmpty()) {
+                        batchRepository.updateAll(updates);
+                        updates.forEach(office -> changedIds.add(office.getId()));
+                    }
+                });
+                savedCount += chunkSize;
+                updatedCount += updates.size();
+                job.rowsPersisted(buffer.size(), updates.size());
+                connectivityRollup.officesAdded(buffer, rollupGeneration);
+                // The chunk is committed: in-memory read models apply it as a delta
+                eventPublisher.publishEvent(PostalOfficesChangedEvent.of(changedIds));
             } catch (Exception e) {
                 System.err.println("ERROR SAVING TO DATABASE: " + e.getMessage());
                 e.printStackTrace();
-                throw new RuntimeException("Failed to save records to database: " + e.getMessage(), e);
+                throw new RuntimeException("Failed to save rows " + firstRow + "-" + lastRow + " to database: "
+                        + e.getMessage() + ". " + savedCount + " records were saved before the failure.", e);
+            }
+            chunkCount++;
+            
+            double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            System.out.printf("Chunk %d: saved rows %d-%d (%d inserted, %d updated) at %.0f rows/sec%n",
+                    chunkCount, firstRow, lastRow, buffer.size(), updates.size(), chunkSize / Math.max(seconds, 1e-9));
+            buffer.clear();
+            updates.clear();
+        }
+    }
+    
+    private TransactionTemplate newChunkTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+    
+    private PostalOffice toPostalOffice(PostalOfficeImportDTO dto,
+                                        ZipIndex zipIndex,
+                                        List<ImportIssueDTO> issues) {
+        
+        // 1. Handle AREA (now optional) - "AREA-1", "Area 1" and "area1" all resolve to the same area
+        Area area = null;
+        if (!isNullOrEmpty(dto.getArea())) {
+            FuzzyNameMatcher.Match<Area> match =
+                    locationNameResolver.matchArea(dto.getArea(), LocationNameResolver.DEFAULT_MIN_SCORE);
+            if (match == null || match.isAmbiguous()) {
+                issues.add(ImportReport.issue(dto, ImportReport.Category.AREA_NOT_FOUND, "Area not found: " + dto.getArea()));
+            } else {
+                area = match.getItem();
+                warnFuzzy(issues, dto, "AREA", dto.getArea(), area.getAreaName(), match);
             }
         } else {
-            System.out.println("WARNING: No records to save!");
+            issues.add(ImportReport.issue(dto, ImportReport.Category.MISSING_AREA, "Missing AREA"));
         }
         
-        // ONLY throw exception if there are actual ERRORS (not warnings)
-        if (!errors.isEmpty()) {
-            StringBuilder errorMessage = new StringBuilder();
-            errorMessage.append("Import failed with ")
-                        .append(errors.size())
-                        .append(" errors. ")
-                        .append(postalOfficesToSave.size())
-                        .append(" records were imported successfully.\n\nErrors:\n")
-                        .append(String.join("\n", errors.subList(0, Math.min(10, errors.size()))));
-            
-            if (errors.size() > 10) {
-                errorMessage.append("\n... and ").append(errors.size() - 10).append(" more errors");
+        // 2. Handle POST OFFICE NAME (now optional)
+        String postOfficeName = dto.getPostOfficeName();
+        if (isNullOrEmpty(postOfficeName)) {
+            issues.add(ImportReport.issue(dto, ImportReport.Category.MISSING_NAME, "Missing POST OFFICE NAME"));
+        }
+        
+        // 3. Handle LONGITUDE (optional but validated if present)
+        Double longitude = null;
+        if (dto.getLongitude() != null) {
+            longitude = validateLongitude(dto.getLongitude(), dto, issues);
+        }
+        
+        // 4. Handle LATITUDE (optional but validated if present)
+        Double latitude = null;
+        if (dto.getLatitude() != null) {
+            latitude = validateLatitude(dto.getLatitude(), dto, issues);
+        }
+        
+        // 5. Handle ZIP CODE (optional)
+        String zipCode = dto.getZipCode();
+        Barangay barangay = null;
+        CityMunicipality cityMun = null;
+        Province province = null;
+        Regions region = null;
+        
+        String address = dto.getAddress();
+        String[] addressParts = !isNullOrEmpty(address) ? address.split("[,;]") : new String[0];
+        
+        if (!isNullOrEmpty(zipCode)) {
+            // Has zipcode - do the lookup
+            ZipIndex.ZipLocation location = zipIndex.resolve(zipCode);
+            if (location != null) {
+                barangay = location.getBarangay();
+                cityMun = location.getCity();
+                province = location.getProvince();
+                region = location.getRegion();
+                if (location.isAmbiguous()) {
+                    // Several barangays share the ZIP (often in different cities): pick the one the address names
+                    List<Barangay> candidates = zipIndex.getBarangays(zipCode);
+                    FuzzyNameMatcher.Match<Barangay> match = bestMatch(addressParts, part ->
+                            locationNameResolver.matchBarangayAmong(part, candidates, LocationNameResolver.DEFAULT_MIN_SCORE));
+                    if (match != null && !match.isAmbiguous()) {
+                        barangay = match.getItem();
+                        cityMun = barangay.getCityMunicipality();
+                        province = cityMun != null ? cityMun.getProvince() : null;
+                        region = province != null ? province.getRegion() : null;
+                        warnFuzzy(issues, dto, "barangay", address, barangay.getName(), match);
+                    } else {
+                        issues.add(ImportReport.issue(dto, ImportReport.Category.AMBIGUOUS_ZIP, "ZIP " + zipCode + " covers " + location.getCandidateCount()
+                                + " barangays" + (match != null ? " and the address fits more than one" : "")
+                                + ", barangay left blank"));
+                    }
+                }
             }
-            
-            throw new RuntimeException(errorMessage.toString());
         }
         
-        // If only warnings (no errors), just log them
-        if (!warnings.isEmpty()) {
-            System.out.println("===== IMPORT COMPLETED WITH WARNINGS =====");
-            System.out.println(postalOfficesToSave.size() + " records imported successfully");
-            System.out.println(warnings.size() + " warnings (check console for details)");
-            System.out.println("==========================================");
-        } else {
-            System.out.println("===== IMPORT COMPLETED SUCCESSFULLY =====");
-            System.out.println(postalOfficesToSave.size() + " records imported with no warnings");
-            System.out.println("=========================================");
+        // 6. Handle ADDRESS (optional) - also fills in the city/barangay the ZIP could not
+        if (barangay == null && addressParts.length > 0) {
+            if (cityMun == null) {
+                Integer provinceId = province != null ? province.getId() : null;
+                // Unscoped city names collide easily with street names, so demand a closer match
+                double minScore = provinceId != null ? LocationNameResolver.DEFAULT_MIN_SCORE : CITY_FROM_ADDRESS_MIN_SCORE;
+                FuzzyNameMatcher.Match<CityMunicipality> match =
+                        bestMatch(addressParts, part -> locationNameResolver.matchCity(part, provinceId, minScore));
+                if (match != null && !match.isAmbiguous()) {
+                    cityMun = match.getItem();
+                    province = cityMun.getProvince();
+                    region = province != null ? province.getRegion() : null;
+                    warnFuzzy(issues, dto, "city", address, cityMun.getName(), match);
+                }
+            }
+            if (cityMun != null) {
+                Integer cityId = cityMun.getId();
+                FuzzyNameMatcher.Match<Barangay> match = bestMatch(addressParts,
+                        part -> locationNameResolver.matchBarangay(part, cityId, LocationNameResolver.DEFAULT_MIN_SCORE));
+                if (match != null && !match.isAmbiguous()) {
+                    barangay = match.getItem();
+                    warnFuzzy(issues, dto, "barangay", address, barangay.getName(), match);
+                }
+            }
         }
+        
+        // 7. Handle CONNECTIVITY STATUS (optional, defaults to false)
+        Boolean connectionStatus = convertConnectionStatus(dto.getConnectivityStatus());
+        
+        // 8. Create PostalOffice entity - ALWAYS CREATE, even if all fields are null
+        PostalOffice postalOffice = new PostalOffice();
+        postalOffice.setName(postOfficeName);  // Can be null
+        postalOffice.setArea(area);  // Can be null
+        postalOffice.setAddress(address);  // Can be null
+        postalOffice.setRegion(region);  // Can be null
+        postalOffice.setProvince(province);  // Can be null
+        postalOffice.setCityMunicipality(cityMun);  // Can be null
+        postalOffice.setBarangay(barangay);  // Can be null
+        postalOffice.setZipCode(zipCode);  // Can be null
+        postalOffice.setLongitude(longitude);  // Can be null
+        postalOffice.setLatitude(latitude);  // Can be null
+        postalOffice.setConnectionStatus(connectionStatus);
+        return postalOffice;
     }
     
     // Helper method to check if string is null or empty
@@ -201,28 +507,30 @@ public class PostalOfficeImportService {
         return value == null || value.trim().isEmpty();
     }
     
-    private Double validateLatitude(Double latitude, int rowNumber, List<String> warnings) {
+    private Double validateLatitude(Double latitude, PostalOfficeImportDTO dto, List<ImportIssueDTO> issues) {
         if (latitude == null) {
             return null;
         }
         
         // Latitude must be between -90 and 90
         if (latitude < -90 || latitude > 90) {
-            warnings.add("Row " + rowNumber + ": Invalid LATITUDE " + latitude + " (must be between -90 and 90) - setting to null");
+            issues.add(ImportReport.issue(dto, ImportReport.Category.INVALID_COORDINATE,
+                    "Invalid LATITUDE " + latitude + " (must be between -90 and 90) - setting to null"));
             return null;
         }
         
         return latitude;
     }
     
-    private Double validateLongitude(Double longitude, int rowNumber, List<String> warnings) {
+    private Double validateLongitude(Double longitude, PostalOfficeImportDTO dto, List<ImportIssueDTO> issues) {
         if (longitude == null) {
             return null;
         }
         
         // Longitude must be between -180 and 180
         if (longitude < -180 || longitude > 180) {
-            warnings.add("Row " + rowNumber + ": Invalid LONGITUDE " + longitude + " (must be between -180 and 180) - setting to null");
+            issues.add(ImportReport.issue(dto, ImportReport.Category.INVALID_COORDINATE,
+                    "Invalid LONGITUDE " + longitude + " (must be between -180 and 180) - setting to null"));
             return null;
         }
         
@@ -242,91 +550,24 @@ public class PostalOfficeImportService {
                status.equals("active");
     }
     
-    private Area getArea(String areaFromExcel, Map<String, Area> areaMap) {
-        // Convert "AREA-1" to "Area 1"
-        String normalized = areaFromExcel.replace("AREA-", "Area ");
-        Area area = areaMap.get(normalized);
-        if (area == null) {
-            throw new RuntimeException("Area not found: " + areaFromExcel);
-        }
-        return area;
-    }
-    
-    private Map<String, Area> loadAreaMap() {
-        List<Area> areas = areaRepository.findAll();
-        Map<String, Area> map = new HashMap<>();
-        for (Area area : areas) {
-            map.put(area.getAreaName(), area);
-        }
-        return map;
-    }
-    
-    private Map<String, Barangay> loadBarangayMap() {
-        List<Barangay> barangays = barangayRepository.findAll();
-        Map<String, Barangay> map = new HashMap<>();
-        for (Barangay barangay : barangays) {
-            map.put(barangay.getName(), barangay);
-        }
-        return map;
-    }
-    
-    private Map<String, String> loadZipToBarangayMap() {
-        List<ZipCode> zipCodes = zipCodeRepository.findAll();
-        Map<String, String> map = new HashMap<>();
-        for (ZipCode zip : zipCodes) {
-            map.put(zip.getZipcode(), zip.getBarangay());
-        }
-        return map;
-    }
-    
-    private List<PostalOfficeImportDTO> readExcelFile(MultipartFile file) throws IOException {
-        List<PostalOfficeImportDTO> data = new ArrayList<>();
-        
-        Workbook workbook = new XSSFWorkbook(file.getInputStream());
-        Sheet sheet = workbook.getSheetAt(0);
-        
-        // Skip header row, start from row 1
-        for (int i = 1; i <= sheet.getLastRowNum(); i++) {
-            Row row = sheet.getRow(i);
-            if (row == null) continue;
-            
-            PostalOfficeImportDTO dto = new PostalOfficeImportDTO();
-            dto.setArea(getCellValue(row.getCell(0)));                      // AREA
-            dto.setPostOfficeName(getCellValue(row.getCell(1)));           // POST OFFICE NAME
-            dto.setLongitude(getNumericValue(row.getCell(2)));             // LONGITUDE (column 2)
-            dto.setLatitude(getNumericValue(row.getCell(3)));              // LATITUDE (column 3)
-            dto.setZipCode(getCellValue(row.getCell(4)));                  // ZIP CODE
-            dto.setAddress(getCellValue(row.getCell(5)));                  // ADDRESS LINE1
-            dto.setConnectivityStatus(getCellValue(row.getCell(6)));       // CONNECTIVITY STATUS
-            
-            data.add(dto);
-        }
-        
-        workbook.close();
-        return data;
-    }
-    
-    private String getCellValue(Cell cell) {
-        if (cell == null) return null;
-        switch (cell.getCellType()) {
-            case STRING:
-                String value = cell.getStringCellValue();
-                // Return null if empty string
-                return (value != null && !value.trim().isEmpty()) ? value : null;
-            case NUMERIC:
-                return String.valueOf((int) cell.getNumericCellValue());
-            case BLANK:
-                return null;
-            default:
-                return null;
+    // Highest-scoring match over the comma-separated parts of an address
+    private <T> FuzzyNameMatcher.Match<T> bestMatch(String[] parts, Function<String, FuzzyNameMatcher.Match<T>> matcher) {
+        FuzzyNameMatcher.Match<T> best = null;
+        for (String part : parts) {
+            FuzzyNameMatcher.Match<T> match = matcher.apply(part);
+            if (match != null && (best == null || match.getScore() > best.getScore())) {
+                best = match;
+            }
         }
+        return best;
     }
     
-    private Double getNumericValue(Cell cell) {
-        if (cell == null) return null;
-        if (cell.getCellType() == CellType.NUMERIC) {
-            return cell.getNumericCellValue();
+    // Inexact matches are accepted but reported, so a wrong guess can be spotted and corrected
+    private void warnFuzzy(List<ImportIssueDTO> issues, PostalOfficeImportDTO dto, String field, String input,
+                           String resolved, FuzzyNameMatcher.Match<?> match) {
+        if (!match.isExact()) {
+            issues.add(ImportReport.issue(dto, ImportReport.Category.FUZZY_MATCH, String.format("%s '%s' matched to '%s' (%.0f%% similar)",
+                    field, input, resolved, match.getScore() * 100)));
         }
-        return null;
     }
-}
\ No newline at end of file
+}
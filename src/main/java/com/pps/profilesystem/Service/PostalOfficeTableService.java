@@ -0,0 +1,78 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficePageDTO;
+import com.pps.profilesystem.DTO.PostalOfficeTableQuery;
+import com.pps.profilesystem.DTO.PostalOfficeTableRowDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Pages through postal offices for the /table view, reading from the OfficeReadModel snapshot.
+ * The cursor handed to the client is an opaque encoding of the last row's (id, name),
+ * from which the model finds where the next page starts in its sort order.
+ */
+@Service
+public class PostalOfficeTableService {
+
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 200;
+
+    @Autowired
+    private OfficeReadModelService readModelService;
+
+    /**
+     * @param cursor nextCursor from the previous page, or null for the first page
+     * @throws IllegalArgumentException if the cursor cannot be decoded
+     */
+    public PostalOfficePageDTO getPage(PostalOfficeTableQuery query, String cursor) {
+        boolean firstPage = cursor == null || cursor.isEmpty();
+        if (!firstPage) {
+            decodeCursor(cursor, query);
+        }
+        OfficeReadModel model = readModelService.getModel();
+        int pageSize = query.getLimit();
+        // Fetch one extra row to learn whether another page exists
+        query.setLimit(pageSize + 1);
+        List<PostalOfficeTableRowDTO> rows = model.findPage(query);
+
+        PostalOfficePageDTO page = new PostalOfficePageDTO();
+        page.setHasMore(rows.size() > pageSize);
+        if (page.isHasMore()) {
+            rows = rows.subList(0, pageSize);
+        }
+        page.setRows(rows);
+        if (page.isHasMore()) {
+            page.setNextCursor(encodeCursor(rows.get(rows.size() - 1)));
+        }
+        if (firstPage) {
+            page.setTotal(model.count(query));
+        }
+        return page;
+    }
+
+    // "<id>:" followed by "-" for a null name or "=" and the name
+    private static String encodeCursor(PostalOfficeTableRowDTO last) {
+        String raw = last.getId() + ":" + (last.getName() == null ? "-" : "=" + last.getName());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void decodeCursor(String cursor, PostalOfficeTableQuery query) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            query.setAfterId(Integer.parseInt(raw.substring(0, colon)));
+            String name = raw.substring(colon + 1);
+            if (name.startsWith("=")) {
+                query.setAfterName(name.substring(1));
+            } else if (!name.equals("-")) {
+                throw new IllegalArgumentException("Invalid cursor");
+            }
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+}
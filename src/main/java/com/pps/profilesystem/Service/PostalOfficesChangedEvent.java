@@ -0,0 +1,51 @@
+package com.pps.profilesystem.Service;
+
+import java.util.List;
+
+/**
+ * Published after postal offices were written (insert, import, status change).
+ * In-memory read models listen for it to stay in sync with the database.
+ */
+public class PostalOfficesChangedEvent {
+
+    private final boolean bulk;
+    private final List<Integer> officeIds;
+
+    private PostalOfficesChangedEvent(boolean bulk, List<Integer> officeIds) {
+        this.bulk = bulk;
+        this.officeIds = officeIds;
+    }
+
+    /**
+     * Many offices changed and their ids are not known (e.g. a bulk import)
+     */
+    public static PostalOfficesChangedEvent bulk() {
+        return new PostalOfficesChangedEvent(true, List.of());
+    }
+
+    /**
+     * The given offices were inserted or updated
+     * @throws IllegalArgumentException if there are none; publish nothing, or bulk() when the ids are unknown
+     */
+    public static PostalOfficesChangedEvent of(List<Integer> officeIds) {
+        if (officeIds.isEmpty()) {
+            throw new IllegalArgumentException("No office ids; use bulk() when they are unknown");
+        }
+        return new PostalOfficesChangedEvent(false, List.copyOf(officeIds));
+    }
+
+    public static PostalOfficesChangedEvent of(Integer officeId) {
+        return new PostalOfficesChangedEvent(false, List.of(officeId));
+    }
+
+    public boolean isBulk() {
+        return bulk;
+    }
+
+    /**
+     * Ids of the changed offices; empty for a bulk change
+     */
+    public List<Integer> getOfficeIds() {
+        return officeIds;
+    }
+}
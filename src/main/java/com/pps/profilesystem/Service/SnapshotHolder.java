@@ -0,0 +1,164 @@
+package com.pps.profilesystem.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Holds one immutable snapshot (the office read model or an index built from it) for a service
+ * that answers reads from memory. The snapshot is loaded on first use or at startup and then kept
+ * current on one background thread: changed offices are patched in by the updater, and a bulk
+ * change reloads it. Changes arriving while an update is queued or running are merged into the
+ * next one, so a burst of events costs one update rather than one per event.
+ */
+public class SnapshotHolder<T> {
+
+    /**
+     * Returns a copy of the snapshot with the given offices re-read (ids that no longer exist are removed)
+     */
+    public interface Updater<T> {
+        T update(T current, List<Integer> officeIds);
+    }
+
+    private final String name;
+    private final Supplier<T> loader;
+    private final Updater<T> updater;
+    // Called after each new snapshot is swapped in, with the patched ids, or no ids after a reload
+    private final Consumer<List<Integer>> onSwap;
+
+    private volatile T snapshot;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+    private final Object pendingLock = new Object();
+    private final Set<Integer> pendingIds = new LinkedHashSet<>();   // guarded by pendingLock
+    private boolean pendingReload;                                    // guarded by pendingLock
+    private boolean drainQueued;                                      // guarded by pendingLock
+
+    /**
+     * @param name used in log messages, e.g. "Search index"
+     */
+    public SnapshotHolder(String name, Supplier<T> loader, Updater<T> updater, Consumer<List<Integer>> onSwap) {
+        this.name = name;
+        this.loader = loader;
+        this.updater = updater;
+        this.onSwap = onSwap;
+    }
+
+    public SnapshotHolder(String name, Supplier<T> loader, Updater<T> updater) {
+        this(name, loader, updater, ids -> { });
+    }
+
+    public T get() {
+        T current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = loader.get();
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Load the snapshot now (at startup) rather than on the first request
+     */
+    public void preload() {
+        try {
+            get();
+        } catch (Exception e) {
+            System.err.println(name + " preload failed, will load on first use: " + e.getMessage());
+        }
+    }
+
+    /**
+     * The given offices were inserted, updated or deleted; they are patched in on the background thread
+     */
+    public void changed(Collection<Integer> officeIds) {
+        synchronized (pendingLock) {
+            if (!pendingReload) {
+                pendingIds.addAll(officeIds);
+            }
+            queueDrain();
+        }
+    }
+
+    /**
+     * Unknown or too many offices changed; the snapshot is reloaded on the background thread
+     */
+    public void changedAll() {
+        synchronized (pendingLock) {
+            pendingReload = true;
+            pendingIds.clear();
+            queueDrain();
+        }
+    }
+
+    /**
+     * For snapshots built from the office read model: follow its update
+     */
+    public void follow(OfficeReadModelUpdatedEvent event) {
+        if (event.isReload()) {
+            changedAll();
+        } else {
+            changed(event.getOfficeIds());
+        }
+    }
+
+    /**
+     * Reload the snapshot now, on the calling thread
+     */
+    public synchronized void reload() {
+        snapshot = loader.get();
+        onSwap.accept(List.of());
+    }
+
+    // Caller holds pendingLock
+    private void queueDrain() {
+        if (!drainQueued) {
+            drainQueued = true;
+            executor.submit(this::drain);
+        }
+    }
+
+    private void drain() {
+        List<Integer> ids;
+        boolean reload;
+        synchronized (pendingLock) {
+            ids = new ArrayList<>(pendingIds);
+            pendingIds.clear();
+            reload = pendingReload;
+            pendingReload = false;
+            drainQueued = false;
+        }
+        try {
+            // Holding the monitor keeps a first-use load and this update from interleaving
+            synchronized (this) {
+                if (snapshot == null) {
+                    // Not loaded yet: the first get() reads everything, including these changes
+                    return;
+                }
+                if (reload) {
+                    reload();
+                } else if (!ids.isEmpty()) {
+                    snapshot = updater.update(snapshot, ids);
+                    onSwap.accept(ids);
+                }
+            }
+        } catch (Exception e) {
+            System.err.println(name + (reload ? " rebuild" : " update") + " failed: " + e.getMessage());
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,451 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.ZipCandidateDTO;
+import com.pps.profilesystem.DTO.ZipCodeLookupDTO;
+import com.pps.profilesystem.DTO.ZipLookupResultDTO;
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+import com.pps.profilesystem.Entity.ZipCode;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Immutable ZIP -> candidate locations index.
+ * Philippine ZIP codes are 4-digit numbers, so entries are grouped by ZIP value in flat arrays
+ * and zipStart[zip]..zipStart[zip+1] marks the entries of one ZIP: a lookup is two array reads.
+ * Every zipcode row is kept, so ZIPs shared by several barangays keep all of them.
+ * Each entry is matched by name to the location hierarchy when the index is built; entries
+ * whose name alone is ambiguous are settled by PSGC code or by the cities of their ZIP.
+ * Normalized-name maps answer the reverse question (address -> ZIPs).
+ */
+public class ZipIndex {
+
+    public static final int MAX_ZIP = 9999;
+
+    private static final Barangay AMBIGUOUS = new Barangay();
+
+    private final int[] zipStart;
+    private final String[] barangayNames;
+    private final String[] cityNames;
+    private final String[] provinceNames;
+    private final String[] psgcs;
+    private final Barangay[] barangays;   // null when the entry could not be matched
+    private final ZipLocation[] locations;  // resolve() answer per ZIP value, null when nothing matched
+    private final int zipCount;
+    private final int unmatchedCount;
+    private final LocationHierarchy hierarchy;
+
+    // Reverse lookup: normalized names -> sorted distinct ZIPs
+    private final Map<String, List<String>> zipsByAddress;       // province|city|barangay
+    private final Map<String, List<String>> zipsByCityBarangay;  // city|barangay
+    private final Map<String, List<String>> zipsByProvinceCity;  // province|city
+    private final Map<String, List<String>> zipsByCity;          // city
+
+    public ZipIndex(List<ZipCode> rows, LocationHierarchy hierarchy) {
+        this.hierarchy = hierarchy;
+        BarangayMatcher matcher = new BarangayMatcher(hierarchy);
+
+        int[] zipOf = new int[rows.size()];
+        int[] counts = new int[MAX_ZIP + 2];
+        int size = 0;
+        for (int i = 0; i < rows.size(); i++) {
+            zipOf[i] = parseZip(rows.get(i).getZipcode());
+            if (zipOf[i] >= 0) {
+                counts[zipOf[i] + 1]++;
+                size++;
+            }
+        }
+        int zips = 0;
+        for (int z = 0; z <= MAX_ZIP; z++) {
+            if (counts[z + 1] > 0) {
+                zips++;
+            }
+            counts[z + 1] += counts[z];
+        }
+        zipStart = counts.clone();
+        zipCount = zips;
+
+        barangayNames = new String[size];
+        cityNames = new String[size];
+        provinceNames = new String[size];
+        psgcs = new String[size];
+        barangays = new Barangay[size];
+        for (int i = 0; i < rows.size(); i++) {
+            if (zipOf[i] < 0) {
+                continue;
+            }
+            ZipCode row = rows.get(i);
+            int slot = counts[zipOf[i]]++;
+            barangayNames[slot] = row.getBarangay();
+            cityNames[slot] = row.getCity();
+            provinceNames[slot] = row.getProvince();
+            psgcs[slot] = row.getPsgc();
+            barangays[slot] = matcher.match(row.getProvince(), row.getCity(), row.getBarangay());
+        }
+        unmatchedCount = disambiguate(matcher);
+        locations = new ZipLocation[MAX_ZIP + 1];
+        for (int z = 0; z <= MAX_ZIP; z++) {
+            locations[z] = locate(z);
+        }
+
+        Map<String, TreeSet<String>> byAddress = new HashMap<>();
+        Map<String, TreeSet<String>> byCityBarangay = new HashMap<>();
+        Map<String, TreeSet<String>> byProvinceCity = new HashMap<>();
+        Map<String, TreeSet<String>> byCity = new HashMap<>();
+        for (int z = 0; z <= MAX_ZIP; z++) {
+            if (zipStart[z] == zipStart[z + 1]) {
+                continue;
+            }
+            String zipCode = formatZip(z);
+            for (int i = zipStart[z]; i < zipStart[z + 1]; i++) {
+                String province = LocationNames.normalize(provinceNames[i]);
+                String city = LocationNames.normalize(cityNames[i]);
+                String barangay = LocationNames.normalize(barangayNames[i]);
+                if (!barangay.isEmpty()) {
+                    byAddress.computeIfAbsent(province + "|" + city + "|" + barangay, k -> new TreeSet<>()).add(zipCode);
+                    byCityBarangay.computeIfAbsent(city + "|" + barangay, k -> new TreeSet<>()).add(zipCode);
+                }
+                if (!city.isEmpty()) {
+                    byProvinceCity.computeIfAbsent(province + "|" + city, k -> new TreeSet<>()).add(zipCode);
+                    byCity.computeIfAbsent(city, k -> new TreeSet<>()).add(zipCode);
+                }
+            }
+        }
+        zipsByAddress = freeze(byAddress);
+        zipsByCityBarangay = freeze(byCityBarangay);
+        zipsByProvinceCity = freeze(byProvinceCity);
+        zipsByCity = freeze(byCity);
+    }
+
+    /**
+     * Second pass for entries the names alone could not place. An entry takes the barangay of
+     * another entry with the same PSGC code, or else the one candidate of that name lying in a
+     * city already matched for the same ZIP. Returns how many entries remain unmatched.
+     */
+    private int disambiguate(BarangayMatcher matcher) {
+        Map<String, Barangay> byPsgc = new HashMap<>();
+        for (int i = 0; i < barangays.length; i++) {
+            String psgc = psgcs[i] != null ? psgcs[i].trim() : "";
+            if (barangays[i] != null && !psgc.isEmpty()) {
+                byPsgc.merge(psgc, barangays[i], (existing, added) -> existing == added ? existing : AMBIGUOUS);
+            }
+        }
+
+        int unmatched = 0;
+        for (int z = 0; z <= MAX_ZIP; z++) {
+            Set<CityMunicipality> zipCities = null;
+            for (int i = zipStart[z]; i < zipStart[z + 1]; i++) {
+                if (barangays[i] != null) {
+                    continue;
+                }
+                Barangay found = psgcs[i] != null ? byPsgc.get(psgcs[i].trim()) : null;
+                if (found == null || found == AMBIGUOUS) {
+                    if (zipCities == null) {
+                        zipCities = Collections.newSetFromMap(new IdentityHashMap<>());
+                        for (int j = zipStart[z]; j < zipStart[z + 1]; j++) {
+                            if (barangays[j] != null) {
+                                zipCities.add(barangays[j].getCityMunicipality());
+                            }
+                        }
+                    }
+                    found = null;
+                    for (Barangay candidate : matcher.candidates(barangayNames[i])) {
+                        if (zipCities.contains(candidate.getCityMunicipality())) {
+                            found = found == null ? candidate : AMBIGUOUS;
+                        }
+                    }
+                }
+                if (found != null && found != AMBIGUOUS) {
+                    barangays[i] = found;
+                } else {
+                    unmatched++;
+                }
+            }
+        }
+        return unmatched;
+    }
+
+    private static Map<String, List<String>> freeze(Map<String, TreeSet<String>> sets) {
+        Map<String, List<String>> frozen = new HashMap<>(sets.size() * 4 / 3 + 1);
+        sets.forEach((key, zips) -> frozen.put(key, List.copyOf(zips)));
+        return frozen;
+    }
+
+    private static String formatZip(int value) {
+        return String.format("%04d", value);
+    }
+
+    /**
+     * ZIP string to its numeric value, or -1 if it is not a 1-4 digit number.
+     * Leading zeros are optional, so "0400" and "400" (an Excel-mangled ZIP) are the same key.
+     */
+    public static int parseZip(String zip) {
+        if (zip == null) {
+            return -1;
+        }
+        String trimmed = zip.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 4) {
+            return -1;
+        }
+        int value = 0;
+        for (int i = 0; i < trimmed.length(); i++) {
+            char c = trimmed.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    public List<ZipCandidateDTO> getCandidates(String zip) {
+        int value = parseZip(zip);
+        if (value < 0) {
+            return List.of();
+        }
+        int from = zipStart[value], to = zipStart[value + 1];
+        List<ZipCandidateDTO> candidates = new ArrayList<>(to - from);
+        String zipCode = formatZip(value);
+        for (int i = from; i < to; i++) {
+            Barangay barangay = barangays[i];
+            CityMunicipality city = barangay != null ? barangay.getCityMunicipality() : null;
+            Province province = city != null ? city.getProvince() : null;
+            Regions region = province != null ? province.getRegion() : null;
+            candidates.add(new ZipCandidateDTO(zipCode, barangayNames[i], cityNames[i], provinceNames[i], psgcs[i],
+                    barangay != null ? barangay.getId() : null,
+                    city != null ? city.getId() : null,
+                    province != null ? province.getId() : null,
+                    region != null ? region.getId() : null));
+        }
+        return candidates;
+    }
+
+    /**
+     * The hierarchy location of a ZIP. When the ZIP covers several barangays only the levels
+     * they all share are filled in (e.g. same city, different barangays -> city, province, region).
+     * @return null if the ZIP is unknown or none of its entries matched the hierarchy
+     */
+    public ZipLocation resolve(String zip) {
+        int value = parseZip(zip);
+        return value >= 0 ? locations[value] : null;
+    }
+
+    private ZipLocation locate(int value) {
+        if (zipStart[value] == zipStart[value + 1]) {
+            return null;
+        }
+        Barangay barangay = null;
+        CityMunicipality city = null;
+        Province province = null;
+        Regions region = null;
+        int matched = 0;
+        for (int i = zipStart[value]; i < zipStart[value + 1]; i++) {
+            Barangay candidate = barangays[i];
+            if (candidate == null) {
+                continue;
+            }
+            CityMunicipality candidateCity = candidate.getCityMunicipality();
+            Province candidateProvince = candidateCity != null ? candidateCity.getProvince() : null;
+            Regions candidateRegion = candidateProvince != null ? candidateProvince.getRegion() : null;
+            if (matched == 0) {
+                barangay = candidate;
+                city = candidateCity;
+                province = candidateProvince;
+                region = candidateRegion;
+            } else {
+                if (barangay != candidate) barangay = null;
+                if (city != candidateCity) city = null;
+                if (province != candidateProvince) province = null;
+                if (region != candidateRegion) region = null;
+            }
+            matched++;
+        }
+        if (matched == 0) {
+            return null;
+        }
+        return new ZipLocation(barangay, city, province, region, zipStart[value + 1] - zipStart[value]);
+    }
+
+    /**
+     * Distinct hierarchy barangays the ZIP's entries matched, for picking one when resolve() is ambiguous
+     */
+    public List<Barangay> getBarangays(String zip) {
+        int value = parseZip(zip);
+        if (value < 0) {
+            return List.of();
+        }
+        List<Barangay> distinct = new ArrayList<>();
+        for (int i = zipStart[value]; i < zipStart[value + 1]; i++) {
+            Barangay barangay = barangays[i];
+            if (barangay != null && distinct.stream().noneMatch(b -> b == barangay)) {
+                distinct.add(barangay);
+            }
+        }
+        return distinct;
+    }
+
+    /**
+     * Reverse lookup: the ZIPs of an address, compared case- and accent-insensitively.
+     * Tries the barangay first (with province, then without), then falls back to the city.
+     */
+    public ZipLookupResultDTO lookup(ZipCodeLookupDTO address) {
+        String province = LocationNames.normalize(address.getProvince());
+        String city = LocationNames.normalize(address.getCity());
+        String barangay = LocationNames.normalize(address.getBarangay());
+
+        List<String> zips = null;
+        String level = "none";
+        if (!barangay.isEmpty() && !city.isEmpty()) {
+            zips = zipsByAddress.get(province + "|" + city + "|" + barangay);
+            if (zips == null) {
+                zips = zipsByCityBarangay.get(city + "|" + barangay);
+            }
+            if (zips != null) {
+                level = "barangay";
+            }
+        }
+        if (zips == null && !city.isEmpty()) {
+            zips = zipsByProvinceCity.get(province + "|" + city);
+            if (zips == null) {
+                zips = zipsByCity.get(city);
+            }
+            if (zips != null) {
+                level = "city";
+            }
+        }
+        if (zips == null) {
+            zips = List.of();
+        }
+        return new ZipLookupResultDTO(address.getProvince(), address.getCity(), address.getBarangay(),
+                zips.size() == 1 ? zips.get(0) : null, zips, level);
+    }
+
+    public int getEntryCount() {
+        return barangays.length;
+    }
+
+    public int getZipCount() {
+        return zipCount;
+    }
+
+    /**
+     * The hierarchy snapshot the entries were matched against
+     */
+    public LocationHierarchy getHierarchy() {
+        return hierarchy;
+    }
+
+    /**
+     * Entries that could not be tied to a hierarchy barangay, even by PSGC or ZIP
+     */
+    public int getUnmatchedCount() {
+        return unmatchedCount;
+    }
+
+    /**
+     * Result of resolve(): the deepest location levels shared by every matched entry of the ZIP
+     */
+    public static class ZipLocation {
+        private final Barangay barangay;
+        private final CityMunicipality city;
+        private final Province province;
+        private final Regions region;
+        private final int candidateCount;
+
+        ZipLocation(Barangay barangay, CityMunicipality city, Province province, Regions region, int candidateCount) {
+            this.barangay = barangay;
+            this.city = city;
+            this.province = province;
+            this.region = region;
+            this.candidateCount = candidateCount;
+        }
+
+        public Barangay getBarangay() {
+            return barangay;
+        }
+
+        public CityMunicipality getCity() {
+            return city;
+        }
+
+        public Province getProvince() {
+            return province;
+        }
+
+        public Regions getRegion() {
+            return region;
+        }
+
+        public int getCandidateCount() {
+            return candidateCount;
+        }
+
+        public boolean isAmbiguous() {
+            return barangay == null;
+        }
+    }
+
+    /**
+     * Matches zipcode rows (plain names) to hierarchy barangays, trying the most specific key first:
+     * province+city+barangay, then city+barangay, then province+barangay, then a barangay name
+     * that is unique nationwide. Keys that fit more than one barangay never match; candidates()
+     * lists every barangay of a name so the caller can choose by other means.
+     */
+    private static class BarangayMatcher {
+        private final Map<String, Barangay> byFullName = new HashMap<>();
+        private final Map<String, Barangay> byCity = new HashMap<>();
+        private final Map<String, Barangay> byProvince = new HashMap<>();
+        private final Map<String, Barangay> byName = new HashMap<>();
+        private final Map<String, List<Barangay>> allByName = new HashMap<>();
+
+        BarangayMatcher(LocationHierarchy hierarchy) {
+            for (Barangay barangay : hierarchy.getBarangays()) {
+                CityMunicipality city = barangay.getCityMunicipality();
+                Province province = city != null ? city.getProvince() : null;
+                String name = normalize(barangay.getName());
+                String cityName = city != null ? normalize(city.getName()) : "";
+                String provinceName = province != null ? normalize(province.getName()) : "";
+                put(byFullName, provinceName + "|" + cityName + "|" + name, barangay);
+                put(byCity, cityName + "|" + name, barangay);
+                put(byProvince, provinceName + "|" + name, barangay);
+                put(byName, name, barangay);
+                allByName.computeIfAbsent(name, k -> new ArrayList<>(1)).add(barangay);
+            }
+        }
+
+        List<Barangay> candidates(String barangayName) {
+            return allByName.getOrDefault(normalize(barangayName), List.of());
+        }
+
+        Barangay match(String provinceName, String cityName, String barangayName) {
+            if (barangayName == null) {
+                return null;
+            }
+            String name = normalize(barangayName);
+            String city = normalize(cityName);
+            String province = normalize(provinceName);
+            Barangay found = byFullName.get(province + "|" + city + "|" + name);
+            if (found == null) found = byCity.get(city + "|" + name);
+            if (found == null) found = byProvince.get(province + "|" + name);
+            if (found == null) found = byName.get(name);
+            return found != AMBIGUOUS ? found : null;
+        }
+
+        private static void put(Map<String, Barangay> map, String key, Barangay barangay) {
+            map.merge(key, barangay, (existing, added) -> AMBIGUOUS);
+        }
+
+        private static String normalize(String value) {
+            return LocationNames.normalize(value);
+        }
+    }
+}
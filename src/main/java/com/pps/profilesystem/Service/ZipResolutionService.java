@@ -0,0 +1,101 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.ZipCandidateDTO;
+import com.pps.profilesystem.DTO.ZipCodeLookupDTO;
+import com.pps.profilesystem.DTO.ZipLookupResultDTO;
+import com.pps.profilesystem.Entity.ZipCode;
+import com.pps.profilesystem.Repository.ZipCodeRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Resolves ZIP codes to locations, and addresses to ZIP codes, from an in-memory ZipIndex.
+ * The zipcode table is loaded once and shared by the API, the insert form and every import,
+ * instead of being re-read into a map per import. Call refresh() after editing zipcode rows.
+ * Entries are matched against the current LocationHierarchy snapshot, so the index is rebuilt
+ * when the hierarchy is refreshed (e.g. by LocationLookupCache.refresh()), like the name matchers.
+ */
+@Service
+public class ZipResolutionService {
+
+    @Autowired
+    private ZipCodeRepository zipCodeRepository;
+
+    @Autowired
+    private LocationHierarchyService locationHierarchyService;
+
+    private volatile ZipIndex index;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preload() {
+        try {
+            getIndex();
+        } catch (Exception e) {
+            System.err.println("ZIP index preload failed, will load on first use: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Every zipcode entry for the ZIP (empty if unknown or not a 4-digit number)
+     */
+    public List<ZipCandidateDTO> getCandidates(String zip) {
+        return getIndex().getCandidates(zip);
+    }
+
+    /**
+     * @see ZipIndex#resolve(String)
+     */
+    public ZipIndex.ZipLocation resolve(String zip) {
+        return getIndex().resolve(zip);
+    }
+
+    public ZipLookupResultDTO lookup(ZipCodeLookupDTO address) {
+        return getIndex().lookup(address);
+    }
+
+    /**
+     * Reverse-look-up many addresses in parallel; results are in request order
+     */
+    public List<ZipLookupResultDTO> lookupAll(List<ZipCodeLookupDTO> addresses) {
+        ZipIndex current = getIndex();
+        return addresses.parallelStream()
+            .map(address -> address != null ? current.lookup(address) : current.lookup(new ZipCodeLookupDTO()))
+            .toList();
+    }
+
+    public ZipIndex getIndex() {
+        LocationHierarchy hierarchy = locationHierarchyService.getHierarchy();
+        ZipIndex current = index;
+        if (current == null || current.getHierarchy() != hierarchy) {
+            synchronized (this) {
+                current = index;
+                if (current == null || current.getHierarchy() != hierarchy) {
+                    current = load(hierarchy);
+                    index = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Re-read the zipcode table and match it against the current hierarchy
+     */
+    public synchronized ZipIndex refresh() {
+        ZipIndex loaded = load(locationHierarchyService.getHierarchy());
+        index = loaded;
+        return loaded;
+    }
+
+    private ZipIndex load(LocationHierarchy hierarchy) {
+        List<ZipCode> rows = zipCodeRepository.findAll();
+        ZipIndex loaded = new ZipIndex(rows, hierarchy);
+        System.out.println("Built ZIP index: " + loaded.getEntryCount() + " entries for " + loaded.getZipCount() + " ZIP codes, "
+                + loaded.getUnmatchedCount() + " entries not matched to a barangay");
+        return loaded;
+    }
+}
@@ -0,0 +1,12 @@
+-- Endpoints probed by ConnectivityProbeService to set postal_offices.connection_status.
+-- ddl-auto is "none", so create this table by hand once per database; it mirrors
+-- the OfficeEndpoint entity. Offices without a row here are never probed and keep
+-- the status set in the insert form or by an import.
+
+CREATE TABLE office_endpoints (
+    office_id INT          NOT NULL PRIMARY KEY,
+    host      VARCHAR(255) NOT NULL,
+    port      INT          NOT NULL,
+    CONSTRAINT fk_office_endpoints_office FOREIGN KEY (office_id)
+        REFERENCES postal_offices (id) ON DELETE CASCADE
+);
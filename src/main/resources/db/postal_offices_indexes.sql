@@ -0,0 +1,21 @@
+-- Index for the CSV/XLSX export filtered by connectivity status. The export streams
+-- "WHERE connection_status = ? ORDER BY po.id"; with this index MySQL reads the matching
+-- rows already in id order instead of sorting them. ddl-auto is "none", so apply it by
+-- hand once per database; it mirrors the @Index declaration on PostalOffice.
+--
+-- InnoDB secondary indexes carry the primary key, so the existing foreign key
+-- indexes on area_id / region_id / province_id already serve "filter + ORDER BY id".
+-- /table, the map and the dashboard read from the in-memory office read model and do
+-- not query postal_offices at all.
+
+CREATE INDEX idx_po_status_id ON postal_offices (connection_status, id);
+
+-- Earlier versions of this script also created (name, id) indexes for keyset paging
+-- of /table. Nothing reads them any more and every import INSERT/UPDATE pays for them;
+-- on databases that have them, drop them once:
+--
+-- DROP INDEX idx_po_name_id          ON postal_offices;
+-- DROP INDEX idx_po_area_name_id     ON postal_offices;
+-- DROP INDEX idx_po_region_name_id   ON postal_offices;
+-- DROP INDEX idx_po_province_name_id ON postal_offices;
+-- DROP INDEX idx_po_status_name_id   ON postal_offices;
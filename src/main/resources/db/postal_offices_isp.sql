@@ -0,0 +1,11 @@
+-- Links each postal office to the ISP providing its connection, for the per-ISP
+-- uptime analytics (/api/isps/uptime). ddl-auto is "none", so apply this by hand
+-- once per database; it mirrors PostalOffice.isp. Offices without an ISP are left
+-- out of the analytics.
+
+ALTER TABLE postal_offices
+    ADD COLUMN isp_id INT NULL,
+    ADD CONSTRAINT fk_postal_offices_isp FOREIGN KEY (isp_id)
+        REFERENCES internet_service_providers (id) ON DELETE SET NULL;
+
+CREATE INDEX idx_po_isp ON postal_offices (isp_id);
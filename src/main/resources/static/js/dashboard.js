@@ -33,134 +33,132 @@ document.addEventListener('DOMContentLoaded', function() {
         maxZoom: 18
     }).addTo(map);
     
-    // Storage for markers
-    var markers = [];
+    // Layer holding the markers/clusters of the current viewport
     var markerClusterGroup = L.layerGroup().addTo(map);
+    var lastViewport = null;
+    var pendingRequest = null;
     
-    // Load post offices from API
-    console.log('Fetching post offices from /api/post-offices...');
-    
-    fetch('/api/post-offices')
-        .then(response => {
-            console.log('API Response status:', response.status);
-            if (!response.ok) {
-                throw new Error('HTTP ' + response.status);
-            }
-            return response.json();
-        })
-        .then(data => {
-            console.log('Loaded', data.length, 'post offices');
-            console.log('Sample data:', data.slice(0, 2));
-            
-            // Clear existing markers
-            markerClusterGroup.clearLayers();
-            markers = [];
-            
-            var bounds = [];
-            var addedCount = 0;
-            var skippedCount = 0;
-            
-            // Add markers for each post office
-            data.forEach(function(office) {
-                var lat = parseFloat(office.lat);
-                var lng = parseFloat(office.lng);
-                
-                // Validate coordinates
-                if (isNaN(lat) || isNaN(lng)) {
-                    console.warn('Invalid coordinates for:', office.name);
-                    skippedCount++;
-                    return;
-                }
-                
-                // Create circle marker with color based on status
-                var marker = L.circleMarker([lat, lng], {
-                    radius: 8,
-                    fillColor: office.status ? '#28a745' : '#dc3545',
-                    color: '#ffffff',
-                    weight: 2,
-                    opacity: 1,
-                    fillOpacity: 0.9
-                });
-                
-                // Create status badge
-                var statusBadge = office.status ? 
-                    '<span class="status-badge status-active">Active</span>' : 
-                    '<span class="status-badge status-inactive">Inactive</span>';
-                
-                // Bind popup with office information
-                marker.bindPopup(
-                    '<h6>' + office.name + '</h6>' +
-                    '<p><strong>Status:</strong> ' + statusBadge + '</p>' +
-                    '<p><strong>Area ID:</strong> ' + (office.areaId || 'N/A') + '</p>'
-                );
-                
-                // Store office data with marker for filtering
-                marker.officeData = office;
-                markers.push(marker);
-                markerClusterGroup.addLayer(marker);
-                
-                // Add to bounds for auto-zoom
-                bounds.push([lat, lng]);
-                addedCount++;
-            });
-            
-            console.log('Added', addedCount, 'markers');
-            if (skippedCount > 0) {
-                console.warn('Skipped', skippedCount, 'offices due to invalid coordinates');
-            }
-            
-            // Fit map to show all markers
-            if (bounds.length > 0) {
-                map.fitBounds(bounds, { padding: [50, 50] });
-            }
-            
-            // Update statistics
-            var total = data.length;
-            var active = data.filter(o => o.status === true).length;
-            var inactive = total - active;
-            var areas = [...new Set(data.map(o => o.areaId).filter(id => id != null))].length;
-            
-            document.getElementById('totalOffices').textContent = total;
-            document.getElementById('activeOffices').textContent = active;
-            document.getElementById('inactiveOffices').textContent = inactive;
-            document.getElementById('coverageAreas').textContent = areas;
-            
-            console.log('Dashboard loaded successfully!');
-            console.log('Statistics:', { total, active, inactive, areas });
-        })
-        .catch(error => {
-            console.error('Error loading post offices:', error);
-            alert('Failed to load post office data: ' + error.message + '\n\nPlease check:\n1. Is the server running?\n2. Is the API endpoint correct?\n3. Check browser console for details.');
+    // Load the offices inside the visible map area. The server returns raw points when
+    // few offices are visible and pre-aggregated clusters otherwise, so the browser never
+    // holds the whole network.
+    function loadViewport() {
+        var bounds = map.getBounds();
+        // Zoomed far out, the visible area can extend past the valid coordinate range
+        var params = new URLSearchParams({
+            south: Math.max(bounds.getSouth(), -90),
+            west: Math.max(bounds.getWest(), -180),
+            north: Math.min(bounds.getNorth(), 90),
+            east: Math.min(bounds.getEast(), 180),
+            zoom: map.getZoom()
         });
-    
-    // Filter functions
-    function applyFilters() {
-        var searchTerm = document.getElementById('searchInput').value.toLowerCase().trim();
         var areaFilter = document.getElementById('areaFilter').value;
         var statusFilter = document.getElementById('statusFilter').value;
+        if (areaFilter) params.append('areaId', areaFilter);
+        if (statusFilter) params.append('status', statusFilter);
         
-        console.log('Applying filters:', { searchTerm, areaFilter, statusFilter });
+        // Drop the previous request if the user keeps panning
+        if (pendingRequest) {
+            pendingRequest.abort();
+        }
+        pendingRequest = new AbortController();
         
-        // Clear current markers
+        fetch('/api/post-offices/viewport?' + params, { signal: pendingRequest.signal })
+            .then(response => {
+                if (!response.ok) {
+                    throw new Error('HTTP ' + response.status);
+                }
+                return response.json();
+            })
+            .then(viewport => {
+                lastViewport = viewport;
+                renderViewport();
+            })
+            .catch(error => {
+                if (error.name === 'AbortError') return;
+                console.error('Error loading post offices:', error);
+            });
+    }
+    
+    function renderViewport() {
+        if (!lastViewport) return;
         markerClusterGroup.clearLayers();
         
-        var visibleCount = 0;
+        if (lastViewport.mode === 'clusters') {
+            lastViewport.clusters.forEach(addClusterMarker);
+            console.log('Showing', lastViewport.clusters.length, 'clusters for', lastViewport.total, 'offices');
+            return;
+        }
         
-        // Re-add markers that match filters
-        markers.forEach(function(marker) {
-            var office = marker.officeData;
-            
-            var matchesSearch = !searchTerm || office.name.toLowerCase().includes(searchTerm);
-            var matchesArea = !areaFilter || (office.areaId && office.areaId.toString() === areaFilter);
-            var matchesStatus = !statusFilter || office.status.toString() === statusFilter;
-            
-            if (matchesSearch && matchesArea && matchesStatus) {
-                markerClusterGroup.addLayer(marker);
-                visibleCount++;
+        // Name search only applies to individual points
+        var searchTerm = document.getElementById('searchInput').value.toLowerCase().trim();
+        var visibleCount = 0;
+        lastViewport.points.forEach(function(office) {
+            if (searchTerm && !(office.name || '').toLowerCase().includes(searchTerm)) {
+                return;
             }
+            addOfficeMarker(office);
+            visibleCount++;
         });
+        console.log('Showing', visibleCount, 'of', lastViewport.total, 'offices in view');
+    }
+    
+    function addOfficeMarker(office) {
+        // Create circle marker with color based on status
+        var marker = L.circleMarker([office.lat, office.lng], {
+            radius: 8,
+            fillColor: office.status ? '#28a745' : '#dc3545',
+            color: '#ffffff',
+            weight: 2,
+            opacity: 1,
+            fillOpacity: 0.9
+        });
+        
+        // Create status badge
+        var statusBadge = office.status ? 
+            '<span class="status-badge status-active">Active</span>' : 
+            '<span class="status-badge status-inactive">Inactive</span>';
         
-        console.log('Filtered:', visibleCount, 'of', markers.length, 'markers visible');
+        // Bind popup with office information
+        marker.bindPopup(
+            '<h6>' + office.name + '</h6>' +
+            '<p><strong>Status:</strong> ' + statusBadge + '</p>' +
+            '<p><strong>Area ID:</strong> ' + (office.areaId || 'N/A') + '</p>'
+        );
+        markerClusterGroup.addLayer(marker);
+    }
+    
+    function addClusterMarker(cluster) {
+        // Size grows with the log of the count, color shifts from red to green with the active share
+        var radius = 10 + Math.min(20, Math.log10(cluster.count) * 6);
+        var activeShare = cluster.count > 0 ? cluster.active / cluster.count : 0;
+        var marker = L.circleMarker([cluster.lat, cluster.lng], {
+            radius: radius,
+            fillColor: activeShare >= 0.5 ? '#28a745' : '#dc3545',
+            color: '#ffffff',
+            weight: 2,
+            opacity: 1,
+            fillOpacity: 0.5 + activeShare * 0.4
+        });
+        marker.bindTooltip(String(cluster.count), { permanent: true, direction: 'center', className: 'cluster-label' });
+        marker.bindPopup(
+            '<h6>' + cluster.count + ' post offices</h6>' +
+            '<p><strong>Active:</strong> ' + cluster.active + '</p>' +
+            '<p><strong>Inactive:</strong> ' + cluster.inactive + '</p>'
+        );
+        // Zoom into the cluster on click
+        marker.on('click', function() {
+            map.setView([cluster.lat, cluster.lng], Math.min(map.getZoom() + 2, map.getMaxZoom()));
+        });
+        markerClusterGroup.addLayer(marker);
+    }
+    
+    map.on('moveend', loadViewport);
+    loadViewport();
+    
+    // Filter functions
+    function applyFilters() {
+        // Area and status are filtered on the server, the name search on the loaded points
+        loadViewport();
     }
     
     function clearFilters() {
@@ -171,13 +169,7 @@ document.addEventListener('DOMContentLoaded', function() {
         document.getElementById('areaFilter').value = '';
         document.getElementById('statusFilter').value = '';
         
-        // Re-add all markers
-        markerClusterGroup.clearLayers();
-        markers.forEach(function(marker) {
-            markerClusterGroup.addLayer(marker);
-        });
-        
-        console.log('All filters cleared');
+        loadViewport();
     }
     
     // Event listeners for filter buttons
@@ -187,7 +179,7 @@ document.addEventListener('DOMContentLoaded', function() {
     // Allow Enter key to apply filters in search box
     document.getElementById('searchInput').addEventListener('keypress', function(e) {
         if (e.key === 'Enter') {
-            applyFilters();
+            renderViewport();
         }
     });
     
@@ -0,0 +1,170 @@
+// Post Office table JavaScript
+// Loads one page at a time from /table/data; filtering and sorting happen on the server
+
+document.addEventListener('DOMContentLoaded', function() {
+    var PAGE_SIZE = 50;
+
+    var tbody = document.getElementById('officeTableBody');
+    var summary = document.getElementById('tableSummary');
+    var prevButton = document.getElementById('tablePrev');
+    var nextButton = document.getElementById('tableNext');
+    var searchInput = document.getElementById('tableSearch');
+    var areaSelect = document.getElementById('tableArea');
+    var regionSelect = document.getElementById('tableRegion');
+    var provinceSelect = document.getElementById('tableProvince');
+    var statusSelect = document.getElementById('tableStatus');
+    var sortSelect = document.getElementById('tableSort');
+
+    // cursors[i] is the cursor that loads page i (null for the first page)
+    var cursors = [null];
+    var pageIndex = 0;
+    var nextCursor = null;
+    var total = 0;
+    var pendingRequest = null;
+    var searchTimer = null;
+
+    function buildParams(cursor) {
+        var sort = sortSelect.value.split(':');
+        var params = new URLSearchParams({ sort: sort[0], dir: sort[1], size: PAGE_SIZE });
+        if (searchInput.value.trim()) params.append('q', searchInput.value.trim());
+        if (areaSelect.value) params.append('areaId', areaSelect.value);
+        if (regionSelect.value) params.append('regionId', regionSelect.value);
+        if (provinceSelect.value) params.append('provinceId', provinceSelect.value);
+        if (statusSelect.value) params.append('status', statusSelect.value);
+        if (cursor) params.append('cursor', cursor);
+        return params;
+    }
+
+    // Export links follow the filters (the sort and paging do not apply)
+    function updateExportLinks() {
+        var params = buildParams(null);
+        ['sort', 'dir', 'size'].forEach(function(name) { params.delete(name); });
+        document.getElementById('exportXlsx').href = '/table/export?format=xlsx&' + params;
+        document.getElementById('exportCsv').href = '/table/export?format=csv&' + params;
+    }
+
+    function loadPage(index) {
+        if (pendingRequest) {
+            pendingRequest.abort();
+        }
+        pendingRequest = new AbortController();
+
+        fetch('/table/data?' + buildParams(cursors[index]), { signal: pendingRequest.signal })
+            .then(function(response) { return response.json(); })
+            .then(function(page) {
+                pendingRequest = null;
+                if (page.success === false) {
+                    showMessage(page.message);
+                    return;
+                }
+                pageIndex = index;
+                nextCursor = page.nextCursor;
+                if (page.total !== null && page.total !== undefined) {
+                    total = page.total;
+                }
+                renderRows(page.rows);
+                updatePager(page.rows.length);
+            })
+            .catch(function(error) {
+                if (error.name !== 'AbortError') {
+                    console.error('Error loading offices:', error);
+                    showMessage('Could not load post offices.');
+                }
+            });
+    }
+
+    // Filters or sort changed: start again from the first page
+    function reload() {
+        cursors = [null];
+        updateExportLinks();
+        loadPage(0);
+    }
+
+    function renderRows(rows) {
+        if (rows.length === 0) {
+            showMessage('No post offices match the filters.');
+            return;
+        }
+        var offset = pageIndex * PAGE_SIZE;
+        tbody.innerHTML = rows.map(function(office, i) {
+            var badge = office.status
+                ? '<span class="badge badge-success">Active</span>'
+                : '<span class="badge badge-warning">Inactive</span>';
+            return '<tr>' +
+                '<td>' + (offset + i + 1) + '</td>' +
+                '<td>' + escapeHtml(office.name || '—') + '</td>' +
+                '<td>' + escapeHtml(office.areaName || '—') + '</td>' +
+                '<td>' + escapeHtml(office.cityName || '—') + '</td>' +
+                '<td>' + badge + '</td>' +
+                '</tr>';
+        }).join('');
+    }
+
+    function updatePager(rowCount) {
+        var first = rowCount > 0 ? pageIndex * PAGE_SIZE + 1 : 0;
+        summary.textContent = 'Showing ' + first + '–' + (pageIndex * PAGE_SIZE + rowCount) + ' of ' + total;
+        prevButton.disabled = pageIndex === 0;
+        nextButton.disabled = !nextCursor;
+    }
+
+    function showMessage(message) {
+        tbody.innerHTML = '<tr><td colspan="5" class="text-center text-muted">' + escapeHtml(message) + '</td></tr>';
+        summary.textContent = '';
+        prevButton.disabled = true;
+        nextButton.disabled = true;
+    }
+
+    function escapeHtml(text) {
+        var div = document.createElement('div');
+        div.textContent = text;
+        return div.innerHTML;
+    }
+
+    function loadProvinces(regionId) {
+        provinceSelect.innerHTML = '<option value="">All Provinces</option>';
+        provinceSelect.disabled = !regionId;
+        if (!regionId) {
+            return;
+        }
+        fetch('/api/provinces/by-region/' + regionId)
+            .then(function(response) { return response.json(); })
+            .then(function(provinces) {
+                provinces.forEach(function(province) {
+                    var option = document.createElement('option');
+                    option.value = province.id;
+                    option.textContent = province.name;
+                    provinceSelect.appendChild(option);
+                });
+            })
+            .catch(function(error) { console.error('Error loading provinces:', error); });
+    }
+
+    prevButton.addEventListener('click', function() {
+        if (pageIndex > 0) {
+            loadPage(pageIndex - 1);
+        }
+    });
+
+    nextButton.addEventListener('click', function() {
+        if (nextCursor) {
+            cursors[pageIndex + 1] = nextCursor;
+            loadPage(pageIndex + 1);
+        }
+    });
+
+    searchInput.addEventListener('input', function() {
+        clearTimeout(searchTimer);
+        searchTimer = setTimeout(reload, 300);
+    });
+
+    regionSelect.addEventListener('change', function() {
+        loadProvinces(regionSelect.value);
+        reload();
+    });
+
+    [areaSelect, provinceSelect, statusSelect, sortSelect].forEach(function(select) {
+        select.addEventListener('change', reload);
+    });
+
+    reload();
+});
@@ -0,0 +1,165 @@
+package com.pps.profilesystem.Service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConnectivityHistoryStoreTests {
+
+	private static final long DAY = 86400;
+	private static final long DAY_0 = 20000;   // 2024-10-04
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void rawBlockRoundTripsIrregularTimestampsAndStatusFlips() {
+		Random random = new Random(7);
+		long dayStart = DAY_0 * DAY;
+		ConnectivityCodec.RawEncoder encoder = new ConnectivityCodec.RawEncoder(dayStart);
+		List<long[]> expected = new ArrayList<>();
+		long time = dayStart + 13;
+		for (int i = 0; i < 500; i++) {
+			boolean up = random.nextInt(10) > 0;
+			assertTrue(encoder.append(time, up));
+			expected.add(new long[]{time, up ? 1 : 0});
+			// Mostly regular, sometimes a missed sweep or a long outage of the prober itself
+			int r = random.nextInt(20);
+			time += r == 0 ? 5000 : r == 1 ? 0 : 300 + random.nextInt(60) - 30;
+		}
+		assertFalse(encoder.append(dayStart, true));
+
+		byte[] block = encoder.toBytes();
+		List<long[]> decoded = new ArrayList<>();
+		ConnectivityCodec.decodeRaw(block, 0, block.length, dayStart, (t, up) -> decoded.add(new long[]{t, up ? 1 : 0}));
+
+		assertEquals(expected.size(), decoded.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i)[0], decoded.get(i)[0], "time of sample " + i);
+			assertEquals(expected.get(i)[1], decoded.get(i)[1], "status of sample " + i);
+		}
+	}
+
+	@Test
+	void aDayOfFiveMinuteSamplesFitsInAFewBytes() {
+		long dayStart = DAY_0 * DAY;
+		Random random = new Random(3);
+		ConnectivityCodec.RawEncoder steady = new ConnectivityCodec.RawEncoder(dayStart);
+		ConnectivityCodec.RawEncoder jittered = new ConnectivityCodec.RawEncoder(dayStart);
+		for (int i = 0; i < 288; i++) {
+			steady.append(dayStart + i * 300L, true);
+			// Sweeps start up to +/-10% off schedule and one office drops out for an hour
+			jittered.append(dayStart + i * 300L + random.nextInt(61) - 30 + 30, i < 100 || i >= 112);
+		}
+
+		assertTrue(steady.toBytes().length <= 48, "steady " + steady.toBytes().length);
+		assertTrue(jittered.toBytes().length <= 400, "jittered " + jittered.toBytes().length);
+
+		ConnectivitySegment raw = ConnectivitySegment.of(DAY_0, ConnectivitySegment.Resolution.RAW, 300,
+				Map.of(1, steady.toBytes(), 2, jittered.toBytes()));
+		assertTrue(raw.downsample(ConnectivitySegment.Resolution.HOUR).getDataBytes() <= 2 * 24 * 2);
+		assertTrue(raw.downsample(ConnectivitySegment.Resolution.DAY).getDataBytes() <= 2 * 8);
+	}
+
+	@Test
+	void segmentsSurviveWriteAndRead() throws Exception {
+		Map<Integer, byte[]> blocks = new HashMap<>();
+		for (int officeId = 100; officeId > 0; officeId -= 7) {
+			ConnectivityCodec.RawEncoder encoder = new ConnectivityCodec.RawEncoder(DAY_0 * DAY);
+			for (int i = 0; i < 10; i++) {
+				encoder.append(DAY_0 * DAY + i * 300L, (i + officeId) % 3 != 0);
+			}
+			blocks.put(officeId, encoder.toBytes());
+		}
+		ConnectivitySegment segment = ConnectivitySegment.of(DAY_0, ConnectivitySegment.Resolution.RAW, 300, blocks);
+		Path file = tempDir.resolve("segment.seg");
+		segment.write(file);
+		ConnectivitySegment read = ConnectivitySegment.read(file);
+
+		assertEquals(DAY_0, read.getEpochDay());
+		assertEquals(ConnectivitySegment.Resolution.RAW, read.getResolution());
+		assertEquals(300, read.getSampleSeconds());
+		assertEquals(blocks.size(), read.getOfficeCount());
+		List<Boolean> samples = new ArrayList<>();
+		read.forEachSample(44, Long.MIN_VALUE, Long.MAX_VALUE, (time, up) -> samples.add(up));
+		assertEquals(List.of(true, false, true, true, false, true, true, false, true, true), samples);
+	}
+
+	@Test
+	void compactionDownsamplesOldDaysWithoutLosingCounts() throws Exception {
+		int[] offices = {1, 2, 3};
+		try (ConnectivityHistoryStore store = new ConnectivityHistoryStore(tempDir, 300, 2, 5, 10)) {
+			// Three days of 5-minute sweeps; office 2 is down for the first hour of every day
+			for (long day = DAY_0; day < DAY_0 + 3; day++) {
+				for (int i = 0; i < 288; i++) {
+					store.record(day * DAY + i * 300L, offices, new boolean[]{true, i >= 12, true});
+				}
+			}
+			assertTotals(store, DAY_0, DAY_0 + 3, 3 * 3 * 288, 3 * 12);
+
+			// Day 0 becomes hourly, then daily, then goes
+			store.compact(DAY_0 + 3);
+			assertTrue(Files.exists(tempDir.resolve("2024-10-04.hour.seg")));
+			assertFalse(Files.exists(tempDir.resolve("2024-10-04.raw.seg")));
+			assertTotals(store, DAY_0, DAY_0 + 3, 3 * 3 * 288, 3 * 12);
+			assertEquals(24, store.aggregate(id -> id == 2, DAY_0 * DAY, (DAY_0 + 1) * DAY, 3600).getBuckets().size());
+
+			store.compact(DAY_0 + 6);
+			assertTrue(Files.exists(tempDir.resolve("2024-10-04.day.seg")));
+			assertTotals(store, DAY_0, DAY_0 + 3, 3 * 3 * 288, 3 * 12);
+			// Hourly buckets cannot be had from a daily rollup
+			assertEquals(1, store.aggregate(id -> id == 2, DAY_0 * DAY, (DAY_0 + 1) * DAY, 3600).getBuckets().size());
+
+			store.compact(DAY_0 + 11);
+			assertTotals(store, DAY_0, DAY_0 + 3, 2 * 3 * 288, 2 * 12);
+		}
+	}
+
+	@Test
+	void openDayIsQueryableAndContinuesAfterReopen() throws Exception {
+		int[] offices = {5, 6};
+		try (ConnectivityHistoryStore store = new ConnectivityHistoryStore(tempDir, 300, 7, 90, 400)) {
+			for (int i = 0; i < 10; i++) {
+				store.record(DAY_0 * DAY + i * 300L, offices, new boolean[]{i != 4, true});
+			}
+			ConnectivityHistoryStore.Aggregate aggregate = store.aggregate(id -> id == 5, DAY_0 * DAY, (DAY_0 + 1) * DAY, 3600);
+			assertEquals(10, aggregate.getBuckets().firstEntry().getValue()[1]);
+			assertEquals(9, aggregate.getBuckets().firstEntry().getValue()[2]);
+			assertEquals(300, aggregate.getDownSeconds());
+		}
+		try (ConnectivityHistoryStore store = new ConnectivityHistoryStore(tempDir, 300, 7, 90, 400)) {
+			store.record(DAY_0 * DAY + 10 * 300L, offices, new boolean[]{false, true});
+			List<Boolean> samples = new ArrayList<>();
+			store.forEachSample(5, DAY_0 * DAY, (DAY_0 + 1) * DAY, (time, up) -> samples.add(up));
+			assertEquals(11, samples.size());
+			assertFalse(samples.get(4));
+			assertFalse(samples.get(10));
+		}
+		assertTrue(Files.exists(tempDir.resolve("2024-10-04.raw.seg")));
+	}
+
+	private static void assertTotals(ConnectivityHistoryStore store, long fromDay, long toDay,
+									 long samples, long down) throws Exception {
+		ConnectivityHistoryStore.Aggregate aggregate = store.aggregate(id -> true, fromDay * DAY, toDay * DAY, 86400);
+		long total = 0;
+		long up = 0;
+		for (long[] bucket : aggregate.getBuckets().values()) {
+			total += bucket[1];
+			up += bucket[2];
+		}
+		assertEquals(samples, total);
+		assertEquals(down, total - up);
+		assertEquals(down * 300, aggregate.getDownSeconds());
+	}
+}
@@ -0,0 +1,196 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.ProbeSweepDTO;
+import com.pps.profilesystem.DTO.ProbeTargetDTO;
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.OfficeEndpoint;
+import com.pps.profilesystem.Entity.PostalOffice;
+import com.pps.profilesystem.Repository.PostalOfficeBatchRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"probe.enabled=false",
+		"probe.timeout-ms=1000",
+		"probe.max-concurrency=200"
+})
+@Import({ConnectivityProbeService.class, PostalOfficeBatchRepository.class, ConnectivityRollupService.class,
+		LocationHierarchyService.class, ConnectivityHistoryService.class})
+@RecordApplicationEvents
+class ConnectivityProbeServiceTests {
+
+	@TempDir
+	static Path historyDir;
+
+	@DynamicPropertySource
+	static void historyDir(DynamicPropertyRegistry registry) {
+		registry.add("history.dir", () -> historyDir.toString());
+	}
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private ConnectivityProbeService probeService;
+
+	@Autowired
+	private ConnectivityRollupService connectivityRollup;
+
+	@Autowired
+	private ApplicationEvents events;
+
+	@Autowired
+	private PostalOfficeBatchRepository batchRepository;
+
+	private ServerSocket openServer;
+	private int closedPort;
+
+	@BeforeEach
+	void startStubServer() throws IOException {
+		// Accepts and drops every connection, like a reachable office router
+		openServer = new ServerSocket(0, 10_000, InetAddress.getLoopbackAddress());
+		Thread.ofVirtual().start(() -> {
+			while (!openServer.isClosed()) {
+				try (Socket ignored = openServer.accept()) {
+					// connected
+				} catch (IOException e) {
+					return;
+				}
+			}
+		});
+		try (ServerSocket unused = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			closedPort = unused.getLocalPort();
+		}
+	}
+
+	@AfterEach
+	void stopStubServer() throws IOException {
+		openServer.close();
+	}
+
+	@Test
+	void sweepWritesOnlyChangedStatuses() throws Exception {
+		Area area = new Area();
+		area.setAreaName("Area 1");
+		entityManager.persist(area);
+		// {stored status, endpoint reachable}
+		boolean[][] cases = {{false, true}, {true, false}, {true, true}, {false, false}};
+		List<PostalOffice> offices = new ArrayList<>();
+		for (boolean[] c : cases) {
+			PostalOffice office = new PostalOffice();
+			office.setName("Office");
+			office.setArea(area);
+			office.setConnectionStatus(c[0]);
+			entityManager.persist(office);
+			OfficeEndpoint endpoint = new OfficeEndpoint();
+			endpoint.setOfficeId(office.getId());
+			endpoint.setHost("127.0.0.1");
+			endpoint.setPort(c[1] ? openServer.getLocalPort() : closedPort);
+			entityManager.persist(endpoint);
+			offices.add(office);
+		}
+		// Not probed: no endpoint
+		PostalOffice manual = new PostalOffice();
+		manual.setName("Manual");
+		manual.setConnectionStatus(true);
+		entityManager.persist(manual);
+		entityManager.flush();
+		connectivityRollup.rebuild();
+
+		ProbeSweepDTO sweep = probeService.sweep();
+		assertEquals(4, sweep.getEndpoints());
+		assertEquals(2, sweep.getReachable());
+		assertEquals(2, sweep.getChanged());
+
+		entityManager.clear();
+		for (int i = 0; i < cases.length; i++) {
+			assertEquals(cases[i][1], entityManager.find(PostalOffice.class, offices.get(i).getId()).getConnectionStatus());
+		}
+		assertTrue(entityManager.find(PostalOffice.class, manual.getId()).getConnectionStatus());
+
+		// The rollup followed the writes without a rebuild
+		Map<String, Object> summary = connectivityRollup.getSummary();
+		assertEquals(3L, summary.get("active"));
+
+		// One event for the whole sweep, none when nothing changed
+		List<PostalOfficesChangedEvent> published = events.stream(PostalOfficesChangedEvent.class).toList();
+		assertEquals(1, published.size());
+		assertEquals(List.of(offices.get(0).getId(), offices.get(1).getId()),
+				published.get(0).getOfficeIds().stream().sorted().toList());
+		assertEquals(0, probeService.sweep().getChanged());
+		assertEquals(1, events.stream(PostalOfficesChangedEvent.class).count());
+	}
+
+	@Test
+	void statusWritesSkipOfficesEditedSinceTheyWereRead() {
+		PostalOffice edited = new PostalOffice();
+		edited.setName("Edited");
+		edited.setConnectionStatus(true);
+		entityManager.persist(edited);
+		PostalOffice unset = new PostalOffice();
+		unset.setName("Unset");
+		unset.setConnectionStatus(null);
+		entityManager.persist(unset);
+		entityManager.flush();
+
+		// The sweep read both as inactive; edited was set active by a form in the meantime
+		PostalOffice first = new PostalOffice();
+		first.setId(edited.getId());
+		first.setConnectionStatus(true);
+		PostalOffice second = new PostalOffice();
+		second.setId(unset.getId());
+		second.setConnectionStatus(true);
+		int[] counts = batchRepository.updateConnectionStatuses(List.of(first, second), new boolean[]{false, false});
+
+		assertEquals(0, counts[0]);
+		assertEquals(1, counts[1]);
+		entityManager.clear();
+		assertTrue(entityManager.find(PostalOffice.class, edited.getId()).getConnectionStatus());
+		assertTrue(entityManager.find(PostalOffice.class, unset.getId()).getConnectionStatus());
+	}
+
+	@Test
+	void proberKeepsUpWithThousandsOfEndpoints() throws Exception {
+		// Many endpoints under the concurrency cap: every result must still line up with its target
+		List<ProbeTargetDTO> targets = new ArrayList<>();
+		for (int i = 0; i < 5_000; i++) {
+			int port = i % 3 == 0 ? closedPort : openServer.getLocalPort();
+			targets.add(new ProbeTargetDTO(i, "127.0.0.1", port, false, null, null, null));
+		}
+		targets.add(new ProbeTargetDTO(-1, "127.0.0.1", 70_000, false, null, null, null));
+		targets.add(new ProbeTargetDTO(-2, null, 80, false, null, null, null));
+
+		boolean[] reachable = new ConnectivityProber(200, 1000).probeAll(targets);
+		for (int i = 0; i < 5_000; i++) {
+			assertEquals(i % 3 != 0, reachable[i], "target " + i);
+		}
+		assertFalse(reachable[5_000]);
+		assertFalse(reachable[5_001]);
+	}
+}
@@ -0,0 +1,107 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.ProbeTargetDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One sweep of 50k endpoints against local stub servers: one that accepts, a closed port that
+ * refuses at once, and one that listens but never accepts, so once its backlog is full further
+ * connects get no answer and wait out the timeout like an office whose link is down. silentPercent
+ * of the endpoints are silent, the rest split between the other two. Timeout is the 2 s default.
+ * Needs more open files than maxConcurrency (ulimit -n).
+ * Not run by the test phase; after ./mvnw test-compile run main(), or pass this class name to
+ * org.openjdk.jmh.Main with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class ConnectivityProberBenchmark {
+
+	private static final int ENDPOINTS = 50_000;
+	private static final int TIMEOUT_MILLIS = 2000;
+
+	@Param({"2000", "10000"})
+	private int maxConcurrency;
+
+	@Param({"10", "100"})
+	private int silentPercent;
+
+	private ServerSocket openServer;
+	private ServerSocket silentServer;
+	private List<ProbeTargetDTO> targets;
+
+	@Setup
+	public void setUp() throws IOException {
+		openServer = new ServerSocket(0, 10_000, InetAddress.getLoopbackAddress());
+		Thread.ofVirtual().start(() -> {
+			while (!openServer.isClosed()) {
+				try (Socket ignored = openServer.accept()) {
+					// connected
+				} catch (IOException e) {
+					return;
+				}
+			}
+		});
+		silentServer = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+		int closedPort;
+		try (ServerSocket unused = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+			closedPort = unused.getLocalPort();
+		}
+
+		targets = new ArrayList<>(ENDPOINTS);
+		for (int i = 0; i < ENDPOINTS; i++) {
+			int port;
+			if (i % 100 < silentPercent) {
+				port = silentServer.getLocalPort();
+			} else {
+				port = i % 2 == 0 ? openServer.getLocalPort() : closedPort;
+			}
+			targets.add(new ProbeTargetDTO(i, "127.0.0.1", port, false, null, null, null));
+		}
+		// Shuffled like a sweep, so the silent endpoints are spread over the run
+		Collections.shuffle(targets, new Random(21));
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		openServer.close();
+		silentServer.close();
+	}
+
+	@Benchmark
+	public boolean[] sweep() throws InterruptedException {
+		return new ConnectivityProber(maxConcurrency, TIMEOUT_MILLIS).probeAll(targets);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ConnectivityProberBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,128 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.PostalOffice;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({ConnectivityRollupService.class, LocationHierarchyService.class})
+class ConnectivityRollupServiceTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private ConnectivityRollupService connectivityRollup;
+
+	@Test
+	void incrementalUpdatesMatchFullRebuild() {
+		Area area = new Area();
+		area.setAreaName("Metro North");
+		entityManager.persist(area);
+		Regions region = new Regions();
+		region.setName("NCR");
+		entityManager.persist(region);
+		Province province = new Province();
+		province.setName("Metro Manila");
+		province.setRegion(region);
+		entityManager.persist(province);
+
+		for (int i = 0; i < 10; i++) {
+			entityManager.persist(office(area, region, province, i % 2 == 0));
+		}
+		entityManager.flush();
+		// The rollup was preloaded (empty) when the context started
+		connectivityRollup.rebuild();
+		Map<String, Object> initial = connectivityRollup.getSummary();
+		assertEquals(10L, initial.get("total"));
+		assertEquals(5L, initial.get("active"));
+
+		// Offices written after the rollup was loaded
+		long generation = connectivityRollup.generation();
+		List<PostalOffice> added = new ArrayList<>();
+		for (int i = 0; i < 4; i++) {
+			PostalOffice office = office(i < 2 ? area : null, region, i < 3 ? province : null, true);
+			entityManager.persist(office);
+			added.add(office);
+		}
+		PostalOffice flipped = added.get(0);
+		flipped.setConnectionStatus(false);
+		entityManager.flush();
+		connectivityRollup.officesAdded(added.subList(1, 4), generation);
+		connectivityRollup.officesAdded(List.of(flipped), generation);
+
+		PostalOffice deactivated = entityManager.find(PostalOffice.class, added.get(1).getId());
+		deactivated.setConnectionStatus(false);
+		entityManager.flush();
+		connectivityRollup.statusChanged(deactivated, true, generation);
+
+		Map<String, Object> incremental = connectivityRollup.getSummary();
+		connectivityRollup.rebuild();
+		Map<String, Object> rebuilt = connectivityRollup.getSummary();
+
+		assertEquals(14L, rebuilt.get("total"));
+		assertEquals(7L, rebuilt.get("active"));
+		for (String key : List.of("total", "active", "inactive", "areas", "regions", "provinces")) {
+			assertEquals(rebuilt.get(key), incremental.get(key), key);
+		}
+	}
+
+	@Test
+	void writesRacingARecountAreCountedOnce() {
+		Area area = new Area();
+		area.setAreaName("Metro South");
+		entityManager.persist(area);
+		entityManager.persist(office(area, null, null, true));
+		entityManager.flush();
+		connectivityRollup.rebuild();
+		long before = connectivityRollup.generation();
+
+		// The office is saved, then a recount sees it before officesAdded is called
+		PostalOffice office = office(area, null, null, true);
+		entityManager.persist(office);
+		entityManager.flush();
+		connectivityRollup.rebuild();
+		connectivityRollup.officesAdded(List.of(office), before);
+
+		Map<String, Object> summary = connectivityRollup.getSummary();
+		assertEquals(2L, summary.get("total"));
+		assertEquals(2L, summary.get("active"));
+		// The stale write forced one more recount
+		assertEquals(before + 2, summary.get("generation"));
+
+		// Status written against the current generation is applied incrementally
+		long current = connectivityRollup.generation();
+		office.setConnectionStatus(false);
+		entityManager.flush();
+		connectivityRollup.statusChanged(office, true, current);
+		summary = connectivityRollup.getSummary();
+		assertEquals(1L, summary.get("active"));
+		assertEquals(current, summary.get("generation"));
+	}
+
+	private static PostalOffice office(Area area, Regions region, Province province, boolean active) {
+		PostalOffice office = new PostalOffice();
+		office.setName("Office");
+		office.setArea(area);
+		office.setRegion(region);
+		office.setProvince(province);
+		office.setConnectionStatus(active);
+		return office;
+	}
+}
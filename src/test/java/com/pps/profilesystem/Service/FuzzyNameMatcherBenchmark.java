@@ -0,0 +1,161 @@
+package com.pps.profilesystem.Service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fuzzy barangay lookups as an import makes them: the trigram-indexed matcher against scoring
+ * every candidate with edit distance. 42.5k barangays in 1,700 cities, a third of them with names
+ * that repeat across cities ("Poblacion", "San Isidro"); 100k queries cycled through, 60% exact
+ * (with "Brgy."/"Sto." spellings) and 40% with a one-letter typo. "scoped" passes the row's city
+ * like an address-based lookup, "unscoped" searches every barangay. One op is one lookup.
+ * Not run by the test phase; after ./mvnw test-compile run main(), or pass this class name to
+ * org.openjdk.jmh.Main with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FuzzyNameMatcherBenchmark {
+
+	private static final int CITIES = 1_700;
+	private static final int BARANGAYS_PER_CITY = 25;
+	private static final int QUERIES = 100_000;
+	private static final double MIN_SCORE = LocationNameResolver.DEFAULT_MIN_SCORE;
+
+	private static final String[] COMMON = {"Poblacion", "San Isidro", "San Jose", "San Roque", "Santo Niño",
+			"San Antonio", "Bagong Silang", "Mabini", "Rizal", "Del Pilar", "San Vicente", "Santa Cruz"};
+	private static final String[] PREFIXES = {"San", "Santa", "Bagong", "Malaya", "Maligaya", "Mataas na", "Ilaya", "Ibaba"};
+
+	private record Place(int id, String name, int cityId) { }
+
+	private FuzzyNameMatcher<Place> matcher;
+	private List<Place> places;
+	private String[] placeKeys;
+	private int[][] placesByCity;
+	private String[] queries;
+	private int[] queryCities;
+	private int query;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(15);
+		places = new ArrayList<>();
+		placesByCity = new int[CITIES + 1][BARANGAYS_PER_CITY];
+		for (int city = 1; city <= CITIES; city++) {
+			for (int b = 0; b < BARANGAYS_PER_CITY; b++) {
+				String name = random.nextInt(3) == 0
+						? COMMON[random.nextInt(COMMON.length)]
+						: PREFIXES[random.nextInt(PREFIXES.length)] + " " + capitalize(spell(random.nextInt(400_000)));
+				placesByCity[city][b] = places.size();
+				places.add(new Place(places.size(), name, city));
+			}
+		}
+		matcher = new FuzzyNameMatcher<>(places, Place::name, Place::cityId, Set.of("barangay", "brgy", "bgy"));
+		placeKeys = places.stream().map(place -> matcher.key(place.name())).toArray(String[]::new);
+
+		queries = new String[QUERIES];
+		queryCities = new int[QUERIES];
+		for (int q = 0; q < QUERIES; q++) {
+			Place place = places.get(random.nextInt(places.size()));
+			String name = place.name();
+			if (random.nextInt(10) < 4) {
+				int at = 1 + random.nextInt(name.length() - 1);
+				name = name.substring(0, at) + (char) ('a' + random.nextInt(26)) + name.substring(at + 1);
+			} else if (random.nextBoolean()) {
+				name = "Brgy. " + name.replace("Santo ", "Sto. ");
+			}
+			queries[q] = name;
+			queryCities[q] = place.cityId();
+		}
+	}
+
+	@Benchmark
+	public FuzzyNameMatcher.Match<Place> scopedIndex() {
+		int q = next();
+		return matcher.match(queries[q], queryCities[q], MIN_SCORE);
+	}
+
+	@Benchmark
+	public FuzzyNameMatcher.Match<Place> unscopedIndex() {
+		return matcher.match(queries[next()], MIN_SCORE);
+	}
+
+	@Benchmark
+	public int scopedScan() {
+		int q = next();
+		return scan(matcher.key(queries[q]), placesByCity[queryCities[q]]);
+	}
+
+	@Benchmark
+	public int unscopedScan() {
+		return scan(matcher.key(queries[next()]), null);
+	}
+
+	private int next() {
+		int q = query++;
+		if (query == QUERIES) {
+			query = 0;
+		}
+		return q;
+	}
+
+	// Best-scoring place by bounded edit distance over the candidates (all places when null)
+	private int scan(String queryKey, int[] candidates) {
+		int count = candidates != null ? candidates.length : placeKeys.length;
+		int best = -1;
+		double bestScore = MIN_SCORE;
+		for (int c = 0; c < count; c++) {
+			int i = candidates != null ? candidates[c] : c;
+			int maxLength = Math.max(queryKey.length(), placeKeys[i].length());
+			int bound = (int) Math.floor((1 - MIN_SCORE) * maxLength);
+			int distance = FuzzyNameMatcher.editDistance(queryKey, placeKeys[i], bound);
+			if (distance <= bound) {
+				double score = 1.0 - (double) distance / maxLength;
+				if (score >= bestScore) {
+					best = i;
+					bestScore = score;
+				}
+			}
+		}
+		return best;
+	}
+
+	private static String capitalize(String word) {
+		return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+	}
+
+	private static String spell(int n) {
+		String[] syllables = {"ba", "ka", "da", "ga", "la", "ma", "na", "pa", "ra", "sa",
+				"ta", "bi", "ki", "di", "gi", "li", "mi", "ni", "pi", "ri"};
+		StringBuilder name = new StringBuilder();
+		do {
+			name.append(syllables[n % 20]);
+			n /= 20;
+		} while (n > 0);
+		return name.toString();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(FuzzyNameMatcherBenchmark.class.getSimpleName()).build()).run();
+	}
+}
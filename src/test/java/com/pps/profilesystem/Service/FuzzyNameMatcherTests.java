@@ -0,0 +1,113 @@
+package com.pps.profilesystem.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FuzzyNameMatcherTests {
+
+	private record Place(int id, String name, Integer parentId) { }
+
+	private static final Set<String> FILLER = Set.of("barangay", "brgy");
+
+	@Test
+	void expandsAbbreviationsAndIgnoresAccentsAndFiller() {
+		FuzzyNameMatcher<Place> matcher = matcher(List.of(
+				new Place(1, "Santo Niño", 10),
+				new Place(2, "Poblacion", 10),
+				new Place(3, "Area 1", null)));
+
+		FuzzyNameMatcher.Match<Place> nino = matcher.match("Brgy. Sto. Nino", 1.0);
+		assertEquals(1, nino.getItem().id());
+		assertTrue(nino.isExact());
+		assertEquals(2, matcher.match("POB.", 1.0).getItem().id());
+		assertEquals(3, matcher.match("AREA-1", 1.0).getItem().id());
+	}
+
+	@Test
+	void scoresTyposAndRejectsDistantNames() {
+		FuzzyNameMatcher<Place> matcher = matcher(List.of(
+				new Place(1, "Malate", 10),
+				new Place(2, "Ermita", 10),
+				new Place(3, "San Isidro", 10)));
+
+		FuzzyNameMatcher.Match<Place> typo = matcher.match("San Isdro", 0.8);
+		assertEquals(3, typo.getItem().id());
+		assertEquals(0.9, typo.getScore(), 1e-9);
+		assertFalse(typo.isExact());
+
+		assertNull(matcher.match("San Isdro", 1.0));
+		assertNull(matcher.match("Quiapo", 0.8));
+		assertNull(matcher.match("   ", 0.8));
+	}
+
+	@Test
+	void scopesDuplicateNamesByParent() {
+		FuzzyNameMatcher<Place> matcher = matcher(List.of(
+				new Place(1, "San Antonio", 10),
+				new Place(2, "San Antonio", 20),
+				new Place(3, "San Antonia", 30)));
+
+		assertTrue(matcher.match("San Antonio", 1.0).isAmbiguous());
+		assertEquals(2, matcher.match("San Antonio", 20, 1.0).getItem().id());
+		assertFalse(matcher.match("San Antonio", 20, 1.0).isAmbiguous());
+
+		// Only a fuzzy candidate under parent 30, none at all under 40
+		assertEquals(3, matcher.match("San Antonio", 30, 0.8).getItem().id());
+		assertNull(matcher.match("San Antonio", 40, 0.5));
+
+		// Two equally close fuzzy candidates
+		FuzzyNameMatcher<Place> tied = matcher(List.of(new Place(1, "Bagong Silang", null), new Place(2, "Bagong Silong", null)));
+		assertTrue(tied.match("Bagong Silung", 0.8).isAmbiguous());
+	}
+
+	@Test
+	void indexOnlyRanksNamesSharingTrigrams() {
+		// At tens of thousands of names the trigram shortlist must still find the right one
+		List<Place> places = new ArrayList<>();
+		for (int i = 0; i < 40_000; i++) {
+			places.add(new Place(i, "Barangay " + spell(i), i % 1_500));
+		}
+		FuzzyNameMatcher<Place> matcher = matcher(places);
+
+		for (int i = 401; i < 40_000; i += 997) {
+			String name = spell(i);
+			String typo = name.substring(0, name.length() - 1) + "x";
+			assertEquals(i, matcher.match(name, i % 1_500, 1.0).getItem().id());
+			FuzzyNameMatcher.Match<Place> fuzzy = matcher.match(typo, i % 1_500, 0.75);
+			assertEquals(i, fuzzy.getItem().id(), typo);
+		}
+	}
+
+	@Test
+	void boundedEditDistanceStopsEarly() {
+		assertEquals(0, FuzzyNameMatcher.editDistance("malate", "malate", 2));
+		assertEquals(1, FuzzyNameMatcher.editDistance("malate", "malete", 2));
+		assertEquals(3, FuzzyNameMatcher.editDistance("kitten", "sitting", 5));
+		assertEquals(3, FuzzyNameMatcher.editDistance("ermita", "quiapo", 2));
+		assertEquals(2, FuzzyNameMatcher.editDistance("a", "abcdef", 1));
+	}
+
+	// Distinct pronounceable names: base-20 digits mapped to syllables
+	private static String spell(int n) {
+		String[] syllables = {"ba", "ka", "da", "ga", "la", "ma", "na", "pa", "ra", "sa",
+				"ta", "bi", "ki", "di", "gi", "li", "mi", "ni", "pi", "ri"};
+		StringBuilder name = new StringBuilder();
+		do {
+			name.append(syllables[n % 20]);
+			n /= 20;
+		} while (n > 0);
+		return name.toString();
+	}
+
+	private static FuzzyNameMatcher<Place> matcher(List<Place> places) {
+		return new FuzzyNameMatcher<>(places, Place::name, Place::parentId, FILLER);
+	}
+}
@@ -0,0 +1,127 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficeImportDTO;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+@SpringJUnitConfig(ImportJobService.class)
+class ImportJobServiceTests {
+
+	@TempDir
+	static Path reportDir;
+
+	@DynamicPropertySource
+	static void reportDir(DynamicPropertyRegistry registry) {
+		registry.add("import.report-dir", () -> reportDir.toString());
+		registry.add("import.report-retention-days", () -> "30");
+	}
+
+	@Autowired
+	private ImportJobService jobService;
+
+	@MockitoBean
+	private PostalOfficeImportService importService;
+
+	@Test
+	void cancelStopsARunningImport() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		AtomicReference<Path> upload = new AtomicReference<>();
+		// Reports one row, then runs until it sees the cancel request like the real import does
+		doAnswer(invocation -> {
+			upload.set(invocation.getArgument(0));
+			ImportJob job = invocation.getArgument(1);
+			job.report().add(ImportReport.issue(row(2), ImportReport.Category.MISSING_AREA, "Missing AREA"));
+			started.countDown();
+			long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+			while (!job.isCancelRequested() && System.nanoTime() < deadline) {
+				Thread.sleep(10);
+			}
+			throw new CancellationException("Import cancelled at row 3");
+		}).when(importService).importPostalOffices(any(), any());
+
+		ImportJob job = jobService.submit(workbook(), ImportJob.Mode.INSERT);
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		assertEquals(ImportJob.Status.RUNNING, job.getStatus());
+		// The report is still being written
+		assertTrue(jobService.getReportFile(job.getId()).isEmpty());
+
+		assertTrue(jobService.cancel(job.getId()));
+		awaitFinished(job);
+
+		assertEquals(ImportJob.Status.CANCELLED, job.getStatus());
+		assertEquals("Import cancelled. 0 records were saved before cancelling.", job.getMessage());
+		assertFalse(jobService.cancel(job.getId()));
+		assertFalse(jobService.cancel(UUID.randomUUID().toString()));
+		assertFalse(Files.exists(upload.get()));
+		Path report = jobService.getReportFile(job.getId()).orElseThrow();
+		assertEquals(reportDir.resolve(job.getId() + ".csv"), report);
+		assertEquals(2, Files.readAllLines(report).size());
+	}
+
+	@Test
+	void reportsOutliveTheirJobUntilTheRetentionRunsOut() throws Exception {
+		doAnswer(invocation -> null).when(importService).importPostalOffices(any(), any());
+		String forgotten = UUID.randomUUID().toString();
+		Path recent = Files.writeString(reportDir.resolve(forgotten + ".csv"), "ROW\r\n");
+		String expired = UUID.randomUUID().toString();
+		Path old = Files.writeString(reportDir.resolve(expired + ".csv"), "ROW\r\n");
+		Files.setLastModifiedTime(old, FileTime.from(Instant.now().minus(Duration.ofDays(31))));
+
+		// Every submit purges; the job itself finishes cleanly and stays visible for the page
+		ImportJob job = jobService.submit(workbook(), ImportJob.Mode.UPSERT);
+		awaitFinished(job);
+		assertEquals(ImportJob.Status.COMPLETED, job.getStatus());
+		assertEquals("0 records inserted, 0 updated, 0 unchanged", job.getMessage());
+		jobService.submit(workbook(), ImportJob.Mode.INSERT);
+		assertTrue(jobService.getJob(job.getId()).isPresent());
+
+		assertFalse(Files.exists(old));
+		assertTrue(jobService.getReportFile(expired).isEmpty());
+		// No longer held in memory, but its report is still there
+		assertEquals(recent, jobService.getReportFile(forgotten).orElseThrow());
+		// Only job ids resolve to report files
+		assertTrue(jobService.getReportFile("../" + forgotten).isEmpty());
+	}
+
+	private static void awaitFinished(ImportJob job) throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (!job.isFinished() && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		assertTrue(job.isFinished(), "still " + job.getStatus());
+	}
+
+	private static MockMultipartFile workbook() {
+		return new MockMultipartFile("file", "offices.xlsx", null, new byte[] {1, 2, 3});
+	}
+
+	private static PostalOfficeImportDTO row(int rowNumber) {
+		PostalOfficeImportDTO row = new PostalOfficeImportDTO();
+		row.setRowNumber(rowNumber);
+		return row;
+	}
+}
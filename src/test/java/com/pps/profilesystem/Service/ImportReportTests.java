@@ -0,0 +1,141 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficeImportDTO;
+
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ImportReportTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void keepsCountsAndCappedSamplesButWritesEveryRow() throws Exception {
+		Path csv = tempDir.resolve("report.csv");
+		try (ImportReport report = new ImportReport(csv)) {
+			for (int i = 0; i < 50; i++) {
+				report.add(ImportReport.issue(row(i + 2, "Office " + i), ImportReport.Category.FUZZY_MATCH, "matched"));
+			}
+			report.add(ImportReport.issue(row(60, "Bad"), ImportReport.Category.ROW_FAILED, "Unexpected error - boom"));
+
+			assertEquals(50, report.getWarningCount());
+			assertEquals(1, report.getErrorCount());
+			assertEquals(Map.of("FUZZY_MATCH", 50L, "ROW_FAILED", 1L), report.getCounts());
+			assertEquals(ImportReport.SAMPLES_PER_CATEGORY, report.getSamples().get("FUZZY_MATCH").size());
+		}
+
+		List<List<String>> records = read(csv);
+		assertEquals(52, records.size());
+		assertEquals("ROW", records.get(0).get(0));
+		assertEquals(List.of("60", "ERROR", "ROW_FAILED"), records.get(51).subList(0, 3));
+	}
+
+	@Test
+	void csvRoundTripsQuotesCommasAndNewlines() throws Exception {
+		Path csv = tempDir.resolve("quoted.csv");
+		PostalOfficeImportDTO row = row(7, "Sta. Cruz, \"Main\" Office");
+		row.setAddress("Line 1\nLine 2");
+		try (ImportReport report = new ImportReport(csv)) {
+			report.add(ImportReport.issue(row, ImportReport.Category.MISSING_AREA, "Missing AREA"));
+		}
+
+		List<String> record = read(csv).get(1);
+		assertEquals("7", record.get(0));
+		assertEquals("Sta. Cruz, \"Main\" Office", record.get(5));
+		assertEquals("Line 1\nLine 2", record.get(9));
+	}
+
+	@Test
+	void convertsCsvToWorkbook() throws Exception {
+		Path csv = tempDir.resolve("xlsx.csv");
+		try (ImportReport report = new ImportReport(csv)) {
+			report.add(ImportReport.issue(row(3, "Malolos"), ImportReport.Category.AREA_NOT_FOUND, "Area not found: AREA-X"));
+		}
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImportReport.toXlsx(csv, out);
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			Sheet sheet = workbook.getSheetAt(0);
+			assertEquals("CATEGORY", sheet.getRow(0).getCell(2).getStringCellValue());
+			assertEquals(3, sheet.getRow(1).getCell(0).getNumericCellValue());
+			assertEquals("Malolos", sheet.getRow(1).getCell(5).getStringCellValue());
+		}
+	}
+
+	@Test
+	void formulaLookingValuesStayText() throws Exception {
+		Path csv = tempDir.resolve("formulas.csv");
+		PostalOfficeImportDTO row = row(4, "=HYPERLINK(\"http://example.com\",\"Open\")");
+		row.setAddress("+63 Rizal Street");
+		try (ImportReport report = new ImportReport(csv)) {
+			report.add(ImportReport.issue(row, ImportReport.Category.MISSING_AREA, "Missing AREA"));
+		}
+
+		// Opened directly in a spreadsheet, the report shows the values instead of evaluating them
+		String written = Files.readString(csv, StandardCharsets.UTF_8);
+		assertTrue(written.contains("\"'=HYPERLINK("), written);
+		assertTrue(written.contains(",'+63 Rizal Street,"), written);
+
+		List<String> record = read(csv).get(1);
+		assertEquals("=HYPERLINK(\"http://example.com\",\"Open\")", record.get(5));
+		assertEquals("+63 Rizal Street", record.get(9));
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImportReport.toXlsx(csv, out);
+		try (XSSFWorkbook workbook = new XSSFWorkbook(new ByteArrayInputStream(out.toByteArray()))) {
+			Sheet sheet = workbook.getSheetAt(0);
+			assertEquals(CellType.STRING, sheet.getRow(1).getCell(5).getCellType());
+			assertEquals("=HYPERLINK(\"http://example.com\",\"Open\")", sheet.getRow(1).getCell(5).getStringCellValue());
+		}
+	}
+
+	@Test
+	void signedNumbersAreNotEscaped() throws Exception {
+		String[] values = {"-120.98", "+63", "-1.0E-4", "-.5", "-", "-1+1", "+63 Rizal Street", "-2e5x"};
+		StringWriter out = new StringWriter();
+		Csv.writeRecord(out, values);
+		// A negative longitude stays a number in a spreadsheet; anything more after the sign is still text
+		assertEquals("-120.98,+63,-1.0E-4,-.5,'-,'-1+1,'+63 Rizal Street,'-2e5x\r\n", out.toString());
+
+		Path csv = Files.writeString(tempDir.resolve("numbers.csv"), out.toString());
+		assertEquals(List.of(values), read(csv).get(0));
+	}
+
+	@Test
+	void leavesHeaderOnlyReportWhenThereAreNoIssues() throws Exception {
+		Path csv = tempDir.resolve("empty.csv");
+		new ImportReport(csv).close();
+		assertEquals(1, read(csv).size());
+	}
+
+	private static List<List<String>> read(Path csv) throws Exception {
+		List<List<String>> records = new ArrayList<>();
+		Csv.read(csv, records::add);
+		return records;
+	}
+
+	private static PostalOfficeImportDTO row(int rowNumber, String name) {
+		PostalOfficeImportDTO dto = new PostalOfficeImportDTO();
+		dto.setRowNumber(rowNumber);
+		dto.setArea("AREA-1");
+		dto.setPostOfficeName(name);
+		return dto;
+	}
+}
@@ -0,0 +1,260 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficeImportDTO;
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Entity.PostalOffice;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+import com.pps.profilesystem.Entity.ZipCode;
+import com.pps.profilesystem.Repository.AreaRepository;
+import com.pps.profilesystem.Repository.PostalOfficeBatchRepository;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * A 100k-row insert import through PostalOfficeImportService with 1..8 validation threads.
+ * Rows come from memory instead of a workbook and the database writes are mocked, so the time
+ * is the validate/resolve stage plus the in-order hand-off to the writer. Reference data is a
+ * fixed nationwide-sized hierarchy (1,700 cities, 42.5k barangays, one ZIP per city) with its
+ * ZipIndex; most rows name their barangay in the address, some with a typo, and a quarter have
+ * no ZIP, so their city is matched against every city first. One op is one whole import.
+ * Not run by the test phase; after ./mvnw test-compile run main(), or pass this class name to
+ * org.openjdk.jmh.Main with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ImportValidationBenchmark {
+
+	private static final int REGIONS = 17;
+	private static final int PROVINCES_PER_REGION = 5;
+	private static final int CITIES_PER_PROVINCE = 20;
+	private static final int BARANGAYS_PER_CITY = 25;
+	private static final int AREAS = 10;
+	private static final int ROWS = 100_000;
+
+	private static final String[] COMMON = {"Poblacion", "San Isidro", "San Jose", "San Roque", "Santo Niño",
+			"San Antonio", "Bagong Silang", "Mabini", "Rizal", "Del Pilar", "San Vicente", "Santa Cruz"};
+
+	@Param({"1", "2", "4", "8"})
+	private int threads;
+
+	private PostalOfficeImportService importService;
+	private List<PostalOfficeImportDTO> rows;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(4);
+		List<Regions> regions = new ArrayList<>();
+		List<Province> provinces = new ArrayList<>();
+		List<CityMunicipality> cities = new ArrayList<>();
+		List<Barangay> barangays = new ArrayList<>();
+		List<ZipCode> zipRows = new ArrayList<>();
+		for (int r = 1; r <= REGIONS; r++) {
+			Regions region = new Regions();
+			region.setId(r);
+			region.setName("Region " + r);
+			regions.add(region);
+			for (int p = 0; p < PROVINCES_PER_REGION; p++) {
+				Province province = new Province();
+				province.setId(provinces.size() + 1);
+				province.setName("Province " + province.getId());
+				province.setRegion(region);
+				provinces.add(province);
+				for (int c = 0; c < CITIES_PER_PROVINCE; c++) {
+					CityMunicipality city = new CityMunicipality();
+					city.setId(cities.size() + 1);
+					city.setName(capitalize(spell(7_919 * city.getId())));
+					city.setProvince(province);
+					cities.add(city);
+					String zip = String.valueOf(1000 + city.getId());
+					for (int b = 0; b < BARANGAYS_PER_CITY; b++) {
+						Barangay barangay = new Barangay();
+						barangay.setId(barangays.size() + 1);
+						barangay.setName(random.nextInt(3) == 0
+								? COMMON[random.nextInt(COMMON.length)]
+								: capitalize(spell(random.nextInt(400_000))));
+						barangay.setCityMunicipality(city);
+						barangays.add(barangay);
+
+						ZipCode row = new ZipCode();
+						row.setZipcode(zip);
+						row.setProvince(province.getName());
+						row.setCity(city.getName());
+						row.setBarangay(barangay.getName());
+						zipRows.add(row);
+					}
+				}
+			}
+		}
+		LocationHierarchy hierarchy = new LocationHierarchy(regions, provinces, cities, barangays);
+		ZipIndex zipIndex = new ZipIndex(zipRows, hierarchy);
+		List<Area> areas = new ArrayList<>();
+		for (int a = 1; a <= AREAS; a++) {
+			Area area = new Area();
+			area.setId(a);
+			area.setAreaName("AREA-" + a);
+			areas.add(area);
+		}
+
+		rows = new ArrayList<>(ROWS);
+		for (int i = 0; i < ROWS; i++) {
+			Barangay barangay = barangays.get(random.nextInt(barangays.size()));
+			CityMunicipality city = barangay.getCityMunicipality();
+			String barangayName = barangay.getName();
+			if (random.nextInt(10) < 3) {
+				int at = 1 + random.nextInt(barangayName.length() - 1);
+				barangayName = barangayName.substring(0, at) + (char) ('a' + random.nextInt(26)) + barangayName.substring(at + 1);
+			}
+			PostalOfficeImportDTO row = new PostalOfficeImportDTO();
+			row.setRowNumber(i + 2);
+			row.setArea(random.nextBoolean() ? "AREA-" + (1 + random.nextInt(AREAS)) : "Area " + (1 + random.nextInt(AREAS)));
+			row.setPostOfficeName(city.getName() + " Post Office " + i);
+			row.setLongitude(116 + random.nextDouble() * 11);
+			row.setLatitude(4.5 + random.nextDouble() * 17);
+			int kind = random.nextInt(20);
+			if (kind < 17) {
+				row.setAddress((1 + random.nextInt(300)) + " Rizal St, Brgy. " + barangayName + ", " + city.getName());
+			}
+			if (kind < 12 || kind >= 17) {
+				row.setZipCode(String.valueOf(1000 + city.getId()));
+			}
+			row.setConnectivityStatus(random.nextBoolean() ? "Connected" : "Not connected");
+			rows.add(row);
+		}
+
+		// Plain subclasses on the per-row path: a Mockito mock records every call it gets
+		LocationHierarchyService hierarchyService = new LocationHierarchyService() {
+			@Override
+			public LocationHierarchy getHierarchy() {
+				return hierarchy;
+			}
+		};
+		ZipResolutionService zipResolutionService = new ZipResolutionService() {
+			@Override
+			public ZipIndex getIndex() {
+				return zipIndex;
+			}
+		};
+		AreaRepository areaRepository = mock(AreaRepository.class);
+		when(areaRepository.findAll()).thenReturn(areas);
+		LocationNameResolver nameResolver = new LocationNameResolver();
+		setField(nameResolver, "locationHierarchyService", hierarchyService);
+		setField(nameResolver, "areaRepository", areaRepository);
+		nameResolver.refresh();
+
+		List<PostalOfficeImportDTO> sheet = rows;
+		PostalOfficeExcelReader excelReader = new PostalOfficeExcelReader() {
+			@Override
+			public int read(Path file, Consumer<PostalOfficeImportDTO> rowConsumer) {
+				sheet.forEach(rowConsumer);
+				return sheet.size();
+			}
+		};
+		PostalOfficeBatchRepository batchRepository = new PostalOfficeBatchRepository() {
+			@Override
+			public List<Integer> insertAll(List<PostalOffice> offices) {
+				return IntStream.range(0, offices.size()).boxed().toList();
+			}
+		};
+		ConnectivityRollupService connectivityRollup = new ConnectivityRollupService() {
+			@Override
+			public void officesAdded(Collection<PostalOffice> offices, long generation) {
+			}
+		};
+		PlatformTransactionManager transactionManager = new PlatformTransactionManager() {
+			@Override
+			public TransactionStatus getTransaction(TransactionDefinition definition) {
+				return new SimpleTransactionStatus();
+			}
+
+			@Override
+			public void commit(TransactionStatus status) {
+			}
+
+			@Override
+			public void rollback(TransactionStatus status) {
+			}
+		};
+
+		importService = new PostalOfficeImportService();
+		setField(importService, "zipResolutionService", zipResolutionService);
+		setField(importService, "locationNameResolver", nameResolver);
+		setField(importService, "excelReader", excelReader);
+		setField(importService, "batchRepository", batchRepository);
+		setField(importService, "connectivityRollup", connectivityRollup);
+		setField(importService, "transactionManager", transactionManager);
+		setField(importService, "eventPublisher", (ApplicationEventPublisher) event -> { });
+		setField(importService, "batchSize", 1000);
+		setField(importService, "validationThreads", threads);
+		importService.startValidationPool();
+	}
+
+	@TearDown
+	public void tearDown() {
+		importService.stopValidationPool();
+	}
+
+	@Benchmark
+	public long importRows() throws Exception {
+		ImportJob job = new ImportJob("benchmark", "offices.xlsx", ImportJob.Mode.INSERT);
+		importService.importPostalOffices(Path.of("offices.xlsx"), job);
+		return job.getRowsPersisted();
+	}
+
+	private static String capitalize(String word) {
+		return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+	}
+
+	private static String spell(int n) {
+		String[] syllables = {"ba", "ka", "da", "ga", "la", "ma", "na", "pa", "ra", "sa",
+				"ta", "bi", "ki", "di", "gi", "li", "mi", "ni", "pi", "ri"};
+		StringBuilder name = new StringBuilder();
+		do {
+			name.append(syllables[n % 20]);
+			n /= 20;
+		} while (n > 0);
+		return name.toString();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ImportValidationBenchmark.class.getSimpleName()).build()).run();
+	}
+}
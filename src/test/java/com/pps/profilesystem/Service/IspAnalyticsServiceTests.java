@@ -0,0 +1,139 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.IspSummaryDTO;
+import com.pps.profilesystem.DTO.IspUptimeDTO;
+import com.pps.profilesystem.DTO.IspUptimeGroupDTO;
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.InternetServiceProvider;
+import com.pps.profilesystem.Entity.PostalOffice;
+import com.pps.profilesystem.Repository.ISPRepository;
+import com.pps.profilesystem.Repository.PostalOfficeRepository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"history.dir=${java.io.tmpdir}/isp-analytics-tests/${random.uuid}",
+		"history.raw-days=1",
+		"history.hourly-days=3"
+})
+@Import({IspAnalyticsService.class, ConnectivityHistoryService.class})
+class IspAnalyticsServiceTests {
+
+	private static final long DAY = 86400;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PostalOfficeRepository postalOfficeRepository;
+
+	@Autowired
+	private ISPRepository ispRepository;
+
+	@Autowired
+	private IspAnalyticsService ispAnalyticsService;
+
+	@Autowired
+	private ConnectivityHistoryService historyService;
+
+	@Test
+	void uptimeOutagesAndMttrPerIspSurviveDownsampling() throws Exception {
+		Area areaA = area("Area A");
+		Area areaB = area("Area B");
+		InternetServiceProvider alpha = isp("Alpha");
+		InternetServiceProvider beta = isp("Beta");
+		PostalOffice o1 = office(areaA);
+		PostalOffice o2 = office(areaB);
+		PostalOffice o3 = office(areaB);
+		PostalOffice noIsp = office(areaA);
+		entityManager.flush();
+		postalOfficeRepository.assignIsp(alpha, List.of(o1.getId(), o2.getId()));
+		postalOfficeRepository.assignIsp(beta, List.of(o3.getId()));
+		entityManager.clear();
+
+		List<IspSummaryDTO> isps = ispRepository.findAllWithOfficeCounts();
+		assertEquals(List.of(new IspSummaryDTO(alpha.getId(), "Alpha", 2), new IspSummaryDTO(beta.getId(), "Beta", 1)), isps);
+
+		// Two days of 5-minute sweeps. o1 is down across midnight (one outage, 5 samples),
+		// o3 has two short outages (3 samples), the office without an ISP is always down.
+		long day0 = Math.floorDiv(Instant.now().getEpochSecond(), DAY) - 3;
+		int[] officeIds = {o1.getId(), o2.getId(), o3.getId(), noIsp.getId()};
+		ConnectivityHistoryStore store = historyService.getStore();
+		for (int day = 0; day < 2; day++) {
+			for (int i = 0; i < 288; i++) {
+				boolean o1Up = day == 0 ? i < 285 : i >= 2;
+				boolean o3Up = day == 0 || (i != 100 && i != 101 && i != 200);
+				store.record((day0 + day) * DAY + i * 300L, officeIds, new boolean[]{o1Up, true, o3Up, false});
+			}
+		}
+		Instant from = Instant.ofEpochSecond(day0 * DAY);
+		Instant to = Instant.ofEpochSecond((day0 + 2) * DAY);
+		assertExpectedUptime(ispAnalyticsService.getUptime(from, to, null, null, IspAnalyticsService.GroupBy.AREA), alpha, beta, areaA);
+
+		// Day 0 becomes daily and day 1 hourly; the outage counts must not change
+		store.record((day0 + 2) * DAY, officeIds, new boolean[]{true, true, true, true});
+		assertEquals(2, store.compact(day0 + 4));
+		assertExpectedUptime(ispAnalyticsService.getUptime(from, to, null, null, IspAnalyticsService.GroupBy.AREA), alpha, beta, areaA);
+
+		List<IspUptimeDTO> inAreaA = ispAnalyticsService.getUptime(from, to, areaA.getId(), null, IspAnalyticsService.GroupBy.NONE);
+		assertEquals(1, inAreaA.size());
+		assertEquals(1, inAreaA.get(0).getOffices());
+		assertEquals(1, inAreaA.get(0).getOutages());
+		assertNull(inAreaA.get(0).getGroups());
+	}
+
+	private static void assertExpectedUptime(List<IspUptimeDTO> result, InternetServiceProvider alpha,
+											 InternetServiceProvider beta, Area areaA) {
+		assertEquals(2, result.size());
+		IspUptimeDTO a = result.get(0);
+		assertEquals(alpha.getId(), a.getIspId());
+		assertEquals(2, a.getOffices());
+		assertEquals(4 * 288, a.getSamples());
+		assertEquals(1, a.getOutages());
+		assertEquals(25.0, a.getMttrMinutes());
+		assertEquals(Math.round((4 * 288 - 5) * 10000.0 / (4 * 288)) / 100.0, a.getUptimePercent());
+		// Worst area first
+		IspUptimeGroupDTO worst = a.getGroups().get(0);
+		assertEquals(areaA.getId(), worst.getId());
+		assertEquals("Area A", worst.getName());
+		assertEquals(1, worst.getOutages());
+		assertNull(a.getGroups().get(1).getMttrMinutes());
+
+		IspUptimeDTO b = result.get(1);
+		assertEquals(beta.getId(), b.getIspId());
+		assertEquals(2, b.getOutages());
+		assertEquals(7.5, b.getMttrMinutes());
+		assertEquals(0.25, b.getDowntimeHours());
+	}
+
+	private Area area(String name) {
+		Area area = new Area();
+		area.setAreaName(name);
+		return entityManager.persist(area);
+	}
+
+	private InternetServiceProvider isp(String name) {
+		InternetServiceProvider isp = new InternetServiceProvider();
+		isp.setName(name);
+		return entityManager.persist(isp);
+	}
+
+	private PostalOffice office(Area area) {
+		PostalOffice office = new PostalOffice();
+		office.setName("Office");
+		office.setArea(area);
+		return entityManager.persist(office);
+	}
+}
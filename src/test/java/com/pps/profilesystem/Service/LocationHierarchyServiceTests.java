@@ -0,0 +1,150 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+import com.pps.profilesystem.Entity.ZipCode;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+@Import({LocationHierarchyService.class, LocationLookupCache.class, ZipResolutionService.class})
+class LocationHierarchyServiceTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private LocationHierarchyService locationHierarchyService;
+
+	@Autowired
+	private LocationLookupCache locationLookupCache;
+
+	@Autowired
+	private ZipResolutionService zipResolutionService;
+
+	@Test
+	void loadsWholeTreeWithOneQueryPerLevel() {
+		for (int r = 0; r < 3; r++) {
+			Regions region = new Regions();
+			region.setName("Region " + r);
+			entityManager.persist(region);
+			for (int p = 0; p < 3; p++) {
+				Province province = new Province();
+				province.setName("Province " + r + "-" + p);
+				province.setRegion(region);
+				entityManager.persist(province);
+				for (int c = 0; c < 3; c++) {
+					CityMunicipality city = new CityMunicipality();
+					city.setName("City " + r + "-" + p + "-" + c);
+					city.setProvince(province);
+					entityManager.persist(city);
+					for (int b = 0; b < 3; b++) {
+						Barangay barangay = new Barangay();
+						barangay.setName("Barangay " + r + "-" + p + "-" + c + "-" + b);
+						barangay.setCityMunicipality(city);
+						entityManager.persist(barangay);
+					}
+				}
+			}
+		}
+		entityManager.flush();
+		entityManager.clear();
+
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		LocationHierarchy hierarchy = locationHierarchyService.refresh();
+
+		assertEquals(4, statistics.getPrepareStatementCount());
+		assertEquals(3, hierarchy.getRegions().size());
+		assertEquals(9, hierarchy.getProvinceCount());
+		assertEquals(27, hierarchy.getCityCount());
+		assertEquals(81, hierarchy.getBarangayCount());
+
+		// Parents are shared instances, not copies per child
+		CityMunicipality city = hierarchy.getCities().stream()
+				.filter(c -> c.getName().equals("City 1-2-0")).findFirst().orElseThrow();
+		List<Barangay> barangays = hierarchy.getBarangaysByCity(city.getId());
+		assertEquals(3, barangays.size());
+		for (Barangay barangay : barangays) {
+			assertSame(city, barangay.getCityMunicipality());
+		}
+		assertSame(city, hierarchy.getCity(city.getId()));
+		assertSame(city.getProvince(), hierarchy.getProvince(city.getProvince().getId()));
+		assertSame(city.getProvince().getRegion(), hierarchy.getRegion(city.getProvince().getRegion().getId()));
+	}
+
+	@Test
+	void zipIndexFollowsARefreshedHierarchy() {
+		Regions region = new Regions();
+		region.setName("CAR");
+		entityManager.persist(region);
+		Province province = new Province();
+		province.setName("Benguet");
+		province.setRegion(region);
+		entityManager.persist(province);
+		CityMunicipality city = new CityMunicipality();
+		city.setName("Baguio City");
+		city.setProvince(province);
+		entityManager.persist(city);
+		entityManager.persist(barangay("Session Road", city));
+		entityManager.persist(zipCode("2600", "Session Road"));
+		entityManager.persist(zipCode("2601", "Camp 7"));
+		entityManager.flush();
+
+		// Both were preloaded before this test's rows existed
+		locationLookupCache.refresh();
+		ZipIndex before = zipResolutionService.refresh();
+		assertEquals(1, before.getUnmatchedCount());
+
+		// Camp 7 is added to the reference geography; refreshing the dropdown cache is enough
+		entityManager.persist(barangay("Camp 7", city));
+		entityManager.flush();
+		locationLookupCache.refresh();
+
+		ZipIndex after = zipResolutionService.getIndex();
+		assertNotSame(before, after);
+		assertSame(locationHierarchyService.getHierarchy(), after.getHierarchy());
+		assertEquals(0, after.getUnmatchedCount());
+		assertEquals("Camp 7", zipResolutionService.resolve("2601").getBarangay().getName());
+		assertSame(after, zipResolutionService.getIndex());
+	}
+
+	private static Barangay barangay(String name, CityMunicipality city) {
+		Barangay barangay = new Barangay();
+		barangay.setName(name);
+		barangay.setCityMunicipality(city);
+		return barangay;
+	}
+
+	private static ZipCode zipCode(String zip, String barangay) {
+		ZipCode zipCode = new ZipCode();
+		zipCode.setZipcode(zip);
+		zipCode.setProvince("Benguet");
+		zipCode.setCity("Baguio City");
+		zipCode.setBarangay(barangay);
+		return zipCode;
+	}
+}
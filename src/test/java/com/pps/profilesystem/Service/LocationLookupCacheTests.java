@@ -0,0 +1,123 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.LocationOptionDTO;
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({LocationLookupCache.class, LocationHierarchyService.class})
+class LocationLookupCacheTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private LocationLookupCache locationLookupCache;
+
+	@Test
+	void countsHitsAndMissesPerLookup() {
+		Regions region = region("CAR");
+		Province benguet = province("Benguet", region);
+		Province ifugao = province("Ifugao", region);
+		CityMunicipality baguio = city("Baguio City", benguet);
+		barangay("Session Road", baguio);
+		barangay("Camp 7", baguio);
+		barangay("aurora Hill", baguio);
+		entityManager.flush();
+		// The cache was preloaded before this test's rows existed
+		locationLookupCache.refresh();
+		Map<String, Object> before = locationLookupCache.getStats();
+
+		assertEquals(List.of("Benguet", "Ifugao"), names(locationLookupCache.getProvincesByRegion(region.getId())));
+		assertEquals(List.of("aurora Hill", "Camp 7", "Session Road"), names(locationLookupCache.getBarangaysByCity(baguio.getId())));
+		// A known parent without children is a hit, an unknown id a miss
+		assertTrue(locationLookupCache.getCitiesByProvince(ifugao.getId()).isEmpty());
+		assertTrue(locationLookupCache.getCitiesByProvince(ifugao.getId() + 1_000).isEmpty());
+		assertTrue(locationLookupCache.getBarangaysByCity(-1).isEmpty());
+
+		Map<String, Object> after = locationLookupCache.getStats();
+		assertEquals(3L, (long) after.get("hits") - (long) before.get("hits"));
+		assertEquals(2L, (long) after.get("misses") - (long) before.get("misses"));
+		assertEquals(before.get("loads"), after.get("loads"));
+		assertEquals(true, after.get("loaded"));
+		assertEquals(2, after.get("provinces"));
+		assertEquals(1, after.get("cities"));
+		assertEquals(3, after.get("barangays"));
+	}
+
+	@Test
+	void refreshPicksUpEditedGeography() {
+		Regions region = region("Region VII");
+		Province cebu = province("Cebu", region);
+		CityMunicipality cebuCity = city("Cebu City", cebu);
+		entityManager.flush();
+		locationLookupCache.refresh();
+		List<LocationOptionDTO> cities = locationLookupCache.getCitiesByProvince(cebu.getId());
+		long loads = (long) locationLookupCache.getStats().get("loads");
+
+		CityMunicipality mandaue = city("Mandaue City", cebu);
+		barangay("Lahug", cebuCity);
+		entityManager.flush();
+
+		// Served from memory until someone refreshes
+		assertSame(cities, locationLookupCache.getCitiesByProvince(cebu.getId()));
+		assertTrue(locationLookupCache.getBarangaysByCity(cebuCity.getId()).isEmpty());
+
+		locationLookupCache.refresh();
+
+		List<LocationOptionDTO> refreshed = locationLookupCache.getCitiesByProvince(cebu.getId());
+		assertEquals(List.of("Cebu City", "Mandaue City"), names(refreshed));
+		assertEquals((int) mandaue.getId(), refreshed.get(1).getId());
+		assertEquals(List.of("Lahug"), names(locationLookupCache.getBarangaysByCity(cebuCity.getId())));
+		assertEquals(loads + 1, locationLookupCache.getStats().get("loads"));
+	}
+
+	private Regions region(String name) {
+		Regions region = new Regions();
+		region.setName(name);
+		return entityManager.persist(region);
+	}
+
+	private Province province(String name, Regions region) {
+		Province province = new Province();
+		province.setName(name);
+		province.setRegion(region);
+		return entityManager.persist(province);
+	}
+
+	private CityMunicipality city(String name, Province province) {
+		CityMunicipality city = new CityMunicipality();
+		city.setName(name);
+		city.setProvince(province);
+		return entityManager.persist(city);
+	}
+
+	private Barangay barangay(String name, CityMunicipality city) {
+		Barangay barangay = new Barangay();
+		barangay.setName(name);
+		barangay.setCityMunicipality(city);
+		return entityManager.persist(barangay);
+	}
+
+	private static List<String> names(List<LocationOptionDTO> options) {
+		return options.stream().map(LocationOptionDTO::getName).toList();
+	}
+}
@@ -0,0 +1,138 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.StatusBreakdownDTO;
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.PostalOffice;
+import com.pps.profilesystem.Repository.AreaRepository;
+import com.pps.profilesystem.Repository.PostalOfficeRepository;
+import com.pps.profilesystem.Repository.PostalOfficeTableRepository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// Read model updates run on their own thread, so test rows must be committed
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({LocationService.class, OfficeStatisticsService.class, OfficeReadModelService.class, PostalOfficeTableRepository.class})
+class LocationServiceTests {
+
+	@TestConfiguration
+	static class Json {
+		@Bean
+		JsonMapper jsonMapper() {
+			return JsonMapper.builder().build();
+		}
+	}
+
+	@Autowired
+	private LocationService locationService;
+
+	@Autowired
+	private OfficeStatisticsService statisticsService;
+
+	@Autowired
+	private OfficeReadModelService readModelService;
+
+	@Autowired
+	private ApplicationEventPublisher eventPublisher;
+
+	@Autowired
+	private PostalOfficeRepository postalOfficeRepository;
+
+	@Autowired
+	private AreaRepository areaRepository;
+
+	private Area area;
+
+	@BeforeEach
+	void createArea() {
+		area = new Area();
+		area.setAreaName("North Luzon");
+		areaRepository.save(area);
+	}
+
+	@AfterEach
+	void cleanUp() {
+		postalOfficeRepository.deleteAll();
+		areaRepository.deleteAll();
+	}
+
+	@Test
+	void mapPointsAreCompactAndSkipOfficesWithoutCoordinates() {
+		PostalOffice baguio = save("Baguio", area, 16.41, 120.59, true);
+		// Used to fail with a NullPointerException on the missing area
+		PostalOffice tabuk = save("Tabuk", null, 17.41, 121.44, false);
+		save("Unmapped", area, null, 120.59, true);
+		readModelService.rebuild();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		locationService.writeMapPoints(out);
+
+		assertEquals("[{\"id\":" + baguio.getId() + ",\"name\":\"Baguio\",\"lat\":16.41,\"lng\":120.59,\"status\":true,\"areaId\":" + area.getId() + "},"
+				+ "{\"id\":" + tabuk.getId() + ",\"name\":\"Tabuk\",\"lat\":17.41,\"lng\":121.44,\"status\":false,\"areaId\":null}]",
+				out.toString(StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void countsFollowChangedOffices() throws Exception {
+		save("Baguio", area, 16.41, 120.59, true);
+		save("La Trinidad", area, 16.46, 120.59, false);
+		PostalOffice tabuk = save("Tabuk", null, 17.41, 121.44, false);
+		readModelService.rebuild();
+		OfficeStatistics before = statisticsService.getStatistics();
+		assertEquals(List.of(3L, 1L, 2L, 1L), List.of(locationService.countAll(), locationService.countActive(),
+				locationService.countInactive(), locationService.countAreas()));
+		assertEquals(List.of(new StatusBreakdownDTO(area.getId(), "North Luzon", 1, 1)), before.getByArea());
+
+		Area cordillera = new Area();
+		cordillera.setAreaName("Cordillera");
+		areaRepository.save(cordillera);
+		tabuk.setArea(cordillera);
+		tabuk.setConnectionStatus(true);
+		postalOfficeRepository.save(tabuk);
+		PostalOffice bontoc = save("Bontoc", cordillera, 17.09, 120.98, true);
+		// Announced after commit by the insert and update endpoints and by every import chunk
+		eventPublisher.publishEvent(PostalOfficesChangedEvent.of(List.of(tabuk.getId(), bontoc.getId())));
+
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		while (statisticsService.getStatistics() == before && System.nanoTime() < deadline) {
+			Thread.sleep(10);
+		}
+		OfficeStatistics after = statisticsService.getStatistics();
+		assertEquals(List.of(4L, 3L, 1L, 2L), List.of(locationService.countAll(), locationService.countActive(),
+				locationService.countInactive(), locationService.countAreas()));
+		assertEquals(List.of(new StatusBreakdownDTO(cordillera.getId(), "Cordillera", 2, 0),
+				new StatusBreakdownDTO(area.getId(), "North Luzon", 1, 1)), after.getByArea());
+	}
+
+	private PostalOffice save(String name, Area officeArea, Double lat, Double lng, boolean active) {
+		PostalOffice office = new PostalOffice();
+		office.setName(name);
+		office.setArea(officeArea);
+		office.setLatitude(lat);
+		office.setLongitude(lng);
+		office.setConnectionStatus(active);
+		return postalOfficeRepository.save(office);
+	}
+}
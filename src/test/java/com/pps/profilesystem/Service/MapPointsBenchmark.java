@@ -0,0 +1,138 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeReadRowDTO;
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.PostalOffice;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.util.ReflectionTestUtils.setField;
+
+/**
+ * The /api/post-offices map feed at 50k offices, 90% of them with coordinates, written to a
+ * discarding stream: LocationService.writeMapPoints straight from the read model columns, against
+ * what the endpoint did before, a HashMap of six fields per loaded office serialized as a list.
+ * The entities for that baseline are built up front, so the database load it also paid is left out.
+ * Run with -prof gc for bytes allocated per response.
+ * Not run by the test phase; after ./mvnw test-compile run main(), or pass this class name to
+ * org.openjdk.jmh.Main with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapPointsBenchmark {
+
+	private static final int OFFICES = 50_000;
+	private static final int AREAS = 12;
+
+	private final JsonMapper jsonMapper = JsonMapper.builder().build();
+	// Both paths close the stream they write to, as they do a servlet response
+	private final OutputStream discard = new OutputStream() {
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+	};
+	private LocationService locationService;
+	private List<PostalOffice> offices;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(7);
+		List<Area> areas = new ArrayList<>();
+		for (int a = 1; a <= AREAS; a++) {
+			Area area = new Area();
+			area.setId(a);
+			area.setAreaName("Area " + a);
+			areas.add(area);
+		}
+		OfficeReadModel.Builder builder = new OfficeReadModel.Builder();
+		offices = new ArrayList<>(OFFICES);
+		for (int id = 1; id <= OFFICES; id++) {
+			boolean located = random.nextInt(10) > 0;
+			Double lat = located ? 5 + random.nextDouble() * 15 : null;
+			Double lng = located ? 117 + random.nextDouble() * 9 : null;
+			boolean active = random.nextBoolean();
+			Area area = areas.get(random.nextInt(AREAS));
+			String name = "Post Office " + id;
+			builder.add(new OfficeReadRowDTO(id, name, "Postmaster " + id, id + " Rizal Street", lat, lng, active,
+					String.valueOf(1000 + random.nextInt(8000)), area.getId(), area.getAreaName(),
+					null, null, null, null, null, null, null, null));
+
+			PostalOffice office = new PostalOffice();
+			office.setId(id);
+			office.setName(name);
+			office.setLatitude(lat);
+			office.setLongitude(lng);
+			office.setConnectionStatus(active);
+			office.setArea(area);
+			offices.add(office);
+		}
+		OfficeReadModel model = builder.build();
+
+		OfficeReadModelService readModelService = new OfficeReadModelService() {
+			@Override
+			public OfficeReadModel getModel() {
+				return model;
+			}
+		};
+		locationService = new LocationService();
+		setField(locationService, "readModelService", readModelService);
+		setField(locationService, "objectMapper", jsonMapper);
+	}
+
+	@Benchmark
+	public void readModelStream() {
+		locationService.writeMapPoints(discard);
+	}
+
+	@Benchmark
+	public void mapPerOffice() {
+		List<Map<String, Object>> points = offices.stream()
+				.filter(po -> po.getLatitude() != null && po.getLongitude() != null)
+				.map(po -> {
+					Map<String, Object> m = new HashMap<>();
+					m.put("id", po.getId());
+					m.put("name", po.getName());
+					m.put("lat", po.getLatitude());
+					m.put("lng", po.getLongitude());
+					m.put("status", po.getConnectionStatus());
+					m.put("areaId", po.getArea().getId());
+					return m;
+				})
+				.toList();
+		jsonMapper.writeValue(discard, points);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(MapPointsBenchmark.class.getSimpleName()).build()).run();
+	}
+}
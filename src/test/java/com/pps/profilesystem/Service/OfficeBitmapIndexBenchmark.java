@@ -0,0 +1,166 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeFilterRowDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Filter counts from the bitmap index against the equivalent COUNT(*) ... WHERE on a
+ * postal_offices table with an index on every filter column. The SQL side runs on in-memory H2,
+ * the database the tests already use, with result reuse off so every COUNT is executed; it has no
+ * network round trip, so a MySQL server would only be slower. "narrow" is the dashboard's five-way
+ * AND, "broad" an OR/NOT over most rows. Not run by the test phase; after ./mvnw test-compile run
+ * main(), or pass this class name to org.openjdk.jmh.Main with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+public class OfficeBitmapIndexBenchmark {
+
+	private static final String NARROW = "status:inactive AND region:7 AND area:3 AND isp:2 AND coords:no";
+	private static final String NARROW_SQL = "SELECT COUNT(*) FROM postal_offices WHERE connection_status = FALSE"
+			+ " AND region_id = 7 AND area_id = 3 AND isp_id = 2 AND (latitude IS NULL OR longitude IS NULL)";
+	private static final String BROAD = "region:1,2 OR NOT (status:active AND coords:yes)";
+	private static final String BROAD_SQL = "SELECT COUNT(*) FROM postal_offices WHERE region_id IN (1, 2)"
+			+ " OR NOT (connection_status = TRUE AND latitude IS NOT NULL AND longitude IS NOT NULL)";
+
+	@Param({"100000", "1000000"})
+	private int offices;
+
+	private OfficeBitmapIndex index;
+	private Connection connection;
+	private PreparedStatement narrowStatement;
+	private PreparedStatement broadStatement;
+
+	@Setup(Level.Trial)
+	public void setUp() throws SQLException {
+		connection = DriverManager.getConnection("jdbc:h2:mem:bitmap-benchmark-" + offices
+				+ ";OPTIMIZE_REUSE_RESULTS=FALSE");
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("CREATE TABLE postal_offices (id INT PRIMARY KEY, area_id INT, region_id INT, province_id INT,"
+					+ " city_mun_id INT, isp_id INT, connection_status BOOLEAN, latitude DOUBLE, longitude DOUBLE)");
+			for (String column : new String[]{"area_id", "region_id", "province_id", "city_mun_id", "isp_id", "connection_status"}) {
+				statement.execute("CREATE INDEX idx_" + column + " ON postal_offices (" + column + ")");
+			}
+		}
+
+		Random random = new Random(5);
+		List<OfficeFilterRowDTO> rows = new ArrayList<>(offices);
+		connection.setAutoCommit(false);
+		try (PreparedStatement insert = connection.prepareStatement("INSERT INTO postal_offices VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)")) {
+			for (int id = 1; id <= offices; id++) {
+				OfficeFilterRowDTO row = new OfficeFilterRowDTO(id, orNull(random, 10), orNull(random, 17), orNull(random, 80),
+						orNull(random, 1600), orNull(random, 5), random.nextInt(4) > 0, random.nextInt(5) > 0);
+				rows.add(row);
+				insert.setInt(1, id);
+				setNullable(insert, 2, row.getAreaId());
+				setNullable(insert, 3, row.getRegionId());
+				setNullable(insert, 4, row.getProvinceId());
+				setNullable(insert, 5, row.getCityId());
+				setNullable(insert, 6, row.getIspId());
+				insert.setBoolean(7, row.getConnectionStatus());
+				if (row.getHasCoordinates()) {
+					insert.setDouble(8, 4.5 + random.nextDouble() * 17);
+					insert.setDouble(9, 116 + random.nextDouble() * 11);
+				} else {
+					insert.setNull(8, Types.DOUBLE);
+					insert.setNull(9, Types.DOUBLE);
+				}
+				insert.addBatch();
+				if (id % 10_000 == 0) {
+					insert.executeBatch();
+				}
+			}
+			insert.executeBatch();
+		}
+		connection.commit();
+		try (Statement statement = connection.createStatement()) {
+			statement.execute("ANALYZE");
+		}
+
+		index = new OfficeBitmapIndex(rows);
+		narrowStatement = connection.prepareStatement(NARROW_SQL);
+		broadStatement = connection.prepareStatement(BROAD_SQL);
+		if (narrowBitmap() != count(narrowStatement) || broadBitmap() != count(broadStatement)) {
+			throw new IllegalStateException("Bitmap and SQL counts differ");
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		connection.close();
+	}
+
+	@Benchmark
+	public int narrowBitmap() {
+		return OfficeFilter.parse(NARROW).evaluate(index).cardinality();
+	}
+
+	@Benchmark
+	public int narrowSql() throws SQLException {
+		return count(narrowStatement);
+	}
+
+	@Benchmark
+	public int broadBitmap() {
+		return OfficeFilter.parse(BROAD).evaluate(index).cardinality();
+	}
+
+	@Benchmark
+	public int broadSql() throws SQLException {
+		return count(broadStatement);
+	}
+
+	private static int count(PreparedStatement statement) throws SQLException {
+		try (ResultSet resultSet = statement.executeQuery()) {
+			resultSet.next();
+			return resultSet.getInt(1);
+		}
+	}
+
+	private static void setNullable(PreparedStatement statement, int index, Integer value) throws SQLException {
+		if (value != null) {
+			statement.setInt(index, value);
+		} else {
+			statement.setNull(index, Types.INTEGER);
+		}
+	}
+
+	private static Integer orNull(Random random, int values) {
+		return random.nextInt(20) == 0 ? null : random.nextInt(values) + 1;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(OfficeBitmapIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,177 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeFilterRowDTO;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiConsumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfficeBitmapIndexTests {
+
+	@Test
+	void bitmapOperationsMatchBitSet() {
+		Random random = new Random(11);
+		// Sparse, dense (bitmap chunks) and mixed sets spread over several 65536-id chunks
+		double[] densities = {0.001, 0.02, 0.3, 0.9};
+		for (double da : densities) {
+			for (double db : densities) {
+				BitSet a = randomSet(random, da);
+				BitSet b = randomSet(random, db);
+				OfficeBitmap x = OfficeBitmap.of(a.stream().toArray());
+				OfficeBitmap y = OfficeBitmap.of(b.stream().toArray());
+
+				assertEquals(a.cardinality(), x.cardinality());
+				assertBitmap(op(a, b, BitSet::and), x.and(y));
+				assertBitmap(op(a, b, BitSet::or), x.or(y));
+				assertBitmap(op(a, b, BitSet::andNot), x.andNot(y));
+				assertEquals(op(a, b, BitSet::and).cardinality(), x.andCardinality(y));
+				for (int i = 0; i < 1000; i++) {
+					int id = random.nextInt(200_000);
+					assertEquals(a.get(id), x.contains(id));
+				}
+			}
+		}
+		assertEquals(OfficeBitmap.EMPTY, OfficeBitmap.of(5, 5, 3).andNot(OfficeBitmap.of(3, 5)));
+		assertArrayEquals(new int[]{3, 5}, OfficeBitmap.of(70_000, 5, 3).toArray(2));
+		assertFalse(OfficeBitmap.of(1).contains(-1));
+		assertThrows(IllegalArgumentException.class, () -> OfficeBitmap.of(-4, 2));
+	}
+
+	@Test
+	void filtersMatchBruteForce() {
+		// Every expression must select exactly the rows the equivalent WHERE clause would
+		Random random = new Random(5);
+		List<OfficeFilterRowDTO> rows = new ArrayList<>();
+		for (int id = 1; id <= 20_000; id++) {
+			rows.add(randomRow(random, id));
+		}
+		OfficeBitmapIndex index = new OfficeBitmapIndex(rows);
+
+		assertMatches(index, rows, "status:inactive AND region:7 AND area:3 AND isp:2 AND coords:no",
+				r -> !r.getConnectionStatus() && eq(r.getRegionId(), 7) && eq(r.getAreaId(), 3) && eq(r.getIspId(), 2) && !r.getHasCoordinates());
+		assertMatches(index, rows, "region:1,2 OR NOT (status:active AND coords:yes)",
+				r -> eq(r.getRegionId(), 1) || eq(r.getRegionId(), 2) || !(r.getConnectionStatus() && r.getHasCoordinates()));
+		assertMatches(index, rows, "isp:none and not area:none and city:4",
+				r -> r.getIspId() == null && r.getAreaId() != null && eq(r.getCityId(), 4));
+		assertMatches(index, rows, "NOT NOT province:9", r -> eq(r.getProvinceId(), 9));
+		assertMatches(index, rows, "area:999", r -> false);
+	}
+
+	@Test
+	void upsertsMatchAFreshIndex() {
+		Random random = new Random(8);
+		Map<Integer, OfficeFilterRowDTO> rows = new HashMap<>();
+		for (int id = 1; id <= 5_000; id++) {
+			rows.put(id, randomRow(random, id));
+		}
+		OfficeBitmapIndex index = new OfficeBitmapIndex(rows.values());
+
+		// Status flips, moves, new offices and a deleted one
+		List<Integer> requested = new ArrayList<>();
+		List<OfficeFilterRowDTO> changed = new ArrayList<>();
+		for (int id = 1; id <= 5_200; id += 7) {
+			requested.add(id);
+			OfficeFilterRowDTO row = randomRow(random, id);
+			rows.put(id, row);
+			changed.add(row);
+		}
+		requested.add(4);
+		rows.remove(4);
+		OfficeBitmapIndex updated = index.withUpserts(requested, changed);
+		assertSameIndex(new OfficeBitmapIndex(rows.values()), updated);
+		assertTrue(index.all().contains(4));
+		assertFalse(updated.all().contains(4));
+
+		// A second round of pure status flips on the result: only the status values move
+		changed.clear();
+		for (int id = 3; id <= 5_200; id += 13) {
+			OfficeFilterRowDTO row = rows.get(id);
+			if (row != null) {
+				row = new OfficeFilterRowDTO(id, row.getAreaId(), row.getRegionId(), row.getProvinceId(), row.getCityId(),
+						row.getIspId(), !row.getConnectionStatus(), row.getHasCoordinates());
+				rows.put(id, row);
+				changed.add(row);
+			}
+		}
+		OfficeBitmapIndex flipped = updated.withUpserts(changed.stream().map(OfficeFilterRowDTO::getId).toList(), changed);
+		assertSameIndex(new OfficeBitmapIndex(rows.values()), flipped);
+		assertEquals(updated.get(OfficeBitmapIndex.Dimension.REGION, 3), flipped.get(OfficeBitmapIndex.Dimension.REGION, 3));
+	}
+
+	private static void assertSameIndex(OfficeBitmapIndex fresh, OfficeBitmapIndex updated) {
+		assertEquals(fresh.all(), updated.all());
+		for (OfficeBitmapIndex.Dimension dimension : OfficeBitmapIndex.Dimension.values()) {
+			assertEquals(fresh.getValues(dimension), updated.getValues(dimension), dimension.name());
+			for (Integer value : fresh.getValues(dimension)) {
+				assertEquals(fresh.get(dimension, value), updated.get(dimension, value), dimension + ":" + value);
+			}
+		}
+	}
+
+	@Test
+	void rejectsInvalidExpressions() {
+		for (String expression : new String[]{"", "area", "area:x", "colour:red", "status:maybe", "(area:1",
+				"area:1 AND", "area:1 area:2", "area:1 OR OR area:2"}) {
+			assertThrows(IllegalArgumentException.class, () -> OfficeFilter.parse(expression), expression);
+		}
+	}
+
+	private static void assertMatches(OfficeBitmapIndex index, List<OfficeFilterRowDTO> rows, String expression,
+									  Predicate<OfficeFilterRowDTO> where) {
+		int[] expected = rows.stream().filter(where).mapToInt(OfficeFilterRowDTO::getId).sorted().toArray();
+		assertArrayEquals(expected, OfficeFilter.parse(expression).evaluate(index).toArray(), expression);
+	}
+
+	private static OfficeFilterRowDTO randomRow(Random random, int id) {
+		return new OfficeFilterRowDTO(id, orNull(random, 10), orNull(random, 17), orNull(random, 80),
+				orNull(random, 400), orNull(random, 5), random.nextInt(4) > 0, random.nextInt(5) > 0);
+	}
+
+	private static Integer orNull(Random random, int values) {
+		return random.nextInt(20) == 0 ? null : random.nextInt(values) + 1;
+	}
+
+	private static boolean eq(Integer value, int expected) {
+		return value != null && value == expected;
+	}
+
+	private static BitSet randomSet(Random random, double density) {
+		BitSet set = new BitSet();
+		// A dense first chunk, a sparse third one, nothing in the second
+		for (int id = 0; id < 65_536; id++) {
+			if (random.nextDouble() < density) {
+				set.set(id);
+			}
+		}
+		for (int id = 131_072; id < 200_000; id++) {
+			if (random.nextDouble() < density / 10) {
+				set.set(id);
+			}
+		}
+		return set;
+	}
+
+	private static BitSet op(BitSet a, BitSet b, BiConsumer<BitSet, BitSet> operation) {
+		BitSet result = (BitSet) a.clone();
+		operation.accept(result, b);
+		return result;
+	}
+
+	private static void assertBitmap(BitSet expected, OfficeBitmap actual) {
+		assertArrayEquals(expected.stream().toArray(), actual.toArray());
+		assertEquals(expected.cardinality(), actual.cardinality());
+	}
+}
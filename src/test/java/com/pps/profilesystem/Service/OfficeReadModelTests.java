@@ -0,0 +1,228 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeReadRowDTO;
+import com.pps.profilesystem.DTO.PostalOfficeTableQuery;
+import com.pps.profilesystem.DTO.PostalOfficeTableRowDTO;
+import com.pps.profilesystem.DTO.StatusBreakdownDTO;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfficeReadModelTests {
+
+	private static final String[] NAMES = {"Baguio", "angeles", "Cebu", null, "BAGUIO", "Davao", "Angeles", "Bacolod", "cebu City"};
+
+	@Test
+	void heapFootprintIsUnder100BytesPerOffice() {
+		Random random = new Random(3);
+		OfficeReadModel.Builder builder = new OfficeReadModel.Builder();
+		for (int id = 1; id <= 100_000; id++) {
+			builder.add(randomRow(random, id));
+		}
+		OfficeReadModel model = builder.build();
+
+		assertEquals(100_000, model.size());
+		long bytesPerOffice = model.sizeInBytes() / model.size();
+		assertTrue(bytesPerOffice < 100, bytesPerOffice + " bytes per office");
+	}
+
+	@Test
+	void pagesAndCountsMatchBruteForce() {
+		Random random = new Random(9);
+		List<OfficeReadRowDTO> rows = new ArrayList<>();
+		for (int id = 1; id <= 2_000; id++) {
+			rows.add(randomRow(random, id));
+		}
+		OfficeReadModel model = build(rows);
+
+		Comparator<OfficeReadRowDTO> byName = Comparator.comparing(OfficeReadRowDTO::getName,
+				Comparator.nullsFirst(String.CASE_INSENSITIVE_ORDER));
+		Comparator<OfficeReadRowDTO> byId = Comparator.comparing(OfficeReadRowDTO::getId);
+		for (boolean descending : new boolean[]{false, true}) {
+			assertPages(model, rows, false, descending, row -> true, byId, query -> { });
+			assertPages(model, rows, true, descending, row -> true, byName.thenComparing(byId), query -> { });
+			assertPages(model, rows, true, descending,
+					row -> Integer.valueOf(3).equals(row.getAreaId()) && !row.getStatus() && Integer.valueOf(2).equals(row.getRegionId()),
+					byName.thenComparing(byId),
+					query -> {
+						query.setAreaId(3);
+						query.setStatus(false);
+						query.setRegionId(2);
+					});
+			// Name prefixes match case-insensitively, like LIKE under the MySQL collation
+			assertPages(model, rows, false, descending,
+					row -> row.getName() != null && row.getName().toLowerCase().startsWith("ceb"),
+					byId, query -> query.setNamePrefix("CEB"));
+			assertPages(model, rows, false, descending, row -> false, byId, query -> query.setProvinceId(999));
+		}
+
+		// A cursor whose row has since been deleted still continues after it
+		PostalOfficeTableQuery query = new PostalOfficeTableQuery();
+		query.setSortByName(true);
+		query.setAfterName("Baguio");
+		query.setAfterId(Integer.MAX_VALUE);
+		query.setLimit(1);
+		assertEquals("Cebu", model.findPage(query).get(0).getName());
+	}
+
+	@Test
+	void upsertsMatchAFreshModel() {
+		Random random = new Random(4);
+		Map<Integer, OfficeReadRowDTO> rows = new HashMap<>();
+		for (int id = 1; id <= 3_000; id++) {
+			rows.put(id, randomRow(random, id));
+		}
+		OfficeReadModel model = build(new ArrayList<>(rows.values()));
+
+		// Status flips, moves, new offices and a deleted one
+		List<Integer> requested = new ArrayList<>();
+		List<OfficeReadRowDTO> changed = new ArrayList<>();
+		for (int id = 5; id <= 3_100; id += 11) {
+			requested.add(id);
+			OfficeReadRowDTO row = randomRow(random, id);
+			rows.put(id, row);
+			changed.add(row);
+		}
+		requested.add(7);
+		rows.remove(7);
+		OfficeReadModel updated = model.withUpserts(requested, changed);
+		OfficeReadModel fresh = build(new ArrayList<>(rows.values()));
+
+		PostalOfficeTableQuery all = new PostalOfficeTableQuery();
+		all.setLimit(Integer.MAX_VALUE);
+		all.setSortByName(true);
+		assertEquals(fresh.findPage(all), updated.findPage(all));
+		all.setSortByName(false);
+		all.setProvinceId(5);
+		assertEquals(fresh.findPage(all), updated.findPage(all));
+		for (int slot = 0; slot < updated.size(); slot++) {
+			assertEquals(fresh.getLocationId(OfficeReadModel.CITY, slot), updated.getLocationId(OfficeReadModel.CITY, slot));
+			assertEquals(fresh.getLocationId(OfficeReadModel.ISP, slot), updated.getLocationId(OfficeReadModel.ISP, slot));
+		}
+		assertEquals(fresh.getStatistics().getByArea(), updated.getStatistics().getByArea());
+		assertEquals(fresh.getStatistics().getByRegion(), updated.getStatistics().getByRegion());
+		assertEquals(rows.size(), updated.getStatistics().getTotal());
+		for (int slot = 0; slot < updated.size(); slot++) {
+			OfficeReadRowDTO row = rows.get(updated.getId(slot));
+			assertEquals(row.getLat() != null && row.getLng() != null, updated.hasCoordinates(slot));
+			assertEquals(row.getAreaId(), updated.getAreaId(slot));
+		}
+	}
+
+	@Test
+	void upsertsAddAndRenameLocations() {
+		OfficeReadRowDTO baguio = new OfficeReadRowDTO(1, "Baguio", null, null, null, null, true, "2600",
+				1, "North Luzon", null, null, null, null, null, null, null, null);
+		OfficeReadRowDTO cebu = new OfficeReadRowDTO(2, "Cebu", null, null, null, null, true, "6000",
+				3, "Visayas", null, null, null, null, null, null, null, null);
+		OfficeReadModel model = build(List.of(baguio, cebu));
+
+		// Area 1 renamed, area 2 seen for the first time
+		OfficeReadRowDTO davao = new OfficeReadRowDTO(3, "Davao", null, null, null, null, false, "8000",
+				2, "Mindanao", null, null, null, null, null, null, null, null);
+		baguio.setAreaName("Northern Luzon");
+		OfficeReadModel updated = model.withUpserts(List.of(1, 3), List.of(baguio, davao));
+
+		PostalOfficeTableQuery query = new PostalOfficeTableQuery();
+		query.setLimit(10);
+		assertEquals(List.of("Northern Luzon", "Visayas", "Mindanao"),
+				updated.findPage(query).stream().map(PostalOfficeTableRowDTO::getAreaName).toList());
+		query.setAreaId(2);
+		assertEquals(List.of(3), updated.findPage(query).stream().map(PostalOfficeTableRowDTO::getId).toList());
+		query.setAreaId(3);
+		assertEquals(List.of(2), updated.findPage(query).stream().map(PostalOfficeTableRowDTO::getId).toList());
+		assertEquals("Visayas", model.findPage(query).get(0).getAreaName());
+	}
+
+	@Test
+	void statisticsMatchBruteForce() {
+		Random random = new Random(6);
+		List<OfficeReadRowDTO> rows = new ArrayList<>();
+		for (int id = 1; id <= 1_000; id++) {
+			rows.add(randomRow(random, id));
+		}
+		OfficeStatistics statistics = build(rows).getStatistics();
+
+		assertEquals(rows.size(), statistics.getTotal());
+		assertEquals(rows.stream().filter(OfficeReadRowDTO::getStatus).count(), statistics.getActive());
+		assertEquals(rows.stream().map(OfficeReadRowDTO::getAreaId).filter(id -> id != null).distinct().count(),
+				statistics.getCoverageAreas());
+		for (StatusBreakdownDTO area : statistics.getByArea()) {
+			assertEquals("Area " + area.getId(), area.getName());
+			assertEquals(rows.stream().filter(r -> area.getId().equals(r.getAreaId()) && r.getStatus()).count(), area.getActive());
+			assertEquals(rows.stream().filter(r -> area.getId().equals(r.getAreaId()) && !r.getStatus()).count(), area.getInactive());
+		}
+		assertFalse(statistics.getByRegion().isEmpty());
+
+		OfficeReadModel empty = build(List.of());
+		PostalOfficeTableQuery query = new PostalOfficeTableQuery();
+		query.setLimit(10);
+		assertTrue(empty.findPage(query).isEmpty());
+		assertEquals(0, empty.getStatistics().getTotal());
+	}
+
+	private static void assertPages(OfficeReadModel model, List<OfficeReadRowDTO> rows, boolean sortByName, boolean descending,
+									Predicate<OfficeReadRowDTO> matches, Comparator<OfficeReadRowDTO> order,
+									Consumer<PostalOfficeTableQuery> filters) {
+		List<Integer> expected = rows.stream().filter(matches).sorted(descending ? order.reversed() : order)
+				.map(OfficeReadRowDTO::getId).toList();
+
+		List<Integer> actual = new ArrayList<>();
+		PostalOfficeTableQuery query = new PostalOfficeTableQuery();
+		query.setSortByName(sortByName);
+		query.setDescending(descending);
+		query.setLimit(37);
+		filters.accept(query);
+		assertEquals(expected.size(), model.count(query));
+		List<PostalOfficeTableRowDTO> page;
+		do {
+			page = model.findPage(query);
+			page.stream().map(PostalOfficeTableRowDTO::getId).forEach(actual::add);
+			if (!page.isEmpty()) {
+				query.setAfterId(page.get(page.size() - 1).getId());
+				query.setAfterName(page.get(page.size() - 1).getName());
+			}
+		} while (page.size() == query.getLimit());
+
+		assertEquals(expected, actual);
+	}
+
+	private static OfficeReadModel build(List<OfficeReadRowDTO> rows) {
+		OfficeReadModel.Builder builder = new OfficeReadModel.Builder();
+		rows.forEach(builder::add);
+		return builder.build();
+	}
+
+	private static OfficeReadRowDTO randomRow(Random random, int id) {
+		Integer area = orNull(random, 12);
+		Integer region = orNull(random, 17);
+		Integer province = orNull(random, 80);
+		Integer city = orNull(random, 1600);
+		boolean located = random.nextInt(10) > 0;
+		Integer isp = orNull(random, 6);
+		return new OfficeReadRowDTO(id, NAMES[random.nextInt(NAMES.length)], "Postmaster " + id, id + " Rizal Street",
+				located ? 5 + random.nextDouble() * 15 : null, located ? 117 + random.nextDouble() * 9 : null,
+				random.nextBoolean(), String.valueOf(1000 + random.nextInt(8000)),
+				area, area != null ? "Area " + area : null,
+				region, region != null ? "Region " + region : null,
+				province, province != null ? "Province " + province : null,
+				city, city != null ? "City " + city : null,
+				isp, isp != null ? "ISP " + isp : null);
+	}
+
+	private static Integer orNull(Random random, int values) {
+		return random.nextInt(20) == 0 ? null : random.nextInt(values) + 1;
+	}
+}
@@ -0,0 +1,79 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeSearchDocumentDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Typeahead queries against the search index at 100k offices, one page of 10 as the search box
+ * asks for. Every office is named "... Post Office" and the vocabulary is small, so the one- and
+ * two-letter prefixes match tens of thousands of offices, the worst case for ranking.
+ * Not run by the test phase; after ./mvnw test-compile run main(), or pass this class name to
+ * org.openjdk.jmh.Main with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OfficeSearchIndexBenchmark {
+
+	private static final int OFFICES = 100_000;
+
+	private static final String[] PLACES = {"san", "santa", "santo", "jose", "juan", "cruz", "rosa", "pedro", "maria", "luna",
+			"del", "pilar", "rizal", "bonifacio", "mabini", "quezon", "roxas", "lapu", "magsaysay", "osmena",
+			"bagong", "silang", "malolos", "baliuag", "hagonoy", "pulilan", "tarlac", "dagupan", "vigan", "laoag"};
+	private static final String[] PEOPLE = {"reyes", "santos", "cruz", "bautista", "ocampo", "garcia", "mendoza", "torres",
+			"tomas", "andres", "castillo", "flores", "villanueva", "ramos", "aquino", "navarro"};
+
+	@Param({"s", "sa", "san", "san jose", "santa cruz rizal", "mabini st 30"})
+	private String query;
+
+	private OfficeSearchIndex index;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(17);
+		List<OfficeSearchDocumentDTO> docs = new ArrayList<>(OFFICES);
+		for (int id = 1; id <= OFFICES; id++) {
+			String name = pick(random, PLACES) + " " + pick(random, PLACES) + " Post Office";
+			String postmaster = pick(random, PEOPLE) + " " + pick(random, PEOPLE);
+			String address = (1 + random.nextInt(300)) + " " + pick(random, PLACES) + " St, " + pick(random, PLACES);
+			docs.add(new OfficeSearchDocumentDTO(id, name, postmaster, address,
+					String.valueOf(1000 + random.nextInt(9000)), random.nextBoolean()));
+		}
+		index = new OfficeSearchIndex(docs);
+	}
+
+	@Benchmark
+	public OfficeSearchIndex.Hits search() {
+		return index.search(query, 0, 10);
+	}
+
+	private static String pick(Random random, String[] words) {
+		return words[random.nextInt(words.length)];
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(OfficeSearchIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+}
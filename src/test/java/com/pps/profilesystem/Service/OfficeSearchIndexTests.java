@@ -0,0 +1,158 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.OfficeSearchDocumentDTO;
+import com.pps.profilesystem.DTO.OfficeSearchResultDTO;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OfficeSearchIndexTests {
+
+	@Test
+	void ranksNameMatchesAboveOtherFields() {
+		OfficeSearchIndex index = new OfficeSearchIndex(List.of(
+				doc(1, "Malolos Post Office", "Juan Cruz", "Poblacion, Malolos", "3000"),
+				doc(2, "Santa Cruz Post Office", "Maria Reyes", "Rizal Ave, Manila", "1003"),
+				doc(3, "Cruzada Post Office", null, null, null),
+				doc(4, "Pasig Post Office", "Ana Santos", "Caruncho Ave, Sta. Cruz Street", "1600")));
+
+		// Whole-word name match > name prefix > postmaster > address
+		assertEquals(List.of(2, 3, 1, 4), ids(index.search("cruz", 0, 10)));
+		// Every word must match, each as a prefix, in any field
+		assertEquals(List.of(2), ids(index.search("santa cru", 0, 10)));
+		assertEquals(List.of(4), ids(index.search("sta cru", 0, 10)));
+		assertEquals(List.of(4), ids(index.search("ana pasig", 0, 10)));
+		assertEquals(List.of(), ids(index.search("cruz zzz", 0, 10)));
+		// ZIP and accent-insensitive matches
+		assertEquals(List.of(1), ids(index.search("3000", 0, 10)));
+		assertEquals(List.of(1), ids(index.search("MALÓLOS", 0, 10)));
+		assertEquals(0, index.search("  ", 0, 10).getTotal());
+	}
+
+	@Test
+	void pagesThroughRankedResults() {
+		List<OfficeSearchDocumentDTO> docs = new ArrayList<>();
+		for (int i = 0; i < 25; i++) {
+			docs.add(doc(i, "Office " + (char) ('a' + i), null, i % 2 == 0 ? "Office Road" : null, null));
+		}
+		OfficeSearchIndex index = new OfficeSearchIndex(docs);
+
+		List<Integer> all = ids(index.search("office", 0, 100));
+		List<Integer> paged = new ArrayList<>();
+		for (int offset = 0; offset < 30; offset += 10) {
+			OfficeSearchIndex.Hits page = index.search("office", offset, 10);
+			assertEquals(25, page.getTotal());
+			paged.addAll(ids(page));
+		}
+		assertEquals(all, paged);
+		assertTrue(index.search("office", 100, 10).getResults().isEmpty());
+	}
+
+	@Test
+	void upsertsReplaceDocumentsById() {
+		OfficeSearchIndex index = new OfficeSearchIndex(List.of(
+				doc(1, "Old Name", null, null, null),
+				doc(2, "Other", null, null, null)));
+
+		OfficeSearchIndex updated = index.withUpserts(List.of(
+				doc(1, "New Name", null, null, null),
+				doc(3, "Newer", null, null, null)), List.of(2));
+
+		assertEquals(2, updated.size());
+		assertEquals(List.of(), ids(updated.search("other", 0, 10)));
+		assertEquals(List.of(), ids(updated.search("old", 0, 10)));
+		assertEquals(List.of(1, 3), ids(updated.search("new", 0, 10)));
+		assertEquals(List.of(1), ids(index.search("old", 0, 10)));
+	}
+
+	@Test
+	void incrementalUpdatesMatchAFreshIndex() {
+		String[] words = {"san", "santa", "jose", "juan", "cruz", "rosa", "pedro", "luna", "rizal", "mabini"};
+		Random random = new Random(11);
+		Map<Integer, OfficeSearchDocumentDTO> docs = new HashMap<>();
+		for (int id = 1; id <= 2_000; id++) {
+			docs.put(id, randomDoc(random, words, id));
+		}
+		OfficeSearchIndex index = new OfficeSearchIndex(docs.values());
+
+		// Enough rounds of edits, inserts and deletes to pass the rebuild threshold at least once
+		for (int round = 0; round < 30; round++) {
+			List<OfficeSearchDocumentDTO> upserts = new ArrayList<>();
+			List<Integer> deleted = new ArrayList<>();
+			for (int i = 0; i < 40; i++) {
+				int id = 1 + random.nextInt(2_200);
+				upserts.removeIf(d -> d.getId() == id);
+				if (random.nextInt(5) == 0) {
+					docs.remove(id);
+					deleted.add(id);
+				} else {
+					OfficeSearchDocumentDTO doc = randomDoc(random, words, id);
+					docs.put(id, doc);
+					upserts.add(doc);
+				}
+			}
+			deleted.removeIf(docs::containsKey);
+			index = index.withUpserts(upserts, deleted);
+		}
+		OfficeSearchIndex fresh = new OfficeSearchIndex(docs.values());
+
+		assertEquals(fresh.size(), index.size());
+		for (String query : List.of("san", "santa cr", "jose rizal", "lun", "10", "pedro st")) {
+			OfficeSearchIndex.Hits expected = fresh.search(query, 0, 50);
+			OfficeSearchIndex.Hits actual = index.search(query, 0, 50);
+			assertEquals(expected.getTotal(), actual.getTotal(), query);
+			assertEquals(expected.getResults(), actual.getResults(), query);
+		}
+	}
+
+	@Test
+	void matchesBruteForceOnManyOffices() {
+		// Every query must return what a scan of all 100k offices returns
+		String[] words = {"san", "santa", "santo", "jose", "juan", "cruz", "rosa", "pedro", "maria", "luna",
+				"del", "pilar", "rizal", "bonifacio", "mabini", "quezon", "roxas", "lapu", "magsaysay", "osmena"};
+		Random random = new Random(42);
+		List<OfficeSearchDocumentDTO> docs = new ArrayList<>();
+		for (int i = 0; i < 100_000; i++) {
+			String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+			String address = words[random.nextInt(words.length)] + " St";
+			docs.add(doc(i, name, null, address, String.valueOf(1000 + random.nextInt(9000))));
+		}
+		OfficeSearchIndex index = new OfficeSearchIndex(docs);
+
+		for (String query : List.of("san", "santa cr", "jose rizal", "pil", "10")) {
+			String[] tokens = query.split(" ");
+			long expected = docs.stream().filter(doc -> {
+				List<String> docWords = List.of((doc.getName() + " " + doc.getAddress() + " " + doc.getZipCode()).toLowerCase().split(" "));
+				for (String token : tokens) {
+					if (docWords.stream().noneMatch(word -> word.startsWith(token))) {
+						return false;
+					}
+				}
+				return true;
+			}).count();
+			assertEquals(expected, index.search(query, 0, 10).getTotal(), query);
+		}
+	}
+
+	private static List<Integer> ids(OfficeSearchIndex.Hits hits) {
+		return hits.getResults().stream().map(OfficeSearchResultDTO::getId).toList();
+	}
+
+	private static OfficeSearchDocumentDTO randomDoc(Random random, String[] words, int id) {
+		return doc(id, words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)],
+				words[random.nextInt(words.length)], words[random.nextInt(words.length)] + " St",
+				String.valueOf(1000 + random.nextInt(200)));
+	}
+
+	private static OfficeSearchDocumentDTO doc(int id, String name, String postmaster, String address, String zip) {
+		return new OfficeSearchDocumentDTO(id, name, postmaster, address, zip, true);
+	}
+}
@@ -0,0 +1,101 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficeMapPointDTO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * k-nearest-office queries: the grid index against a scan of every point, for 10k to 1M offices
+ * spread over the Philippines. Not run by the test phase; after ./mvnw test-compile run main(),
+ * or pass this class name to org.openjdk.jmh.Main with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class OfficeSpatialIndexBenchmark {
+
+	private static final int K = 10;
+	private static final int QUERIES = 1024;
+
+	@Param({"10000", "100000", "1000000"})
+	private int offices;
+
+	private OfficeSpatialIndex index;
+	private double[] lat;
+	private double[] lng;
+	private double[] queryLat;
+	private double[] queryLng;
+	private int query;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(42);
+		OfficeSpatialIndex.Builder builder = new OfficeSpatialIndex.Builder();
+		lat = new double[offices];
+		lng = new double[offices];
+		for (int i = 0; i < offices; i++) {
+			lat[i] = 4.5 + random.nextDouble() * 17;
+			lng[i] = 116 + random.nextDouble() * 11;
+			builder.add(new PostalOfficeMapPointDTO(i + 1, "Office " + (i + 1), lat[i], lng[i], random.nextBoolean(), 1));
+		}
+		index = builder.build();
+
+		queryLat = new double[QUERIES];
+		queryLng = new double[QUERIES];
+		for (int q = 0; q < QUERIES; q++) {
+			queryLat[q] = 4.5 + random.nextDouble() * 17;
+			queryLng[q] = 116 + random.nextDouble() * 11;
+		}
+	}
+
+	@Benchmark
+	public List<OfficeSpatialIndex.Neighbour> gridIndex() {
+		int q = query++ & (QUERIES - 1);
+		return index.nearest(queryLat[q], queryLng[q], K);
+	}
+
+	@Benchmark
+	public double[] bruteForce() {
+		int q = query++ & (QUERIES - 1);
+		// Best K distances so far, ascending
+		double[] best = new double[K];
+		Arrays.fill(best, Double.MAX_VALUE);
+		for (int i = 0; i < lat.length; i++) {
+			double d = OfficeSpatialIndex.distanceKm(queryLat[q], queryLng[q], lat[i], lng[i]);
+			if (d < best[K - 1]) {
+				int j = K - 1;
+				while (j > 0 && best[j - 1] > d) {
+					best[j] = best[j - 1];
+					j--;
+				}
+				best[j] = d;
+			}
+		}
+		return best;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(OfficeSpatialIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+}
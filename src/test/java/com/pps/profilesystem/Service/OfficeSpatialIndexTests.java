@@ -0,0 +1,114 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.MapClusterDTO;
+import com.pps.profilesystem.DTO.OfficeReadRowDTO;
+import com.pps.profilesystem.DTO.PostalOfficeMapPointDTO;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OfficeSpatialIndexTests {
+
+	private static final int OFFICES = 5000;
+
+	@Test
+	void nearestAndWithinMatchBruteForce() {
+		Random random = new Random(42);
+		List<PostalOfficeMapPointDTO> points = randomPoints(random, OFFICES);
+		OfficeSpatialIndex index = build(points);
+
+		for (int q = 0; q < 200; q++) {
+			double lat = 4.5 + random.nextDouble() * 17;
+			double lng = 116 + random.nextDouble() * 11;
+
+			List<Integer> expectedNearest = bruteForce(points, lat, lng, Double.MAX_VALUE).stream().limit(7).toList();
+			List<Integer> actualNearest = index.nearest(lat, lng, 7).stream().map(n -> index.toNearby(n).getId()).toList();
+			assertEquals(expectedNearest, actualNearest);
+
+			double radius = 5 + random.nextDouble() * 60;
+			List<Integer> expectedWithin = bruteForce(points, lat, lng, radius);
+			List<Integer> actualWithin = index.within(lat, lng, radius).stream().map(n -> index.toNearby(n).getId()).toList();
+			assertEquals(expectedWithin, actualWithin);
+		}
+	}
+
+	@Test
+	void upsertsFollowTheReadModel() {
+		OfficeReadModel model = new OfficeReadModel.Builder()
+			.add(office(1, "Manila CPO", 14.5958, 120.9772, true))
+			.add(office(2, "Cebu CPO", 10.2929, 123.9020, true))
+			.add(office(4, "Baguio CPO", 16.4120, 120.5960, true))
+			.build();
+		OfficeSpatialIndex index = OfficeSpatialIndex.of(model);
+		assertEquals(3, index.size());
+
+		// Cebu moved and went offline, Davao is new, Manila was deleted, Baguio lost its coordinates
+		List<Integer> changed = List.of(1, 2, 3, 4);
+		OfficeReadModel updated = model.withUpserts(changed, List.of(
+			office(2, "Cebu CPO", 10.3157, 123.8854, false),
+			office(3, "Davao CPO", 7.0731, 125.6128, true),
+			office(4, "Baguio CPO", null, null, true)));
+		index = index.withUpserts(updated, changed);
+
+		assertEquals(2, index.size());
+		var cebu = index.toNearby(index.nearest(10.3157, 123.8854, 1).get(0));
+		assertEquals(2, cebu.getId());
+		assertEquals(false, cebu.getStatus());
+		assertEquals(0.0, cebu.getDistanceKm(), 1e-9);
+		assertEquals(2, index.toNearby(index.nearest(14.5958, 120.9772, 1).get(0)).getId());
+	}
+
+	@Test
+	void boxQueryAndClustersCountEveryPointOnce() {
+		Random random = new Random(7);
+		List<PostalOfficeMapPointDTO> points = randomPoints(random, OFFICES);
+		OfficeSpatialIndex index = build(points);
+
+		double south = 9, west = 120, north = 15, east = 125;
+		long expected = points.stream()
+			.filter(p -> p.getLat() >= south && p.getLat() <= north && p.getLng() >= west && p.getLng() <= east)
+			.count();
+		int[] visited = {0};
+		index.forEachInBox(south, west, north, east, slot -> visited[0]++);
+		assertEquals(expected, visited[0]);
+
+		int clustered = index.clusters(south, west, north, east, 0.5, null).stream().mapToInt(MapClusterDTO::getCount).sum();
+		assertEquals(expected, clustered);
+	}
+
+	private static OfficeSpatialIndex build(List<PostalOfficeMapPointDTO> points) {
+		OfficeSpatialIndex.Builder builder = new OfficeSpatialIndex.Builder();
+		points.forEach(builder::add);
+		return builder.build();
+	}
+
+	private static OfficeReadRowDTO office(int id, String name, Double lat, Double lng, boolean status) {
+		return new OfficeReadRowDTO(id, name, null, null, lat, lng, status, null,
+				1, "Area 1", null, null, null, null, null, null, null, null);
+	}
+
+	private static List<PostalOfficeMapPointDTO> randomPoints(Random random, int count) {
+		List<PostalOfficeMapPointDTO> points = new ArrayList<>();
+		for (int i = 1; i <= count; i++) {
+			// Roughly the bounding box of the Philippines
+			double lat = 4.5 + random.nextDouble() * 17;
+			double lng = 116 + random.nextDouble() * 11;
+			points.add(new PostalOfficeMapPointDTO(i, "Office " + i, lat, lng, random.nextBoolean(), 1 + random.nextInt(5)));
+		}
+		return points;
+	}
+
+	private static List<Integer> bruteForce(List<PostalOfficeMapPointDTO> points, double lat, double lng, double radiusKm) {
+		return points.stream()
+			.filter(p -> OfficeSpatialIndex.distanceKm(lat, lng, p.getLat(), p.getLng()) <= radiusKm)
+			.sorted(Comparator.comparingDouble(p -> OfficeSpatialIndex.distanceKm(lat, lng, p.getLat(), p.getLng())))
+			.map(PostalOfficeMapPointDTO::getId)
+			.toList();
+	}
+}
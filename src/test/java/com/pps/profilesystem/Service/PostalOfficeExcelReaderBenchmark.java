@@ -0,0 +1,139 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficeImportDTO;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reading a 100k-row import workbook: the streaming SAX reader against the XSSFWorkbook (DOM)
+ * read the import used before, which loaded the whole sheet and collected every row into a list
+ * before validating any of them. Run with -prof gc for bytes allocated per read; a DOM read
+ * also needs the whole workbook live at once, the SAX read only the shared strings and one row.
+ * Not run by the test phase; after ./mvnw test-compile run main(), or pass this class name to
+ * org.openjdk.jmh.Main with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class PostalOfficeExcelReaderBenchmark {
+
+	private static final int ROWS = 100_000;
+	private static final String[] PLACES = {"Malolos", "Baliuag", "Hagonoy", "Pulilan", "San Jose", "Santa Cruz",
+			"Tarlac", "Dagupan", "Vigan", "Laoag", "Bontoc", "Tabuk"};
+
+	private final PostalOfficeExcelReader reader = new PostalOfficeExcelReader();
+	private Path file;
+
+	@Setup
+	public void setUp() throws IOException {
+		Random random = new Random(1);
+		file = Files.createTempFile("reader-benchmark-", ".xlsx");
+		try (SXSSFWorkbook workbook = new SXSSFWorkbook(100); OutputStream out = Files.newOutputStream(file)) {
+			Sheet sheet = workbook.createSheet();
+			Row header = sheet.createRow(0);
+			for (int c = 0; c < PostalOfficeExcelReader.COLUMN_COUNT; c++) {
+				header.createCell(c).setCellValue(PostalOfficeExcelReader.COLUMN_NAMES[c]);
+			}
+			for (int r = 1; r <= ROWS; r++) {
+				String place = PLACES[random.nextInt(PLACES.length)];
+				Row row = sheet.createRow(r);
+				row.createCell(0).setCellValue("AREA-" + (1 + random.nextInt(10)));
+				row.createCell(1).setCellValue(place + " Post Office " + r);
+				row.createCell(2).setCellValue(116 + random.nextDouble() * 11);
+				row.createCell(3).setCellValue(4.5 + random.nextDouble() * 17);
+				row.createCell(4).setCellValue(1000 + random.nextInt(8000));
+				row.createCell(5).setCellValue(random.nextInt(300) + " Rizal Street, " + place);
+				row.createCell(6).setCellValue(random.nextBoolean() ? "Connected" : "Not connected");
+			}
+			workbook.write(out);
+		}
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		Files.deleteIfExists(file);
+	}
+
+	@Benchmark
+	public int saxReader(Blackhole blackhole) throws IOException {
+		return reader.read(file, blackhole::consume);
+	}
+
+	// The former PostalOfficeImportService.readExcelFile
+	@Benchmark
+	public List<PostalOfficeImportDTO> domWorkbook() throws IOException {
+		List<PostalOfficeImportDTO> data = new ArrayList<>();
+		try (InputStream in = Files.newInputStream(file); Workbook workbook = new XSSFWorkbook(in)) {
+			Sheet sheet = workbook.getSheetAt(0);
+			for (int i = 1; i <= sheet.getLastRowNum(); i++) {
+				Row row = sheet.getRow(i);
+				if (row == null) {
+					continue;
+				}
+				PostalOfficeImportDTO dto = new PostalOfficeImportDTO();
+				dto.setArea(cellValue(row.getCell(0)));
+				dto.setPostOfficeName(cellValue(row.getCell(1)));
+				dto.setLongitude(numericValue(row.getCell(2)));
+				dto.setLatitude(numericValue(row.getCell(3)));
+				dto.setZipCode(cellValue(row.getCell(4)));
+				dto.setAddress(cellValue(row.getCell(5)));
+				dto.setConnectivityStatus(cellValue(row.getCell(6)));
+				data.add(dto);
+			}
+		}
+		return data;
+	}
+
+	private static String cellValue(Cell cell) {
+		if (cell == null) {
+			return null;
+		}
+		return switch (cell.getCellType()) {
+			case STRING -> cell.getStringCellValue().trim().isEmpty() ? null : cell.getStringCellValue();
+			case NUMERIC -> String.valueOf((int) cell.getNumericCellValue());
+			default -> null;
+		};
+	}
+
+	private static Double numericValue(Cell cell) {
+		return cell != null && cell.getCellType() == CellType.NUMERIC ? cell.getNumericCellValue() : null;
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(PostalOfficeExcelReaderBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,68 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficeImportDTO;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PostalOfficeExcelReaderTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Test
+	void readsRowsWithSameCellRulesAsWorkbookReader() throws Exception {
+		Path file = tempDir.resolve("offices.xlsx");
+		try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+			Sheet sheet = workbook.createSheet();
+			Row header = sheet.createRow(0);
+			header.createCell(0).setCellValue("AREA");
+
+			Row first = sheet.createRow(1);
+			first.createCell(0).setCellValue("AREA-1");
+			first.createCell(1).setCellValue("Manila Central Post Office");
+			first.createCell(2).setCellValue(120.9762);
+			first.createCell(3).setCellValue(14.5995);
+			first.createCell(4).setCellValue(1000);
+			first.createCell(5).setCellValue("   ");
+			first.createCell(6).setCellValue("Connected");
+
+			// Row 3 left empty on purpose, row 4 has a text coordinate
+			Row third = sheet.createRow(3);
+			third.createCell(1).setCellValue("Quezon City Post Office");
+			third.createCell(2).setCellValue("n/a");
+			workbook.write(out);
+		}
+
+		List<PostalOfficeImportDTO> rows = new ArrayList<>();
+		int read = new PostalOfficeExcelReader().read(file, rows::add);
+
+		assertEquals(2, read);
+		PostalOfficeImportDTO dto = rows.get(0);
+		assertEquals(2, dto.getRowNumber());
+		assertEquals("AREA-1", dto.getArea());
+		assertEquals("Manila Central Post Office", dto.getPostOfficeName());
+		assertEquals(120.9762, dto.getLongitude());
+		assertEquals(14.5995, dto.getLatitude());
+		assertEquals("1000", dto.getZipCode());
+		assertNull(dto.getAddress());
+		assertEquals("Connected", dto.getConnectivityStatus());
+
+		PostalOfficeImportDTO other = rows.get(1);
+		assertEquals(4, other.getRowNumber());
+		assertNull(other.getArea());
+		assertNull(other.getLongitude());
+	}
+}
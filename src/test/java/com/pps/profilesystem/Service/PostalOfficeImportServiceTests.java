@@ -0,0 +1,287 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficeTableQuery;
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.PostalOffice;
+import com.pps.profilesystem.Repository.AreaRepository;
+import com.pps.profilesystem.Repository.PostalOfficeBatchRepository;
+import com.pps.profilesystem.Repository.PostalOfficeRepository;
+import com.pps.profilesystem.Repository.PostalOfficeTableRepository;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Imports commit their own chunk transactions, so the test must not hold one open
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+		"import.batch-size=100",
+		"import.validation-threads=2"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@RecordApplicationEvents
+@Import({PostalOfficeImportService.class, PostalOfficeExcelReader.class, PostalOfficeBatchRepository.class,
+		ZipResolutionService.class, LocationNameResolver.class, LocationHierarchyService.class,
+		ConnectivityRollupService.class, PostalOfficeExportService.class, PostalOfficeTableRepository.class})
+class PostalOfficeImportServiceTests {
+
+	@TempDir
+	Path tempDir;
+
+	@Autowired
+	private PostalOfficeImportService importService;
+
+	@Autowired
+	private PostalOfficeExportService exportService;
+
+	@Autowired
+	private PostalOfficeRepository postalOfficeRepository;
+
+	@Autowired
+	private AreaRepository areaRepository;
+
+	@Autowired
+	private LocationNameResolver locationNameResolver;
+
+	@Autowired
+	private ApplicationEvents events;
+
+	@BeforeEach
+	void createArea() {
+		Area area = new Area();
+		area.setAreaName("Area 1");
+		areaRepository.save(area);
+		// Area ids change from test to test
+		locationNameResolver.refresh();
+	}
+
+	@AfterEach
+	void cleanUp() {
+		postalOfficeRepository.deleteAll();
+		areaRepository.deleteAll();
+	}
+
+	@Test
+	void upsertWritesOnlyNewAndChangedRows() throws Exception {
+		Path original = workbook("original.xlsx", new String[][] {
+				{"Malolos Post Office", "3000", "Connected"},
+				{"Baliuag Post Office", "3006", "Not connected"},
+				{"Hagonoy Post Office", "3002", "Connected"}});
+		ImportJob first = new ImportJob("1", "original.xlsx", ImportJob.Mode.INSERT);
+		importService.importPostalOffices(original, first);
+		assertEquals(3, first.getRowsInserted());
+		// Each committed chunk announces its generated ids, so read models apply it as a delta
+		assertEquals(idsOf(postalOfficeRepository.findAll()), publishedIds());
+		events.clear();
+
+		// Same file again: nothing to write
+		ImportJob unchanged = new ImportJob("2", "original.xlsx", ImportJob.Mode.UPSERT);
+		importService.importPostalOffices(original, unchanged);
+		assertEquals(0, unchanged.getRowsPersisted());
+		assertEquals(3, unchanged.getRowsUnchanged());
+		assertEquals(Set.of(), publishedIds());
+
+		// Baliuag connected, Pulilan added, Malolos repeated within the file
+		Path edited = workbook("edited.xlsx", new String[][] {
+				{"MALOLOS POST OFFICE", "3000", "Connected"},
+				{"Baliuag Post Office", "3006", "Connected"},
+				{"Hagonoy Post Office", "3002", "Connected"},
+				{"Pulilan Post Office", "3005", "Connected"},
+				{"Malolos Post Office", "3000", "Connected"}});
+		ImportJob upsert = new ImportJob("3", "edited.xlsx", ImportJob.Mode.UPSERT);
+		importService.importPostalOffices(edited, upsert);
+		assertEquals(1, upsert.getRowsInserted());
+		// The upper-case name counts as a change of the same office
+		assertEquals(2, upsert.getRowsUpdated());
+		assertEquals(1, upsert.getRowsUnchanged());
+		assertEquals(1, upsert.getWarningCount());
+		assertEquals(Map.of("DUPLICATE_ROW", 1L), upsert.getIssueCounts());
+		assertEquals(6, upsert.report().getSamples().get("DUPLICATE_ROW").get(0).getRowNumber());
+
+		List<PostalOffice> offices = postalOfficeRepository.findAll();
+		assertEquals(idsOf(offices.stream().filter(o -> !o.getName().equals("Hagonoy Post Office")).toList()), publishedIds());
+		Map<String, Boolean> statusByName = offices.stream()
+				.collect(Collectors.toMap(PostalOffice::getName, PostalOffice::getConnectionStatus));
+		assertEquals(Map.of(
+				"MALOLOS POST OFFICE", true,
+				"Baliuag Post Office", true,
+				"Hagonoy Post Office", true,
+				"Pulilan Post Office", true), statusByName);
+	}
+
+	@Test
+	void exportedWorkbookReimportsUnchanged() throws Exception {
+		Path original = workbook("original.xlsx", new String[][] {
+				{"Malolos Post Office", "3000", "Connected"},
+				{"Baliuag Post Office, Annex", "3006", "Not connected"},
+				{"Hagonoy Post Office", "3002", "Connected"}});
+		importService.importPostalOffices(original, new ImportJob("1", "original.xlsx", ImportJob.Mode.INSERT));
+
+		Path exported = tempDir.resolve("exported.xlsx");
+		try (OutputStream out = Files.newOutputStream(exported)) {
+			assertEquals(3, exportService.writeXlsx(new PostalOfficeTableQuery(), out));
+		}
+		ImportJob reimport = new ImportJob("2", "exported.xlsx", ImportJob.Mode.UPSERT);
+		importService.importPostalOffices(exported, reimport);
+		assertEquals(3, reimport.getRowsRead());
+		assertEquals(3, reimport.getRowsUnchanged());
+		assertEquals(0, reimport.getRowsPersisted());
+
+		PostalOfficeTableQuery notConnected = new PostalOfficeTableQuery();
+		notConnected.setStatus(false);
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		assertEquals(1, exportService.writeCsv(notConnected, csv));
+		String[] lines = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertEquals("\uFEFFAREA,POST OFFICE NAME,LONGITUDE,LATITUDE,ZIP CODE,ADDRESS,CONNECTIVITY STATUS", lines[0]);
+		assertEquals("Area 1,\"Baliuag Post Office, Annex\",120.8,14.8,3006,,Not Connected", lines[1]);
+	}
+
+	@Test
+	void csvExportDoesNotLetSpreadsheetsEvaluateValues() throws Exception {
+		Path original = workbook("formulas.xlsx", new String[][] {
+				{"=HYPERLINK(\"http://example.com\",\"Open\")", "3000", "Not connected"},
+				{"@SUM(1+1)", "3006", "Not connected"},
+				{"'Quoted' Post Office", "3002", "Not connected"}});
+		importService.importPostalOffices(original, new ImportJob("1", "formulas.xlsx", ImportJob.Mode.INSERT));
+
+		ByteArrayOutputStream csv = new ByteArrayOutputStream();
+		assertEquals(3, exportService.writeCsv(new PostalOfficeTableQuery(), csv));
+		String[] lines = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+		assertEquals("Area 1,\"'=HYPERLINK(\"\"http://example.com\"\",\"\"Open\"\")\",120.8,14.8,3000,,Not Connected", lines[1]);
+		assertEquals("Area 1,'@SUM(1+1),120.8,14.8,3006,,Not Connected", lines[2]);
+		assertEquals("Area 1,''Quoted' Post Office,120.8,14.8,3002,,Not Connected", lines[3]);
+	}
+
+	@Test
+	void failedChunkKeepsTheChunksCommittedBeforeIt() throws Exception {
+		// Chunks of 100 rows; a name too long for its column breaks the third one (sheet rows 202-251)
+		String[][] rows = offices(250);
+		rows[219][0] = "X".repeat(300);
+		Path file = workbook("too-long.xlsx", rows);
+		ImportJob job = new ImportJob("1", "too-long.xlsx", ImportJob.Mode.INSERT);
+
+		RuntimeException failure = assertThrows(RuntimeException.class, () -> importService.importPostalOffices(file, job));
+		assertTrue(failure.getMessage().startsWith("Failed to save rows 202-251 to database: "), failure.getMessage());
+		assertTrue(failure.getMessage().endsWith("200 records were saved before the failure."), failure.getMessage());
+		assertEquals(200, job.getRowsPersisted());
+		List<PostalOffice> offices = postalOfficeRepository.findAll();
+		assertEquals(200, offices.size());
+		assertEquals(idsOf(offices), publishedIds());
+	}
+
+	@Test
+	void validatedBatchesArePersistedInSheetOrder() throws Exception {
+		Path file = workbook("large.xlsx", offices(6_000));
+		AtomicLong backlog = new AtomicLong();
+		ImportJob job = new ImportJob("1", "large.xlsx", ImportJob.Mode.INSERT) {
+			@Override
+			void rowRead() {
+				super.rowRead();
+				backlog.accumulateAndGet(getRowsRead() - getRowsPersisted(), Math::max);
+			}
+
+			// Validation slower than parsing, as with a real hierarchy and fuzzy matching
+			@Override
+			void rowValidated() {
+				super.rowValidated();
+				LockSupport.parkNanos(1_000_000);
+			}
+		};
+		importService.importPostalOffices(file, job);
+		assertEquals(6_000, job.getRowsPersisted());
+
+		// Ids follow the sheet although batches finish validating in any order
+		List<String> names = postalOfficeRepository.findAll().stream()
+				.sorted(Comparator.comparing(PostalOffice::getId))
+				.map(PostalOffice::getName)
+				.toList();
+		assertEquals(Arrays.stream(offices(6_000)).map(row -> row[0]).toList(), names);
+
+		// The reader waits while 2 batches of 500 per worker are in flight, plus one being filled and one chunk
+		assertTrue(backlog.get() <= 2 * 2 * 500 + 500 + 100, backlog.get() + " rows read ahead of the database");
+	}
+
+	@Test
+	void fingerprintsIgnoreCaseButNotContent() {
+		PostalOffice office = new PostalOffice();
+		office.setName("Sto. Niño Post Office");
+		office.setZipCode("0400");
+		office.setConnectionStatus(true);
+		PostalOffice same = new PostalOffice();
+		same.setName("sto nino post office");
+		same.setZipCode("400");
+		same.setConnectionStatus(true);
+
+		assertEquals(OfficeFingerprints.naturalKey(office), OfficeFingerprints.naturalKey(same));
+		assertEquals(OfficeFingerprints.contentHash(office), OfficeFingerprints.contentHash(office));
+		List<Long> hashes = List.of(OfficeFingerprints.contentHash(office), OfficeFingerprints.contentHash(same));
+		assertEquals(2, hashes.stream().distinct().count());
+	}
+
+	private Set<Integer> publishedIds() {
+		return events.stream(PostalOfficesChangedEvent.class)
+				.flatMap(event -> event.getOfficeIds().stream())
+				.collect(Collectors.toSet());
+	}
+
+	private static Set<Integer> idsOf(List<PostalOffice> offices) {
+		return offices.stream().map(PostalOffice::getId).collect(Collectors.toSet());
+	}
+
+	private static String[][] offices(int count) {
+		String[][] rows = new String[count][];
+		for (int i = 0; i < count; i++) {
+			rows[i] = new String[] {"Post Office " + (i + 1), "3000", "Connected"};
+		}
+		return rows;
+	}
+
+	private Path workbook(String fileName, String[][] rows) throws Exception {
+		Path file = tempDir.resolve(fileName);
+		try (XSSFWorkbook workbook = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(file)) {
+			Sheet sheet = workbook.createSheet();
+			sheet.createRow(0).createCell(0).setCellValue("AREA");
+			for (int i = 0; i < rows.length; i++) {
+				Row row = sheet.createRow(i + 1);
+				row.createCell(0).setCellValue("AREA-1");
+				row.createCell(1).setCellValue(rows[i][0]);
+				row.createCell(2).setCellValue(120.8);
+				row.createCell(3).setCellValue(14.8);
+				row.createCell(4).setCellValue(rows[i][1]);
+				row.createCell(6).setCellValue(rows[i][2]);
+			}
+			workbook.write(out);
+		}
+		return file;
+	}
+}
@@ -0,0 +1,126 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.PostalOfficePageDTO;
+import com.pps.profilesystem.DTO.PostalOfficeTableQuery;
+import com.pps.profilesystem.DTO.PostalOfficeTableRowDTO;
+import com.pps.profilesystem.Entity.Area;
+import com.pps.profilesystem.Entity.PostalOffice;
+import com.pps.profilesystem.Repository.PostalOfficeTableRepository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jpa.test.autoconfigure.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DataJpaTest(properties = {
+		"spring.jpa.hibernate.ddl-auto=create-drop",
+		"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect"
+})
+@Import({PostalOfficeTableService.class, OfficeReadModelService.class, PostalOfficeTableRepository.class})
+class PostalOfficeTableServiceTests {
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private PostalOfficeTableService tableService;
+
+	@Autowired
+	private OfficeReadModelService readModelService;
+
+	private final List<PostalOffice> offices = new ArrayList<>();
+	private Area northArea;
+
+	@BeforeEach
+	void createOffices() {
+		northArea = new Area();
+		northArea.setAreaName("North");
+		entityManager.persist(northArea);
+		Area southArea = new Area();
+		southArea.setAreaName("South");
+		entityManager.persist(southArea);
+
+		// Repeated and missing names make the (name, id) keyset do real work
+		String[] names = {"Baguio", "Angeles", "Cebu", null, "Baguio", "Davao", "Angeles", "Bacolod", null, "Cebu"};
+		for (int i = 0; i < 37; i++) {
+			PostalOffice office = new PostalOffice();
+			office.setName(names[i % names.length]);
+			office.setArea(i % 3 == 0 ? southArea : northArea);
+			office.setConnectionStatus(i % 2 == 0);
+			entityManager.persist(office);
+			offices.add(office);
+		}
+		entityManager.flush();
+		// Each test inserts fresh offices; the snapshot must not carry over from the previous one
+		readModelService.rebuild();
+	}
+
+	@Test
+	void pagesCoverEveryRowOnceInSortOrder() {
+		Comparator<PostalOffice> byName = Comparator.comparing(PostalOffice::getName, Comparator.nullsFirst(Comparator.naturalOrder()));
+		Comparator<PostalOffice> byId = Comparator.comparing(PostalOffice::getId);
+
+		assertPages(false, false, office -> true, byId, query -> { });
+		assertPages(false, true, office -> true, byId.reversed(), query -> { });
+		assertPages(true, false, office -> true, byName.thenComparing(byId), query -> { });
+		assertPages(true, true, office -> true, byName.thenComparing(byId).reversed(), query -> { });
+		assertPages(true, false,
+				office -> office.getArea() == northArea && office.getConnectionStatus(),
+				byName.thenComparing(byId),
+				query -> {
+					query.setAreaId(northArea.getId());
+					query.setStatus(true);
+				});
+		assertPages(false, false,
+				office -> office.getName() != null && office.getName().startsWith("Ba"),
+				byId,
+				query -> query.setNamePrefix("Ba"));
+	}
+
+	@Test
+	void rejectsMalformedCursor() {
+		PostalOfficeTableQuery query = new PostalOfficeTableQuery();
+		query.setLimit(5);
+		assertThrows(IllegalArgumentException.class, () -> tableService.getPage(query, "not-a-cursor"));
+	}
+
+	private void assertPages(boolean sortByName, boolean descending, Predicate<PostalOffice> matches,
+							 Comparator<PostalOffice> order, Consumer<PostalOfficeTableQuery> filters) {
+		List<Integer> expected = offices.stream().filter(matches).sorted(order).map(PostalOffice::getId).toList();
+
+		List<Integer> actual = new ArrayList<>();
+		String cursor = null;
+		Long total = null;
+		do {
+			PostalOfficeTableQuery query = new PostalOfficeTableQuery();
+			query.setSortByName(sortByName);
+			query.setDescending(descending);
+			query.setLimit(4);
+			filters.accept(query);
+
+			PostalOfficePageDTO page = tableService.getPage(query, cursor);
+			if (cursor == null) {
+				total = page.getTotal();
+			} else {
+				assertNull(page.getTotal());
+			}
+			page.getRows().stream().map(PostalOfficeTableRowDTO::getId).forEach(actual::add);
+			cursor = page.getNextCursor();
+		} while (cursor != null);
+
+		assertEquals(expected, actual);
+		assertEquals(expected.size(), total);
+	}
+}
@@ -0,0 +1,80 @@
+package com.pps.profilesystem.Service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SnapshotHolderTests {
+
+	@Test
+	void changesArrivingDuringAnUpdateAreMergedIntoTheNextOne() throws Exception {
+		CountDownLatch firstUpdateStarted = new CountDownLatch(1);
+		CountDownLatch releaseFirstUpdate = new CountDownLatch(1);
+		List<List<Integer>> updates = new ArrayList<>();
+		CountDownLatch twoUpdates = new CountDownLatch(2);
+		SnapshotHolder<List<Integer>> holder = new SnapshotHolder<>("Test snapshot", List::of, (current, ids) -> {
+			firstUpdateStarted.countDown();
+			await(releaseFirstUpdate);
+			updates.add(ids);
+			twoUpdates.countDown();
+			return ids;
+		});
+		holder.get();
+
+		holder.changed(List.of(1));
+		assertTrue(firstUpdateStarted.await(5, TimeUnit.SECONDS));
+		// The first update is running: these three events become one update
+		holder.changed(List.of(2, 3));
+		holder.changed(List.of(3, 4));
+		holder.changed(List.of(5));
+		releaseFirstUpdate.countDown();
+
+		assertTrue(twoUpdates.await(5, TimeUnit.SECONDS));
+		assertEquals(List.of(List.of(1), List.of(2, 3, 4, 5)), updates);
+		holder.shutdown();
+	}
+
+	@Test
+	void bulkChangeReplacesPendingIdsWithOneReload() throws Exception {
+		AtomicInteger loads = new AtomicInteger();
+		AtomicInteger updates = new AtomicInteger();
+		CountDownLatch reloaded = new CountDownLatch(1);
+		CountDownLatch blockUpdates = new CountDownLatch(1);
+		SnapshotHolder<Integer> holder = new SnapshotHolder<>("Test snapshot", loads::incrementAndGet, (current, ids) -> {
+			await(blockUpdates);
+			updates.incrementAndGet();
+			return current;
+		}, ids -> {
+			if (ids.isEmpty()) {
+				reloaded.countDown();
+			}
+		});
+		assertEquals(1, holder.get());
+
+		holder.changed(List.of(1));
+		holder.changedAll();
+		holder.changed(List.of(2));
+		holder.changedAll();
+		blockUpdates.countDown();
+
+		assertTrue(reloaded.await(5, TimeUnit.SECONDS));
+		assertEquals(2, loads.get());
+		assertTrue(updates.get() <= 1, updates.get() + " updates");
+		holder.shutdown();
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
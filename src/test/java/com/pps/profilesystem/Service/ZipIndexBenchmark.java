@@ -0,0 +1,151 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+import com.pps.profilesystem.Entity.ZipCode;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ZIP resolution for one import: the shared ZipIndex against what each import used to do, i.e.
+ * load the zipcode rows into a fresh zip -> barangay name HashMap plus a barangay name map and
+ * look every row up in both. Reference data is a nationwide-sized synthetic hierarchy (42k
+ * barangays, one ZIP per city, barangay names repeating across cities); the database read both
+ * approaches share is left out. zipIndexBuild is the one-off cost paid at startup and on refresh.
+ * Not run by the test phase; after ./mvnw test-compile run main(), or pass this class name to
+ * org.openjdk.jmh.Main with the test classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ZipIndexBenchmark {
+
+	private static final int REGIONS = 17;
+	private static final int PROVINCES_PER_REGION = 5;
+	private static final int CITIES_PER_PROVINCE = 20;
+	private static final int BARANGAYS_PER_CITY = 25;
+
+	@Param({"1000", "50000"})
+	private int importRows;
+
+	private LocationHierarchy hierarchy;
+	private List<ZipCode> zipRows;
+	private ZipIndex zipIndex;
+	private String[] importZips;
+
+	@Setup
+	public void setUp() {
+		List<Regions> regions = new ArrayList<>();
+		List<Province> provinces = new ArrayList<>();
+		List<CityMunicipality> cities = new ArrayList<>();
+		List<Barangay> barangays = new ArrayList<>();
+		zipRows = new ArrayList<>();
+		for (int r = 1; r <= REGIONS; r++) {
+			Regions region = new Regions();
+			region.setId(r);
+			region.setName("Region " + r);
+			regions.add(region);
+			for (int p = 0; p < PROVINCES_PER_REGION; p++) {
+				Province province = new Province();
+				province.setId(provinces.size() + 1);
+				province.setName("Province " + province.getId());
+				province.setRegion(region);
+				provinces.add(province);
+				for (int c = 0; c < CITIES_PER_PROVINCE; c++) {
+					CityMunicipality city = new CityMunicipality();
+					city.setId(cities.size() + 1);
+					city.setName("City " + city.getId());
+					city.setProvince(province);
+					cities.add(city);
+					String zip = String.valueOf(1000 + city.getId());
+					for (int b = 1; b <= BARANGAYS_PER_CITY; b++) {
+						Barangay barangay = new Barangay();
+						barangay.setId(barangays.size() + 1);
+						barangay.setName("Barangay " + b);
+						barangay.setCityMunicipality(city);
+						barangays.add(barangay);
+
+						ZipCode row = new ZipCode();
+						row.setZipcode(zip);
+						row.setProvince(province.getName());
+						row.setCity(city.getName());
+						row.setBarangay(barangay.getName());
+						zipRows.add(row);
+					}
+				}
+			}
+		}
+		hierarchy = new LocationHierarchy(regions, provinces, cities, barangays);
+		zipIndex = new ZipIndex(zipRows, hierarchy);
+
+		Random random = new Random(13);
+		importZips = new String[importRows];
+		for (int i = 0; i < importRows; i++) {
+			importZips[i] = String.valueOf(1001 + random.nextInt(cities.size()));
+		}
+	}
+
+	@Benchmark
+	public void hashMapBuiltPerImport(Blackhole blackhole) {
+		Map<String, Barangay> barangayMap = new HashMap<>();
+		for (Barangay barangay : hierarchy.getBarangays()) {
+			barangayMap.put(barangay.getName(), barangay);
+		}
+		Map<String, String> zipToBarangayMap = new HashMap<>();
+		for (ZipCode zip : zipRows) {
+			zipToBarangayMap.put(zip.getZipcode(), zip.getBarangay());
+		}
+		for (String zip : importZips) {
+			String barangayName = zipToBarangayMap.get(zip);
+			Barangay barangay = barangayName != null ? barangayMap.get(barangayName) : null;
+			if (barangay != null) {
+				CityMunicipality city = barangay.getCityMunicipality();
+				blackhole.consume(city);
+				blackhole.consume(city.getProvince());
+				blackhole.consume(city.getProvince().getRegion());
+			}
+		}
+	}
+
+	@Benchmark
+	public void sharedZipIndex(Blackhole blackhole) {
+		for (String zip : importZips) {
+			blackhole.consume(zipIndex.resolve(zip));
+		}
+	}
+
+	@Benchmark
+	public ZipIndex zipIndexBuild() {
+		return new ZipIndex(zipRows, hierarchy);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		new Runner(new OptionsBuilder().include(ZipIndexBenchmark.class.getSimpleName()).build()).run();
+	}
+}
@@ -0,0 +1,181 @@
+package com.pps.profilesystem.Service;
+
+import com.pps.profilesystem.DTO.ZipCandidateDTO;
+import com.pps.profilesystem.DTO.ZipCodeLookupDTO;
+import com.pps.profilesystem.DTO.ZipLookupResultDTO;
+import com.pps.profilesystem.Entity.Barangay;
+import com.pps.profilesystem.Entity.CityMunicipality;
+import com.pps.profilesystem.Entity.Province;
+import com.pps.profilesystem.Entity.Regions;
+import com.pps.profilesystem.Entity.ZipCode;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ZipIndexTests {
+
+	private final Regions ncr = region(1, "NCR");
+	private final Province metroManila = province(1, "Metro Manila", ncr);
+	private final CityMunicipality manila = city(1, "Manila", metroManila);
+	private final CityMunicipality quezonCity = city(2, "Quezon City", metroManila);
+	private final Barangay ermita = barangay(1, "Ermita", manila);
+	private final Barangay malate = barangay(2, "Malate", manila);
+	private final Barangay sanAntonioManila = barangay(3, "San Antonio", manila);
+	private final Barangay sanAntonioQc = barangay(4, "San Antonio", quezonCity);
+
+	private final LocationHierarchy hierarchy = new LocationHierarchy(
+			List.of(ncr), List.of(metroManila), List.of(manila, quezonCity),
+			List.of(ermita, malate, sanAntonioManila, sanAntonioQc));
+
+	@Test
+	void keepsEveryBarangaySharingAZip() {
+		ZipIndex index = new ZipIndex(List.of(
+				zip("1000", "Metro Manila", "Manila", "Ermita"),
+				zip("1000", "Metro Manila", "Manila", "Malate"),
+				zip("1100", "Metro Manila", "Quezon City", "  san  antonio ")), hierarchy);
+
+		List<ZipCandidateDTO> candidates = index.getCandidates("1000");
+		assertEquals(2, candidates.size());
+		assertEquals(List.of(1, 2), candidates.stream().map(ZipCandidateDTO::getBarangayId).sorted().toList());
+
+		// Same city, different barangays: only the shared levels resolve
+		ZipIndex.ZipLocation shared = index.resolve("1000");
+		assertTrue(shared.isAmbiguous());
+		assertSame(manila, shared.getCity());
+		assertSame(ncr, shared.getRegion());
+
+		// Duplicate barangay name told apart by its city, despite spacing and case
+		ZipIndex.ZipLocation unique = index.resolve("1100");
+		assertSame(sanAntonioQc, unique.getBarangay());
+	}
+
+	@Test
+	void rejectsMalformedZipsAndIgnoresLeadingZeros() {
+		ZipIndex index = new ZipIndex(List.of(
+				zip("0400", "Metro Manila", "Manila", "Ermita"),
+				zip("ABCD", "Metro Manila", "Manila", "Malate"),
+				zip(null, "Metro Manila", "Manila", "Malate")), hierarchy);
+
+		assertEquals(1, index.getEntryCount());
+		assertSame(ermita, index.resolve("400").getBarangay());
+		assertEquals("0400", index.getCandidates(" 0400 ").get(0).getZipCode());
+		assertTrue(index.getCandidates("12345").isEmpty());
+		assertTrue(index.getCandidates("-1").isEmpty());
+		assertNull(index.resolve("9999"));
+	}
+
+	@Test
+	void leavesAmbiguousNamesUnmatched() {
+		// "San Antonio" exists in two cities and the row's city is unknown
+		ZipIndex index = new ZipIndex(List.of(zip("1234", "Metro Manila", "Unknown City", "San Antonio")), hierarchy);
+
+		assertNull(index.getCandidates("1234").get(0).getBarangayId());
+		assertNull(index.resolve("1234"));
+	}
+
+	@Test
+	void settlesRepeatedNamesByPsgcAndZip() {
+		Barangay poblacionManila = barangay(5, "Poblacion", manila);
+		Barangay poblacionQc = barangay(6, "Poblacion", quezonCity);
+		LocationHierarchy withPoblacion = new LocationHierarchy(
+				List.of(ncr), List.of(metroManila), List.of(manila, quezonCity),
+				List.of(ermita, sanAntonioManila, sanAntonioQc, poblacionManila, poblacionQc));
+
+		ZipIndex index = new ZipIndex(List.of(
+				// City spelt differently from the hierarchy: "Poblacion" alone fits two cities,
+				// but ZIP 1000 is otherwise Manila
+				zip("1000", "Metro Manila", "Manila", "Ermita"),
+				zip("1000", "Metro Manila", "City of Manila", "Poblacion"),
+				// Unmatchable names, same PSGC as a matched entry
+				zip("1100", "Metro Manila", "Quezon City", "San Antonio", "137404001"),
+				zip("1101", "Metro Manila", "QC", "Sn. Antonio", "137404001"),
+				zip("1200", "Metro Manila", "Nowhere", "Poblacion")), withPoblacion);
+
+		assertEquals(List.of(ermita, poblacionManila), index.getBarangays("1000"));
+		assertSame(sanAntonioQc, index.resolve("1101").getBarangay());
+		assertNull(index.resolve("1200"));
+		assertEquals(1, index.getUnmatchedCount());
+	}
+
+	@Test
+	void reverseLookupIgnoresCaseAccentsAndPunctuation() {
+		ZipIndex index = new ZipIndex(List.of(
+				zip("1000", "Metro Manila", "Manila", "Ermita"),
+				zip("1004", "Metro Manila", "Manila", "Malate"),
+				zip("1013", "Metro Manila", "Manila", "Sto. Niño")), hierarchy);
+
+		ZipLookupResultDTO exact = index.lookup(address("METRO MANILA", "manila", "sto nino"));
+		assertEquals("1013", exact.getZipCode());
+		assertEquals("barangay", exact.getMatchLevel());
+
+		// Province misspelt: still found through city + barangay
+		assertEquals("1004", index.lookup(address("Metro Manilla", "Manila", "Malate")).getZipCode());
+
+		// Unknown barangay falls back to every ZIP of the city
+		ZipLookupResultDTO cityOnly = index.lookup(address("Metro Manila", "Manila", "Nowhere"));
+		assertEquals("city", cityOnly.getMatchLevel());
+		assertNull(cityOnly.getZipCode());
+		assertEquals(List.of("1000", "1004", "1013"), cityOnly.getZipCodes());
+
+		assertEquals("none", index.lookup(address(null, null, "Ermita")).getMatchLevel());
+	}
+
+	private static ZipCodeLookupDTO address(String province, String city, String barangay) {
+		ZipCodeLookupDTO address = new ZipCodeLookupDTO();
+		address.setProvince(province);
+		address.setCity(city);
+		address.setBarangay(barangay);
+		return address;
+	}
+
+	private static ZipCode zip(String code, String province, String city, String barangay) {
+		return zip(code, province, city, barangay, null);
+	}
+
+	private static ZipCode zip(String code, String province, String city, String barangay, String psgc) {
+		ZipCode zip = new ZipCode();
+		zip.setPsgc(psgc);
+		zip.setZipcode(code);
+		zip.setProvince(province);
+		zip.setCity(city);
+		zip.setBarangay(barangay);
+		return zip;
+	}
+
+	private static Regions region(int id, String name) {
+		Regions region = new Regions();
+		region.setId(id);
+		region.setName(name);
+		return region;
+	}
+
+	private static Province province(int id, String name, Regions region) {
+		Province province = new Province();
+		province.setId(id);
+		province.setName(name);
+		province.setRegion(region);
+		return province;
+	}
+
+	private static CityMunicipality city(int id, String name, Province province) {
+		CityMunicipality city = new CityMunicipality();
+		city.setId(id);
+		city.setName(name);
+		city.setProvince(province);
+		return city;
+	}
+
+	private static Barangay barangay(int id, String name, CityMunicipality city) {
+		Barangay barangay = new Barangay();
+		barangay.setId(id);
+		barangay.setName(name);
+		barangay.setCityMunicipality(city);
+		return barangay;
+	}
+}